@@ -3,6 +3,7 @@ package com.trexolab;
 import com.trexolab.config.ConfigManager;
 import com.trexolab.gui.DialogUtils;
 import com.trexolab.gui.pdfHandler.PdfViewerMain;
+import com.trexolab.service.SystemFontIndex;
 import com.trexolab.utils.FileUtils;
 import com.formdev.flatlaf.themes.FlatMacDarkLaf;
 import org.apache.commons.logging.Log;
@@ -47,6 +48,8 @@ public class App {
     public static void main(String[] args) {
         AppInitializer.initialize();
         configureProxyFromConfig();
+        // Index system fonts in the background, so the first render never waits for the scan
+        SystemFontIndex.start();
 
         SwingUtilities.invokeLater(() -> {
             if (!isJava8()) {
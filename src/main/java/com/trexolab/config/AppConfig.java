@@ -25,6 +25,12 @@ public class AppConfig {
     @JsonProperty("PROXY")
     public Map<String, String> proxy = new HashMap<>();
 
+    @JsonProperty("RENDER_PREFETCH_PAGES")
+    public int renderPrefetchPages = 2;
+
+    @JsonProperty("RENDER_DISK_CACHE_MB")
+    public int renderDiskCacheMb = 256;
+
 
     public Map<String, String> getTimestampServer() {
         return timestampServer;
@@ -58,6 +64,22 @@ public class AppConfig {
         this.activeStore = activeStore;
     }
 
+    public int getRenderPrefetchPages() {
+        return renderPrefetchPages;
+    }
+
+    public void setRenderPrefetchPages(int renderPrefetchPages) {
+        this.renderPrefetchPages = renderPrefetchPages;
+    }
+
+    public int getRenderDiskCacheMb() {
+        return renderDiskCacheMb;
+    }
+
+    public void setRenderDiskCacheMb(int renderDiskCacheMb) {
+        this.renderDiskCacheMb = renderDiskCacheMb;
+    }
+
     public List<String> getPkcs11() {
         return pkcs11;
     }
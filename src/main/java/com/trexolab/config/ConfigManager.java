@@ -188,4 +188,22 @@ public final class ConfigManager {
         return writeConfig(config);
     }
 
+    // ──────────────────────────────
+// Page Rendering
+// ──────────────────────────────
+
+    /**
+     * Number of pages rendered ahead of and behind the visible pages.
+     */
+    public static int getRenderPrefetchPages() {
+        return Math.max(0, readConfig().renderPrefetchPages);
+    }
+
+    /**
+     * Size limit of the on-disk cache of rendered pages, in megabytes (0 disables it).
+     */
+    public static int getRenderDiskCacheMb() {
+        return Math.max(0, readConfig().renderDiskCacheMb);
+    }
+
 }
@@ -73,4 +73,25 @@ public class KeyboardShortcutManager {
                     escape);
         }
     }
+
+    /**
+     * Sets up zoom shortcuts: Ctrl+= / Ctrl++ (zoom in), Ctrl+- (zoom out), Ctrl+0 (100%).
+     */
+    public static void setupZoomShortcuts(KeyboardShortcutManager manager,
+                                          Runnable zoomIn,
+                                          Runnable zoomOut,
+                                          Runnable resetZoom) {
+        manager.registerShortcut("zoomIn",
+                KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, KeyEvent.CTRL_DOWN_MASK), zoomIn);
+        manager.registerShortcut("zoomInShift",
+                KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, KeyEvent.CTRL_DOWN_MASK | KeyEvent.SHIFT_DOWN_MASK), zoomIn);
+        manager.registerShortcut("zoomInNumpad",
+                KeyStroke.getKeyStroke(KeyEvent.VK_ADD, KeyEvent.CTRL_DOWN_MASK), zoomIn);
+        manager.registerShortcut("zoomOut",
+                KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, KeyEvent.CTRL_DOWN_MASK), zoomOut);
+        manager.registerShortcut("zoomOutNumpad",
+                KeyStroke.getKeyStroke(KeyEvent.VK_SUBTRACT, KeyEvent.CTRL_DOWN_MASK), zoomOut);
+        manager.registerShortcut("resetZoom",
+                KeyStroke.getKeyStroke(KeyEvent.VK_0, KeyEvent.CTRL_DOWN_MASK), resetZoom);
+    }
 }
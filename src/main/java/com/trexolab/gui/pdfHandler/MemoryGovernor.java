@@ -0,0 +1,204 @@
+package com.trexolab.gui.pdfHandler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.swing.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Watches heap occupancy after garbage collection and tells the renderer when to back off.
+ * <p>
+ * A collection usage threshold on the heap pools (JVM notification when the heap is still above
+ * {@link #HIGH_FRACTION} after a GC) raises the alarm; every GC end re-evaluates the level, which
+ * is how pressure is seen to clear. Levels step down only once occupancy is clearly below the
+ * threshold, so they do not flap. An {@link OutOfMemoryError} caught by a render worker jumps
+ * straight to {@link Level#CRITICAL}.
+ * <p>
+ * Listeners are called on the EDT; background threads can {@link #awaitNormal wait} for relief.
+ */
+final class MemoryGovernor {
+
+    private static final Log log = LogFactory.getLog(MemoryGovernor.class);
+
+    // Heap used after GC, as a fraction of the maximum heap
+    private static final double HIGH_FRACTION = 0.70;
+    private static final double CRITICAL_FRACTION = 0.85;
+    private static final double HYSTERESIS = 0.10;
+
+    // JMX type of com.sun.management.GarbageCollectionNotificationInfo (HotSpot and OpenJ9)
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    enum Level {
+        NORMAL, HIGH, CRITICAL
+    }
+
+    /**
+     * Receives level changes. Called on the EDT.
+     */
+    interface Listener {
+        void onPressureChanged(Level level);
+    }
+
+    private static MemoryGovernor instance;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Level level = Level.NORMAL;
+
+    // Metrics, logged by logStats
+    private long episodes;
+    private long pressureStartMillis;
+    private long pressureMillis;
+    private double peakFraction;
+    private long outOfMemoryErrors;
+
+    private MemoryGovernor() {
+    }
+
+    /**
+     * The shared governor; installs the JMX listeners on first use.
+     */
+    static synchronized MemoryGovernor getInstance() {
+        if (instance == null) {
+            instance = new MemoryGovernor();
+            instance.install();
+        }
+        return instance;
+    }
+
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Called by a thread that caught an OutOfMemoryError; forces {@link Level#CRITICAL}
+     * until a later GC shows the heap has recovered.
+     */
+    void onOutOfMemory(String where) {
+        synchronized (this) {
+            outOfMemoryErrors++;
+        }
+        log.warn("Out of memory " + where + "; releasing caches");
+        setLevel(Level.CRITICAL, "out of memory " + where);
+    }
+
+    /**
+     * Blocks a background thread while the heap is under pressure, for at most the given time.
+     *
+     * @return true if pressure has cleared
+     */
+    synchronized boolean awaitNormal(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (level != Level.NORMAL) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) return false;
+            wait(remaining);
+        }
+        return true;
+    }
+
+    synchronized void logStats() {
+        long underPressure = pressureMillis
+                + (level != Level.NORMAL ? System.currentTimeMillis() - pressureStartMillis : 0);
+        log.info(String.format("Memory governor: %d pressure episode(s), %.1f s under pressure, "
+                        + "peak heap %.0f%% after GC, %d out-of-memory error(s); now %s",
+                episodes, underPressure / 1000.0, peakFraction * 100, outOfMemoryErrors, level));
+    }
+
+    /* --------------------------
+       JMX
+     --------------------------- */
+
+    private void install() {
+        NotificationListener listener = this::handleNotification;
+        int pools = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * HIGH_FRACTION));
+                pools++;
+            }
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener,
+                    n -> MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(n.getType()), null);
+        } catch (ClassCastException e) {
+            log.debug("Memory threshold notifications not available");
+        }
+        int collectors = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(listener,
+                        n -> GC_NOTIFICATION.equals(n.getType()), gc.getName());
+                collectors++;
+            }
+        }
+        log.debug("Memory governor watching " + pools + " heap pool(s) and " + collectors + " collector(s)");
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        evaluate(handback != null ? "after GC (" + handback + ")" : "collection usage threshold exceeded");
+    }
+
+    /**
+     * Re-computes the level from the heap in use right after a collection.
+     */
+    private void evaluate(String cause) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long max = heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+        double used = (double) heap.getUsed() / max;
+
+        Level current = level;
+        Level target = used >= CRITICAL_FRACTION ? Level.CRITICAL : used >= HIGH_FRACTION ? Level.HIGH : Level.NORMAL;
+        if (target.compareTo(current) < 0) {
+            double bar = (current == Level.CRITICAL ? CRITICAL_FRACTION : HIGH_FRACTION) - HYSTERESIS;
+            if (used >= bar) {
+                target = current;
+            }
+        }
+        synchronized (this) {
+            peakFraction = Math.max(peakFraction, used);
+        }
+        if (target != current) {
+            setLevel(target, String.format("heap %d of %d MB %s", heap.getUsed() >> 20, max >> 20, cause));
+        }
+    }
+
+    private void setLevel(Level target, String reason) {
+        synchronized (this) {
+            Level previous = level;
+            if (target == previous) return;
+            long now = System.currentTimeMillis();
+            if (previous == Level.NORMAL) {
+                episodes++;
+                pressureStartMillis = now;
+            } else if (target == Level.NORMAL) {
+                pressureMillis += now - pressureStartMillis;
+            }
+            level = target;
+            notifyAll();
+        }
+        if (target == Level.NORMAL) {
+            log.info("Memory pressure cleared (" + reason + ")");
+        } else {
+            log.warn("Memory pressure " + target + " (" + reason + ")");
+        }
+        SwingUtilities.invokeLater(() -> {
+            // Skip stale transitions: only the latest level is delivered
+            if (level != target) return;
+            for (Listener listener : listeners) {
+                listener.onPressureChanged(target);
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.trexolab.gui.pdfHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-page uniform grid of rectangles in PDF coordinates, for hit testing and for finding the
+ * items inside a repaint clip without scanning every item of the page.
+ * <p>
+ * Items are stored in points, so the index does not change with the zoom. Each item is
+ * registered in every {@link #CELL_SIZE} cell it overlaps; a query only looks at the cells it
+ * covers. Later items are on top of earlier ones. Accessed on the EDT only.
+ */
+final class OverlayIndex<T> {
+
+    // One inch: a signature field usually spans a handful of cells
+    static final float CELL_SIZE = 72f;
+
+    private static final class Entry<T> {
+        final float llx, lly, urx, ury;
+        final T item;
+        final int order;
+
+        Entry(float llx, float lly, float urx, float ury, T item, int order) {
+            this.llx = llx;
+            this.lly = lly;
+            this.urx = urx;
+            this.ury = ury;
+            this.item = item;
+            this.order = order;
+        }
+
+        boolean contains(float x, float y) {
+            return x >= llx && x <= urx && y >= lly && y <= ury;
+        }
+
+        boolean intersects(float llx, float lly, float urx, float ury) {
+            return this.llx <= urx && this.urx >= llx && this.lly <= ury && this.ury >= lly;
+        }
+    }
+
+    private static final class PageGrid<T> {
+        final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+        final List<Entry<T>> entries = new ArrayList<>();
+    }
+
+    private final Map<Integer, PageGrid<T>> pages = new HashMap<>();
+    private int size;
+
+    /**
+     * Adds an item covering the given rectangle (PDF points, origin bottom-left) of a page. The
+     * rectangle comes from the file, so it is clamped to the page box: a huge /Rect would
+     * otherwise register millions of cells.
+     *
+     * @param pageWidth  page width in points
+     * @param pageHeight page height in points
+     * @return false if the item was not added: a coordinate is not finite or the rectangle lies
+     * entirely outside the page
+     */
+    boolean add(int pageIndex, float pageWidth, float pageHeight, float llx, float lly, float urx, float ury, T item) {
+        if (!isFinite(llx) || !isFinite(lly) || !isFinite(urx) || !isFinite(ury)
+                || !isFinite(pageWidth) || !isFinite(pageHeight)) {
+            return false;
+        }
+        float left = Math.min(llx, urx);
+        float bottom = Math.min(lly, ury);
+        float right = Math.max(llx, urx);
+        float top = Math.max(lly, ury);
+        if (right < 0 || top < 0 || left > pageWidth || bottom > pageHeight) {
+            return false;
+        }
+        PageGrid<T> grid = pages.computeIfAbsent(pageIndex, k -> new PageGrid<>());
+        Entry<T> entry = new Entry<>(Math.max(left, 0), Math.max(bottom, 0), Math.min(right, pageWidth),
+                Math.min(top, pageHeight), item, size++);
+        grid.entries.add(entry);
+        for (int row = cell(entry.lly); row <= cell(entry.ury); row++) {
+            for (int col = cell(entry.llx); col <= cell(entry.urx); col++) {
+                grid.cells.computeIfAbsent(key(col, row), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Topmost item containing the point, or null.
+     */
+    T itemAt(int pageIndex, float x, float y) {
+        PageGrid<T> grid = pages.get(pageIndex);
+        if (grid == null) return null;
+        List<Entry<T>> candidates = grid.cells.get(key(cell(x), cell(y)));
+        if (candidates == null) return null;
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            if (candidates.get(i).contains(x, y)) {
+                return candidates.get(i).item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Items intersecting the rectangle, bottom to top.
+     */
+    List<T> itemsIn(int pageIndex, float llx, float lly, float urx, float ury) {
+        PageGrid<T> grid = pages.get(pageIndex);
+        if (grid == null) return Collections.emptyList();
+        Set<Entry<T>> found = new LinkedHashSet<>();
+        for (int row = cell(lly); row <= cell(ury); row++) {
+            for (int col = cell(llx); col <= cell(urx); col++) {
+                List<Entry<T>> entries = grid.cells.get(key(col, row));
+                if (entries == null) continue;
+                for (Entry<T> entry : entries) {
+                    if (entry.intersects(llx, lly, urx, ury)) {
+                        found.add(entry);
+                    }
+                }
+            }
+        }
+        List<Entry<T>> sorted = new ArrayList<>(found);
+        sorted.sort((a, b) -> Integer.compare(a.order, b.order));
+        List<T> result = new ArrayList<>(sorted.size());
+        for (Entry<T> entry : sorted) {
+            result.add(entry.item);
+        }
+        return result;
+    }
+
+    /**
+     * All items of a page, bottom to top.
+     */
+    List<T> itemsOn(int pageIndex) {
+        PageGrid<T> grid = pages.get(pageIndex);
+        if (grid == null) return Collections.emptyList();
+        List<T> result = new ArrayList<>(grid.entries.size());
+        for (Entry<T> entry : grid.entries) {
+            result.add(entry.item);
+        }
+        return result;
+    }
+
+    /**
+     * Pages holding at least one item.
+     */
+    Set<Integer> pages() {
+        return pages.keySet();
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        pages.clear();
+        size = 0;
+    }
+
+    private static boolean isFinite(float value) {
+        return !Float.isNaN(value) && !Float.isInfinite(value);
+    }
+
+    private static int cell(float points) {
+        return (int) Math.floor(points / CELL_SIZE);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+}
@@ -0,0 +1,187 @@
+package com.trexolab.gui.pdfHandler;
+
+import com.trexolab.config.ConfigManager;
+import com.trexolab.service.ThumbnailCache;
+import com.trexolab.utils.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.util.Version;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-capped disk cache of rendered pages (user.home/.emark/cache/pages/), shared by all documents.
+ * <p>
+ * Second tier below {@link PageRasterCache}: render workers look here before rasterizing, so
+ * reopening a recent file paints its pages without rendering them (or even parsing the file).
+ * Pages are stored as PNG, named by content hash, page, DPI and PDFBox version, so neither
+ * a modified file nor a PDFBox upgrade can serve stale rasters. Eviction is LRU across all
+ * files; file modification times carry the LRU order across sessions.
+ */
+class PageDiskCache {
+
+    private static final Log log = LogFactory.getLog(PageDiskCache.class);
+
+    private static final String PAGES_DIR = ThumbnailCache.CACHE_DIR + File.separator + "pages";
+    private static final String PDFBOX_VERSION = String.valueOf(Version.getVersion()).replaceAll("[^0-9A-Za-z.]", "_");
+
+    private static PageDiskCache instance;
+
+    private final File dir;
+    private final long maxBytes;
+
+    // File name -> size, in access order; loaded from the directory on first use
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private boolean indexLoaded;
+    private long currentBytes;
+
+    private long hits;
+    private long misses;
+    private long writes;
+
+    private PageDiskCache(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The shared cache, or null if disabled in the configuration.
+     */
+    static synchronized PageDiskCache getInstance() {
+        if (instance == null) {
+            long maxBytes = ConfigManager.getRenderDiskCacheMb() * 1024L * 1024L;
+            if (maxBytes == 0) {
+                return null;
+            }
+            instance = new PageDiskCache(new File(PAGES_DIR), maxBytes);
+        }
+        return instance;
+    }
+
+    /**
+     * Loads a cached page, or returns null. Called on render workers.
+     */
+    BufferedImage get(String contentHash, int pageIndex, int dpi) {
+        String name = fileName(contentHash, pageIndex, dpi);
+        synchronized (this) {
+            loadIndex();
+            if (index.get(name) == null) {
+                misses++;
+                return null;
+            }
+        }
+
+        File file = new File(dir, name);
+        try {
+            BufferedImage image = ImageIO.read(file);
+            if (image != null) {
+                file.setLastModified(System.currentTimeMillis());
+                synchronized (this) {
+                    hits++;
+                }
+                return image;
+            }
+        } catch (IOException e) {
+            log.debug("Unreadable cached page " + file + ", dropping it", e);
+        }
+        synchronized (this) {
+            remove(name);
+            misses++;
+        }
+        return null;
+    }
+
+    /**
+     * Stores a rendered page and evicts the least recently used pages beyond the size limit.
+     * The PNG is written to a temp file first, so readers never see a partial image.
+     */
+    void put(String contentHash, int pageIndex, int dpi, BufferedImage image) {
+        if (!FileUtils.ensureDirectory(dir)) {
+            log.warn("Cannot create page cache directory: " + dir);
+            return;
+        }
+        String name = fileName(contentHash, pageIndex, dpi);
+        File target = new File(dir, name);
+        File temp = new File(dir, name + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            ImageIO.write(image, "png", temp);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Failed to write cached page " + target, e);
+            temp.delete();
+            return;
+        }
+
+        synchronized (this) {
+            loadIndex();
+            Long previous = index.remove(name);
+            if (previous != null) {
+                currentBytes -= previous;
+            }
+            index.put(name, target.length());
+            currentBytes += target.length();
+            writes++;
+
+            Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+            while (currentBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(name)) continue;
+                it.remove();
+                currentBytes -= eldest.getValue();
+                new File(dir, eldest.getKey()).delete();
+                if (log.isDebugEnabled()) {
+                    log.debug("Evicted cached page " + eldest.getKey());
+                }
+            }
+        }
+    }
+
+    synchronized void logStats() {
+        log.info(String.format("Page disk cache: %d hits, %d misses, %d writes; %d pages (%d KB of %d KB)",
+                hits, misses, writes, index.size(), currentBytes / 1024, maxBytes / 1024));
+    }
+
+    /**
+     * Reads the existing files once, oldest first, so the LRU order survives restarts.
+     * Leftover temp files from an interrupted write are deleted.
+     */
+    private void loadIndex() {
+        if (indexLoaded) return;
+        indexLoaded = true;
+
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                file.delete();
+            } else if (file.isFile()) {
+                index.put(file.getName(), file.length());
+                currentBytes += file.length();
+            }
+        }
+        log.debug("Page disk cache: " + index.size() + " page(s), " + (currentBytes / 1024) + " KB");
+    }
+
+    private void remove(String name) {
+        Long size = index.remove(name);
+        if (size != null) {
+            currentBytes -= size;
+            new File(dir, name).delete();
+        }
+    }
+
+    private static String fileName(String contentHash, int pageIndex, int dpi) {
+        return contentHash + "_" + pageIndex + "_" + dpi + "_pdfbox-" + PDFBOX_VERSION + ".png";
+    }
+}
@@ -0,0 +1,281 @@
+package com.trexolab.gui.pdfHandler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.rendering.ImageType;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Page raster and tile cache bounded by bytes.
+ * <p>
+ * Entries are kept strongly in LRU order until the byte budget is exceeded; evicted rasters
+ * move to a soft-reference tier that the GC may reclaim under pressure, so going back to a page
+ * recently scrolled past is usually instant without the cache growing unbounded.
+ * Keys include file size and modification time, so a re-saved or signed file never hits stale rasters.
+ * Under heap pressure the {@link MemoryGovernor} lowers the limit below the budget.
+ */
+class PageRasterCache {
+
+    private static final Log log = LogFactory.getLog(PageRasterCache.class);
+
+    private static final long MIN_BUDGET = 32L * 1024 * 1024;
+    private static final long MAX_BUDGET = 512L * 1024 * 1024;
+
+    /**
+     * Identifies one rendered raster: a whole page, or a tile given by its pixel origin.
+     */
+    static final class Key {
+        private final String documentId;
+        private final int pageIndex;
+        private final int dpi;
+        private final ImageType imageType;
+        private final int tileX;
+        private final int tileY;
+
+        Key(String documentId, int pageIndex, int dpi, ImageType imageType) {
+            this(documentId, pageIndex, dpi, imageType, -1, -1);
+        }
+
+        Key(String documentId, int pageIndex, int dpi, ImageType imageType, int tileX, int tileY) {
+            this.documentId = documentId;
+            this.pageIndex = pageIndex;
+            this.dpi = dpi;
+            this.imageType = imageType;
+            this.tileX = tileX;
+            this.tileY = tileY;
+        }
+
+        Key withDocumentId(String documentId) {
+            return new Key(documentId, pageIndex, dpi, imageType, tileX, tileY);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return pageIndex == key.pageIndex
+                    && dpi == key.dpi
+                    && tileX == key.tileX
+                    && tileY == key.tileY
+                    && imageType == key.imageType
+                    && documentId.equals(key.documentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(documentId, pageIndex, dpi, imageType, tileX, tileY);
+        }
+
+        @Override
+        public String toString() {
+            String tile = tileX >= 0 ? " tile " + tileX + "," + tileY : "";
+            return "page " + (pageIndex + 1) + tile + " @" + dpi + "dpi " + imageType;
+        }
+    }
+
+    /**
+     * Soft reference that remembers its key so cleared entries can be pruned.
+     */
+    private static final class SoftEntry extends SoftReference<BufferedImage> {
+        private final Key key;
+
+        SoftEntry(Key key, BufferedImage image, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+        }
+    }
+
+    private final long maxBytes;
+    // Lowered by the memory governor under heap pressure
+    private long limitBytes;
+    private long currentBytes;
+
+    private final LinkedHashMap<Key, BufferedImage> strong = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Key, SoftEntry> soft = new HashMap<>();
+    private final ReferenceQueue<BufferedImage> clearedQueue = new ReferenceQueue<>();
+
+    private long hits;
+    private long softHits;
+    private long misses;
+    private long evictions;
+
+    PageRasterCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.limitBytes = maxBytes;
+    }
+
+    /**
+     * Default budget: an eighth of the maximum heap, between 32 MB and 512 MB.
+     */
+    static long defaultBudget() {
+        long budget = Runtime.getRuntime().maxMemory() / 8;
+        return Math.max(MIN_BUDGET, Math.min(MAX_BUDGET, budget));
+    }
+
+    /**
+     * Document identity for cache keys: path, size and modification time.
+     */
+    static String documentId(File file) {
+        return file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+    }
+
+    synchronized BufferedImage get(Key key) {
+        pruneCleared();
+
+        BufferedImage image = strong.get(key);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+
+        SoftEntry entry = soft.remove(key);
+        image = entry != null ? entry.get() : null;
+        if (image != null) {
+            softHits++;
+            putStrong(key, image); // promote back to the LRU tier
+            return image;
+        }
+
+        misses++;
+        return null;
+    }
+
+    synchronized void put(Key key, BufferedImage image) {
+        if (image == null) return;
+        pruneCleared();
+        soft.remove(key);
+
+        BufferedImage previous = strong.remove(key);
+        if (previous != null) {
+            currentBytes -= sizeOf(previous);
+        }
+        putStrong(key, image);
+    }
+
+    private void putStrong(Key key, BufferedImage image) {
+        strong.put(key, image);
+        currentBytes += sizeOf(image);
+
+        Iterator<Map.Entry<Key, BufferedImage>> it = strong.entrySet().iterator();
+        while (currentBytes > limitBytes && it.hasNext()) {
+            Map.Entry<Key, BufferedImage> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue; // never evict what was just inserted
+            }
+            it.remove();
+            currentBytes -= sizeOf(eldest.getValue());
+            soft.put(eldest.getKey(), new SoftEntry(eldest.getKey(), eldest.getValue(), clearedQueue));
+            evictions++;
+            if (log.isDebugEnabled()) {
+                log.debug("Evicted " + eldest.getKey() + " to soft tier (" + (currentBytes / 1024) + " KB in use)");
+            }
+        }
+    }
+
+    /**
+     * Drops every raster of the given document.
+     */
+    synchronized void invalidate(String documentId) {
+        Iterator<Map.Entry<Key, BufferedImage>> it = strong.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, BufferedImage> entry = it.next();
+            if (entry.getKey().documentId.equals(documentId)) {
+                currentBytes -= sizeOf(entry.getValue());
+                it.remove();
+            }
+        }
+        soft.keySet().removeIf(k -> k.documentId.equals(documentId));
+    }
+
+    /**
+     * Moves the rasters of a document to a new document id (a later revision of the same file),
+     * dropping those of the given pages. Rasters of unchanged pages stay valid.
+     */
+    synchronized void carryOver(String fromDocumentId, String toDocumentId, Set<Integer> droppedPages) {
+        pruneCleared();
+        List<Map.Entry<Key, BufferedImage>> moved = new ArrayList<>();
+        Iterator<Map.Entry<Key, BufferedImage>> it = strong.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, BufferedImage> entry = it.next();
+            if (entry.getKey().documentId.equals(fromDocumentId)) {
+                it.remove();
+                currentBytes -= sizeOf(entry.getValue());
+                if (!droppedPages.contains(entry.getKey().pageIndex)) {
+                    moved.add(entry);
+                }
+            }
+        }
+        // Oldest first, so the LRU order is kept
+        for (Map.Entry<Key, BufferedImage> entry : moved) {
+            putStrong(entry.getKey().withDocumentId(toDocumentId), entry.getValue());
+        }
+        soft.keySet().removeIf(k -> k.documentId.equals(fromDocumentId));
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the byte limit, at most the budget (used by the memory governor). A lower limit
+     * drops the least recently used rasters beyond it and the whole soft tier outright
+     * instead of leaving them to the GC.
+     *
+     * @return bytes released
+     */
+    synchronized long setLimit(long bytes) {
+        limitBytes = Math.min(bytes, maxBytes);
+        long before = currentBytes;
+        Iterator<Map.Entry<Key, BufferedImage>> it = strong.entrySet().iterator();
+        while (currentBytes > limitBytes && it.hasNext()) {
+            currentBytes -= sizeOf(it.next().getValue());
+            it.remove();
+            evictions++;
+        }
+        if (limitBytes < maxBytes) {
+            soft.clear();
+        }
+        return before - currentBytes;
+    }
+
+    synchronized void clear() {
+        strong.clear();
+        soft.clear();
+        currentBytes = 0;
+    }
+
+    synchronized void logStats() {
+        log.info(String.format("Page raster cache: %d hits, %d soft hits, %d misses, %d evictions; %d entries (%d KB of %d KB), %d soft",
+                hits, softHits, misses, evictions, strong.size(), currentBytes / 1024, limitBytes / 1024, soft.size()));
+    }
+
+    private void pruneCleared() {
+        Reference<? extends BufferedImage> ref;
+        while ((ref = clearedQueue.poll()) != null) {
+            SoftEntry entry = (SoftEntry) ref;
+            if (soft.get(entry.key) == entry) {
+                soft.remove(entry.key);
+            }
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
@@ -0,0 +1,252 @@
+package com.trexolab.gui.pdfHandler;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page icon with a fixed size taken from the page geometry and an optional raster.
+ * <p>
+ * The size matches what {@link org.apache.pdfbox.rendering.PDFRenderer} produces for the current
+ * DPI (CropBox, rotated), so layout, overlays and sign-mode coordinates are correct before the
+ * page has been rendered and after its raster has been released.
+ * <p>
+ * A whole-page raster rendered at another DPI (a draft or /Thumb preview, or one from before
+ * a zoom change) is drawn scaled until
+ * the sharp one arrives. At high zoom the sharp content comes as {@link #TILE_SIZE} tiles that
+ * are painted over the scaled raster. Accessed on the EDT only.
+ */
+class PageRasterIcon implements Icon {
+
+    static final int TILE_SIZE = 512;
+
+    private static final Color PLACEHOLDER_FILL = Color.WHITE;
+    private static final Color PLACEHOLDER_TEXT = new Color(150, 150, 150);
+
+    // Page size in points, already swapped for 90/270 rotation
+    private final float widthPt;
+    private final float heightPt;
+    private final boolean rotated;
+
+    private int dpi;
+    private int width;
+    private int height;
+
+    private BufferedImage image;
+    private int imageDpi;
+    private final Map<Point, BufferedImage> tiles = new HashMap<>();
+
+    private PageRasterIcon(float widthPt, float heightPt, boolean rotated, int dpi) {
+        this.widthPt = widthPt;
+        this.heightPt = heightPt;
+        this.rotated = rotated;
+        setDpi(dpi);
+    }
+
+    /**
+     * Creates a placeholder sized like the page rendered at the given DPI.
+     */
+    static PageRasterIcon forPage(PDPage page, int dpi) {
+        PDRectangle cropBox = page.getCropBox();
+        int rotation = page.getRotation();
+        return new PageRasterIcon(cropBox.getWidth(), cropBox.getHeight(), rotation == 90 || rotation == 270, dpi);
+    }
+
+    /**
+     * Pixel size of the page rendered at the given DPI, as PDFRenderer.renderImage would produce it.
+     */
+    static Dimension pixelSize(PDPage page, int dpi) {
+        PageRasterIcon icon = forPage(page, dpi);
+        return new Dimension(icon.width, icon.height);
+    }
+
+    /**
+     * Same formula as PDFRenderer.renderImage: floor(points * dpi / 72), at least one pixel.
+     */
+    private static int toPixels(float points, int dpi) {
+        float scale = dpi / 72f;
+        return (int) Math.max(Math.floor(points * scale), 1);
+    }
+
+    int getDpi() {
+        return dpi;
+    }
+
+    /**
+     * Changes the target DPI (zoom). The current raster is kept and drawn scaled; tiles are dropped.
+     *
+     * @return true if the icon size changed
+     */
+    boolean setDpi(int dpi) {
+        if (dpi == this.dpi) return false;
+        this.dpi = dpi;
+        int w = toPixels(widthPt, dpi);
+        int h = toPixels(heightPt, dpi);
+        width = rotated ? h : w;
+        height = rotated ? w : h;
+        tiles.clear();
+        return true;
+    }
+
+    BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * True if the page shows any raster (whole page at any DPI, or tiles).
+     */
+    boolean hasImage() {
+        return image != null || !tiles.isEmpty();
+    }
+
+    /**
+     * True if a whole-page raster at exactly the given DPI is attached.
+     */
+    boolean hasImageAt(int dpi) {
+        return image != null && imageDpi == dpi;
+    }
+
+    /**
+     * True if a whole-page raster at the given DPI or sharper is attached (drafts and /Thumb
+     * previews are not).
+     */
+    boolean hasImageAtLeast(int dpi) {
+        return image != null && imageDpi >= dpi;
+    }
+
+    /**
+     * Sets the whole-page raster rendered at the given DPI.
+     *
+     * @return true if the icon size changed and the owner needs to be revalidated
+     */
+    boolean setImage(BufferedImage image, int imageDpi) {
+        this.image = image;
+        this.imageDpi = imageDpi;
+        if (imageDpi == dpi && (image.getWidth() != width || image.getHeight() != height)) {
+            width = image.getWidth();
+            height = image.getHeight();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the raster on screen but marks it out of date (the page changed), so it is
+     * drawn until the new one arrives but never counts as sharp. Tiles are dropped.
+     */
+    void markStale() {
+        imageDpi = -1;
+        tiles.clear();
+    }
+
+    /**
+     * Drops the whole-page raster and all tiles.
+     */
+    void clear() {
+        image = null;
+        tiles.clear();
+    }
+
+    /* --------------------------
+       Tiles (current DPI only)
+     --------------------------- */
+
+    /**
+     * Grid coordinates of the tiles intersecting the given area (icon coordinates).
+     */
+    List<Point> tilesIntersecting(Rectangle area) {
+        List<Point> result = new ArrayList<>();
+        Rectangle clipped = area.intersection(new Rectangle(0, 0, width, height));
+        if (clipped.isEmpty()) return result;
+        int firstCol = clipped.x / TILE_SIZE;
+        int lastCol = (clipped.x + clipped.width - 1) / TILE_SIZE;
+        int firstRow = clipped.y / TILE_SIZE;
+        int lastRow = (clipped.y + clipped.height - 1) / TILE_SIZE;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                result.add(new Point(col, row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pixel bounds of a tile, clipped to the page.
+     */
+    Rectangle getTileBounds(Point tile) {
+        int x = tile.x * TILE_SIZE;
+        int y = tile.y * TILE_SIZE;
+        return new Rectangle(x, y, Math.min(TILE_SIZE, width - x), Math.min(TILE_SIZE, height - y));
+    }
+
+    boolean hasTile(Point tile) {
+        return tiles.containsKey(tile);
+    }
+
+    void setTile(Point tile, BufferedImage tileImage) {
+        tiles.put(tile, tileImage);
+    }
+
+    /**
+     * Drops tiles that do not intersect the given area (icon coordinates).
+     */
+    void retainTiles(Rectangle area) {
+        tiles.keySet().removeIf(p -> !getTileBounds(p).intersects(area));
+    }
+
+    void clearTiles() {
+        tiles.clear();
+    }
+
+    boolean hasTiles() {
+        return !tiles.isEmpty();
+    }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        if (image != null) {
+            if (imageDpi == dpi) {
+                g.drawImage(image, x, y, null);
+            } else {
+                // Raster from another zoom level: show it scaled until the sharp one arrives
+                Graphics2D g2 = (Graphics2D) g.create();
+                try {
+                    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g2.drawImage(image, x, y, width, height, null);
+                } finally {
+                    g2.dispose();
+                }
+            }
+        } else {
+            g.setColor(PLACEHOLDER_FILL);
+            g.fillRect(x, y, width, height);
+            if (tiles.isEmpty()) {
+                g.setColor(PLACEHOLDER_TEXT);
+                FontMetrics fm = g.getFontMetrics();
+                String text = "Loading...";
+                g.drawString(text, x + (width - fm.stringWidth(text)) / 2, y + height / 2);
+            }
+        }
+
+        for (Map.Entry<Point, BufferedImage> tile : tiles.entrySet()) {
+            g.drawImage(tile.getValue(), x + tile.getKey().x * TILE_SIZE, y + tile.getKey().y * TILE_SIZE, null);
+        }
+    }
+
+    @Override
+    public int getIconWidth() {
+        return width;
+    }
+
+    @Override
+    public int getIconHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,472 @@
+package com.trexolab.gui.pdfHandler;
+
+import com.trexolab.service.SystemFontIndex;
+import com.trexolab.service.ThumbnailCache;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.form.PDTransparencyGroup;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of background page rasterizers.
+ * <p>
+ * {@link PDDocument} is not thread-safe, so every worker opens its own copy of the file
+ * (temp-file backed, so the heap cost per worker stays small) and pulls page indexes from a
+ * shared queue. The number of workers scales with CPU cores and free heap. Decoded images are
+ * shared between the workers through a {@link SharedResourceCache}.
+ * <p>
+ * The pool is long-lived for one open document: the viewer calls {@link #schedule(Map)}
+ * whenever the viewport moves. Jobs are taken in {@link Lane} order (visible pages before
+ * neighbours before background), and queued jobs for pages no longer requested are cancelled.
+ * <p>
+ * Whole pages are looked up in the {@link PageDiskCache} first and written to it after
+ * rendering, so a recently opened file is served from disk without being parsed. The cache is
+ * keyed by the file's content hash, which a separate thread computes while the workers start
+ * rendering; until it is known, pages are rendered without a lookup. Encrypted documents skip
+ * the disk cache: their pages would otherwise be readable there without the password. Only the
+ * memory cache serves them.
+ * <p>
+ * Pages and tiles are rendered straight into images with the screen's pixel layout
+ * ({@link #createDisplayImage}), so they are painted without any per-pixel conversion.
+ * <p>
+ * {@link Request#draft Draft} requests take the cheap path of {@link DraftRenderer}; the viewer
+ * asks for them while scrolling fast and replaces them with full-quality pages once it stops.
+ */
+class PageRenderPool {
+
+    private static final Log log = LogFactory.getLog(PageRenderPool.class);
+
+    // Rough working-set of one worker (parsed resources + one page raster at RENDER_DPI)
+    private static final long HEAP_PER_WORKER = 96L * 1024 * 1024;
+    private static final int MAX_WORKERS = 8;
+
+    // Image type of the screen (GraphicsConfiguration.createCompatibleImage); INT_RGB when headless
+    static final int DISPLAY_IMAGE_TYPE = detectDisplayImageType();
+
+    /**
+     * Priority lanes, highest first.
+     */
+    enum Lane {
+        VISIBLE,
+        NEIGHBOR,
+        BACKGROUND
+    }
+
+    /**
+     * One unit of work: a whole page, or one tile of a page (pixel bounds at the given DPI).
+     * Draft pages are rendered with {@link DraftRenderer} and never written to the disk cache.
+     */
+    static final class Request {
+        final int pageIndex;
+        final int dpi;
+        final Rectangle tile;
+        final boolean draft;
+
+        private Request(int pageIndex, int dpi, Rectangle tile, boolean draft) {
+            this.pageIndex = pageIndex;
+            this.dpi = dpi;
+            this.tile = tile;
+            this.draft = draft;
+        }
+
+        static Request page(int pageIndex, int dpi) {
+            return new Request(pageIndex, dpi, null, false);
+        }
+
+        static Request draft(int pageIndex, int dpi) {
+            return new Request(pageIndex, dpi, null, true);
+        }
+
+        static Request tile(int pageIndex, int dpi, Rectangle tile) {
+            return new Request(pageIndex, dpi, tile, false);
+        }
+
+        boolean isTile() {
+            return tile != null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Request)) return false;
+            Request other = (Request) o;
+            return pageIndex == other.pageIndex && dpi == other.dpi && draft == other.draft
+                    && Objects.equals(tile, other.tile);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pageIndex, dpi, tile, draft);
+        }
+    }
+
+    /**
+     * Fast, low-fidelity renderer for pages shown while the user flings through the document:
+     * no antialiasing and nearest-neighbour image scaling, annotations skipped, and transparency
+     * groups painted directly instead of being composited off-screen. Images are subsampled
+     * as for normal pages, which at draft DPI skips most of their pixels.
+     */
+    static final class DraftRenderer extends SharedResourceCache.Renderer {
+
+        private static final RenderingHints DRAFT_HINTS = new RenderingHints(null);
+
+        static {
+            DRAFT_HINTS.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            DRAFT_HINTS.put(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            DRAFT_HINTS.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+            DRAFT_HINTS.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            DRAFT_HINTS.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
+            DRAFT_HINTS.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
+        }
+
+        DraftRenderer(PDDocument document, SharedResourceCache resources) {
+            super(document, resources);
+            setRenderingHints(DRAFT_HINTS);
+            setAnnotationsFilter(annotation -> false);
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            return new Drawer(parameters) {
+                @Override
+                public void showTransparencyGroup(PDTransparencyGroup form) throws IOException {
+                    showForm(form);
+                }
+            };
+        }
+    }
+
+    private static final class Job implements Comparable<Job> {
+        private final Request request;
+        private final Lane lane;
+        private final long sequence;
+
+        Job(Request request, Lane lane, long sequence) {
+            this.request = request;
+            this.lane = lane;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byLane = lane.compareTo(other.lane);
+            return byLane != 0 ? byLane : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Receives rendered pages. Called on worker threads.
+     */
+    interface Listener {
+        /**
+         * @param cacheable false if the image may have been drawn with the stand-in font used
+         *                  while the system fonts are indexed (see {@link SystemFontIndex})
+         */
+        void onRendered(Request request, BufferedImage image, boolean cacheable);
+    }
+
+    private final File file;
+    private final String password;
+    private final Listener listener;
+    private final SharedResourceCache resources;
+    private final PageDiskCache diskCache;
+    // Workers of a pool started after the font index was ready never see the stand-in font
+    private final boolean fontsReady = SystemFontIndex.isReady();
+    // Disk cache key of the file, null until the hash thread has read the whole file
+    private volatile String contentHash;
+
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    // Bumped by trimMemory(); each worker drops its resource cache when it sees a new value
+    private volatile int trimGeneration;
+    private long nextSequence;
+    private final Set<Request> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param encrypted the document is encrypted; its pages then bypass the disk cache
+     */
+    PageRenderPool(File file, String password, boolean encrypted, SharedResourceCache resources, Listener listener) {
+        this.file = file;
+        this.password = password;
+        this.resources = resources;
+        this.listener = listener;
+        this.diskCache = encrypted ? null : PageDiskCache.getInstance();
+    }
+
+    /**
+     * Number of workers for the current machine: one per core, limited by free heap.
+     */
+    static int computePoolSize() {
+        Runtime rt = Runtime.getRuntime();
+        long freeHeap = rt.maxMemory() - (rt.totalMemory() - rt.freeMemory());
+        // Leave half of the free heap for the rest of the application
+        int byHeap = (int) Math.max(1, (freeHeap / 2) / HEAP_PER_WORKER);
+        int byCores = Math.max(1, rt.availableProcessors());
+        return Math.min(MAX_WORKERS, Math.min(byCores, byHeap));
+    }
+
+    /**
+     * Replaces the pending queue with the given requests. Iteration order is the order within a lane.
+     * Queued jobs not in the map are cancelled; requests currently being rendered are
+     * not queued again. Workers start on first call. Must be called from one thread (the EDT).
+     */
+    void schedule(Map<Request, Lane> requests) {
+        if (cancelled.get()) {
+            return;
+        }
+        List<Job> previous = new ArrayList<>();
+        queue.drainTo(previous);
+        int dropped = 0;
+        for (Job job : previous) {
+            if (!requests.containsKey(job.request)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0 && log.isDebugEnabled()) {
+            log.debug("Cancelled " + dropped + " queued render job(s) outside the prefetch window");
+        }
+
+        for (Map.Entry<Request, Lane> entry : requests.entrySet()) {
+            if (!inFlight.contains(entry.getKey())) {
+                queue.add(new Job(entry.getKey(), entry.getValue(), nextSequence++));
+            }
+        }
+        if (workers.isEmpty() && !queue.isEmpty()) {
+            startWorkers();
+        }
+    }
+
+    private void startWorkers() {
+        int poolSize = computePoolSize();
+        log.info("Starting " + poolSize + " render worker(s)");
+        for (int i = 0; i < poolSize; i++) {
+            Thread worker = new Thread(this::workerLoop, "PDF-Render-Worker-" + (i + 1));
+            worker.setDaemon(true);
+            worker.setPriority(Thread.NORM_PRIORITY - 1);
+            workers.add(worker);
+            worker.start();
+        }
+        if (diskCache != null) {
+            // Listed with the workers: it reads the file too
+            Thread hasher = new Thread(this::hashContent, "PDF-Render-Hash-Thread");
+            hasher.setDaemon(true);
+            hasher.setPriority(Thread.MIN_PRIORITY);
+            workers.add(hasher);
+            hasher.start();
+        }
+    }
+
+    /**
+     * Cancels outstanding work. Workers close their documents as they exit.
+     */
+    void shutdown() {
+        cancelled.set(true);
+        queue.clear();
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * The worker threads, which keep the file open until they exit after {@link #shutdown()}.
+     */
+    List<Thread> getWorkers() {
+        return new ArrayList<>(workers);
+    }
+
+    boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * True if the pool was started before the system font index was ready, so its workers'
+     * documents may hold fonts mapped to the stand-in.
+     */
+    boolean hasProvisionalFonts() {
+        return !fontsReady;
+    }
+
+    /**
+     * Asks every worker to drop the fonts, images and patterns its document has cached.
+     * Workers do it before their next render, since their documents are not thread-safe.
+     */
+    void trimMemory() {
+        trimGeneration++;
+    }
+
+    private void workerLoop() {
+        PDDocument document = null;
+        PDFRenderer renderer = null;
+        PDFRenderer draftRenderer = null;
+        int trimmed = trimGeneration;
+        try {
+            while (!cancelled.get()) {
+                Request request = queue.take().request;
+                inFlight.add(request);
+                try {
+                    // Tiles are short-lived (one zoom level, visible area only) and stay in memory;
+                    // drafts are replaced as soon as scrolling stops
+                    boolean diskCached = diskCache != null && !request.isTile() && !request.draft;
+                    String hash = contentHash;
+                    BufferedImage image = diskCached && hash != null
+                            ? diskCache.get(hash, request.pageIndex, request.dpi)
+                            : null;
+                    boolean rendered = image == null;
+                    if (rendered) {
+                        // Open lazily so idle workers (and disk cache hits) never parse the document
+                        if (renderer == null) {
+                            try {
+                                document = password != null
+                                        ? PDDocument.load(file, password, MemoryUsageSetting.setupTempFileOnly())
+                                        : PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly());
+                            } catch (IOException e) {
+                                if (!cancelled.get()) {
+                                    log.error("Render worker could not open " + file.getName(), e);
+                                }
+                                return;
+                            }
+                            resources.install(document);
+                            renderer = new SharedResourceCache.Renderer(document, resources);
+                        }
+                        if (trimmed != trimGeneration) {
+                            trimmed = trimGeneration;
+                            resources.install(document);
+                        }
+                        if (request.draft) {
+                            if (draftRenderer == null) {
+                                draftRenderer = new DraftRenderer(document, resources);
+                            }
+                            image = renderPage(document, draftRenderer, request.pageIndex, request.dpi);
+                        } else {
+                            image = request.isTile()
+                                    ? renderTile(renderer, request)
+                                    : renderPage(document, renderer, request.pageIndex, request.dpi);
+                        }
+                    }
+                    if (cancelled.get()) {
+                        return;
+                    }
+                    boolean cacheable = !rendered || fontsReady || SystemFontIndex.getStandInCount() == 0;
+                    listener.onRendered(request, image, cacheable);
+                    // Encode after the page is shown, so the PNG write does not delay it
+                    hash = contentHash;
+                    if (rendered && diskCached && cacheable && hash != null) {
+                        diskCache.put(hash, request.pageIndex, request.dpi, image);
+                    }
+                } catch (OutOfMemoryError e) {
+                    // The half-rendered raster is garbage now; let the governor shed caches
+                    trimmed = -1;
+                    if (!cancelled.get()) {
+                        MemoryGovernor.getInstance().onOutOfMemory("rendering page " + (request.pageIndex + 1));
+                    }
+                } catch (Exception e) {
+                    if (!cancelled.get()) {
+                        log.error("Error rendering page " + (request.pageIndex + 1), e);
+                    }
+                } finally {
+                    inFlight.remove(request);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutdown requested
+        } finally {
+            if (document != null) {
+                try {
+                    document.close();
+                } catch (Exception e) {
+                    log.debug("Error closing render worker document", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the content hash of the file for disk cache names. Pages rendered before it is
+     * known skip the lookup; it is instant if the file was hashed earlier in this session.
+     */
+    private void hashContent() {
+        try {
+            contentHash = ThumbnailCache.contentHash(file);
+        } catch (IOException e) {
+            if (!cancelled.get()) {
+                log.warn("Cannot hash " + file.getName() + ", pages are not cached on disk", e);
+            }
+        }
+    }
+
+    private static int detectDisplayImageType() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return BufferedImage.TYPE_INT_RGB;
+        }
+        int type = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(1, 1).getType();
+        return type != BufferedImage.TYPE_CUSTOM ? type : BufferedImage.TYPE_INT_RGB;
+    }
+
+    /**
+     * Opaque image in the screen's pixel layout.
+     */
+    static BufferedImage createDisplayImage(int width, int height) {
+        return new BufferedImage(width, height, DISPLAY_IMAGE_TYPE);
+    }
+
+    /**
+     * Renders a whole page directly into a display image. When the screen uses INT_RGB
+     * (the common case) this is exactly PDFRenderer.renderImageWithDPI with ImageType.RGB.
+     */
+    static BufferedImage renderPage(PDDocument document, PDFRenderer renderer, int pageIndex, int dpi)
+            throws IOException {
+        if (DISPLAY_IMAGE_TYPE == BufferedImage.TYPE_INT_RGB) {
+            return renderer.renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
+        }
+        Dimension size = PageRasterIcon.pixelSize(document.getPage(pageIndex), dpi);
+        return renderRegion(renderer, pageIndex, dpi, new Rectangle(0, 0, size.width, size.height));
+    }
+
+    /**
+     * Renders only the tile's area of the page.
+     */
+    private static BufferedImage renderTile(PDFRenderer renderer, Request request) throws IOException {
+        return renderRegion(renderer, request.pageIndex, request.dpi, request.tile);
+    }
+
+    /**
+     * Renders an area of the page (pixels at the given DPI) into a display image: the page
+     * transform is shifted so the area's origin lands at (0,0) and the graphics are clipped
+     * to it, so Java2D skips everything else.
+     */
+    private static BufferedImage renderRegion(PDFRenderer renderer, int pageIndex, int dpi, Rectangle area)
+            throws IOException {
+        BufferedImage image = createDisplayImage(area.width, area.height);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setBackground(Color.WHITE);
+            g.clearRect(0, 0, area.width, area.height);
+            g.translate(-area.x, -area.y);
+            g.clip(area);
+            renderer.renderPageToGraphics(pageIndex, g, dpi / 72f);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,215 @@
+package com.trexolab.gui.pdfHandler;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The document view: a single component that lays out every page arithmetically and paints
+ * only the pages intersecting the clip.
+ * <p>
+ * Pages are stacked top to bottom and centred horizontally. Each page occupies a slot of its
+ * {@link PageRasterIcon} size plus {@link PdfRendererService#DEFAULT_RENDERER_PADDING} on every
+ * side; slot coordinates are what the page labels used to use, so overlays and sign-mode
+ * geometry are unchanged. Slot offsets are prefix sums, so finding the page at a y coordinate
+ * is a binary search and neither layout nor painting depends on the page count.
+ * <p>
+ * The view is opaque, which lets the viewport {@link JViewport#BLIT_SCROLL_MODE blit} when
+ * scrolling and repaint only the strip that scrolled in. The view has no child components:
+ * overlays (signature fields, signed signatures, the sign-mode selection) are
+ * {@link PagePainter}s drawn in the same pass, in the order they were added.
+ * Accessed on the EDT only.
+ */
+public class PageView extends JComponent implements Scrollable {
+
+    /**
+     * Draws on top of a page, e.g. signature overlays and the sign-mode grid and selection.
+     */
+    interface PagePainter {
+        /**
+         * @param g      graphics translated to the page slot (padding included) and clipped to it
+         * @param width  slot width
+         * @param height slot height
+         */
+        void paintPage(Graphics2D g, int pageIndex, int width, int height);
+    }
+
+    private final int padding = PdfRendererService.DEFAULT_RENDERER_PADDING;
+    private List<PageRasterIcon> pages = Collections.emptyList();
+    private final List<PagePainter> painters = new ArrayList<>();
+
+    // Slot geometry, recomputed by updateLayout: tops[i] is the y of slot i, tops[n] the end of the last one
+    private int[] tops = {0};
+    private int slotsWidth;
+
+    public PageView() {
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        setFocusable(true);
+    }
+
+    /**
+     * Shows the given pages; the list is read again on every {@link #updateLayout}.
+     */
+    void setPages(List<PageRasterIcon> pages) {
+        this.pages = pages;
+        updateLayout();
+    }
+
+    void addPagePainter(PagePainter painter) {
+        painters.add(painter);
+    }
+
+    int getPageCount() {
+        return tops.length - 1;
+    }
+
+    /**
+     * Recomputes the slots after page sizes changed (zoom, first raster, pages added or
+     * removed). Revalidates only if the view size changed.
+     */
+    void updateLayout() {
+        Dimension before = getPreferredSize();
+        int count = pages.size();
+        int[] next = new int[count + 1];
+        int width = 0;
+        int y = 0;
+        for (int i = 0; i < count; i++) {
+            PageRasterIcon icon = pages.get(i);
+            next[i] = y;
+            y += icon.getIconHeight() + 2 * padding;
+            width = Math.max(width, icon.getIconWidth() + 2 * padding);
+        }
+        next[count] = y;
+        tops = next;
+        slotsWidth = width;
+
+        if (!getPreferredSize().equals(before)) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    /**
+     * Bounds of a page slot: the page plus its padding, in view coordinates.
+     */
+    Rectangle getSlotBounds(int pageIndex) {
+        int width = pages.get(pageIndex).getIconWidth() + 2 * padding;
+        int x = Math.max(0, (Math.max(getWidth(), slotsWidth) - width) / 2);
+        return new Rectangle(x, tops[pageIndex], width, tops[pageIndex + 1] - tops[pageIndex]);
+    }
+
+    /**
+     * Bounds of the page raster itself, in view coordinates.
+     */
+    Rectangle getPageBounds(int pageIndex) {
+        Rectangle slot = getSlotBounds(pageIndex);
+        slot.grow(-padding, -padding);
+        return slot;
+    }
+
+    /**
+     * Index of the page whose slot contains y, clamped to the first and last page;
+     * -1 if there are no pages.
+     */
+    int pageAt(int y) {
+        int count = getPageCount();
+        if (count == 0) return -1;
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (y >= tops[mid + 1]) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void repaintPage(int pageIndex) {
+        if (pageIndex < getPageCount()) {
+            repaint(getSlotBounds(pageIndex));
+        }
+    }
+
+    /**
+     * Repaints part of a page, given in slot coordinates.
+     */
+    void repaintPage(int pageIndex, Rectangle area) {
+        if (pageIndex < getPageCount()) {
+            Rectangle slot = getSlotBounds(pageIndex);
+            repaint(slot.x + area.x, slot.y + area.y, area.width, area.height);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int first = pageAt(clip.y);
+        if (first < 0) return;
+        int last = pageAt(clip.y + clip.height - 1);
+        for (int i = first; i <= last; i++) {
+            Rectangle slot = getSlotBounds(i);
+            if (!slot.intersects(clip)) continue;
+            pages.get(i).paintIcon(this, g, slot.x + padding, slot.y + padding);
+            for (PagePainter painter : painters) {
+                Graphics2D g2 = (Graphics2D) g.create(slot.x, slot.y, slot.width, slot.height);
+                try {
+                    painter.paintPage(g2, i, slot.width, slot.height);
+                } finally {
+                    g2.dispose();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        return new Dimension(slotsWidth, tops[tops.length - 1]);
+    }
+
+    /* --------------------------
+       Scrollable
+     --------------------------- */
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 20;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    /**
+     * Stretches to the viewport when it is wider than the pages, so they stay centred.
+     */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+    }
+}
@@ -1,32 +1,48 @@
 package com.trexolab.gui.pdfHandler;
 
+import com.trexolab.config.ConfigManager;
 import com.trexolab.core.exception.UserCancelledPasswordEntryException;
 import com.trexolab.gui.DialogUtils;
 import com.trexolab.gui.PasswordDialog;
+import com.trexolab.service.DocumentSession;
 import com.trexolab.service.SignatureFieldDetectionService;
 import com.trexolab.service.SignatureFieldDetectionService.SignatureFieldInfo;
-import com.itextpdf.text.pdf.PdfReader;
+import com.trexolab.service.SystemFontIndex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Responsibilities:
  * - Load & close PDDocument
  * - Handle password attempts via PasswordDialog
- * - Render each page as an ImageIcon + JLabel
+ * - Lay out every page in one {@link PageView} sized from its page box; rasterize only pages near the viewport
  * - Register rectangle drawing via SignModeController
  */
 public class PdfRendererService {
@@ -35,38 +51,86 @@ public class PdfRendererService {
     public static final int DEFAULT_RENDERER_PADDING = 10;
     private static final Log log = LogFactory.getLog(PdfRendererService.class);
     private final PdfViewerMain owner;
-    private final JPanel pdfPanel;
+    private final PageView pdfPanel;
 
     private PDDocument document;
     private File currentFile;
+    // iText view of the same file, shared by field detection, verification and signing
+    private volatile DocumentSession documentSession;
+    // Set by releaseFile when the file replacing the open one is its next revision: the length
+    // of the released file, and of the revision expected by openNextRevision
+    private long releasedLength = -1;
+    private long releasedNextLength = -1;
     private String pdfPassword;
 
     // Signature field support
     private final SignatureFieldDetectionService fieldDetectionService;
     private List<SignatureFieldInfo> unsignedSignatureFields;
-    private List<SignatureFieldOverlay> fieldOverlays;
     private boolean showSignatureFieldsOverlay = false;
 
-    // Signed signature overlay support
-    private List<SignedSignatureOverlay> signedSignatureOverlays;
+    // Unsigned fields and signed signatures of all pages, painted on pdfPanel
+    private final SignatureOverlayLayer overlayLayer;
+
+    // Full-text index of the open document, built in the background for the find bar
+    private TextIndex textIndex;
+    private TextIndex.Listener textIndexListener;
 
     // Performance: Background rendering support
-    private ExecutorService renderExecutor;
-    private AtomicBoolean renderCancelled = new AtomicBoolean(false);
+    private PageRenderPool renderPool;
+    // Decoded images shared by the render workers and the viewer's own document
+    private SharedResourceCache resourceCache;
+    // Shared across documents so reopening a recent file can reuse its rasters
+    private static final PageRasterCache rasterCache = new PageRasterCache(PageRasterCache.defaultBudget());
+    private String documentId;
+    private final List<PageRasterIcon> pageIcons = new ArrayList<>();
+    private int prefetchPages;
+    private int visibleFirst = -1;
+    private int visibleLast = -1;
+    private Rectangle lastViewRect;
+    private int renderGeneration;
+
+    // Zoom: 1 = RENDER_DPI; above MAX_WHOLE_PAGE_DPI only visible tiles are rendered sharp
+    private static final float[] ZOOM_LEVELS = {0.5f, 0.75f, 1f, 1.25f, 1.5f, 2f, 3f, 4f};
+    private static final int MAX_WHOLE_PAGE_DPI = 150;
+    private float zoom = 1f;
+
+    // First paint: page 1 shows a cheap preview while its sharp raster comes from the pool.
+    // Also the lowest resolution of the drafts shown while flinging.
+    private static final int DRAFT_DPI = 36;
+
+    // Scroll tracking for the render scheduler (EDT only)
+    private static final double FAST_SCROLL_PAGES_PER_SEC = 15;
+    private static final int SCROLL_SETTLE_MS = 150;
+    private long lastScrollNanos;
+    private double scrollVelocity;   // pages per second, positive = towards the end
+    private int scrollDirection;     // last non-zero direction
+    private final Timer scrollSettleTimer;
+
+    // Heap pressure (EDT copy of the governor's level): smaller caches and prefetch, capped DPI
+    private static final int PRESSURE_DPI = 72;
+    private MemoryGovernor.Level memoryLevel = MemoryGovernor.Level.NORMAL;
 
     public PdfRendererService(PdfViewerMain owner) {
         this.owner = owner;
-        pdfPanel = new JPanel();
-        pdfPanel.setLayout(new BoxLayout(pdfPanel, BoxLayout.Y_AXIS));
-        pdfPanel.setFocusable(true);
+        pdfPanel = new PageView();
+        pdfPanel.setPages(pageIcons);
 
         this.fieldDetectionService = new SignatureFieldDetectionService();
         this.unsignedSignatureFields = new ArrayList<>();
-        this.fieldOverlays = new ArrayList<>();
-        this.signedSignatureOverlays = new ArrayList<>();
+        this.overlayLayer = new SignatureOverlayLayer(pdfPanel, this);
+
+        // Once scrolling stops, schedule the full prefetch window plus background pages
+        this.scrollSettleTimer = new Timer(SCROLL_SETTLE_MS, e -> {
+            scrollVelocity = 0;
+            scheduleRenders(true);
+        });
+        this.scrollSettleTimer.setRepeats(false);
+
+        MemoryGovernor.getInstance().addListener(this::onMemoryPressure);
+        SystemFontIndex.addReadyListener(this::onSystemFontsReady);
     }
 
-    public JPanel getPdfPanel() {
+    public PageView getPdfPanel() {
         return pdfPanel;
     }
 
@@ -90,80 +154,45 @@ public class PdfRendererService {
             }
 
             currentFile = file;
+            documentId = PageRasterCache.documentId(file);
             // Store password for later use (signature field detection, signing)
             if (owner.getPdfPassword() != null) {
                 this.pdfPassword = owner.getPdfPassword();
             }
+            documentSession = DocumentSession.open(file, owner.getPdfPassword());
 
-            // Performance: Enable subsampling for large images (reduces memory for PDFs with big embedded images)
-            PDFRenderer renderer = new PDFRenderer(document);
-            renderer.setSubsamplingAllowed(true);
-
-            int totalPages = document.getNumberOfPages();
-
-            // Performance: For single-page PDFs, render directly (no background thread overhead)
-            if (totalPages == 1) {
-                renderPageSync(renderer, 0);
-                pdfPanel.revalidate();
-                pdfPanel.repaint();
-                finalizeRenderingOnEDT();
-                return true;
-            }
-
-            // Performance: For multi-page PDFs, use progressive loading
-            // Render first page immediately for fast initial display
-            renderPageSync(renderer, 0);
-            pdfPanel.revalidate();
-            pdfPanel.repaint();
+            // Decoded images are shared with the render workers; the renderer subsamples large
+            // images (reduces memory for PDFs with big embedded images)
+            resourceCache = new SharedResourceCache(SharedResourceCache.defaultBudget());
+            resourceCache.install(document);
+            PDFRenderer renderer = new SharedResourceCache.Renderer(document, resourceCache);
 
             // Cancel any previous background rendering
-            renderCancelled.set(false);
-            if (renderExecutor != null && !renderExecutor.isShutdown()) {
-                renderExecutor.shutdownNow();
-            }
+            stopRenderPool();
 
-            // Create placeholders for remaining pages
-            for (int i = 1; i < totalPages; i++) {
-                JPanel pageWrapper = createPlaceholderPanel();
-                pdfPanel.add(pageWrapper);
+            // Virtualized layout: every page gets a slot sized from its CropBox and rotation,
+            // rasters are only attached to pages near the viewport (see onViewportChanged)
+            int dpi = getRenderDpi();
+            for (PDPage page : document.getPages()) {
+                pageIcons.add(PageRasterIcon.forPage(page, dpi));
             }
-            pdfPanel.revalidate();
+            pdfPanel.updateLayout();
+            int totalPages = pageIcons.size();
 
-            // Render remaining pages in background
-            renderExecutor = Executors.newSingleThreadExecutor();
-            final PDFRenderer bgRenderer = renderer;
+            // Something on page 1 right away; its sharp raster (and tiles) follow from the pool
+            if (totalPages > 0) {
+                showFirstPagePreview(renderer, isTiled() ? RENDER_DPI : dpi);
+            }
 
-            renderExecutor.submit(() -> {
-                try {
-                    for (int i = 1; i < totalPages; i++) {
-                        if (renderCancelled.get()) {
-                            log.info("Background rendering cancelled");
-                            return;
-                        }
-
-                        final int pageIndex = i;
-                        BufferedImage image = bgRenderer.renderImageWithDPI(pageIndex, RENDER_DPI);
-                        BufferedImage optimizedImage = optimizeImageForDisplay(image);
-
-                        if (renderCancelled.get()) return;
-
-                        // Update UI on EDT
-                        SwingUtilities.invokeLater(() -> {
-                            if (renderCancelled.get() || pageIndex >= pdfPanel.getComponentCount()) return;
-                            updatePagePanel(pageIndex, optimizedImage);
-                        });
-                    }
+            // Workers start lazily, so a single-page PDF costs nothing until it is scrolled or zoomed
+            prefetchPages = ConfigManager.getRenderPrefetchPages();
+            startRenderPool(file, owner.getPdfPassword());
+            updateVisiblePages(0, 0);
+            startTextIndex(new TextIndex(file, owner.getPdfPassword(), totalPages, document.isEncrypted(),
+                    null, null, this::onTextIndexProgress));
 
-                    // Finalize on EDT after all pages rendered
-                    if (!renderCancelled.get()) {
-                        SwingUtilities.invokeLater(this::finalizeRenderingOnEDT);
-                    }
-                } catch (Exception ex) {
-                    if (!renderCancelled.get()) {
-                        log.error("Error in background rendering", ex);
-                    }
-                }
-            });
+            // Signature field detection does not depend on rasters (labels already have page size)
+            finalizeRenderingOnEDT();
 
             return true;
 
@@ -177,89 +206,570 @@ public class PdfRendererService {
     }
 
     /**
-     * Renders a single page synchronously and adds it to the panel.
+     * Creates the render pool for the current document; its workers start on the first schedule.
+     * Pages of an encrypted document are never written to the disk cache.
      */
-    private void renderPageSync(PDFRenderer renderer, int pageIndex) throws Exception {
-        BufferedImage image = renderer.renderImageWithDPI(pageIndex, RENDER_DPI);
+    private void startRenderPool(File file, String password) {
+        final int generation = renderGeneration;
+        renderPool = new PageRenderPool(file, password, document.isEncrypted(), resourceCache,
+                (request, image, cacheable) -> onRendered(generation, request, image, cacheable));
+    }
+
+    private void startTextIndex(TextIndex index) {
+        textIndex = index;
+        textIndex.start();
+    }
+
+    private void stopTextIndex() {
+        if (textIndex != null) {
+            textIndex.shutdown();
+            textIndex = null;
+        }
+    }
+
+    private void onTextIndexProgress(int indexedPages, int pageCount) {
+        if (textIndexListener != null) {
+            textIndexListener.onProgress(indexedPages, pageCount);
+        }
+    }
+
+    /**
+     * Text index of the open document (complete or still being built), or null.
+     */
+    TextIndex getTextIndex() {
+        return textIndex;
+    }
+
+    /**
+     * Told on the EDT as the text index of the open document grows.
+     */
+    void setTextIndexListener(TextIndex.Listener listener) {
+        this.textIndexListener = listener;
+    }
+
+    /**
+     * Schedules the visible range again from scratch (after the pool was replaced).
+     */
+    private void rescheduleVisiblePages() {
+        int first = Math.max(visibleFirst, 0);
+        int last = Math.max(visibleLast, 0);
+        visibleFirst = -1;
+        visibleLast = -1;
+        updateVisiblePages(first, last);
+    }
+
+    /**
+     * Once the system fonts are indexed: if the open document was rendered while font lookups
+     * got the stand-in font, its workers are restarted with fresh fonts and every page showing
+     * a raster is marked stale and re-rendered. Such rasters were never cached.
+     */
+    private void onSystemFontsReady() {
+        if (renderPool == null || !renderPool.hasProvisionalFonts() || SystemFontIndex.getStandInCount() == 0) {
+            return;
+        }
+        log.info("System fonts indexed, re-rendering " + currentFile.getName() + " with the installed fonts");
+        stopRenderPool();
+        resourceCache.install(document);
+        for (int i = 0; i < pageIcons.size(); i++) {
+            if (pageIcons.get(i).hasImage()) {
+                pageIcons.get(i).markStale();
+                pdfPanel.repaintPage(i);
+            }
+        }
+        startRenderPool(currentFile, owner.getPdfPassword());
+        rescheduleVisiblePages();
+    }
+
+    /**
+     * Cancels all queued render jobs; results still in flight are ignored via the generation.
+     */
+    private void stopRenderPool() {
+        renderGeneration++;
+        scrollSettleTimer.stop();
+        if (renderPool != null) {
+            renderPool.shutdown();
+            renderPool = null;
+        }
+    }
+
+    /**
+     * Puts page 1 on screen as early as possible: its cached raster if there is one, else the
+     * embedded /Thumb image, else a {@link #DRAFT_DPI} draft. The preview is drawn scaled until
+     * the render pool delivers the sharp raster, so the slow full render no longer runs here.
+     */
+    private void showFirstPagePreview(PDFRenderer renderer, int dpi) throws IOException {
+        BufferedImage cached = rasterCache.get(rasterKey(0, dpi));
+        if (cached != null) {
+            applyPageImage(0, cached, dpi);
+            return;
+        }
+
+        PDPage page = document.getPage(0);
+        BufferedImage thumb = loadEmbeddedThumbnail(page);
+        if (thumb != null) {
+            int thumbDpi = Math.max(1, Math.round(72f * thumb.getWidth() / PageRasterIcon.pixelSize(page, 72).width));
+            applyPageImage(0, optimizeImageForDisplay(thumb), thumbDpi);
+            return;
+        }
+
+        applyPageImage(0, PageRenderPool.renderPage(document, renderer, 0, DRAFT_DPI), DRAFT_DPI);
+    }
+
+    /**
+     * The page's /Thumb image (PDF 32000-1, 12.3.4), or null if absent or unreadable.
+     */
+    private static BufferedImage loadEmbeddedThumbnail(PDPage page) {
+        COSBase thumb = page.getCOSObject().getDictionaryObject(COSName.THUMB);
+        if (!(thumb instanceof COSStream)) {
+            return null;
+        }
+        try {
+            return new PDImageXObject(new PDStream((COSStream) thumb), null).getImage();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable /Thumb on page 1", e);
+            return null;
+        }
+    }
+
+    private PageRasterCache.Key rasterKey(int pageIndex, int dpi) {
+        return new PageRasterCache.Key(documentId, pageIndex, dpi, ImageType.RGB);
+    }
+
+    private PageRasterCache.Key rasterKey(PageRenderPool.Request request) {
+        if (request.isTile()) {
+            return new PageRasterCache.Key(documentId, request.pageIndex, request.dpi, ImageType.RGB,
+                    request.tile.x, request.tile.y);
+        }
+        return rasterKey(request.pageIndex, request.dpi);
+    }
+
+    /**
+     * Called on a render worker when a page raster or tile is ready.
+     */
+    private void onRendered(int generation, PageRenderPool.Request request, BufferedImage image, boolean cacheable) {
         BufferedImage optimizedImage = optimizeImageForDisplay(image);
+        // Drafts are only shown until the sharp page replaces them
+        if (!request.draft && cacheable) {
+            rasterCache.put(rasterKey(request), optimizedImage);
+        }
 
-        JPanel pageWrapper = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
-        pageWrapper.setOpaque(false);
+        // Update UI on EDT
+        SwingUtilities.invokeLater(() -> {
+            // Ignore results from a pool that belonged to a previously opened document
+            if (generation != renderGeneration || request.pageIndex >= pageIcons.size()) return;
+            // Drop rasters that arrive after the page has scrolled out of the retained range
+            if (!isRetained(request.pageIndex)) return;
+
+            PageRasterIcon icon = pageIcons.get(request.pageIndex);
+            if (request.draft) {
+                if (icon.hasImageAtLeast(request.dpi)) return; // something better arrived meanwhile
+                applyPageImage(request.pageIndex, optimizedImage, request.dpi);
+            } else if (request.isTile()) {
+                if (request.dpi != icon.getDpi()) return; // zoom changed meanwhile
+                Point tile = new Point(request.tile.x / PageRasterIcon.TILE_SIZE, request.tile.y / PageRasterIcon.TILE_SIZE);
+                icon.setTile(tile, optimizedImage);
+                repaintTile(request.pageIndex, request.tile);
+            } else if (request.dpi == icon.getDpi() || !icon.hasImageAt(icon.getDpi())) {
+                applyPageImage(request.pageIndex, optimizedImage, request.dpi);
+            }
+        });
+    }
 
-        JLabel pageLabel = new JLabel(new ImageIcon(optimizedImage)) {
-            @Override
-            public boolean isDoubleBuffered() {
-                return true;
+    /**
+     * Attaches a whole-page raster rendered at the given DPI. Must be called on EDT.
+     */
+    private void applyPageImage(int pageIndex, BufferedImage image, int dpi) {
+        if (pageIcons.get(pageIndex).setImage(image, dpi)) {
+            pdfPanel.updateLayout();
+        } else {
+            pdfPanel.repaintPage(pageIndex);
+        }
+    }
+
+    /**
+     * Drops all rasters of a page; its placeholder keeps the page size. Must be called on EDT.
+     */
+    private void releasePage(int pageIndex) {
+        pageIcons.get(pageIndex).clear();
+        pdfPanel.repaintPage(pageIndex);
+    }
+
+    /**
+     * Repaints only the area of a page covered by a tile (tile bounds are in page pixels).
+     */
+    private void repaintTile(int pageIndex, Rectangle tile) {
+        pdfPanel.repaintPage(pageIndex, new Rectangle(tile.x + DEFAULT_RENDERER_PADDING,
+                tile.y + DEFAULT_RENDERER_PADDING, tile.width, tile.height));
+    }
+
+    /* --------------------------
+       Zoom
+     --------------------------- */
+
+    /**
+     * Current zoom factor (1 = 100% = {@link #RENDER_DPI}).
+     */
+    public float getZoom() {
+        return zoom;
+    }
+
+    /**
+     * DPI pages are currently displayed at.
+     */
+    public int getRenderDpi() {
+        return Math.round(RENDER_DPI * zoom);
+    }
+
+    /**
+     * Pixels per PDF point at the current zoom; use this instead of RENDER_DPI / 72 for
+     * converting between screen and PDF coordinates.
+     */
+    public float getRenderScale() {
+        return getRenderDpi() / 72f;
+    }
+
+    /**
+     * Changes the zoom. Pages immediately show their current raster scaled; sharp rasters
+     * (or tiles, above {@link #MAX_WHOLE_PAGE_DPI}) are scheduled by the next viewport update.
+     * Overlays are placed at paint time and follow the new scale by themselves.
+     */
+    public void setZoom(float newZoom) {
+        newZoom = Math.max(ZOOM_LEVELS[0], Math.min(ZOOM_LEVELS[ZOOM_LEVELS.length - 1], newZoom));
+        if (newZoom == zoom) return;
+        zoom = newZoom;
+
+        int dpi = getRenderDpi();
+        for (PageRasterIcon icon : pageIcons) {
+            icon.setDpi(dpi);
+        }
+        pdfPanel.updateLayout();
+        log.info("Zoom set to " + Math.round(zoom * 100) + "% (" + dpi + " DPI)");
+
+        // Force a full reschedule on the next viewport update
+        visibleFirst = -1;
+        visibleLast = -1;
+        lastScrollNanos = 0;
+    }
+
+    /**
+     * Next zoom level above (direction > 0) or below (direction < 0) the current one.
+     */
+    public float nextZoomLevel(int direction) {
+        if (direction > 0) {
+            for (float level : ZOOM_LEVELS) {
+                if (level > zoom + 0.001f) return level;
             }
-        };
+            return ZOOM_LEVELS[ZOOM_LEVELS.length - 1];
+        }
+        for (int i = ZOOM_LEVELS.length - 1; i >= 0; i--) {
+            if (ZOOM_LEVELS[i] < zoom - 0.001f) return ZOOM_LEVELS[i];
+        }
+        return ZOOM_LEVELS[0];
+    }
 
-        pageLabel.setBorder(BorderFactory.createEmptyBorder(
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING
-        ));
+    /* --------------------------
+       Viewport-driven rendering
+     --------------------------- */
 
-        pageWrapper.add(pageLabel);
-        pdfPanel.add(pageWrapper);
+    /**
+     * Updates which pages hold rasters for the given view rectangle (in pdfPanel coordinates).
+     * Called by {@link PdfScrollPane} whenever the viewport moves or resizes.
+     */
+    public void onViewportChanged(Rectangle viewRect) {
+        if (pdfPanel.getPageCount() == 0 || viewRect.height <= 0) return;
+
+        lastViewRect = new Rectangle(viewRect);
+        int first = pdfPanel.pageAt(viewRect.y);
+        int last = pdfPanel.pageAt(viewRect.y + viewRect.height - 1);
+        if (first == visibleFirst && last == visibleLast) {
+            // Same pages, but at tile zoom a different part of them may be visible
+            if (renderPool != null && isTiled()) {
+                scheduleRenders(false);
+                scrollSettleTimer.restart();
+            }
+            return;
+        }
+        updateVisiblePages(first, last);
+    }
+
+    private void updateVisiblePages(int first, int last) {
+        // No pool: no document open
+        if (renderPool == null) return;
+        if (first == visibleFirst && last == visibleLast) return;
+
+        long now = System.nanoTime();
+        if (visibleFirst >= 0 && lastScrollNanos > 0) {
+            double seconds = (now - lastScrollNanos) / 1e9;
+            scrollVelocity = seconds > 0 ? (first - visibleFirst) / seconds : 0;
+            if (first != visibleFirst) {
+                scrollDirection = first > visibleFirst ? 1 : -1;
+            }
+        }
+        lastScrollNanos = now;
+        visibleFirst = first;
+        visibleLast = last;
+
+        int count = pageIcons.size();
+
+        // Release rasters outside the retained range so memory stays flat regardless of page count
+        int released = 0;
+        for (int i = 0; i < count; i++) {
+            PageRasterIcon icon = pageIcons.get(i);
+            if (icon.hasImage() && !isRetained(i)) {
+                releasePage(i);
+                released++;
+            } else if (icon.hasTiles() && (i < first || i > last)) {
+                icon.clearTiles(); // tiles are only kept for visible pages
+            }
+        }
+        if (released > 0) {
+            log.debug("Released " + released + " page raster(s) outside pages " + (first + 1) + "-" + (last + 1));
+        }
+
+        scheduleRenders(false);
+        scrollSettleTimer.restart();
     }
 
     /**
-     * Creates a placeholder panel for pages being rendered in background.
+     * Above this DPI whole pages get too large (an A4 page at 400 DPI is ~60 MB), so only
+     * the visible tiles are rendered sharp on top of a {@link #RENDER_DPI} page raster.
      */
-    private JPanel createPlaceholderPanel() {
-        JPanel pageWrapper = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
-        pageWrapper.setOpaque(false);
+    private boolean isTiled() {
+        return getRenderDpi() > MAX_WHOLE_PAGE_DPI;
+    }
 
-        // Create a simple loading placeholder
-        JLabel placeholder = new JLabel("Loading...") {
-            @Override
-            public boolean isDoubleBuffered() {
-                return true;
+    /**
+     * Rebuilds the render queue for the current visible range.
+     * <p>
+     * Visible pages go to the VISIBLE lane. While the user flings through the document only those
+     * are rendered; otherwise the prefetch window is scheduled as NEIGHBOR, biased towards the scroll
+     * direction. Once scrolling has settled, pages beyond the window are warmed into the raster
+     * cache on the BACKGROUND lane. Anything queued but not listed here is cancelled.
+     * <p>
+     * At tile zoom, whole pages are requested at {@link #RENDER_DPI} (shown scaled) and the visible
+     * tiles of the visible pages follow at the zoom DPI in the VISIBLE lane.
+     * <p>
+     * Under heap pressure the window shrinks, the page DPI is capped, background pages are not
+     * warmed, and at the critical level no tiles are rendered (see {@link #onMemoryPressure}).
+     */
+    private void scheduleRenders(boolean settled) {
+        if (renderPool == null || visibleFirst < 0) return;
+
+        int count = pageIcons.size();
+        int first = visibleFirst;
+        int last = visibleLast;
+        boolean tiled = isTiled() && memoryLevel != MemoryGovernor.Level.CRITICAL;
+        int pageDpi = Math.min(tiled ? RENDER_DPI : getRenderDpi(), maxPageDpi());
+        int prefetch = prefetchWindow();
+        Map<PageRenderPool.Request, PageRenderPool.Lane> jobs = new LinkedHashMap<>();
+        boolean flinging = !settled && Math.abs(scrollVelocity) > FAST_SCROLL_PAGES_PER_SEC;
+
+        for (int i = first; i <= last; i++) {
+            if (flinging) {
+                requestDraft(i, pageDpi, jobs);
+            } else {
+                requestPage(i, pageDpi, PageRenderPool.Lane.VISIBLE, jobs);
             }
-        };
-        placeholder.setHorizontalAlignment(SwingConstants.CENTER);
-        placeholder.setPreferredSize(new Dimension(600, 800));
-        placeholder.setBorder(BorderFactory.createEmptyBorder(
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING
-        ));
+        }
+        if (tiled && !flinging) {
+            for (int i = first; i <= last; i++) {
+                requestVisibleTiles(i, jobs);
+            }
+        }
 
-        pageWrapper.add(placeholder);
-        return pageWrapper;
+        if (!flinging) {
+            // While moving, look further ahead and keep only one page behind
+            boolean moving = !settled && scrollVelocity != 0;
+            int ahead = moving ? prefetch * 2 : prefetch;
+            int behind = moving ? Math.min(1, prefetch) : prefetch;
+            int down = scrollDirection >= 0 ? ahead : behind;
+            int up = scrollDirection >= 0 ? behind : ahead;
+            for (int d = 1; d <= Math.max(down, up); d++) {
+                if (d <= down && last + d < count) requestPage(last + d, pageDpi, PageRenderPool.Lane.NEIGHBOR, jobs);
+                if (d <= up && first - d >= 0) requestPage(first - d, pageDpi, PageRenderPool.Lane.NEIGHBOR, jobs);
+            }
+
+            if (settled && memoryLevel == MemoryGovernor.Level.NORMAL) {
+                // Warm the cache further along the reading direction
+                int step = scrollDirection >= 0 ? 1 : -1;
+                int start = step > 0 ? last + down + 1 : first - up - 1;
+                for (int d = 0; d < prefetch * 2; d++) {
+                    int pageIndex = start + d * step;
+                    if (pageIndex < 0 || pageIndex >= count) break;
+                    requestPage(pageIndex, pageDpi, PageRenderPool.Lane.BACKGROUND, jobs);
+                }
+            }
+        }
+        renderPool.schedule(jobs);
     }
 
     /**
-     * Updates a page panel with the rendered image (called from background thread via EDT).
+     * Attaches the page raster from the cache, or queues the page on a miss.
+     * On a miss, a cached {@link #RENDER_DPI} raster is attached meanwhile so zoomed pages are
+     * never blank. Background pages are only warmed into the cache, not attached.
      */
-    private void updatePagePanel(int pageIndex, BufferedImage image) {
-        if (pageIndex >= pdfPanel.getComponentCount()) return;
+    private void requestPage(int pageIndex, int dpi, PageRenderPool.Lane lane,
+                             Map<PageRenderPool.Request, PageRenderPool.Lane> jobs) {
+        PageRasterIcon icon = pageIcons.get(pageIndex);
+        if (icon.hasImageAt(dpi)) return;
+        // At tile zoom any whole-page raster at least this sharp will do as the background under the tiles
+        if (dpi != icon.getDpi() && icon.hasImageAtLeast(dpi)) return;
+
+        BufferedImage cached = rasterCache.get(rasterKey(pageIndex, dpi));
+        if (cached != null) {
+            if (lane != PageRenderPool.Lane.BACKGROUND) {
+                applyPageImage(pageIndex, cached, dpi);
+            }
+            return;
+        }
+        if (lane != PageRenderPool.Lane.BACKGROUND && icon.getImage() == null && dpi != RENDER_DPI) {
+            BufferedImage fallback = rasterCache.get(rasterKey(pageIndex, RENDER_DPI));
+            if (fallback != null) {
+                applyPageImage(pageIndex, fallback, RENDER_DPI);
+            }
+        }
+        jobs.putIfAbsent(PageRenderPool.Request.page(pageIndex, dpi), lane);
+    }
 
-        Component comp = pdfPanel.getComponent(pageIndex);
-        if (!(comp instanceof JPanel)) return;
+    /**
+     * While flinging: attaches a cached full-quality raster if there is one, otherwise queues a
+     * {@link PageRenderPool.DraftRenderer draft} at {@link #draftDpi} unless the page already
+     * shows something at least that sharp. The settle timer replaces drafts with sharp pages.
+     */
+    private void requestDraft(int pageIndex, int dpi, Map<PageRenderPool.Request, PageRenderPool.Lane> jobs) {
+        PageRasterIcon icon = pageIcons.get(pageIndex);
+        int draftDpi = draftDpi(dpi);
+        if (icon.hasImageAtLeast(draftDpi)) return;
+
+        BufferedImage cached = rasterCache.get(rasterKey(pageIndex, dpi));
+        if (cached != null) {
+            applyPageImage(pageIndex, cached, dpi);
+            return;
+        }
+        jobs.putIfAbsent(PageRenderPool.Request.draft(pageIndex, draftDpi), PageRenderPool.Lane.VISIBLE);
+    }
 
-        JPanel pageWrapper = (JPanel) comp;
-        pageWrapper.removeAll();
+    /**
+     * Draft resolution for pages displayed at the given DPI: half of it, but not below
+     * {@link #DRAFT_DPI}. Always lower than the display DPI, so a draft never counts as sharp.
+     */
+    private static int draftDpi(int dpi) {
+        return Math.min(dpi - 1, Math.max(DRAFT_DPI, dpi / 2));
+    }
 
-        JLabel pageLabel = new JLabel(new ImageIcon(image)) {
-            @Override
-            public boolean isDoubleBuffered() {
-                return true;
+    /**
+     * Queues the tiles of a page that intersect the viewport; tiles well outside it are dropped.
+     */
+    private void requestVisibleTiles(int pageIndex, Map<PageRenderPool.Request, PageRenderPool.Lane> jobs) {
+        if (lastViewRect == null) return;
+        PageRasterIcon icon = pageIcons.get(pageIndex);
+        Rectangle page = pdfPanel.getPageBounds(pageIndex);
+        Rectangle area = new Rectangle(lastViewRect);
+        area.translate(-page.x, -page.y);
+
+        // Keep one ring of tiles around the viewport so small scrolls do not flash
+        Rectangle keep = new Rectangle(area);
+        keep.grow(PageRasterIcon.TILE_SIZE, PageRasterIcon.TILE_SIZE);
+        icon.retainTiles(keep);
+
+        int dpi = icon.getDpi();
+        for (Point tile : icon.tilesIntersecting(area)) {
+            if (icon.hasTile(tile)) continue;
+            Rectangle bounds = icon.getTileBounds(tile);
+            PageRenderPool.Request request = PageRenderPool.Request.tile(pageIndex, dpi, bounds);
+            BufferedImage cached = rasterCache.get(rasterKey(request));
+            if (cached != null) {
+                icon.setTile(tile, cached);
+                repaintTile(pageIndex, bounds);
+            } else {
+                jobs.put(request, PageRenderPool.Lane.VISIBLE);
             }
-        };
+        }
+    }
+
+    /**
+     * Pages within twice the prefetch window of the visible range keep their rasters,
+     * so scrolling back and forth near the viewport does not re-render.
+     */
+    private boolean isRetained(int pageIndex) {
+        int margin = Math.max(1, prefetchWindow() * 2);
+        return pageIndex >= visibleFirst - margin && pageIndex <= visibleLast + margin;
+    }
+
+    /**
+     * Prefetch window for the current heap pressure: the configured one, half of it, or none.
+     */
+    private int prefetchWindow() {
+        switch (memoryLevel) {
+            case HIGH:
+                return prefetchPages / 2;
+            case CRITICAL:
+                return 0;
+            default:
+                return prefetchPages;
+        }
+    }
 
-        pageLabel.setBorder(BorderFactory.createEmptyBorder(
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING,
-                DEFAULT_RENDERER_PADDING
-        ));
+    /**
+     * Highest DPI whole pages are rendered at for the current heap pressure; sharper zoom
+     * levels show these rasters scaled until pressure clears.
+     */
+    private int maxPageDpi() {
+        switch (memoryLevel) {
+            case HIGH:
+                return RENDER_DPI;
+            case CRITICAL:
+                return PRESSURE_DPI;
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
 
-        pageWrapper.add(pageLabel);
-        pageWrapper.revalidate();
-        pageWrapper.repaint();
+    /**
+     * Adapts to a new heap pressure level (see {@link MemoryGovernor}): the raster cache limit
+     * drops to a half (high) or an eighth (critical) of its budget, the render workers and the
+     * open document drop their cached fonts and decoded images, and rasters outside the smaller
+     * retained range are released (at the critical level tiles too). When pressure clears, the
+     * limits are restored and the visible pages are rendered sharp again. Called on the EDT.
+     */
+    private void onMemoryPressure(MemoryGovernor.Level level) {
+        memoryLevel = level;
+        long budget = rasterCache.getMaxBytes();
+        long limit = level == MemoryGovernor.Level.CRITICAL ? budget / 8
+                : level == MemoryGovernor.Level.HIGH ? budget / 2 : budget;
+        long freed = rasterCache.setLimit(limit);
+
+        int released = 0;
+        if (level != MemoryGovernor.Level.NORMAL) {
+            if (renderPool != null) {
+                renderPool.trimMemory();
+            }
+            if (resourceCache != null) {
+                resourceCache.clear();
+                resourceCache.install(document);
+            }
+        }
+        if (level != MemoryGovernor.Level.NORMAL && visibleFirst >= 0) {
+            for (int i = 0; i < pageIcons.size(); i++) {
+                PageRasterIcon icon = pageIcons.get(i);
+                if (icon.hasImage() && !isRetained(i)) {
+                    releasePage(i);
+                    released++;
+                } else if (level == MemoryGovernor.Level.CRITICAL && icon.hasTiles()) {
+                    icon.clearTiles();
+                    pdfPanel.repaintPage(i);
+                }
+            }
+        }
+        int dpiCap = maxPageDpi();
+        log.info(String.format("Memory pressure %s: raster cache limit %d MB (%d MB released), %d page raster(s) "
+                        + "released, prefetch %d page(s), page DPI cap %s, background rendering %s",
+                level, limit >> 20, freed >> 20, released, prefetchWindow(),
+                dpiCap == Integer.MAX_VALUE ? "none" : String.valueOf(dpiCap),
+                level == MemoryGovernor.Level.NORMAL ? "on" : "paused"));
+
+        // Re-plan the queue: drops jobs the new limits exclude, or refines pages once pressure clears
+        scheduleRenders(!scrollSettleTimer.isRunning());
     }
 
     /**
@@ -282,36 +792,296 @@ public class PdfRendererService {
     }
 
     /**
-     * Releases the PDDocument from memory to free up heap space.
-     * The rendered images remain visible but the document is closed.
-     * Call this before memory-intensive operations like signing large PDFs.
+     * Lets go of the open file so it can be replaced by {@code nextRevision}, e.g. a signed copy
+     * saved under the same name (Windows refuses to replace a file that is still open). The render
+     * pool and text index are stopped and the document and the iText session are closed. Pages on
+     * screen keep their rasters and the text index keeps its pages.
+     * <p>
+     * If {@code nextRevision} is an incremental update of the open file, that is checked now,
+     * while the old bytes can still be read, so {@link #openNextRevision(File)} can redraw only the
+     * changed pages once the file has been replaced.
+     *
+     * @return the stopped workers, which may still be reading the file until they exit
      */
-    public void releaseDocumentMemory() {
-        // Cancel any background rendering first
-        renderCancelled.set(true);
-        if (renderExecutor != null && !renderExecutor.isShutdown()) {
-            renderExecutor.shutdownNow();
-            renderExecutor = null;
+    public List<Thread> releaseFile(File nextRevision) {
+        releasedLength = -1;
+        if (documentSession != null && nextRevision != null && documentSession.isExtendedBy(nextRevision)) {
+            releasedLength = documentSession.getLength();
+            releasedNextLength = nextRevision.length();
+        }
+        List<Thread> readers = new ArrayList<>();
+        if (renderPool != null) {
+            readers.addAll(renderPool.getWorkers());
+        }
+        stopRenderPool();
+        if (textIndex != null) {
+            // Kept (not stopped for good) so the next revision reuses its unchanged pages
+            textIndex.shutdown();
+            if (textIndex.getWorker() != null) {
+                readers.add(textIndex.getWorker());
+            }
         }
 
+        if (document != null) {
+            closeQuietly(document);
+            document = null;
+        }
+        resourceCache = null;
+        if (documentSession != null) {
+            documentSession.close();
+            documentSession = null;
+        }
+        log.info("Released " + (currentFile != null ? currentFile.getName() : "document")
+                + (releasedLength > 0 ? " for its next revision" : ""));
+        return readers;
+    }
+
+    /**
+     * Switches to a later revision of the current document (an incremental update such as a new
+     * signature) without rebuilding the view. The new file is parsed once; pages whose dictionary,
+     * contents or annotations were rewritten by the update are re-rendered, every other page keeps
+     * its raster (on screen and in the cache) and the scroll position is unchanged.
+     *
+     * @return 0-based indexes of the changed pages, or null if the file is not a later revision
+     * of the current one (the caller should render it from scratch)
+     */
+    public Set<Integer> openNextRevision(File file) {
+        long previousLength;
+        if (document != null && documentSession != null) {
+            if (!documentSession.isExtendedBy(file)) {
+                return null;
+            }
+            previousLength = documentSession.getLength();
+        } else if (document == null && releasedLength > 0 && file.length() == releasedNextLength) {
+            // Released (see releaseFile) for this revision, which was checked against the old bytes
+            previousLength = releasedLength;
+        } else {
+            return null;
+        }
+        releasedLength = -1;
+        long start = System.currentTimeMillis();
+        String password = owner.getPdfPassword();
+        PDDocument next;
         try {
-            if (document != null) {
-                document.close();
-                document = null;
-                log.info("PDDocument released from memory for signing operation");
+            next = password != null
+                    ? PDDocument.load(file, password, MemoryUsageSetting.setupTempFileOnly())
+                    : PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly());
+        } catch (IOException e) {
+            log.warn("Cannot open new revision " + file.getName() + ", reloading: " + e.getMessage());
+            return null;
+        }
+        Set<Integer> changed = findChangedPages(next, previousLength);
+        if (changed == null || next.getNumberOfPages() != pageIcons.size()) {
+            closeQuietly(next);
+            return null;
+        }
+        if (next.isEncrypted()) {
+            next.setAllSecurityToBeRemoved(true);
+        }
+        // Field detection and verification need the session; without one, load from scratch
+        DocumentSession nextSession;
+        try {
+            nextSession = DocumentSession.open(file, password);
+        } catch (IOException e) {
+            log.warn("Cannot open iText session for " + file.getName() + ", reloading: " + e.getMessage());
+            closeQuietly(next);
+            return null;
+        }
+
+        stopRenderPool();
+        hideSignedSignatureOverlays();
+        hideSignatureFieldOverlays();
+        unsignedSignatureFields.clear();
+
+        if (document != null) {
+            closeQuietly(document);
+        }
+        document = next;
+        // Object numbers may have been reused by the update, so decoded images start over
+        if (resourceCache != null) {
+            resourceCache.logStats();
+        }
+        resourceCache = new SharedResourceCache(SharedResourceCache.defaultBudget());
+        resourceCache.install(document);
+        if (documentSession != null) {
+            documentSession.close();
+        }
+        documentSession = nextSession;
+        String previousId = documentId;
+        currentFile = file;
+        documentId = PageRasterCache.documentId(file);
+        rasterCache.carryOver(previousId, documentId, changed);
+
+        for (int pageIndex : changed) {
+            pageIcons.get(pageIndex).markStale();
+            pdfPanel.repaintPage(pageIndex);
+        }
+
+        startRenderPool(file, password);
+        rescheduleVisiblePages();
+        // Text of the unchanged pages is kept; only the changed ones are extracted again
+        TextIndex previousIndex = textIndex;
+        stopTextIndex();
+        startTextIndex(new TextIndex(file, password, pageIcons.size(), next.isEncrypted(),
+                previousIndex, changed, this::onTextIndexProgress));
+
+        finalizeRenderingOnEDT();
+        log.info("Opened new revision " + file.getName() + " in " + (System.currentTimeMillis() - start)
+                + " ms; " + changed.size() + " of " + pageIcons.size() + " page(s) changed");
+        return changed;
+    }
+
+    /**
+     * Pages affected by the incremental update(s) appended after {@code previousLength}: those
+     * whose page dictionary, content streams, resources, annotation array, annotations or
+     * annotation appearances were written again. Returns null if the page tree cannot be walked.
+     */
+    private static Set<Integer> findChangedPages(PDDocument next, long previousLength) {
+        Map<COSObjectKey, Long> xref = next.getDocument().getXrefTable();
+        Set<COSObjectKey> updated = new HashSet<>();
+        for (Map.Entry<COSObjectKey, Long> entry : xref.entrySet()) {
+            long offset = entry.getValue();
+            if (offset < 0) {
+                // Compressed object: new if its object stream is new
+                Long streamOffset = xref.get(new COSObjectKey(-offset, 0));
+                if (streamOffset != null && streamOffset >= previousLength) {
+                    updated.add(entry.getKey());
+                }
+            } else if (offset >= previousLength) {
+                updated.add(entry.getKey());
+            }
+        }
+
+        Set<Integer> changed = new TreeSet<>();
+        List<COSObject> pages = new ArrayList<>();
+        COSBase root = next.getDocumentCatalog().getCOSObject().getItem(COSName.PAGES);
+        if (!collectPageRefs(root, pages, 0) || pages.size() != next.getNumberOfPages()) {
+            return null;
+        }
+        for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+            if (isPageUpdated(pages.get(pageIndex), updated)) {
+                changed.add(pageIndex);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Collects the indirect references of the page dictionaries, in page order.
+     */
+    private static boolean collectPageRefs(COSBase node, List<COSObject> pages, int depth) {
+        if (!(node instanceof COSObject) || depth > 64) {
+            return false; // page tree nodes are always indirect
+        }
+        COSBase resolved = ((COSObject) node).getObject();
+        if (!(resolved instanceof COSDictionary)) {
+            return false;
+        }
+        COSDictionary dict = (COSDictionary) resolved;
+        if (!COSName.PAGES.equals(dict.getCOSName(COSName.TYPE))) {
+            pages.add((COSObject) node);
+            return true;
+        }
+        COSBase kids = dict.getDictionaryObject(COSName.KIDS);
+        if (!(kids instanceof COSArray)) {
+            return false;
+        }
+        for (COSBase kid : (COSArray) kids) {
+            if (!collectPageRefs(kid, pages, depth + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True if the page dictionary, its content streams or resources, its /Annots array, one of
+     * its annotations or an annotation's appearance streams was rewritten.
+     */
+    private static boolean isPageUpdated(COSObject pageRef, Set<COSObjectKey> updated) {
+        if (isUpdated(pageRef, updated)) {
+            return true;
+        }
+        COSDictionary page = (COSDictionary) pageRef.getObject();
+        if (isUpdated(page.getItem(COSName.RESOURCES), updated)
+                || anyUpdated(page.getItem(COSName.CONTENTS), updated)
+                || isUpdated(page.getItem(COSName.ANNOTS), updated)) {
+            return true;
+        }
+        COSBase annots = page.getDictionaryObject(COSName.ANNOTS);
+        if (!(annots instanceof COSArray)) {
+            return false;
+        }
+        for (COSBase annot : (COSArray) annots) {
+            if (isUpdated(annot, updated)) {
+                return true;
+            }
+            COSBase annotDict = annot instanceof COSObject ? ((COSObject) annot).getObject() : annot;
+            if (!(annotDict instanceof COSDictionary)) continue;
+            COSBase ap = ((COSDictionary) annotDict).getItem(COSName.AP);
+            if (isUpdated(ap, updated)) {
+                return true;
+            }
+            COSBase apDict = ap instanceof COSObject ? ((COSObject) ap).getObject() : ap;
+            if (!(apDict instanceof COSDictionary)) continue;
+            // /N, /R, /D: an appearance stream or a dictionary of appearance states
+            for (COSBase appearance : ((COSDictionary) apDict).getValues()) {
+                if (anyUpdated(appearance, updated)) {
+                    return true;
+                }
             }
-        } catch (Exception e) {
-            log.error("Failed to release PDF document from memory", e);
         }
+        return false;
+    }
+
+    private static boolean isUpdated(COSBase base, Set<COSObjectKey> updated) {
+        if (!(base instanceof COSObject)) {
+            return false;
+        }
+        COSObject ref = (COSObject) base;
+        return updated.contains(new COSObjectKey(ref.getObjectNumber(), ref.getGenerationNumber()));
+    }
+
+    /**
+     * True if the reference, or any reference directly inside the (array or non-stream
+     * dictionary) object it points to, was rewritten.
+     */
+    private static boolean anyUpdated(COSBase base, Set<COSObjectKey> updated) {
+        if (isUpdated(base, updated)) {
+            return true;
+        }
+        COSBase resolved = base instanceof COSObject ? ((COSObject) base).getObject() : base;
+        if (resolved instanceof COSArray) {
+            for (COSBase item : (COSArray) resolved) {
+                if (isUpdated(item, updated)) return true;
+            }
+        } else if (resolved instanceof COSDictionary && !(resolved instanceof COSStream)) {
+            for (COSBase value : ((COSDictionary) resolved).getValues()) {
+                if (isUpdated(value, updated)) return true;
+            }
+        }
+        return false;
+    }
 
-        // Force garbage collection to reclaim memory
-        System.gc();
+    private static void closeQuietly(PDDocument document) {
+        try {
+            document.close();
+        } catch (IOException e) {
+            log.debug("Error closing document", e);
+        }
     }
 
     public File getCurrentFile() {
         return currentFile;
     }
 
+    /**
+     * The shared iText session of the current file, or null if none is open.
+     */
+    public DocumentSession getDocumentSession() {
+        return documentSession;
+    }
+
     public String getPdfPassword() {
         return pdfPassword;
     }
@@ -327,7 +1097,8 @@ public class PdfRendererService {
      */
     public boolean isCurrentPdfEncrypted() {
         if (document == null) {
-            return false;
+            // Released (see releaseFile): the iText session may still know
+            return documentSession != null && documentSession.isEncrypted();
         }
         return document.isEncrypted();
     }
@@ -340,18 +1111,15 @@ public class PdfRendererService {
     public List<SignatureFieldInfo> detectUnsignedSignatureFields() {
         unsignedSignatureFields.clear();
 
-        if (currentFile == null) {
+        if (currentFile == null || documentSession == null) {
             log.warn("No PDF file loaded. Cannot detect signature fields.");
             return unsignedSignatureFields;
         }
 
         try {
-            PdfReader reader = pdfPassword != null && !pdfPassword.isEmpty()
-                    ? new PdfReader(currentFile.getAbsolutePath(), pdfPassword.getBytes())
-                    : new PdfReader(currentFile.getAbsolutePath());
-
-            unsignedSignatureFields = fieldDetectionService.detectUnsignedSignatureFields(reader);
-            reader.close();
+            // The session's signature index is built once and reused by verification
+            unsignedSignatureFields = fieldDetectionService.detectUnsignedSignatureFields(
+                    documentSession.getSignatureIndex());
 
             log.info("Detected " + unsignedSignatureFields.size() + " unsigned signature fields");
             return unsignedSignatureFields;
@@ -382,7 +1150,7 @@ public class PdfRendererService {
      *
      * @param clickListener Listener for field click events
      */
-    public void showSignatureFieldOverlays(SignatureFieldOverlay.FieldClickListener clickListener) {
+    public void showSignatureFieldOverlays(SignatureOverlayLayer.FieldClickListener clickListener) {
         if (unsignedSignatureFields.isEmpty()) {
             detectUnsignedSignatureFields();
         }
@@ -392,82 +1160,10 @@ public class PdfRendererService {
             return;
         }
 
-        hideSignatureFieldOverlays(); // Clear existing overlays
-
-        float scale = RENDER_DPI / 72f;
-        int totalPages = getPageCountSafe();
-
-        for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
-            Component wrapper = pdfPanel.getComponent(pageIndex);
-            if (wrapper instanceof JPanel) {
-                JPanel pageWrapper = (JPanel) wrapper;
-                JLabel pageLabel = findPageLabel(pageWrapper);
-
-                if (pageLabel != null) {
-                    int pageNumber = pageIndex + 1; // 1-based
-
-                    // Get actual rendered image dimensions
-                    Icon icon = pageLabel.getIcon();
-                    if (icon == null) {
-                        log.warn("Page " + pageNumber + " has no icon, skipping overlay");
-                        continue;
-                    }
-
-                    int imageWidth = icon.getIconWidth();
-                    int imageHeight = icon.getIconHeight();
-
-                    // Create overlay with actual page dimensions
-                    SignatureFieldOverlay overlay = new SignatureFieldOverlay(
-                            pageNumber,
-                            scale,
-                            unsignedSignatureFields,
-                            clickListener,
-                            imageWidth,   // Pass actual image width
-                            imageHeight   // Pass actual image height
-                    );
-
-                    if (overlay.hasFields()) {
-                        // Calculate total size including padding
-                        Dimension totalSize = new Dimension(
-                                imageWidth + 2 * DEFAULT_RENDERER_PADDING,
-                                imageHeight + 2 * DEFAULT_RENDERER_PADDING
-                        );
-
-                        // Create layered pane for proper z-ordering
-                        JLayeredPane layeredPane = new JLayeredPane();
-                        layeredPane.setPreferredSize(totalSize);
-                        layeredPane.setSize(totalSize);
-
-                        // Set bounds for both components (same size, same position)
-                        pageLabel.setBounds(0, 0, totalSize.width, totalSize.height);
-                        overlay.setBounds(0, 0, totalSize.width, totalSize.height);
-
-                        // Add to layered pane: page label at bottom, overlay on top
-                        layeredPane.add(pageLabel, Integer.valueOf(JLayeredPane.DEFAULT_LAYER));
-                        layeredPane.add(overlay, Integer.valueOf(JLayeredPane.PALETTE_LAYER));
-
-                        // Make sure overlay is visible
-                        overlay.setVisible(true);
-                        overlay.revalidate();
-
-                        // Replace the page label with the layered pane in the wrapper
-                        pageWrapper.removeAll();
-                        pageWrapper.add(layeredPane);
-
-                        fieldOverlays.add(overlay);
-
-                        log.info("Added signature field overlay to page " + pageNumber +
-                                " (" + overlay.getFieldCount() + " fields)");
-                    }
-                }
-            }
-        }
-
-        showSignatureFieldsOverlay = true;
-        pdfPanel.revalidate();
-        pdfPanel.repaint();
+        int shown = overlayLayer.showFields(unsignedSignatureFields, clickListener);
+        showSignatureFieldsOverlay = shown > 0;
 
-        log.info("Signature field overlays displayed");
+        log.info("Signature field overlays displayed (" + shown + " fields)");
     }
 
     /**
@@ -475,80 +1171,30 @@ public class PdfRendererService {
      * Should be called when signing is cancelled or completed to restore normal interaction.
      */
     public void resetOverlayLoadingStates() {
-        for (SignatureFieldOverlay overlay : fieldOverlays) {
-            overlay.resetLoadingState();
-        }
+        overlayLayer.resetLoadingState();
     }
 
     /**
-     * Hides all signature field overlays and restores original layout.
+     * Hides all signature field overlays.
      */
     public void hideSignatureFieldOverlays() {
         if (!showSignatureFieldsOverlay) {
             return; // Already hidden
         }
 
-        // Reset loading states before cleanup
-        resetOverlayLoadingStates();
-
-        // Cleanup all overlay timers to prevent memory leaks
-        for (SignatureFieldOverlay overlay : fieldOverlays) {
-            overlay.cleanup();
-        }
-
-        // Restore original page wrapper layout
-        int totalPages = getPageCountSafe();
-        for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
-            Component wrapper = pdfPanel.getComponent(pageIndex);
-            if (wrapper instanceof JPanel) {
-                JPanel pageWrapper = (JPanel) wrapper;
-
-                // Find the layered pane (if it exists)
-                for (Component comp : pageWrapper.getComponents()) {
-                    if (comp instanceof JLayeredPane) {
-                        JLayeredPane layeredPane = (JLayeredPane) comp;
-
-                        // Extract the original page label from the layered pane
-                        Component[] components = layeredPane.getComponents();
-                        JLabel pageLabel = null;
-                        for (Component c : components) {
-                            if (c instanceof JLabel) {
-                                pageLabel = (JLabel) c;
-                                break;
-                            }
-                        }
-
-                        if (pageLabel != null) {
-                            // Restore original layout: FlowLayout with page label
-                            pageWrapper.removeAll();
-                            pageWrapper.setLayout(new FlowLayout(FlowLayout.CENTER, 0, 0));
-                            pageWrapper.add(pageLabel);
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-
-        fieldOverlays.clear();
+        // Also resets the loading state of a clicked field
+        overlayLayer.hideFields();
         showSignatureFieldsOverlay = false;
 
-        pdfPanel.revalidate();
-        pdfPanel.repaint();
-
         log.info("Signature field overlays hidden");
     }
 
     /**
-     * Finds the JLabel containing the PDF page image within a wrapper panel.
+     * True if the point (pdfPanel coordinates) is over a signature field or signed signature
+     * overlay, which handle the click themselves.
      */
-    private JLabel findPageLabel(JPanel pageWrapper) {
-        for (Component c : pageWrapper.getComponents()) {
-            if (c instanceof JLabel) {
-                return (JLabel) c;
-            }
-        }
-        return null;
+    boolean isOverlayItemAt(Point point) {
+        return overlayLayer.isItemAt(point);
     }
 
     /**
@@ -583,148 +1229,45 @@ public class PdfRendererService {
             return;
         }
 
-        // Clear any existing overlays
-        hideSignedSignatureOverlays();
-
-        float scale = RENDER_DPI / 72f;
-        int totalPages = getPageCountSafe();
-
-        for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
-            Component wrapper = pdfPanel.getComponent(pageIndex);
-            if (wrapper instanceof JPanel) {
-                JPanel pageWrapper = (JPanel) wrapper;
-
-                // Find the page label or layered pane
-                Component pageComponent = findPageComponent(pageWrapper);
-                if (pageComponent == null) {
-                    continue;
-                }
-
-                int pageNumber = pageIndex + 1; // 1-based
-
-                // Get image dimensions
-                int imageWidth, imageHeight;
-                if (pageComponent instanceof JLabel) {
-                    Icon icon = ((JLabel) pageComponent).getIcon();
-                    if (icon == null) continue;
-                    imageWidth = icon.getIconWidth();
-                    imageHeight = icon.getIconHeight();
-                } else if (pageComponent instanceof JLayeredPane) {
-                    imageWidth = pageComponent.getWidth();
-                    imageHeight = pageComponent.getHeight();
-                } else {
-                    continue;
-                }
-
-                // Create overlay for this page (with scrollPane parameter)
-                SignedSignatureOverlay overlay = new SignedSignatureOverlay(
-                        pageNumber,
-                        scale,
-                        results,
-                        colorManager,
-                        imageWidth,
-                        imageHeight,
-                        scrollPane  // NEW PARAMETER
-                );
-
-                if (overlay.hasSignatures()) {
-                    // Calculate total size including padding
-                    Dimension totalSize = new Dimension(
-                            imageWidth + 2 * DEFAULT_RENDERER_PADDING,
-                            imageHeight + 2 * DEFAULT_RENDERER_PADDING
-                    );
-
-                    // If there's already a layered pane (from unsigned field overlay), add to it
-                    if (pageComponent instanceof JLayeredPane) {
-                        JLayeredPane layeredPane = (JLayeredPane) pageComponent;
-                        overlay.setBounds(0, 0, totalSize.width, totalSize.height);
-                        layeredPane.add(overlay, Integer.valueOf(JLayeredPane.MODAL_LAYER));
-                    } else {
-                        // Create new layered pane
-                        JLayeredPane layeredPane = new JLayeredPane();
-                        layeredPane.setPreferredSize(totalSize);
-                        layeredPane.setSize(totalSize);
-
-                        // Set bounds for both components
-                        pageComponent.setBounds(0, 0, totalSize.width, totalSize.height);
-                        overlay.setBounds(0, 0, totalSize.width, totalSize.height);
-
-                        // Add to layered pane
-                        layeredPane.add(pageComponent, Integer.valueOf(JLayeredPane.DEFAULT_LAYER));
-                        layeredPane.add(overlay, Integer.valueOf(JLayeredPane.MODAL_LAYER));
-
-                        // Replace in wrapper
-                        pageWrapper.removeAll();
-                        pageWrapper.add(layeredPane);
-                    }
-
-                    signedSignatureOverlays.add(overlay);
-
-                    log.info("Added signed signature overlay to page " + pageNumber +
-                            " (" + overlay.getSignatureCount() + " signatures)");
-                }
-            }
-        }
-
-        pdfPanel.revalidate();
-        pdfPanel.repaint();
+        int shown = overlayLayer.showSignatures(results, colorManager, scrollPane);
 
-        log.info("Signed signature overlays displayed");
+        log.info("Signed signature overlays displayed (" + shown + " signatures)");
     }
 
     /**
      * Gets signed signature overlay for highlighting (called from panel).
      */
     public void highlightSignatureOnOverlay(String fieldName) {
-        for (SignedSignatureOverlay overlay : signedSignatureOverlays) {
-            overlay.highlightSignature(fieldName);
-        }
+        overlayLayer.highlightSignature(fieldName);
     }
 
     /**
      * Hides all signed signature overlays.
      */
     public void hideSignedSignatureOverlays() {
-        if (signedSignatureOverlays.isEmpty()) {
+        if (!overlayLayer.hasSignatures()) {
             return;
         }
 
-        // Remove overlays from their parents
-        for (SignedSignatureOverlay overlay : signedSignatureOverlays) {
-            Container parent = overlay.getParent();
-            if (parent != null) {
-                parent.remove(overlay);
-                parent.revalidate();
-                parent.repaint();
-            }
-        }
-
-        signedSignatureOverlays.clear();
-
-        pdfPanel.revalidate();
-        pdfPanel.repaint();
+        overlayLayer.hideSignatures();
 
         log.info("Signed signature overlays hidden");
     }
 
-    /**
-     * Finds the main page component (JLabel or JLayeredPane) within a wrapper.
-     */
-    private Component findPageComponent(JPanel pageWrapper) {
-        for (Component c : pageWrapper.getComponents()) {
-            if (c instanceof JLabel || c instanceof JLayeredPane) {
-                return c;
-            }
-        }
-        return null;
-    }
-
     public void close() {
         // Cancel any background rendering first
-        renderCancelled.set(true);
-        if (renderExecutor != null && !renderExecutor.isShutdown()) {
-            renderExecutor.shutdownNow();
-            renderExecutor = null;
+        stopRenderPool();
+        stopTextIndex();
+        if (documentId != null) {
+            rasterCache.logStats();
+            if (resourceCache != null) {
+                resourceCache.logStats();
+            }
+            MemoryGovernor.getInstance().logStats();
+            PageDiskCache diskCache = PageDiskCache.getInstance();
+            if (diskCache != null) {
+                diskCache.logStats();
+            }
         }
 
         try {
@@ -735,21 +1278,29 @@ public class PdfRendererService {
                     "An unexpected error occurred while closing the PDF. Please try again.");
             System.exit(1);
         } finally {
-            // Cleanup all overlay timers to prevent memory leaks
-            for (SignatureFieldOverlay overlay : fieldOverlays) {
-                overlay.cleanup();
-            }
+            // Stops the overlay timers to prevent memory leaks
+            overlayLayer.clear();
 
+            if (documentSession != null) {
+                documentSession.close();
+                documentSession = null;
+            }
             document = null;
+            resourceCache = null;
+            releasedLength = -1;
             currentFile = null;
+            documentId = null;
             pdfPassword = null;
+            pageIcons.clear();
+            visibleFirst = -1;
+            visibleLast = -1;
+            lastScrollNanos = 0;
+            lastViewRect = null;
+            scrollVelocity = 0;
+            scrollDirection = 0;
             unsignedSignatureFields.clear();
-            fieldOverlays.clear();
-            signedSignatureOverlays.clear();
             showSignatureFieldsOverlay = false;
-            pdfPanel.removeAll();
-            pdfPanel.revalidate();
-            pdfPanel.repaint();
+            pdfPanel.updateLayout();
         }
     }
 
@@ -758,36 +1309,24 @@ public class PdfRendererService {
      --------------------------- */
 
     /**
-     * Optimizes image for display by ensuring optimal color model and rendering hints.
-     * This improves both memory usage and rendering performance.
+     * Returns the image in the screen's pixel layout. Rendered pages and tiles already are
+     * (see {@link PageRenderPool#createDisplayImage}); only images decoded from elsewhere,
+     * such as disk-cached PNGs, are copied. The copy is 1:1, so no interpolation hints are needed.
+     * Never touch the pixel arrays (DataBuffer.getData) of these images: that would stop
+     * Java2D from caching them in video memory.
      */
     private BufferedImage optimizeImageForDisplay(BufferedImage source) {
-        if (source == null) return null;
-
-        // If image is already in optimal format, return as-is
-        int type = source.getType();
-        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+        if (source == null || source.getType() == PageRenderPool.DISPLAY_IMAGE_TYPE) {
             return source;
         }
 
-        // Convert to optimal format for display
-        BufferedImage optimized = new BufferedImage(
-                source.getWidth(),
-                source.getHeight(),
-                BufferedImage.TYPE_INT_RGB
-        );
-
+        BufferedImage optimized = PageRenderPool.createDisplayImage(source.getWidth(), source.getHeight());
         Graphics2D g2d = optimized.createGraphics();
         try {
-            // Use quality rendering hints
-            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             g2d.drawImage(source, 0, 0, null);
         } finally {
             g2d.dispose();
         }
-
         return optimized;
     }
 
@@ -6,15 +6,20 @@ import java.awt.*;
 import java.util.function.Consumer;
 
 /**
- * Wraps the PDF panel (pages inside) and updates page label based on scroll.
+ * Scrolls the {@link PageView} and updates page label based on scroll.
+ * <p>
+ * The viewport blits: scrolling copies the pixels already on screen and only the strip that
+ * scrolled in is painted, so scroll cost does not depend on the page count or zoom.
  */
 public class PdfScrollPane extends JScrollPane {
 
-    private final JPanel pdfPanel;      // The vertical BoxLayout host of pages
-    private final JPanel wrapper;       // Centers pdfPanel horizontally
+    private final PageView pdfPanel;    // All pages, centred horizontally
     private final PdfRendererService rendererService;
     private final Consumer<String> pageInfoUpdater;
     private PageChangeListener pageChangeListener;
+    private Consumer<Float> zoomChangeListener;
+    // Set while a zoom re-lays out the view, so intermediate viewport states are not rendered
+    private boolean zooming;
 
     /**
      * Listener for page change events (provides current page and total pages).
@@ -28,23 +33,41 @@ public class PdfScrollPane extends JScrollPane {
         this.pageInfoUpdater = pageInfoUpdater;
 
         pdfPanel = rendererService.getPdfPanel();
-        wrapper = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 20));
-        wrapper.add(pdfPanel);
 
-        setViewportView(wrapper);
+        setViewportView(pdfPanel);
         setBorder(BorderFactory.createEmptyBorder());
 
         // Performance: Improved scroll speed for smoother navigation
         getVerticalScrollBar().setUnitIncrement(20);
         getVerticalScrollBar().setBlockIncrement(100);
 
-        // Enable smooth scrolling performance
-        getViewport().setScrollMode(JViewport.BACKINGSTORE_SCROLL_MODE);
+        // The page view is opaque and paints only what the clip exposes, so blitting is safe and
+        // cheaper than the backing store (which repaints a viewport-sized image on every move)
+        getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
 
         getVerticalScrollBar().addAdjustmentListener(e -> updateCurrentPageBasedOnScroll());
+
+        // Virtualized rendering: rasterize pages near the viewport as it moves or resizes
+        getViewport().addChangeListener(e -> notifyViewportChanged());
+
+        // Ctrl+wheel zooms; plain wheel events are handed back to the scroll pane
+        pdfPanel.addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                setZoom(rendererService.nextZoomLevel(-e.getWheelRotation()));
+            } else {
+                dispatchEvent(SwingUtilities.convertMouseEvent(pdfPanel, e, this));
+            }
+        });
     }
 
-    public JPanel getPdfPanel() {
+    private void notifyViewportChanged() {
+        Component view = getViewport().getView();
+        // The placeholder may be shown instead of the pages
+        if (zooming || view != pdfPanel) return;
+        rendererService.onViewportChanged(getViewport().getViewRect());
+    }
+
+    public PageView getPdfPanel() {
         return pdfPanel;
     }
 
@@ -61,7 +84,6 @@ public class PdfScrollPane extends JScrollPane {
      */
     public void forceUpdatePageDisplay() {
         // Ensure components are validated before updating
-        wrapper.revalidate();
         pdfPanel.revalidate();
 
         // Use invokeLater to ensure layout is complete
@@ -78,9 +100,8 @@ public class PdfScrollPane extends JScrollPane {
         int totalPages = rendererService.getPageCountSafe();
 
         // Check if components are ready
-        if (totalPages > 0 && pdfPanel.getComponentCount() > 0) {
-            Component firstPage = pdfPanel.getComponent(0);
-            Rectangle bounds = firstPage.getBounds();
+        if (totalPages > 0 && pdfPanel.getPageCount() > 0) {
+            Rectangle bounds = pdfPanel.getSlotBounds(0);
             Rectangle viewportRect = getViewport().getViewRect();
 
             // Check if bounds are valid (not zero)
@@ -108,7 +129,7 @@ public class PdfScrollPane extends JScrollPane {
 
     private void updateCurrentPageBasedOnScroll() {
         int totalPages = rendererService.getPageCountSafe();
-        if (totalPages <= 0 || pdfPanel.getComponentCount() == 0) {
+        if (totalPages <= 0 || pdfPanel.getPageCount() == 0) {
             pageInfoUpdater.accept("");
             return;
         }
@@ -121,11 +142,14 @@ public class PdfScrollPane extends JScrollPane {
         int bestPage = 1;
         double bestVisibility = 0;
 
+        // Only the pages intersecting the viewport are candidates
+        int firstVisible = pdfPanel.pageAt(viewportTop);
+        int lastVisible = Math.min(pdfPanel.pageAt(viewportBottom - 1), totalPages - 1);
+
         // Find the page with the most visibility in the viewport
         // A page is considered "current" when at least 50% is visible
-        for (int i = 0; i < totalPages; i++) {
-            Component comp = pdfPanel.getComponent(i);
-            Rectangle bounds = comp.getBounds();
+        for (int i = firstVisible; i <= lastVisible; i++) {
+            Rectangle bounds = pdfPanel.getSlotBounds(i);
 
             int pageTop = bounds.y;
             int pageBottom = bounds.y + bounds.height;
@@ -149,23 +173,16 @@ public class PdfScrollPane extends JScrollPane {
             // Use visibility >= 50% or page center in viewport as criteria
             if (visibility >= 0.5 || pageCenterInViewport) {
                 if (visibility > bestVisibility ||
-                    (visibility == bestVisibility && distanceToViewportCenter < Math.abs((pdfPanel.getComponent(bestPage - 1).getBounds().y + pdfPanel.getComponent(bestPage - 1).getBounds().height / 2) - viewportCenter))) {
+                    (visibility == bestVisibility && distanceToViewportCenter < Math.abs((pdfPanel.getSlotBounds(bestPage - 1).y + pdfPanel.getSlotBounds(bestPage - 1).height / 2) - viewportCenter))) {
                     bestVisibility = visibility;
                     bestPage = i + 1;
                 }
             }
         }
 
-        // If no page has 50% visibility, find the page whose top is closest to viewport top
+        // If no page has 50% visibility, take the first page reaching below the viewport top
         if (bestVisibility < 0.5) {
-            for (int i = 0; i < totalPages; i++) {
-                Component comp = pdfPanel.getComponent(i);
-                Rectangle bounds = comp.getBounds();
-                if (bounds.y + bounds.height > viewportTop) {
-                    bestPage = i + 1;
-                    break;
-                }
-            }
+            bestPage = Math.min(firstVisible, totalPages - 1) + 1;
         }
 
         pageInfoUpdater.accept("Page: " + bestPage + "/" + totalPages);
@@ -176,6 +193,60 @@ public class PdfScrollPane extends JScrollPane {
         }
     }
 
+    /**
+     * Sets the listener notified with the new zoom factor after each zoom change.
+     */
+    public void setZoomChangeListener(Consumer<Float> listener) {
+        this.zoomChangeListener = listener;
+    }
+
+    public void zoomIn() {
+        setZoom(rendererService.nextZoomLevel(1));
+    }
+
+    public void zoomOut() {
+        setZoom(rendererService.nextZoomLevel(-1));
+    }
+
+    public void resetZoom() {
+        setZoom(1f);
+    }
+
+    /**
+     * Applies a zoom factor, keeping the point at the centre of the viewport in place.
+     */
+    public void setZoom(float zoom) {
+        if (rendererService.getPageCountSafe() == 0 || zoom == rendererService.getZoom()) return;
+
+        JViewport viewport = getViewport();
+        Component view = viewport.getView();
+        Rectangle viewRect = viewport.getViewRect();
+        Dimension oldSize = view.getPreferredSize();
+        double centerX = (viewRect.x + viewRect.width / 2.0) / Math.max(1, oldSize.width);
+        double centerY = (viewRect.y + viewRect.height / 2.0) / Math.max(1, oldSize.height);
+
+        zooming = true;
+        try {
+            rendererService.setZoom(zoom);
+            view.revalidate();
+            validate();
+
+            Dimension newSize = view.getPreferredSize();
+            int x = (int) Math.round(centerX * newSize.width - viewRect.width / 2.0);
+            int y = (int) Math.round(centerY * newSize.height - viewRect.height / 2.0);
+            x = Math.max(0, Math.min(x, newSize.width - viewRect.width));
+            y = Math.max(0, Math.min(y, newSize.height - viewRect.height));
+            viewport.setViewPosition(new Point(x, y));
+        } finally {
+            zooming = false;
+        }
+        notifyViewportChanged();
+
+        if (zoomChangeListener != null) {
+            zoomChangeListener.accept(rendererService.getZoom());
+        }
+    }
+
     /**
      * Scrolls the viewport to show the specified page (0-based index).
      * @param pageIndex The page index to scroll to (0-based)
@@ -183,9 +254,8 @@ public class PdfScrollPane extends JScrollPane {
     public void scrollToPage(int pageIndex) {
         // Wait for the component to be laid out
         SwingUtilities.invokeLater(() -> {
-            if (pageIndex >= 0 && pageIndex < pdfPanel.getComponentCount()) {
-                Component page = pdfPanel.getComponent(pageIndex);
-                Rectangle pageBounds = page.getBounds();
+            if (pageIndex >= 0 && pageIndex < pdfPanel.getPageCount()) {
+                Rectangle pageBounds = pdfPanel.getSlotBounds(pageIndex);
 
                 // Get the viewport and its current view rectangle
                 JViewport viewport = getViewport();
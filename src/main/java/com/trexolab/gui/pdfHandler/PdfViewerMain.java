@@ -6,6 +6,8 @@ import com.trexolab.gui.DialogUtils;
 import com.trexolab.gui.KeyboardShortcutManager;
 import com.trexolab.gui.onboarding.OnboardingOverlay;
 import com.trexolab.gui.settings.SettingsDialog;
+import com.trexolab.service.DocumentSession;
+import com.trexolab.service.PdfSignatureProbe;
 import com.trexolab.service.RecentFilesManager;
 import com.trexolab.service.SignatureVerificationService;
 import com.trexolab.utils.CursorStateManager;
@@ -19,6 +21,8 @@ import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.dnd.*;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.prefs.Preferences;
 
@@ -42,6 +46,7 @@ public class PdfViewerMain extends JFrame {
     // Preferences
     private static final Preferences prefs = Preferences.userNodeForPackage(PdfViewerMain.class);
     private static final String LAST_DIR_KEY = "lastPdfDir";
+    private static final String THUMBNAILS_VISIBLE_KEY = "thumbnailSidebarVisible";
 
     // Singleton (if you still want it)
     public static PdfViewerMain INSTANCE = null;
@@ -57,6 +62,8 @@ public class PdfViewerMain extends JFrame {
     private final SignatureVerificationService verificationService;
     private final SignatureColorManager colorManager;
     private final SignatureVerificationBanner verificationBanner;
+    private final ThumbnailSidebar thumbnailSidebar;
+    private final SearchBar searchBar;
     private JLayeredPane layeredPane;
 
     // New features
@@ -112,6 +119,8 @@ public class PdfViewerMain extends JFrame {
                 topBar::setPageInfoText // callback to update page label
         );
         placeholderPanel = new PlaceholderPanel(this::openPdf);
+        thumbnailSidebar = new ThumbnailSidebar(this::navigateToPage);
+        searchBar = new SearchBar(pdfRendererService);
 
         // Initialize verification banner first
         verificationBanner = new SignatureVerificationBanner();
@@ -140,18 +149,33 @@ public class PdfViewerMain extends JFrame {
             layoutOverlayComponents();
         });
 
-        // Create layered pane for overlay effect
-        layeredPane = new JLayeredPane();
+        // Create layered pane for overlay effect. Swing only lets the viewport blit when none of
+        // its ancestors has overlapping children, so report that while the signature panel is closed.
+        layeredPane = new JLayeredPane() {
+            @Override
+            public boolean isOptimizedDrawingEnabled() {
+                for (Component c : getComponents()) {
+                    if (c != pdfScrollPane && c.isVisible() && c.getBounds().intersects(pdfScrollPane.getBounds())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
         layeredPane.setLayout(null); // Absolute positioning for overlay
 
-        // Create container panel for banner and layered pane
+        // Create container panel for banner, find bar and layered pane
+        JPanel northContainer = new JPanel(new BorderLayout());
+        northContainer.add(verificationBanner, BorderLayout.NORTH);
+        northContainer.add(searchBar, BorderLayout.SOUTH);
         JPanel centerContainer = new JPanel(new BorderLayout());
-        centerContainer.add(verificationBanner, BorderLayout.NORTH);
+        centerContainer.add(northContainer, BorderLayout.NORTH);
         centerContainer.add(layeredPane, BorderLayout.CENTER);
 
         setLayout(new BorderLayout());
         add(topBar, BorderLayout.NORTH);
         add(centerContainer, BorderLayout.CENTER);
+        add(thumbnailSidebar, BorderLayout.WEST);
 
         // Add component listener to handle resizing
         layeredPane.addComponentListener(new java.awt.event.ComponentAdapter() {
@@ -172,10 +196,13 @@ public class PdfViewerMain extends JFrame {
         // Connect topBar to new features
         topBar.setOnOpenFile(this::loadAndRenderPdf);
         topBar.setOnGoToPage(this::navigateToPage);
+        topBar.setOnZoom(pdfScrollPane::zoomIn, pdfScrollPane::zoomOut);
+        pdfScrollPane.setZoomChangeListener(topBar::updateZoomDisplay);
 
         // Connect scroll pane page change to topBar for live page number updates
         pdfScrollPane.setPageChangeListener((currentPage, totalPages) -> {
             topBar.updatePageDisplay(currentPage, totalPages);
+            thumbnailSidebar.setCurrentPage(currentPage - 1);
         });
 
         // Show Driver.js-style onboarding for first-time users
@@ -197,6 +224,20 @@ public class PdfViewerMain extends JFrame {
             this::verifyAllSignatures,                        // Ctrl+Shift+V - Verify All
             signModeController::resetSignModeUI               // Escape - Cancel
         );
+        KeyboardShortcutManager.setupZoomShortcuts(
+            shortcutManager,
+            pdfScrollPane::zoomIn,                            // Ctrl+= - Zoom In
+            pdfScrollPane::zoomOut,                           // Ctrl+- - Zoom Out
+            pdfScrollPane::resetZoom                          // Ctrl+0 - Actual Size
+        );
+        // F4 - Show/hide page thumbnails
+        shortcutManager.registerShortcut("toggleThumbnails",
+                KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_F4, 0),
+                this::toggleThumbnailSidebar);
+        // Ctrl+F - Find in document
+        shortcutManager.registerShortcut("find",
+                KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_F, java.awt.event.KeyEvent.CTRL_DOWN_MASK),
+                this::openSearchBar);
     }
 
     /**
@@ -261,9 +302,29 @@ public class PdfViewerMain extends JFrame {
             // Update page display in topBar
             int totalPages = pdfRendererService.getPageCountSafe();
             topBar.updatePageDisplay(pageIndex + 1, totalPages);
+            thumbnailSidebar.setCurrentPage(pageIndex);
         }
     }
 
+    /**
+     * Shows the find bar for the open document.
+     */
+    private void openSearchBar() {
+        if (selectedPdfFile == null) return;
+        searchBar.open();
+    }
+
+    /**
+     * Shows or hides the page thumbnails; the choice is remembered across sessions.
+     */
+    private void toggleThumbnailSidebar() {
+        if (selectedPdfFile == null) return;
+        boolean visible = !thumbnailSidebar.isVisible();
+        prefs.putBoolean(THUMBNAILS_VISIBLE_KEY, visible);
+        thumbnailSidebar.setVisible(visible);
+        revalidate();
+    }
+
     /* --------------------------
        Public helpers / API
      --------------------------- */
@@ -332,9 +393,13 @@ public class PdfViewerMain extends JFrame {
             signaturePanel.clearSignatures();
             signaturePanel.setVisible(false); // Hide signature panel when no PDF
             verificationBanner.hideBanner(); // Hide verification banner when no PDF
+            thumbnailSidebar.clear();
+            thumbnailSidebar.setVisible(false);
+            searchBar.reset();
         } else {
             pdfScrollPane.setViewportView(pdfScrollPane.getPdfPanel());
             topBar.setSignButtonVisible(true);
+            thumbnailSidebar.setVisible(prefs.getBoolean(THUMBNAILS_VISIBLE_KEY, true));
             // Signature panel visibility is handled by verifyAndUpdateSignatures
             // Don't show panel here - wait for verification to complete
         }
@@ -397,6 +462,8 @@ public class PdfViewerMain extends JFrame {
         verificationBanner.reset();
         signaturePanel.reset();
         colorManager.reset();
+        thumbnailSidebar.clear();
+        searchBar.reset();
 
         // Reset sign mode
         signModeController.resetSignModeUI();
@@ -445,6 +512,10 @@ public class PdfViewerMain extends JFrame {
                 int totalPages = pdfRendererService.getPageCountSafe();
                 topBar.updatePageDisplay(1, totalPages);
 
+                // Thumbnails come from the disk cache or a low-priority worker
+                thumbnailSidebar.load(file, pdfPassword, totalPages);
+                thumbnailSidebar.setCurrentPage(0);
+
                 // Verify signatures and update signature panel
                 // Keep cursor in WAIT state during verification
                 verifyAndUpdateSignatures(file);
@@ -458,6 +529,26 @@ public class PdfViewerMain extends JFrame {
         });
     }
 
+    /**
+     * Enables or disables the Begin Sign button from the last signature's certification level
+     * (PDF viewer style: only NOT_CERTIFIED allows more signatures).
+     */
+    private void applySigningDecision(com.trexolab.model.CertificationLevel lastCertLevel) {
+        boolean allowsSignatures = lastCertLevel.allowsSignatures();
+        topBar.setSignButtonCertified(!allowsSignatures);
+
+        if (!allowsSignatures) {
+            // Certified - show simple message
+            String tooltipMsg = "This document is certified. You cannot add more signatures.";
+            topBar.setSignButtonTooltip(tooltipMsg);
+            log.info("Signing DISABLED: " + tooltipMsg);
+        } else {
+            // Not certified - signing allowed
+            topBar.setSignButtonTooltip(null);
+            log.info("Signing ENABLED: Document allows additional signatures");
+        }
+    }
+
     /**
      * Verifies all signatures in the PDF and updates the signature panel.
      * Only shows panel if signatures are found.
@@ -470,16 +561,22 @@ public class PdfViewerMain extends JFrame {
         // If yes, skip verification and show info banner (iText 5 limitation)
         boolean isEncrypted = pdfRendererService.isCurrentPdfEncrypted();
         boolean hasPdfPassword = pdfPassword != null && !pdfPassword.isEmpty();
+        // Parsed once when the document was opened; shared with field detection
+        DocumentSession session = pdfRendererService.getDocumentSession();
 
         if (isEncrypted && hasPdfPassword) {
             // Quick check if PDF has signatures without full verification
             new Thread(() -> {
                 try {
-                    com.itextpdf.text.pdf.PdfReader quickReader = new com.itextpdf.text.pdf.PdfReader(
-                            pdfFile.getAbsolutePath(), pdfPassword.getBytes());
-                    com.itextpdf.text.pdf.AcroFields acroFields = quickReader.getAcroFields();
-                    boolean hasSigs = acroFields != null && !acroFields.getSignatureNames().isEmpty();
-                    quickReader.close();
+                    // Signature index of the open session (already built by field detection)
+                    boolean hasSigs;
+                    if (session != null && session.isFor(pdfFile)) {
+                        hasSigs = session.getSignatureIndex().hasSignatures();
+                    } else {
+                        try (DocumentSession quickSession = DocumentSession.open(pdfFile, pdfPassword)) {
+                            hasSigs = quickSession.getSignatureIndex().hasSignatures();
+                        }
+                    }
 
                     if (hasSigs) {
                         // Password-protected signed PDF - show info banner and skip verification
@@ -520,17 +617,48 @@ public class PdfViewerMain extends JFrame {
             return;
         }
 
-        // Show verification progress in banner and panel + disable buttons
-        SwingUtilities.invokeLater(() -> {
-            verificationBanner.showVerifying();
-            signaturePanel.setVerifying(true); // Disable verify all button
-            if (signaturePanel.isVisible()) {
-                signaturePanel.setVerificationStatus("Verifying signatures...");
+        // Run verification in background to avoid blocking UI; the unsigned check reads the file too
+        new Thread(() -> {
+            // Unsigned documents (the common case) skip the verification and banner entirely.
+            // The open session's signature index is already built; the tail probe covers other files.
+            boolean knownUnsigned;
+            String source;
+            if (session != null && session.isFor(pdfFile)) {
+                source = "session index";
+                try {
+                    knownUnsigned = !session.getSignatureIndex().hasSignatures();
+                } catch (IOException e) {
+                    log.debug("Signature index unavailable, verifying anyway: " + e.getMessage());
+                    knownUnsigned = false;
+                }
+            } else {
+                source = "tail probe";
+                PdfSignatureProbe.ProbeResult probe = PdfSignatureProbe.probe(pdfFile);
+                knownUnsigned = probe.isKnown() && !probe.isSigned();
+            }
+            if (knownUnsigned) {
+                SwingUtilities.invokeLater(() -> {
+                    setLoadingState(false);
+                    topBar.setSignButtonCertified(false);
+                    topBar.setSignButtonTooltip(null);
+                    signaturePanel.clearSignatures();
+                    signaturePanel.setVisible(false);
+                    verificationBanner.hideBanner();
+                    log.info("No signatures found (" + source + ") - signature panel hidden, signing enabled");
+                    layoutOverlayComponents();
+                });
+                return;
             }
-        });
 
-        // Run verification in background to avoid blocking UI
-        new Thread(() -> {
+            // Show verification progress in banner and panel + disable buttons
+            SwingUtilities.invokeLater(() -> {
+                verificationBanner.showVerifying();
+                signaturePanel.setVerifying(true); // Disable verify all button
+                if (signaturePanel.isVisible()) {
+                    signaturePanel.setVerificationStatus("Verifying signatures...");
+                }
+            });
+
             try {
                 // Set progress listener for visual feedback - update both banner and panel
                 verificationService.setProgressListener(message ->
@@ -539,9 +667,13 @@ public class PdfViewerMain extends JFrame {
                             signaturePanel.setVerificationStatus(message);
                         })
                 );
+                // Sign button state is known before the (slower) cryptographic checks finish
+                verificationService.setSigningDecisionListener(lastCertLevel ->
+                        SwingUtilities.invokeLater(() -> applySigningDecision(lastCertLevel))
+                );
 
                 List<SignatureVerificationService.SignatureVerificationResult> results =
-                        verificationService.verifySignatures(pdfFile, pdfPassword);
+                        verifyWithSession(pdfFile);
 
                 // Update UI on EDT
                 SwingUtilities.invokeLater(() -> {
@@ -558,22 +690,7 @@ public class PdfViewerMain extends JFrame {
                         // Apply PDF viewer certification logic for Begin Sign button
                         // Get LAST signature (most recent)
                         SignatureVerificationService.SignatureVerificationResult lastSig = results.get(results.size() - 1);
-                        com.trexolab.model.CertificationLevel lastCertLevel = lastSig.getCertificationLevel();
-
-                        // Begin Sign button logic (PDF viewer style)
-                        boolean allowsSignatures = lastCertLevel.allowsSignatures(); // true only for NOT_CERTIFIED
-                        topBar.setSignButtonCertified(!allowsSignatures);
-
-                        if (!allowsSignatures) {
-                            // Certified - show simple message
-                            String tooltipMsg = "This document is certified. You cannot add more signatures.";
-                            topBar.setSignButtonTooltip(tooltipMsg);
-                            log.info("Signing DISABLED: " + tooltipMsg);
-                        } else {
-                            // Not certified - signing allowed
-                            topBar.setSignButtonTooltip(null);
-                            log.info("Signing ENABLED: Document allows additional signatures");
-                        }
+                        applySigningDecision(lastSig.getCertificationLevel());
 
                         // PDF is signed - update signature panel and auto-open it
                         signaturePanel.updateSignatures(results);
@@ -586,6 +703,9 @@ public class PdfViewerMain extends JFrame {
                         drawSignatureRectangles(results);
 
                         log.info("Signature panel updated with " + results.size() + " signature(s)");
+
+                        // Offline results are shown - live OCSP upgrades them in the background
+                        startOnlineRevocationChecks(results);
                     } else {
                         // PDF is not signed - enable signing (unsigned PDF, signing allowed)
                         topBar.setSignButtonCertified(false);
@@ -618,6 +738,18 @@ public class PdfViewerMain extends JFrame {
         }, "Signature-Verification-Thread").start();
     }
 
+    /**
+     * Verifies through the open document session when it still matches the file, so the
+     * signature index built for field detection is reused; otherwise parses the file.
+     */
+    private List<SignatureVerificationService.SignatureVerificationResult> verifyWithSession(File pdfFile) {
+        DocumentSession session = pdfRendererService.getDocumentSession();
+        if (session != null && session.isFor(pdfFile)) {
+            return verificationService.verifySignatures(session);
+        }
+        return verificationService.verifySignatures(pdfFile, pdfPassword);
+    }
+
     /**
      * Requirement 2: Verifies all signatures manually when user clicks verify all button.
      */
@@ -639,9 +771,11 @@ public class PdfViewerMain extends JFrame {
                 verificationService.setProgressListener(message ->
                         SwingUtilities.invokeLater(() -> signaturePanel.setVerificationStatus(message))
                 );
+                // Sign button state was settled when the document was opened
+                verificationService.setSigningDecisionListener(null);
 
                 List<SignatureVerificationService.SignatureVerificationResult> results =
-                        verificationService.verifySignatures(selectedPdfFile, pdfPassword);
+                        verifyWithSession(selectedPdfFile);
 
                 // Update UI on EDT
                 SwingUtilities.invokeLater(() -> {
@@ -659,6 +793,7 @@ public class PdfViewerMain extends JFrame {
                         drawSignatureRectangles(results);
 
                         log.info("Verified " + results.size() + " signature(s)");
+                        startOnlineRevocationChecks(results);
                     }
                 });
             } catch (Exception e) {
@@ -671,6 +806,38 @@ public class PdfViewerMain extends JFrame {
         }, "Manual-Signature-Verification-Thread").start();
     }
 
+    /**
+     * Runs the live revocation checks deferred by the offline verification pass on a background
+     * thread, refreshing the panel and banner as each signature's revocation status is upgraded.
+     */
+    private void startOnlineRevocationChecks(List<SignatureVerificationService.SignatureVerificationResult> results) {
+        if (!verificationService.hasPendingOnlineChecks()) {
+            return;
+        }
+        verificationBanner.setOnlineCheckPending(true);
+
+        new Thread(() -> verificationService.completeOnlineRevocationChecks(updated ->
+                SwingUtilities.invokeLater(() -> {
+                    signaturePanel.updateSignatures(results);
+                    verificationBanner.updateStatus(results);
+
+                    boolean stillPending = false;
+                    for (SignatureVerificationService.SignatureVerificationResult result : results) {
+                        stillPending |= result.isRevocationCheckPending();
+                    }
+                    verificationBanner.setOnlineCheckPending(stillPending);
+
+                    if (updated.isCertificateRevoked()) {
+                        // Status colour of the overlay changes from valid to invalid
+                        pdfRendererService.hideSignedSignatureOverlays();
+                        drawSignatureRectangles(results);
+                    }
+                    log.info("Revocation status upgraded for " + updated.getFieldName() +
+                            ": " + updated.getRevocationStatus());
+                })
+        ), "Online-Revocation-Check-Thread").start();
+    }
+
     /**
      * Draws colored rectangles on PDF pages to highlight signature locations.
      * Each signature gets a unique color from colorManager that matches the signature panel card.
@@ -685,6 +852,7 @@ public class PdfViewerMain extends JFrame {
 
         // Delegate to PDF renderer service to show overlays (with scrollPane for auto-scroll)
         pdfRendererService.showSignedSignatureOverlays(results, colorManager, pdfScrollPane);
+        thumbnailSidebar.setSignatures(results, colorManager);
     }
 
     private void enableDragAndDrop(JComponent component) {
@@ -763,12 +931,57 @@ public class PdfViewerMain extends JFrame {
     }
 
     /**
-     * Releases the PDF document from memory before signing.
-     * This frees up heap space for memory-intensive signing operations.
-     * The rendered images remain visible.
+     * The shared iText session of the open document (see {@link PdfRendererService#getDocumentSession()}).
+     */
+    public DocumentSession getDocumentSession() {
+        return pdfRendererService.getDocumentSession();
+    }
+
+    /**
+     * Lets go of the open file before signing replaces it with {@code nextRevision}: thumbnails,
+     * rendering, the text index and the iText session stop reading it. What is on screen stays
+     * until the file is shown again with {@link #showSignedRevision(File)}, which redraws only the
+     * changed pages if {@code nextRevision} is an incremental update of the open file.
+     *
+     * @return the stopped workers, which may still be reading the file until they exit
      */
-    public void releaseDocumentForSigning() {
-        pdfRendererService.releaseDocumentMemory();
+    public List<Thread> releaseFile(File nextRevision) {
+        thumbnailSidebar.cancel();
+        List<Thread> readers = new ArrayList<>(pdfRendererService.releaseFile(nextRevision));
+        if (thumbnailSidebar.getWorker() != null) {
+            readers.add(thumbnailSidebar.getWorker());
+        }
+        return readers;
+    }
+
+    /**
+     * Shows a newly signed file. When it is an incremental update of the open document, the
+     * view is kept (scroll position, rasters, thumbnails) and only the changed pages are
+     * re-rendered; otherwise the file is loaded from scratch. Signatures are verified again.
+     */
+    public void showSignedRevision(File signedFile) {
+        java.util.Set<Integer> changedPages = pdfRendererService.openNextRevision(signedFile);
+        if (changedPages == null) {
+            renderPdfFromPath(signedFile.getAbsolutePath());
+            return;
+        }
+
+        verificationService.reset();
+        verificationBanner.reset();
+        signaturePanel.reset();
+        colorManager.reset();
+        signModeController.resetSignModeUI();
+
+        selectedPdfFile = signedFile;
+        setWindowTitle(signedFile.getAbsolutePath());
+        recentFilesManager.addRecentFile(signedFile);
+        thumbnailSidebar.reload(signedFile, pdfPassword, changedPages);
+
+        // Same as after a load: signing stays disabled until verification has run
+        setLoadingState(true);
+        topBar.setSignButtonCertified(true);
+        topBar.setSignButtonVisible(true);
+        verifyAndUpdateSignatures(signedFile);
     }
 
     /**
@@ -0,0 +1,379 @@
+package com.trexolab.gui.pdfHandler;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Find bar above the document (Ctrl+F). Queries go to the document's {@link TextIndex}, so they
+ * answer at once and cover the pages indexed so far; while indexing runs the results are
+ * refreshed as pages come in, keeping the current match. Matches are highlighted on the page
+ * view as a {@link PageView.PagePainter}.
+ */
+public class SearchBar extends JPanel implements PageView.PagePainter {
+
+    private static final Color MATCH_COLOR = new Color(255, 193, 7, 90);
+    private static final Color CURRENT_FILL_COLOR = new Color(255, 152, 0, 130);
+    private static final Color CURRENT_BORDER_COLOR = new Color(230, 81, 0);
+    private static final int SEARCH_DELAY_MS = 150;
+
+    private final PdfRendererService rendererService;
+    private final PageView view;
+    private final int padding = PdfRendererService.DEFAULT_RENDERER_PADDING;
+
+    private final JTextField queryField;
+    private final JButton previousButton;
+    private final JButton nextButton;
+    private final JLabel statusLabel;
+    private final Timer searchTimer;
+
+    private List<TextIndex.Match> matches = Collections.emptyList();
+    private Map<Integer, List<TextIndex.Match>> matchesByPage = Collections.emptyMap();
+    private int current = -1;
+
+    public SearchBar(PdfRendererService rendererService) {
+        this.rendererService = rendererService;
+        this.view = rendererService.getPdfPanel();
+        view.addPagePainter(this);
+        rendererService.setTextIndexListener((indexed, pageCount) -> onIndexProgress());
+
+        setLayout(new FlowLayout(FlowLayout.LEFT, 6, 4));
+        setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, UIManager.getColor("Separator.foreground")));
+
+        queryField = new JTextField(24);
+        queryField.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        queryField.setToolTipText("Find in document (Enter: next, Shift+Enter: previous)");
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "findNext", this::findNext);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, KeyEvent.SHIFT_DOWN_MASK), "findPrevious", this::findPrevious);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "closeFind", this::close);
+
+        previousButton = createButton("\u25B2", "Previous match (Shift+Enter)");
+        previousButton.addActionListener(e -> findPrevious());
+        nextButton = createButton("\u25BC", "Next match (Enter)");
+        nextButton.addActionListener(e -> findNext());
+        JButton closeButton = createButton("\u2715", "Close (Esc)");
+        closeButton.addActionListener(e -> close());
+
+        statusLabel = new JLabel();
+        statusLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+
+        add(queryField);
+        add(previousButton);
+        add(nextButton);
+        add(statusLabel);
+        add(closeButton);
+
+        // Typing is debounced; a query itself takes a few milliseconds even on long documents
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> runSearch(false));
+        searchTimer.setRepeats(false);
+
+        setVisible(false);
+        updateControls();
+    }
+
+    /**
+     * Shows the bar and focuses the query, selected so typing replaces it.
+     */
+    public void open() {
+        if (!isVisible()) {
+            setVisible(true);
+            revalidate();
+            if (!queryField.getText().trim().isEmpty()) {
+                runSearch(false);
+            }
+        }
+        queryField.requestFocusInWindow();
+        queryField.selectAll();
+    }
+
+    /**
+     * Hides the bar and its highlights; the query is kept for the next {@link #open}.
+     */
+    public void close() {
+        if (!isVisible()) return;
+        searchTimer.stop();
+        setResults(Collections.emptyList(), -1);
+        setVisible(false);
+        revalidate();
+        view.requestFocusInWindow();
+    }
+
+    /**
+     * Hides the bar and forgets the query, for a new document.
+     */
+    public void reset() {
+        close();
+        queryField.setText("");
+        searchTimer.stop();
+        updateControls();
+    }
+
+    private void findNext() {
+        step(1);
+    }
+
+    private void findPrevious() {
+        step(-1);
+    }
+
+    private void step(int direction) {
+        if (searchTimer.isRunning()) {
+            // Enter right after typing: search now instead of waiting for the debounce
+            searchTimer.stop();
+            runSearch(false);
+            return; // runSearch already selected the first match
+        }
+        if (matches.isEmpty()) return;
+        int next = current < 0 ? 0 : (current + direction + matches.size()) % matches.size();
+        select(next, true);
+    }
+
+    /* --------------------------
+       Searching
+     --------------------------- */
+
+    /**
+     * New pages were indexed (or a new revision was opened): search again, staying on the
+     * current match if it is still found.
+     */
+    private void onIndexProgress() {
+        if (isVisible() && !queryField.getText().trim().isEmpty()) {
+            runSearch(true);
+        } else {
+            updateControls();
+        }
+    }
+
+    private void runSearch(boolean keepCurrent) {
+        TextIndex index = rendererService.getTextIndex();
+        String query = queryField.getText();
+        List<TextIndex.Match> found = index == null || query.trim().isEmpty()
+                ? Collections.emptyList()
+                : index.search(query);
+
+        TextIndex.Match previous = current >= 0 ? matches.get(current) : null;
+        int selected = -1;
+        if (keepCurrent && previous != null) {
+            for (int i = 0; i < found.size(); i++) {
+                TextIndex.Match match = found.get(i);
+                if (match.pageIndex == previous.pageIndex && match.start == previous.start) {
+                    selected = i;
+                    break;
+                }
+            }
+        }
+        boolean firstResult = selected < 0 && !found.isEmpty() && (!keepCurrent || previous == null);
+        if (firstResult) {
+            selected = firstMatchFrom(found, currentPage());
+        } else if (selected < 0 && !found.isEmpty()) {
+            // The current match went away with its page's text (a new revision): take the next one
+            selected = firstMatchFrom(found, previous.pageIndex);
+        }
+        setResults(found, selected);
+        if (firstResult) {
+            scrollToMatch(found.get(selected));
+        }
+    }
+
+    /**
+     * The first match on or after the given page, wrapping to the start.
+     */
+    private static int firstMatchFrom(List<TextIndex.Match> found, int pageIndex) {
+        for (int i = 0; i < found.size(); i++) {
+            if (found.get(i).pageIndex >= pageIndex) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private int currentPage() {
+        Rectangle visible = view.getVisibleRect();
+        return Math.max(0, view.pageAt(visible.y + Math.min(visible.height / 3, 100)));
+    }
+
+    private void setResults(List<TextIndex.Match> found, int selected) {
+        // Old highlights on screen go, new ones come; repaint only the visible part of the view
+        boolean hadHighlights = !matches.isEmpty();
+        matches = found;
+        matchesByPage = new HashMap<>();
+        for (TextIndex.Match match : found) {
+            matchesByPage.computeIfAbsent(match.pageIndex, k -> new ArrayList<>()).add(match);
+        }
+        current = selected;
+        if (hadHighlights || !found.isEmpty()) {
+            view.repaint(view.getVisibleRect());
+        }
+        updateControls();
+    }
+
+    private void select(int index, boolean scroll) {
+        if (current >= 0) {
+            repaintMatch(matches.get(current));
+        }
+        current = index;
+        TextIndex.Match match = matches.get(index);
+        repaintMatch(match);
+        if (scroll) {
+            scrollToMatch(match);
+        }
+        updateControls();
+    }
+
+    private void updateControls() {
+        boolean hasMatches = !matches.isEmpty();
+        previousButton.setEnabled(hasMatches);
+        nextButton.setEnabled(hasMatches);
+
+        String query = queryField.getText().trim();
+        StringBuilder status = new StringBuilder();
+        if (!query.isEmpty()) {
+            if (!hasMatches) {
+                status.append("No matches");
+            } else {
+                status.append(current + 1).append(" of ").append(matches.size());
+                if (matches.size() >= TextIndex.MAX_MATCHES) {
+                    status.append('+');
+                }
+            }
+        }
+        TextIndex index = rendererService.getTextIndex();
+        if (index != null && !index.isComplete()) {
+            if (status.length() > 0) status.append("  \u2014  ");
+            status.append("indexing ").append(index.getIndexedPageCount()).append('/')
+                    .append(index.getPageCount()).append(" pages");
+        }
+        statusLabel.setText(status.toString());
+    }
+
+    /* --------------------------
+       Highlights
+     --------------------------- */
+
+    @Override
+    public void paintPage(Graphics2D g, int pageIndex, int width, int height) {
+        List<TextIndex.Match> onPage = matchesByPage.get(pageIndex);
+        if (onPage == null) return;
+        TextIndex.Match selected = current >= 0 ? matches.get(current) : null;
+        float scale = rendererService.getRenderScale();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (TextIndex.Match match : onPage) {
+            boolean isCurrent = match == selected;
+            for (Rectangle2D.Float box : match.boxes) {
+                Rectangle r = toSlot(box, scale);
+                if (isCurrent) {
+                    g.setColor(CURRENT_FILL_COLOR);
+                    g.fillRect(r.x, r.y, r.width, r.height);
+                    g.setColor(CURRENT_BORDER_COLOR);
+                    g.drawRect(r.x, r.y, r.width - 1, r.height - 1);
+                } else {
+                    g.setColor(MATCH_COLOR);
+                    g.fillRect(r.x, r.y, r.width, r.height);
+                }
+            }
+        }
+    }
+
+    /**
+     * A match box (points from the page's top-left) in slot coordinates, one pixel larger on
+     * every side so the border does not cover the glyphs.
+     */
+    private Rectangle toSlot(Rectangle2D.Float box, float scale) {
+        int x0 = (int) Math.floor(box.x * scale) + padding - 1;
+        int y0 = (int) Math.floor(box.y * scale) + padding - 1;
+        int x1 = (int) Math.ceil((box.x + box.width) * scale) + padding + 1;
+        int y1 = (int) Math.ceil((box.y + box.height) * scale) + padding + 1;
+        return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+    }
+
+    private Rectangle matchBounds(TextIndex.Match match) {
+        float scale = rendererService.getRenderScale();
+        Rectangle bounds = null;
+        for (Rectangle2D.Float box : match.boxes) {
+            Rectangle r = toSlot(box, scale);
+            bounds = bounds == null ? r : bounds.union(r);
+        }
+        return bounds;
+    }
+
+    private void repaintMatch(TextIndex.Match match) {
+        Rectangle bounds = matchBounds(match);
+        if (bounds != null) {
+            view.repaintPage(match.pageIndex, bounds);
+        }
+    }
+
+    /**
+     * Centres the viewport on the match if it is not fully visible.
+     */
+    private void scrollToMatch(TextIndex.Match match) {
+        if (match.pageIndex >= view.getPageCount() || !(view.getParent() instanceof JViewport)) return;
+        Rectangle bounds = matchBounds(match);
+        if (bounds == null) {
+            // No glyph boxes (e.g. only spaces): show the page
+            bounds = new Rectangle(0, 0, 1, 1);
+        }
+        Rectangle slot = view.getSlotBounds(match.pageIndex);
+        bounds.translate(slot.x, slot.y);
+
+        JViewport viewport = (JViewport) view.getParent();
+        Rectangle viewRect = viewport.getViewRect();
+        if (!viewRect.contains(bounds)) {
+            int centerX = bounds.x + bounds.width / 2 - viewRect.width / 2;
+            int centerY = bounds.y + bounds.height / 2 - viewRect.height / 2;
+            Dimension size = view.getPreferredSize();
+            int maxX = Math.max(0, Math.max(size.width, view.getWidth()) - viewRect.width);
+            int maxY = Math.max(0, size.height - viewRect.height);
+            viewport.setViewPosition(new Point(
+                    Math.max(0, Math.min(centerX, maxX)),
+                    Math.max(0, Math.min(centerY, maxY))));
+        }
+    }
+
+    /* --------------------------
+       Helpers
+     --------------------------- */
+
+    private void bindKey(KeyStroke keyStroke, String id, Runnable action) {
+        queryField.getInputMap(JComponent.WHEN_FOCUSED).put(keyStroke, id);
+        queryField.getActionMap().put(id, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    private static JButton createButton(String text, String tooltip) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        button.setPreferredSize(new Dimension(28, 28));
+        button.setMargin(new Insets(0, 0, 0, 0));
+        button.setToolTipText(tooltip);
+        return button;
+    }
+}
@@ -0,0 +1,418 @@
+package com.trexolab.gui.pdfHandler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.filter.DecodeOptions;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Decoded images shared by every {@link PDDocument} copy of one open file, bounded by bytes.
+ * <p>
+ * Each render worker parses its own copy of the document (PDFBox objects are not thread-safe),
+ * so a logo repeated on every page would otherwise be decoded once per worker, and again
+ * whenever the GC clears PDFBox's soft cache. Here the decoded raster is keyed by the image's
+ * object number and subsampling: the first worker to draw it decodes it, concurrent ones
+ * wait for that result, and later pages on any worker reuse it. Eviction is LRU by bytes.
+ * <p>
+ * {@link #install} gives a document its resource cache: fonts, color spaces and other resources
+ * stay per document (as in PDFBox's {@link DefaultResourceCache}); images PDFBox considers
+ * cacheable are also registered under their object key. {@link Renderer} draws those through
+ * the shared store. Images with optional content or stencil masks are drawn as usual.
+ * <p>
+ * Object keys are only stable for one revision of the file, so the viewer creates a new cache
+ * for each document it opens.
+ */
+class SharedResourceCache {
+
+    private static final Log log = LogFactory.getLog(SharedResourceCache.class);
+
+    private static final long MIN_BUDGET = 16L * 1024 * 1024;
+    private static final long MAX_BUDGET = 128L * 1024 * 1024;
+
+    /**
+     * Identifies one decoded image: its object and the subsampling it was decoded with.
+     */
+    private static final class ImageKey {
+        private final long objectNumber;
+        private final int generation;
+        private final int subsampling;
+
+        ImageKey(long objectNumber, int generation, int subsampling) {
+            this.objectNumber = objectNumber;
+            this.generation = generation;
+            this.subsampling = subsampling;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ImageKey)) return false;
+            ImageKey other = (ImageKey) o;
+            return objectNumber == other.objectNumber && generation == other.generation
+                    && subsampling == other.subsampling;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(objectNumber, generation, subsampling);
+        }
+    }
+
+    private final long maxBytes;
+    private long currentBytes;
+    private final LinkedHashMap<ImageKey, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+    // Decodes in progress, so concurrent workers wait for one decode instead of repeating it
+    private final Map<ImageKey, FutureTask<BufferedImage>> pending = new ConcurrentHashMap<>();
+
+    private long hits;
+    private long waits;
+    private long decodes;
+    private long decodeNanos;
+    private long evictions;
+
+    SharedResourceCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Default budget: a sixteenth of the maximum heap, between 16 MB and 128 MB.
+     */
+    static long defaultBudget() {
+        long budget = Runtime.getRuntime().maxMemory() / 16;
+        return Math.max(MIN_BUDGET, Math.min(MAX_BUDGET, budget));
+    }
+
+    /**
+     * Gives the document a fresh resource cache tied to this store (also after the previous
+     * one was dropped to free memory). Must be called by the thread that owns the document.
+     */
+    void install(PDDocument document) {
+        document.setResourceCache(new DocumentCache());
+    }
+
+    /**
+     * Drops all decoded images (heap pressure).
+     */
+    synchronized void clear() {
+        images.clear();
+        currentBytes = 0;
+    }
+
+    synchronized void logStats() {
+        if (decodes == 0 && hits == 0) return;
+        log.info(String.format("Shared image cache: %d hit(s), %d wait(s) on another worker, %d decode(s), avg %.1f ms; "
+                        + "%d eviction(s); %d image(s) (%d KB of %d KB)",
+                hits, waits, decodes, decodes > 0 ? decodeNanos / 1e6 / decodes : 0.0, evictions,
+                images.size(), currentBytes / 1024, maxBytes / 1024));
+    }
+
+    /**
+     * The decoded image for the key, decoding it with the given image on a miss.
+     */
+    private BufferedImage getImage(ImageKey key, PDImageXObject image) throws IOException {
+        synchronized (this) {
+            BufferedImage cached = images.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+        }
+
+        FutureTask<BufferedImage> task = new FutureTask<>(() -> decode(key, image));
+        FutureTask<BufferedImage> running = pending.putIfAbsent(key, task);
+        if (running == null) {
+            task.run();
+        } else {
+            synchronized (this) {
+                waits++;
+            }
+            task = running;
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an image decode", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        } finally {
+            if (running == null) {
+                pending.remove(key);
+            }
+        }
+    }
+
+    private BufferedImage decode(ImageKey key, PDImageXObject image) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage decoded = image.getImage(null, key.subsampling);
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            decodes++;
+            decodeNanos += elapsed;
+            put(key, decoded);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Decoded image object " + key.objectNumber + " (" + decoded.getWidth() + "x"
+                    + decoded.getHeight() + ", subsampling " + key.subsampling + ") in " + elapsed / 1_000_000 + " ms");
+        }
+        return decoded;
+    }
+
+    private void put(ImageKey key, BufferedImage image) {
+        long size = sizeOf(image);
+        if (size > maxBytes) return; // would evict everything else
+        BufferedImage previous = images.put(key, image);
+        if (previous != null) {
+            currentBytes -= sizeOf(previous);
+        }
+        currentBytes += size;
+
+        Iterator<Map.Entry<ImageKey, BufferedImage>> it = images.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<ImageKey, BufferedImage> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            it.remove();
+            currentBytes -= sizeOf(eldest.getValue());
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    /**
+     * The image to draw: a view backed by the shared store if the image is registered in the
+     * document's cache, otherwise the image itself.
+     */
+    private PDImage share(PDDocument document, PDImage image) {
+        if (!(image instanceof PDImageXObject) || !(document.getResourceCache() instanceof DocumentCache)) {
+            return image;
+        }
+        PDImageXObject xobject = (PDImageXObject) image;
+        // Optional content is checked by PageDrawer on PDImageXObject only; stencils are painted per fill color
+        if (xobject.isStencil() || xobject.getOptionalContent() != null) {
+            return image;
+        }
+        COSObject indirect = ((DocumentCache) document.getResourceCache()).indirects.get(xobject.getCOSObject());
+        return indirect != null ? new SharedImage(xobject, indirect) : image;
+    }
+
+    /**
+     * Per-document resource cache: PDFBox's default behaviour, plus the object of each
+     * cacheable image so it can be looked up in the shared store when drawn.
+     */
+    private static final class DocumentCache extends DefaultResourceCache {
+        private final Map<COSBase, COSObject> indirects = new HashMap<>();
+
+        @Override
+        public void put(COSObject indirect, PDXObject xobject) throws IOException {
+            super.put(indirect, xobject);
+            if (xobject instanceof PDImageXObject) {
+                indirects.put(xobject.getCOSObject(), indirect);
+            }
+        }
+    }
+
+    /**
+     * Renderer whose page drawers take decoded images from this store.
+     */
+    static class Renderer extends PDFRenderer {
+        private final SharedResourceCache cache;
+
+        Renderer(PDDocument document, SharedResourceCache cache) {
+            super(document);
+            this.cache = cache;
+            setSubsamplingAllowed(true);
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            return new Drawer(parameters);
+        }
+
+        class Drawer extends PageDrawer {
+            Drawer(PageDrawerParameters parameters) throws IOException {
+                super(parameters);
+            }
+
+            @Override
+            public void drawImage(PDImage pdImage) throws IOException {
+                super.drawImage(cache.share(document, pdImage));
+            }
+        }
+    }
+
+    /**
+     * An image whose decoded raster comes from the shared store; everything else is delegated.
+     */
+    private final class SharedImage implements PDImage {
+        private final PDImageXObject image;
+        private final COSObject indirect;
+
+        SharedImage(PDImageXObject image, COSObject indirect) {
+            this.image = image;
+            this.indirect = indirect;
+        }
+
+        @Override
+        public BufferedImage getImage() throws IOException {
+            return getImage(null, 1);
+        }
+
+        @Override
+        public BufferedImage getImage(Rectangle region, int subsampling) throws IOException {
+            if (region != null) {
+                return image.getImage(region, subsampling);
+            }
+            return SharedResourceCache.this.getImage(
+                    new ImageKey(indirect.getObjectNumber(), indirect.getGenerationNumber(), subsampling), image);
+        }
+
+        @Override
+        public WritableRaster getRawRaster() throws IOException {
+            return image.getRawRaster();
+        }
+
+        @Override
+        public BufferedImage getRawImage() throws IOException {
+            return image.getRawImage();
+        }
+
+        @Override
+        public BufferedImage getStencilImage(Paint paint) throws IOException {
+            return image.getStencilImage(paint);
+        }
+
+        @Override
+        public InputStream createInputStream() throws IOException {
+            return image.createInputStream();
+        }
+
+        @Override
+        public InputStream createInputStream(List<String> stopFilters) throws IOException {
+            return image.createInputStream(stopFilters);
+        }
+
+        @Override
+        public InputStream createInputStream(DecodeOptions options) throws IOException {
+            return image.createInputStream(options);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return image.isEmpty();
+        }
+
+        @Override
+        public boolean isStencil() {
+            return image.isStencil();
+        }
+
+        @Override
+        public void setStencil(boolean isStencil) {
+            image.setStencil(isStencil);
+        }
+
+        @Override
+        public int getBitsPerComponent() {
+            return image.getBitsPerComponent();
+        }
+
+        @Override
+        public void setBitsPerComponent(int bitsPerComponent) {
+            image.setBitsPerComponent(bitsPerComponent);
+        }
+
+        @Override
+        public PDColorSpace getColorSpace() throws IOException {
+            return image.getColorSpace();
+        }
+
+        @Override
+        public void setColorSpace(PDColorSpace colorSpace) {
+            image.setColorSpace(colorSpace);
+        }
+
+        @Override
+        public int getHeight() {
+            return image.getHeight();
+        }
+
+        @Override
+        public void setHeight(int height) {
+            image.setHeight(height);
+        }
+
+        @Override
+        public int getWidth() {
+            return image.getWidth();
+        }
+
+        @Override
+        public void setWidth(int width) {
+            image.setWidth(width);
+        }
+
+        @Override
+        public void setDecode(COSArray decode) {
+            image.setDecode(decode);
+        }
+
+        @Override
+        public COSArray getDecode() {
+            return image.getDecode();
+        }
+
+        @Override
+        public boolean getInterpolate() {
+            return image.getInterpolate();
+        }
+
+        @Override
+        public void setInterpolate(boolean value) {
+            image.setInterpolate(value);
+        }
+
+        @Override
+        public String getSuffix() {
+            return image.getSuffix();
+        }
+
+        @Override
+        public COSBase getCOSObject() {
+            return image.getCOSObject();
+        }
+    }
+}
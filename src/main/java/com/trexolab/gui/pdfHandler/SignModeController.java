@@ -7,22 +7,26 @@ import com.trexolab.core.exception.UserCancelledOperationException;
 import com.trexolab.core.exception.UserCancelledPasswordEntryException;
 import com.trexolab.gui.DialogUtils;
 import com.trexolab.service.SignatureFieldDetectionService.SignatureFieldInfo;
+import com.trexolab.service.SignaturePlacementFinder;
 import com.trexolab.utils.CursorStateManager;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
 
 import javax.swing.*;
-import javax.swing.plaf.basic.BasicLabelUI;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Responsibilities:
  * - Manage sign mode enable/disable
  * - Apply crosshair cursor to pdf panel & children
- * - Attach mouse listeners to each page label for rectangle drawing
+ * - Draw the signature rectangle on the page view (one listener and painter for all pages)
+ * - Place the rectangle automatically in blank space (key A)
  * - Convert coords & invoke SignerController
  */
 public class SignModeController {
@@ -55,7 +59,7 @@ public class SignModeController {
     private boolean signModeEnabled = false;
     private Rectangle drawnRect = null;
     private Point startPoint = null;
-    private JLabel activePageLabel = null;
+    private int activePage = -1;
     private int selectedPage = 0;
     private int[] pageCoords = new int[4];
 
@@ -70,6 +74,10 @@ public class SignModeController {
     private boolean showGrid = true;
     private boolean lockAspectRatio = false;
 
+    // Size (points) of an automatically placed signature
+    private static final float AUTO_PLACE_WIDTH = 180f;
+    private static final float AUTO_PLACE_HEIGHT = 60f;
+
     public SignModeController(
             PdfViewerMain owner,
             PdfRendererService rendererService,
@@ -96,7 +104,7 @@ public class SignModeController {
 
                     case KeyEvent.VK_SHIFT:
                         lockAspectRatio = true;
-                        if (activePageLabel != null) activePageLabel.repaint();
+                        if (activePage >= 0) rendererService.getPdfPanel().repaintPage(activePage);
                         break;
 
                     case KeyEvent.VK_G:
@@ -104,36 +112,46 @@ public class SignModeController {
                         rendererService.getPdfPanel().repaint();
                         break;
 
+                    case KeyEvent.VK_A:
+                        if (!e.isControlDown() && !e.isMetaDown()) {
+                            autoPlaceSignature();
+                        }
+                        break;
+
 
                     // Arrow keys for precise movement (when rectangle exists)
                     case KeyEvent.VK_UP:
-                        if (drawnRect != null && activePageLabel != null) {
+                        if (drawnRect != null && activePage >= 0) {
                             int delta = e.isShiftDown() ? 10 : 1;
+                            Rectangle before = new Rectangle(drawnRect);
                             drawnRect.y = Math.max(0, drawnRect.y - delta);
-                            activePageLabel.repaint();
+                            repaintSelection(before);
                         }
                         break;
                     case KeyEvent.VK_DOWN:
-                        if (drawnRect != null && activePageLabel != null) {
+                        if (drawnRect != null && activePage >= 0) {
                             int delta = e.isShiftDown() ? 10 : 1;
-                            int maxY = activePageLabel.getHeight() - drawnRect.height;
+                            Rectangle before = new Rectangle(drawnRect);
+                            int maxY = rendererService.getPdfPanel().getSlotBounds(activePage).height - drawnRect.height;
                             drawnRect.y = Math.min(maxY, drawnRect.y + delta);
-                            activePageLabel.repaint();
+                            repaintSelection(before);
                         }
                         break;
                     case KeyEvent.VK_LEFT:
-                        if (drawnRect != null && activePageLabel != null) {
+                        if (drawnRect != null && activePage >= 0) {
                             int delta = e.isShiftDown() ? 10 : 1;
+                            Rectangle before = new Rectangle(drawnRect);
                             drawnRect.x = Math.max(0, drawnRect.x - delta);
-                            activePageLabel.repaint();
+                            repaintSelection(before);
                         }
                         break;
                     case KeyEvent.VK_RIGHT:
-                        if (drawnRect != null && activePageLabel != null) {
+                        if (drawnRect != null && activePage >= 0) {
                             int delta = e.isShiftDown() ? 10 : 1;
-                            int maxX = activePageLabel.getWidth() - drawnRect.width;
+                            Rectangle before = new Rectangle(drawnRect);
+                            int maxX = rendererService.getPdfPanel().getSlotBounds(activePage).width - drawnRect.width;
                             drawnRect.x = Math.min(maxX, drawnRect.x + delta);
-                            activePageLabel.repaint();
+                            repaintSelection(before);
                         }
                         break;
                 }
@@ -143,10 +161,12 @@ public class SignModeController {
             public void keyReleased(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_SHIFT) {
                     lockAspectRatio = false;
-                    if (activePageLabel != null) activePageLabel.repaint();
+                    if (activePage >= 0) rendererService.getPdfPanel().repaintPage(activePage);
                 }
             }
         });
+
+        installRectangleDrawing();
     }
 
     public void toggleSignMode() {
@@ -170,6 +190,7 @@ public class SignModeController {
                 String message = "<html><body style='font-family:Segoe UI, sans-serif; font-size:12px; " +
                         "line-height:1.5;'>" +
                         "Click and drag to position your digital signature on the document.<br />Adjust the size as needed, then release to confirm." +
+                        "<br />Or press A to place it in blank space near the bottom-right of the page in view." +
                         "</body></html>";
 
                 DialogUtils.showHtmlMessageWithCheckbox(
@@ -187,18 +208,15 @@ public class SignModeController {
         signModeEnabled = false;
         isSigningInProgress = false;
         drawnRect = null;
-        activePageLabel = null;
+        activePage = -1;
         startPoint = null;
         selectedPage = 0;
 
         // Reset cursor for all components
         if (rendererService != null && rendererService.getPdfPanel() != null) {
             applyCursorRecursively(rendererService.getPdfPanel(), Cursor.getDefaultCursor());
-        }
-
-        // Clear any drawn rectangles
-        if (activePageLabel != null) {
-            activePageLabel.repaint();
+            // Clear the grid and any drawn rectangle (only visible pages are painted)
+            rendererService.getPdfPanel().repaint();
         }
 
         // Restore unsigned signature field overlays if they exist
@@ -217,10 +235,18 @@ public class SignModeController {
         applyCursorRecursively(rendererService.getPdfPanel(),
                 signModeEnabled ? Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR) : Cursor.getDefaultCursor());
 
-        // Attach drawing listeners lazily each time sign mode is toggled on,
-        // so any newly rendered pages get listeners.
+        // The grid appears or disappears on the visible pages
+        rendererService.getPdfPanel().repaint();
+
         if (signModeEnabled) {
-            attachDrawingListenersToAllPages();
+            // PDF viewer style: Enable BOTH modes
+            // - User can click on unsigned fields (green overlays)
+            // - User can also draw new rectangles anywhere on PDF
+            if (rendererService.hasUnsignedSignatureFields()) {
+                log.info("Manual rectangle drawing enabled (unsigned fields also available for clicking)");
+            } else {
+                log.info("Manual rectangle drawing enabled (no unsigned fields detected)");
+            }
 
             // Show signature field overlays if there are unsigned fields
             if (rendererService.hasUnsignedSignatureFields()) {
@@ -237,52 +263,6 @@ public class SignModeController {
         rendererService.getPdfPanel().requestFocusInWindow();
     }
 
-    private void attachDrawingListenersToAllPages() {
-        JPanel pdfPanel = rendererService.getPdfPanel();
-        int totalPages = rendererService.getPageCountSafe();
-        float scale = PdfRendererService.RENDER_DPI / 72f;
-
-        // PDF viewer style: Enable BOTH modes
-        // - User can click on unsigned fields (green overlays)
-        // - User can also draw new rectangles anywhere on PDF
-        for (int i = 0; i < totalPages; i++) {
-            // Each child is a page wrapper (FlowLayout) with one JLabel inside
-            Component wrapper = pdfPanel.getComponent(i);
-            if (wrapper instanceof JPanel) {
-                JLabel pageLabel = findPageLabel((JPanel) wrapper);
-                if (pageLabel != null) {
-                    enableRectangleDrawing(pageLabel, i, scale);
-                }
-            }
-        }
-
-        boolean hasUnsignedFields = rendererService.hasUnsignedSignatureFields();
-        if (hasUnsignedFields) {
-            log.info("Manual rectangle drawing enabled (unsigned fields also available for clicking)");
-        } else {
-            log.info("Manual rectangle drawing enabled (no unsigned fields detected)");
-        }
-    }
-
-    private JLabel findPageLabel(JPanel pageWrapper) {
-        for (Component c : pageWrapper.getComponents()) {
-            // Direct JLabel case (no overlays)
-            if (c instanceof JLabel) {
-                return (JLabel) c;
-            }
-            // JLayeredPane case (when signature field overlays are shown)
-            if (c instanceof JLayeredPane) {
-                JLayeredPane layeredPane = (JLayeredPane) c;
-                for (Component child : layeredPane.getComponents()) {
-                    if (child instanceof JLabel) {
-                        return (JLabel) child;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
     private void applyCursorRecursively(Component component, Cursor cursor) {
         component.setCursor(cursor);
         if (component instanceof Container) {
@@ -296,242 +276,113 @@ public class SignModeController {
        Drawing + Signing
      --------------------------- */
 
-    private void enableRectangleDrawing(JLabel pageLabel, int pageIndex, float scale) {
-
-        // Professional minimalist UI with optimized rendering
-        pageLabel.setUI(new BasicLabelUI() {
-            @Override
-            public void paint(Graphics g, JComponent c) {
-                super.paint(g, c);
-                Graphics2D g2 = (Graphics2D) g.create();
-                try {
-                    // Enable anti-aliasing for smooth, professional edges
-                    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                    g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                    g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
-                    g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                    // Draw grid when in sign mode (subtle, professional) - show on all pages
-                    if (signModeEnabled && showGrid) {
-                        drawGrid(g2, c);
-                    }
-
-                    // Draw the signature rectangle (professional feature-rich design)
-                    if (drawnRect != null && signModeEnabled && pageLabel == activePageLabel) {
-                        // Semi-transparent fill - matches dark theme
-                        g2.setColor(SELECTION_FILL_COLOR);
-                        g2.fill(drawnRect);
-
-                        // Single clean border
-                        g2.setColor(SELECTION_BORDER_COLOR);
-                        g2.setStroke(BORDER_STROKE);
-                        g2.draw(drawnRect);
-
-                        drawResizeHandles(g2, drawnRect);
-                        drawCornerMarkers(g2, drawnRect);
-                        drawCenterPoint(g2, drawnRect);
-                    }
-                } finally {
-                    g2.dispose();
-                }
-            }
-
-            private void drawResizeHandles(Graphics2D g2, Rectangle rect) {
-                int halfSize = HANDLE_SIZE / 2;
-                int[][] handles = {
-                    {rect.x, rect.y},
-                    {rect.x + rect.width, rect.y},
-                    {rect.x, rect.y + rect.height},
-                    {rect.x + rect.width, rect.y + rect.height},
-                    {rect.x + rect.width / 2, rect.y},
-                    {rect.x + rect.width / 2, rect.y + rect.height},
-                    {rect.x, rect.y + rect.height / 2},
-                    {rect.x + rect.width, rect.y + rect.height / 2}
-                };
-
-                g2.setStroke(HANDLE_STROKE);
-                for (int[] handle : handles) {
-                    int x = handle[0] - halfSize;
-                    int y = handle[1] - halfSize;
-                    g2.setColor(HANDLE_FILL_COLOR);
-                    g2.fillRect(x, y, HANDLE_SIZE, HANDLE_SIZE);
-                    g2.setColor(HANDLE_BORDER_COLOR);
-                    g2.drawRect(x, y, HANDLE_SIZE, HANDLE_SIZE);
-                }
-            }
-
-            private void drawCornerMarkers(Graphics2D g2, Rectangle rect) {
-                g2.setColor(MARKER_COLOR);
-                g2.setStroke(MARKER_STROKE);
-                g2.drawLine(rect.x, rect.y, rect.x + MARKER_LENGTH, rect.y);
-                g2.drawLine(rect.x, rect.y, rect.x, rect.y + MARKER_LENGTH);
-                g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width - MARKER_LENGTH, rect.y);
-                g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width, rect.y + MARKER_LENGTH);
-                g2.drawLine(rect.x, rect.y + rect.height, rect.x + MARKER_LENGTH, rect.y + rect.height);
-                g2.drawLine(rect.x, rect.y + rect.height, rect.x, rect.y + rect.height - MARKER_LENGTH);
-                g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width - MARKER_LENGTH, rect.y + rect.height);
-                g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width, rect.y + rect.height - MARKER_LENGTH);
-            }
-
-            private void drawCenterPoint(Graphics2D g2, Rectangle rect) {
-                int centerX = rect.x + rect.width / 2;
-                int centerY = rect.y + rect.height / 2;
-                g2.setColor(CENTER_POINT_COLOR);
-                g2.setStroke(CENTER_STROKE);
-                g2.drawLine(centerX - CENTER_SIZE, centerY, centerX + CENTER_SIZE, centerY);
-                g2.drawLine(centerX, centerY - CENTER_SIZE, centerX, centerY + CENTER_SIZE);
-                g2.fillOval(centerX - 2, centerY - 2, 4, 4);
-            }
-
-            private void drawGrid(Graphics2D g2, JComponent c) {
-                int width = c.getWidth();
-                int height = c.getHeight();
-                int majorGrid = GRID_SIZE * 5;
-
-                g2.setColor(GRID_COLOR_MINOR);
-                g2.setStroke(GRID_STROKE_MINOR);
-                for (int x = GRID_SIZE; x < width; x += GRID_SIZE) {
-                    g2.drawLine(x, 0, x, height);
-                }
-                for (int y = GRID_SIZE; y < height; y += GRID_SIZE) {
-                    g2.drawLine(0, y, width, y);
-                }
-
-                g2.setColor(GRID_COLOR_MAJOR);
-                g2.setStroke(GRID_STROKE_MAJOR);
-                for (int x = majorGrid; x < width; x += majorGrid) {
-                    g2.drawLine(x, 0, x, height);
-                }
-                for (int y = majorGrid; y < height; y += majorGrid) {
-                    g2.drawLine(0, y, width, y);
-                }
-            }
-
-        });
+    /**
+     * Installs the sign-mode painter and one mouse listener on the page view; events are mapped
+     * to the page under the pointer, in page slot coordinates (padding included), which is what
+     * {@link SelectionUtils} expects.
+     */
+    private void installRectangleDrawing() {
+        PageView pageView = rendererService.getPdfPanel();
+        pageView.addPagePainter(this::paintSignMode);
 
-        pageLabel.addMouseListener(new java.awt.event.MouseAdapter() {
+        java.awt.event.MouseAdapter adapter = new java.awt.event.MouseAdapter() {
             private Point localStartPoint = null;
             private Rectangle localDrawnRect = null;
+            private int localPage = -1;
 
             @Override
             public void mousePressed(java.awt.event.MouseEvent e) {
                 if (!signModeEnabled || isSigningInProgress) {
                     return;
                 }
+                // Fields and signatures handle their own clicks
+                if (rendererService.isOverlayItemAt(e.getPoint())) {
+                    return;
+                }
+                int pageIndex = pageAt(pageView, e.getPoint());
+                if (pageIndex < 0) {
+                    return;
+                }
 
                 isSigningInProgress = true;
-                localStartPoint = e.getPoint();
+                localStartPoint = toSlot(pageView, pageIndex, e.getPoint());
                 localDrawnRect = new Rectangle();
+                localPage = pageIndex;
                 startPoint = localStartPoint;
                 drawnRect = localDrawnRect;
-                activePageLabel = pageLabel;
+                activePage = pageIndex;
                 selectedPage = pageIndex;
                 onSignStart.run();
             }
 
             @Override
             public void mouseReleased(java.awt.event.MouseEvent e) {
-                if (!signModeEnabled || localDrawnRect == null ||
-                        localStartPoint == null ||
-                        activePageLabel != pageLabel) {
+                if (!signModeEnabled) {
+                    return;
+                }
+                Point start = localStartPoint;
+                int pageIndex = localPage;
+                localStartPoint = null;
+                localDrawnRect = null;
+                localPage = -1;
+                if (start == null) {
+                    return; // Press was not ours, e.g. on a signature field
+                }
+                if (drawnRect == null || activePage != pageIndex) {
                     resetSignModeUI();
                     return;
                 }
+                Point end = toSlot(pageView, pageIndex, e.getPoint());
 
                 // Use CursorStateManager for consistent cursor handling
                 CursorStateManager.getInstance().pushCursor(Cursor.WAIT_CURSOR, "manual-signing");
 
                 SwingUtilities.invokeLater(() -> {
-                    try {
-                        int imageHeight = pageLabel.getIcon().getIconHeight();
-                        int[] coords = SelectionUtils.convertToItextRectangle(
-                                e.getX(), e.getY(),
-                                localStartPoint.x, localStartPoint.y,
-                                imageHeight,
-                                scale,
-                                PdfRendererService.DEFAULT_RENDERER_PADDING
-                        );
-
-                        if (coords[2] - coords[0] <= 30 || coords[3] - coords[1] <= 10) {
-                            DialogUtils.showInfo(owner, "", "Draw a larger rectangle to sign.");
-                            drawnRect = null;
-                            pageLabel.repaint();
-                            CursorStateManager.getInstance().popCursor("manual-signing");
-                            return;
-                        }
-
-                        pageCoords = coords;
-
-                        File selectedFile = rendererService.getCurrentFile();
-                        if (selectedFile == null) {
-                            DialogUtils.showError(owner, "No file", "No PDF is currently loaded.");
-                            CursorStateManager.getInstance().popCursor("manual-signing");
-                            return;
-                        }
-
-                        // Wire into existing SignerController API
-                        signerController.setSelectedFile(selectedFile);
-                        signerController.setPdfPassword(owner.getPdfPassword());
-                        signerController.setPageNumber(selectedPage + 1);
-                        signerController.setCoordinates(pageCoords);
-
-                        // Clear existing field name to ensure we create a new signature field
-                        signerController.setExistingFieldName(null);
-
-                        // Set callback to reset UI state if user cancels save
-                        signerController.setOnSaveCancelled(new Runnable() {
-                            @Override
-                            public void run() {
-                                resetSignModeUI();
-                            }
-                        });
-
-                        signerController.startSigningService();
-
-                        resetSignModeUI();
-                        onSignDone.run();
-                    } catch (UserCancelledPasswordEntryException | UserCancelledOperationException ex) {
-                        log.info("User cancelled signing With reason: " + ex.getMessage());
-                    } catch (IncorrectPINException ex) {
-                        log.warn("Incorrect PIN entered");
-                        DialogUtils.showError(PdfViewerMain.INSTANCE, "Incorrect PIN", ex.getMessage());
-                    } catch (MaxPinAttemptsExceededException ex) {
-                        log.warn("Maximum PIN attempts exceeded");
-                        DialogUtils.showError(PdfViewerMain.INSTANCE, "Maximum PIN attempts exceeded, Signing aborted", ex.getMessage());
-                    } catch (Exception ex) {
-                        log.error("Error signing PDF", ex);
-                        DialogUtils.showExceptionDialog(PdfViewerMain.INSTANCE, "Signing failed unknown error occurred", ex);
-                    } finally {
+                    int imageHeight = pageView.getPageBounds(pageIndex).height;
+                    int[] coords = SelectionUtils.convertToItextRectangle(
+                            end.x, end.y,
+                            start.x, start.y,
+                            imageHeight,
+                            rendererService.getRenderScale(), // current zoom
+                            PdfRendererService.DEFAULT_RENDERER_PADDING
+                    );
+
+                    if (coords[2] - coords[0] <= 30 || coords[3] - coords[1] <= 10) {
+                        DialogUtils.showInfo(owner, "", "Draw a larger rectangle to sign.");
+                        drawnRect = null;
+                        pageView.repaintPage(pageIndex);
                         CursorStateManager.getInstance().popCursor("manual-signing");
                         resetSignModeUI();
+                        return;
                     }
+
+                    signNewField(pageIndex, coords);
                 });
             }
-        });
 
-        pageLabel.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
             @Override
             public void mouseDragged(java.awt.event.MouseEvent e) {
-                if (!signModeEnabled || drawnRect == null || startPoint == null || activePageLabel != pageLabel)
+                if (!signModeEnabled || drawnRect == null || startPoint == null || activePage != localPage)
                     return;
 
                 Rectangle oldBounds = new Rectangle(drawnRect);
-                
+
                 // Get page dimensions
-                int pageWidth = pageLabel.getWidth();
-                int pageHeight = pageLabel.getHeight();
-                
+                Rectangle slot = pageView.getSlotBounds(activePage);
+                int pageWidth = slot.width;
+                int pageHeight = slot.height;
+
                 // Constrain current position to page boundaries
-                Point currentPos = e.getPoint();
+                Point currentPos = toSlot(pageView, activePage, e.getPoint());
                 int constrainedX = Math.max(0, Math.min(currentPos.x, pageWidth));
                 int constrainedY = Math.max(0, Math.min(currentPos.y, pageHeight));
-                
+
                 // Calculate rectangle bounds
                 int rectX = Math.min(startPoint.x, constrainedX);
                 int rectY = Math.min(startPoint.y, constrainedY);
                 int rectWidth = Math.abs(startPoint.x - constrainedX);
                 int rectHeight = Math.abs(startPoint.y - constrainedY);
-                
+
                 // Ensure rectangle doesn't exceed page boundaries
                 if (rectX + rectWidth > pageWidth) {
                     rectWidth = pageWidth - rectX;
@@ -539,14 +390,245 @@ public class SignModeController {
                 if (rectY + rectHeight > pageHeight) {
                     rectHeight = pageHeight - rectY;
                 }
-                
+
                 drawnRect.setBounds(rectX, rectY, rectWidth, rectHeight);
-                
-                Rectangle repaintRegion = oldBounds.union(drawnRect);
-                repaintRegion.grow(30, 30);
-                pageLabel.repaint(repaintRegion);
+
+                repaintSelection(oldBounds);
             }
-        });
+        };
+        pageView.addMouseListener(adapter);
+        pageView.addMouseMotionListener(adapter);
+    }
+
+    /**
+     * Signs a new field with the given rectangle ({llx, lly, urx, ury}, points) on a page: the
+     * common end of drawing a rectangle and of automatic placement. Pops the "manual-signing"
+     * cursor and leaves sign mode when done.
+     */
+    private void signNewField(int pageIndex, int[] coords) {
+        try {
+            pageCoords = coords;
+
+            File selectedFile = rendererService.getCurrentFile();
+            if (selectedFile == null) {
+                DialogUtils.showError(owner, "No file", "No PDF is currently loaded.");
+                CursorStateManager.getInstance().popCursor("manual-signing");
+                return;
+            }
+
+            // Wire into existing SignerController API
+            signerController.setSelectedFile(selectedFile);
+            signerController.setPdfPassword(owner.getPdfPassword());
+            signerController.setPageNumber(pageIndex + 1);
+            signerController.setCoordinates(pageCoords);
+
+            // Clear existing field name to ensure we create a new signature field
+            signerController.setExistingFieldName(null);
+
+            // Set callback to reset UI state if user cancels save
+            signerController.setOnSaveCancelled(new Runnable() {
+                @Override
+                public void run() {
+                    resetSignModeUI();
+                }
+            });
+
+            signerController.startSigningService();
+
+            resetSignModeUI();
+            onSignDone.run();
+        } catch (UserCancelledPasswordEntryException | UserCancelledOperationException ex) {
+            log.info("User cancelled signing With reason: " + ex.getMessage());
+        } catch (IncorrectPINException ex) {
+            log.warn("Incorrect PIN entered");
+            DialogUtils.showError(PdfViewerMain.INSTANCE, "Incorrect PIN", ex.getMessage());
+        } catch (MaxPinAttemptsExceededException ex) {
+            log.warn("Maximum PIN attempts exceeded");
+            DialogUtils.showError(PdfViewerMain.INSTANCE, "Maximum PIN attempts exceeded, Signing aborted", ex.getMessage());
+        } catch (Exception ex) {
+            log.error("Error signing PDF", ex);
+            DialogUtils.showExceptionDialog(PdfViewerMain.INSTANCE, "Signing failed unknown error occurred", ex);
+        } finally {
+            CursorStateManager.getInstance().popCursor("manual-signing");
+            resetSignModeUI();
+        }
+    }
+
+    /**
+     * Places the signature in the blank area nearest the bottom-right corner of the page in view
+     * and signs there, as if that rectangle had been drawn.
+     */
+    private void autoPlaceSignature() {
+        PageView pageView = rendererService.getPdfPanel();
+        PDDocument document = rendererService.getDocument();
+        if (isSigningInProgress || document == null) {
+            return;
+        }
+        Rectangle visible = pageView.getVisibleRect();
+        int pageIndex = pageView.pageAt(visible.y + visible.height / 2);
+        if (pageIndex < 0) {
+            return;
+        }
+
+        int[] coords;
+        try {
+            coords = new SignaturePlacementFinder(document).findPlacement(pageIndex,
+                    AUTO_PLACE_WIDTH, AUTO_PLACE_HEIGHT, SignaturePlacementFinder.Anchor.BOTTOM_RIGHT);
+        } catch (IOException ex) {
+            log.warn("Automatic signature placement failed on page " + (pageIndex + 1), ex);
+            coords = null;
+        }
+        if (coords == null) {
+            DialogUtils.showInfo(owner, "", "No blank area large enough for a signature was found on this page. Draw the rectangle instead.");
+            return;
+        }
+        log.info("Signature placed automatically on page " + (pageIndex + 1) + " at " + Arrays.toString(coords));
+
+        // Show the placement like a drawn selection (slot pixels) while the signing dialogs are up
+        float scale = rendererService.getRenderScale();
+        int padding = PdfRendererService.DEFAULT_RENDERER_PADDING;
+        int imageHeight = pageView.getPageBounds(pageIndex).height;
+        drawnRect = new Rectangle(
+                padding + Math.round(coords[0] * scale),
+                padding + imageHeight - Math.round(coords[3] * scale),
+                Math.round((coords[2] - coords[0]) * scale),
+                Math.round((coords[3] - coords[1]) * scale));
+        activePage = pageIndex;
+        selectedPage = pageIndex;
+        isSigningInProgress = true;
+        pageView.repaintPage(pageIndex);
+        onSignStart.run();
+
+        CursorStateManager.getInstance().pushCursor(Cursor.WAIT_CURSOR, "manual-signing");
+        final int[] placement = coords;
+        SwingUtilities.invokeLater(() -> signNewField(pageIndex, placement));
+    }
+
+    /**
+     * Repaints only the area the selection moved through: its old and new bounds, plus room for
+     * the handles and markers drawn around it.
+     */
+    private void repaintSelection(Rectangle before) {
+        Rectangle repaintRegion = before.union(drawnRect);
+        repaintRegion.grow(30, 30);
+        rendererService.getPdfPanel().repaintPage(activePage, repaintRegion);
+    }
+
+    /**
+     * Page whose slot contains the point, or -1 (margins and the space beside narrower pages).
+     */
+    private static int pageAt(PageView pageView, Point point) {
+        int pageIndex = pageView.pageAt(point.y);
+        return pageIndex >= 0 && pageView.getSlotBounds(pageIndex).contains(point) ? pageIndex : -1;
+    }
+
+    private static Point toSlot(PageView pageView, int pageIndex, Point point) {
+        Rectangle slot = pageView.getSlotBounds(pageIndex);
+        return new Point(point.x - slot.x, point.y - slot.y);
+    }
+
+    /**
+     * Paints the grid and the signature rectangle over a page while sign mode is on.
+     */
+    private void paintSignMode(Graphics2D g2, int pageIndex, int width, int height) {
+        if (!signModeEnabled) {
+            return;
+        }
+        // Enable anti-aliasing for smooth, professional edges
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Draw grid when in sign mode (subtle, professional) - show on all pages
+        if (showGrid) {
+            drawGrid(g2, width, height);
+        }
+
+        // Draw the signature rectangle (professional feature-rich design)
+        if (drawnRect != null && pageIndex == activePage) {
+            // Semi-transparent fill - matches dark theme
+            g2.setColor(SELECTION_FILL_COLOR);
+            g2.fill(drawnRect);
+
+            // Single clean border
+            g2.setColor(SELECTION_BORDER_COLOR);
+            g2.setStroke(BORDER_STROKE);
+            g2.draw(drawnRect);
+
+            drawResizeHandles(g2, drawnRect);
+            drawCornerMarkers(g2, drawnRect);
+            drawCenterPoint(g2, drawnRect);
+        }
+    }
+
+    private void drawResizeHandles(Graphics2D g2, Rectangle rect) {
+        int halfSize = HANDLE_SIZE / 2;
+        int[][] handles = {
+            {rect.x, rect.y},
+            {rect.x + rect.width, rect.y},
+            {rect.x, rect.y + rect.height},
+            {rect.x + rect.width, rect.y + rect.height},
+            {rect.x + rect.width / 2, rect.y},
+            {rect.x + rect.width / 2, rect.y + rect.height},
+            {rect.x, rect.y + rect.height / 2},
+            {rect.x + rect.width, rect.y + rect.height / 2}
+        };
+
+        g2.setStroke(HANDLE_STROKE);
+        for (int[] handle : handles) {
+            int x = handle[0] - halfSize;
+            int y = handle[1] - halfSize;
+            g2.setColor(HANDLE_FILL_COLOR);
+            g2.fillRect(x, y, HANDLE_SIZE, HANDLE_SIZE);
+            g2.setColor(HANDLE_BORDER_COLOR);
+            g2.drawRect(x, y, HANDLE_SIZE, HANDLE_SIZE);
+        }
+    }
+
+    private void drawCornerMarkers(Graphics2D g2, Rectangle rect) {
+        g2.setColor(MARKER_COLOR);
+        g2.setStroke(MARKER_STROKE);
+        g2.drawLine(rect.x, rect.y, rect.x + MARKER_LENGTH, rect.y);
+        g2.drawLine(rect.x, rect.y, rect.x, rect.y + MARKER_LENGTH);
+        g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width - MARKER_LENGTH, rect.y);
+        g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width, rect.y + MARKER_LENGTH);
+        g2.drawLine(rect.x, rect.y + rect.height, rect.x + MARKER_LENGTH, rect.y + rect.height);
+        g2.drawLine(rect.x, rect.y + rect.height, rect.x, rect.y + rect.height - MARKER_LENGTH);
+        g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width - MARKER_LENGTH, rect.y + rect.height);
+        g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width, rect.y + rect.height - MARKER_LENGTH);
+    }
+
+    private void drawCenterPoint(Graphics2D g2, Rectangle rect) {
+        int centerX = rect.x + rect.width / 2;
+        int centerY = rect.y + rect.height / 2;
+        g2.setColor(CENTER_POINT_COLOR);
+        g2.setStroke(CENTER_STROKE);
+        g2.drawLine(centerX - CENTER_SIZE, centerY, centerX + CENTER_SIZE, centerY);
+        g2.drawLine(centerX, centerY - CENTER_SIZE, centerX, centerY + CENTER_SIZE);
+        g2.fillOval(centerX - 2, centerY - 2, 4, 4);
+    }
+
+    private void drawGrid(Graphics2D g2, int width, int height) {
+        int majorGrid = GRID_SIZE * 5;
+
+        g2.setColor(GRID_COLOR_MINOR);
+        g2.setStroke(GRID_STROKE_MINOR);
+        for (int x = GRID_SIZE; x < width; x += GRID_SIZE) {
+            g2.drawLine(x, 0, x, height);
+        }
+        for (int y = GRID_SIZE; y < height; y += GRID_SIZE) {
+            g2.drawLine(0, y, width, y);
+        }
+
+        g2.setColor(GRID_COLOR_MAJOR);
+        g2.setStroke(GRID_STROKE_MAJOR);
+        for (int x = majorGrid; x < width; x += majorGrid) {
+            g2.drawLine(x, 0, x, height);
+        }
+        for (int y = majorGrid; y < height; y += majorGrid) {
+            g2.drawLine(0, y, width, y);
+        }
     }
 
     /**
@@ -0,0 +1,863 @@
+package com.trexolab.gui.pdfHandler;
+
+import com.trexolab.service.SignatureFieldDetectionService.SignatureFieldInfo;
+import com.trexolab.service.SignatureVerificationService;
+import com.trexolab.utils.CursorStateManager;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * The signature overlays of all pages, drawn on the {@link PageView} as one layer: unsigned
+ * fields to click and sign, and signed signatures outlined in their signature panel colours.
+ * <p>
+ * There is one painter and one mouse listener for the whole document instead of a component per
+ * page. Items are kept in an {@link OverlayIndex} per kind, in PDF coordinates, so hover and
+ * click are a grid lookup, painting only visits the items inside the clip, and zooming needs no
+ * rebuild. State changes and animation frames repaint only the rectangles of the items
+ * concerned, on one timer that runs only while something animates.
+ * <p>
+ * Signed signatures are drawn above unsigned fields. Clicking a field calls the
+ * {@link FieldClickListener}; clicking a signature opens its properties. Accessed on the EDT only.
+ */
+class SignatureOverlayLayer implements PageView.PagePainter {
+
+    // Application theme colors - matching sign button green (#28A745)
+    // Extract RGB: 0x28A745 = R:40, G:167, B:69
+    private static final Color APP_GREEN = new Color(40, 167, 69); // Application's sign button color
+    private static final Color FIELD_BORDER_COLOR = new Color(40, 167, 69, 180); // Green with transparency
+    private static final Color FIELD_FILL_COLOR = new Color(40, 167, 69, 15); // Very subtle green fill
+    private static final Color FIELD_HOVER_BORDER_COLOR = new Color(40, 167, 69, 255); // Solid green on hover
+    private static final Color FIELD_HOVER_FILL_COLOR = new Color(40, 167, 69, 40); // More visible green on hover
+
+    private static final int FRAME_MILLIS = 40;
+    private static final int HIGHLIGHT_MILLIS = 2000;
+    // Drawing reaches past an item's rectangle: glow, strokes, and labels wider than small fields
+    private static final int DAMAGE_MARGIN = 8;
+    private static final Dimension MIN_DAMAGE = new Dimension(140, 100);
+
+    /**
+     * Listener interface for signature field click events.
+     */
+    public interface FieldClickListener {
+        void onFieldClicked(SignatureFieldInfo field);
+    }
+
+    private final PageView view;
+    private final PdfRendererService rendererService;
+    private final int padding = PdfRendererService.DEFAULT_RENDERER_PADDING;
+
+    private final OverlayIndex<SignatureFieldInfo> fields = new OverlayIndex<>();
+    private final OverlayIndex<SignatureRect> signatures = new OverlayIndex<>();
+    private FieldClickListener clickListener;
+    private PdfScrollPane scrollPane;
+
+    // Interaction state
+    private Object hovered; // SignatureFieldInfo or SignatureRect
+    private int hoveredPage = -1;
+    private Cursor cursorBeforeHover;
+    private SignatureFieldInfo clickedField; // Track clicked field for loading state
+    private int clickedPage = -1;
+    private boolean isProcessing = false;
+    private SignatureRect highlightedRect;
+    private int highlightedPage = -1;
+    private Timer highlightTimer;
+
+    // Animation: pulse on idle fields, marching ants on the hovered item, spinner while opening
+    private final Timer animationTimer;
+    private float pulseAlpha = 0.0f;
+    private boolean pulseIncreasing = true;
+    private float dashPhase = 0.0f;
+
+    SignatureOverlayLayer(PageView view, PdfRendererService rendererService) {
+        this.view = view;
+        this.rendererService = rendererService;
+        this.animationTimer = new Timer(FRAME_MILLIS, e -> animate());
+
+        view.addPagePainter(this);
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                updateHover(e.getPoint());
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                onClick(e.getPoint());
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHovered(null, -1);
+            }
+        };
+        view.addMouseListener(mouseAdapter);
+        view.addMouseMotionListener(mouseAdapter);
+    }
+
+    /* --------------------------
+       Unsigned fields
+     --------------------------- */
+
+    /**
+     * Shows the given unsigned fields (signed ones and fields on missing pages are skipped).
+     *
+     * @return number of fields shown
+     */
+    int showFields(List<SignatureFieldInfo> allFields, FieldClickListener clickListener) {
+        hideFields();
+        this.clickListener = clickListener;
+        for (SignatureFieldInfo field : allFields) {
+            int pageIndex = field.getPageNumber() - 1;
+            if (!field.isSigned() && pageIndex >= 0 && pageIndex < view.getPageCount()
+                    && fields.add(pageIndex, pageWidthPt(pageIndex), pageHeightPt(pageIndex),
+                    field.getLlx(), field.getLly(), field.getUrx(), field.getUry(), field)) {
+                repaintItem(pageIndex, field.getLlx(), field.getLly(), field.getUrx(), field.getUry());
+            }
+        }
+        updateAnimation();
+        return fields.size();
+    }
+
+    void hideFields() {
+        if (fields.isEmpty()) return;
+        resetLoadingState();
+        if (hovered instanceof SignatureFieldInfo) {
+            setHovered(null, -1);
+        }
+        for (int pageIndex : fields.pages()) {
+            for (SignatureFieldInfo field : fields.itemsOn(pageIndex)) {
+                repaintItem(pageIndex, field.getLlx(), field.getLly(), field.getUrx(), field.getUry());
+            }
+        }
+        fields.clear();
+        clickListener = null;
+        updateAnimation();
+    }
+
+    /**
+     * Resets the loading state (call this when signing dialog is closed/cancelled).
+     * Restores normal interaction state.
+     */
+    void resetLoadingState() {
+        if (!isProcessing) return;
+        CursorStateManager.getInstance().popCursor("field-overlay-click");
+        isProcessing = false;
+        SignatureFieldInfo field = clickedField;
+        clickedField = null;
+        view.setCursor(hovered != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)
+                : cursorBeforeHover != null ? cursorBeforeHover : Cursor.getDefaultCursor());
+        repaintItem(clickedPage, field.getLlx(), field.getLly(), field.getUrx(), field.getUry());
+        clickedPage = -1;
+        updateAnimation();
+    }
+
+    /* --------------------------
+       Signed signatures
+     --------------------------- */
+
+    /**
+     * Shows the signed signatures that have a position.
+     *
+     * @param scrollPane scroll pane for auto-scroll when a signature is highlighted
+     * @return number of signatures shown
+     */
+    int showSignatures(List<SignatureVerificationService.SignatureVerificationResult> results,
+                       SignatureColorManager colorManager, PdfScrollPane scrollPane) {
+        hideSignatures();
+        this.scrollPane = scrollPane;
+        for (SignatureVerificationService.SignatureVerificationResult result : results) {
+            int pageIndex = result.getPageNumber() - 1;
+            float[] pos = result.getPosition();
+            if (pos != null && pageIndex >= 0 && pageIndex < view.getPageCount()) {
+                Color borderColor = colorManager.getColorForSignature(result.getFieldName());
+                Color transparentColor = colorManager.getTransparentColorForSignature(result.getFieldName());
+                if (signatures.add(pageIndex, pageWidthPt(pageIndex), pageHeightPt(pageIndex),
+                        pos[0], pos[1], pos[2], pos[3], new SignatureRect(result, pos, borderColor, transparentColor))) {
+                    repaintItem(pageIndex, pos[0], pos[1], pos[2], pos[3]);
+                }
+            }
+        }
+        return signatures.size();
+    }
+
+    boolean hasSignatures() {
+        return !signatures.isEmpty();
+    }
+
+    void hideSignatures() {
+        if (signatures.isEmpty()) return;
+        if (hovered instanceof SignatureRect) {
+            setHovered(null, -1);
+        }
+        clearHighlight();
+        for (int pageIndex : signatures.pages()) {
+            for (SignatureRect rect : signatures.itemsOn(pageIndex)) {
+                repaintItem(pageIndex, rect.position[0], rect.position[1], rect.position[2], rect.position[3]);
+            }
+        }
+        signatures.clear();
+        scrollPane = null;
+        updateAnimation();
+    }
+
+    /**
+     * Highlights a signature by field name (called from panel selection) and scrolls it into view.
+     */
+    void highlightSignature(String fieldName) {
+        for (int pageIndex : signatures.pages()) {
+            for (SignatureRect rect : signatures.itemsOn(pageIndex)) {
+                if (rect.result.getFieldName().equals(fieldName)) {
+                    clearHighlight();
+                    highlightedRect = rect;
+                    highlightedPage = pageIndex;
+                    repaintItem(pageIndex, rect.position[0], rect.position[1], rect.position[2], rect.position[3]);
+                    scrollToRect(pageIndex, rect);
+
+                    // Auto-remove highlight after 2 seconds
+                    highlightTimer = new Timer(HIGHLIGHT_MILLIS, e -> clearHighlight());
+                    highlightTimer.setRepeats(false);
+                    highlightTimer.start();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void clearHighlight() {
+        if (highlightTimer != null) {
+            highlightTimer.stop();
+            highlightTimer = null;
+        }
+        if (highlightedRect != null) {
+            SignatureRect rect = highlightedRect;
+            highlightedRect = null;
+            repaintItem(highlightedPage, rect.position[0], rect.position[1], rect.position[2], rect.position[3]);
+            highlightedPage = -1;
+        }
+    }
+
+    /**
+     * Centres the viewport on the signature if it is not fully visible.
+     */
+    private void scrollToRect(int pageIndex, SignatureRect rect) {
+        if (scrollPane == null) {
+            return;
+        }
+        Rectangle slot = view.getSlotBounds(pageIndex);
+        Rectangle bounds = toScreen(pageIndex, rect.position[0], rect.position[1], rect.position[2], rect.position[3]);
+        bounds.translate(slot.x, slot.y);
+
+        JViewport viewport = scrollPane.getViewport();
+        Rectangle viewRect = viewport.getViewRect();
+        if (!viewRect.contains(bounds)) {
+            // Calculate center position to show signature in viewport center
+            int centerX = bounds.x + bounds.width / 2 - viewRect.width / 2;
+            int centerY = bounds.y + bounds.height / 2 - viewRect.height / 2;
+
+            // Ensure we don't scroll beyond document bounds
+            Dimension size = view.getPreferredSize();
+            int maxX = Math.max(0, Math.max(size.width, view.getWidth()) - viewRect.width);
+            int maxY = Math.max(0, size.height - viewRect.height);
+            viewport.setViewPosition(new Point(
+                    Math.max(0, Math.min(centerX, maxX)),
+                    Math.max(0, Math.min(centerY, maxY))));
+        }
+    }
+
+    /* --------------------------
+       Hit testing
+     --------------------------- */
+
+    /**
+     * True if the point (view coordinates) is over a field or signature of this layer.
+     */
+    boolean isItemAt(Point viewPoint) {
+        int pageIndex = view.pageAt(viewPoint.y);
+        return pageIndex >= 0 && itemAt(pageIndex, toSlot(pageIndex, viewPoint)) != null;
+    }
+
+    /**
+     * Topmost item at a point in slot coordinates: a signature, else a field, else null.
+     */
+    private Object itemAt(int pageIndex, Point slotPoint) {
+        float scale = rendererService.getRenderScale();
+        float pdfX = (slotPoint.x - padding) / scale;
+        float pdfY = (pageHeight(pageIndex) - (slotPoint.y - padding)) / scale;
+
+        // Candidates come from the grid; the screen rectangle has the final say, as it is what is drawn
+        SignatureRect rect = signatures.itemAt(pageIndex, pdfX, pdfY);
+        if (rect != null && toScreen(pageIndex, rect.position[0], rect.position[1], rect.position[2],
+                rect.position[3]).contains(slotPoint)) {
+            return rect;
+        }
+        SignatureFieldInfo field = fields.itemAt(pageIndex, pdfX, pdfY);
+        if (field != null && toScreen(pageIndex, field.getLlx(), field.getLly(), field.getUrx(),
+                field.getUry()).contains(slotPoint)) {
+            return field;
+        }
+        return null;
+    }
+
+    private Point toSlot(int pageIndex, Point viewPoint) {
+        Rectangle slot = view.getSlotBounds(pageIndex);
+        return new Point(viewPoint.x - slot.x, viewPoint.y - slot.y);
+    }
+
+    private void updateHover(Point viewPoint) {
+        if (fields.isEmpty() && signatures.isEmpty()) return;
+        int pageIndex = view.pageAt(viewPoint.y);
+        Object item = pageIndex >= 0 ? itemAt(pageIndex, toSlot(pageIndex, viewPoint)) : null;
+        setHovered(item, item != null ? pageIndex : -1);
+    }
+
+    private void setHovered(Object item, int pageIndex) {
+        if (item == hovered) return;
+        Object previous = hovered;
+        int previousPage = hoveredPage;
+        hovered = item;
+        hoveredPage = pageIndex;
+
+        if (previous == null) {
+            cursorBeforeHover = view.getCursor();
+        }
+        if (!isProcessing) {
+            view.setCursor(item != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)
+                    : cursorBeforeHover != null ? cursorBeforeHover : Cursor.getDefaultCursor());
+        }
+        view.setToolTipText(item instanceof SignatureFieldInfo ? getFieldTooltip((SignatureFieldInfo) item) : null);
+        dashPhase = 0.0f;
+
+        repaintItem(previous, previousPage);
+        repaintItem(item, pageIndex);
+        updateAnimation();
+    }
+
+    private void onClick(Point viewPoint) {
+        int pageIndex = view.pageAt(viewPoint.y);
+        Object item = pageIndex >= 0 ? itemAt(pageIndex, toSlot(pageIndex, viewPoint)) : null;
+        if (item instanceof SignatureRect) {
+            showVerificationDialog((SignatureRect) item);
+        } else if (item instanceof SignatureFieldInfo && clickListener != null && !isProcessing) {
+            SignatureFieldInfo field = (SignatureFieldInfo) item;
+            FieldClickListener listener = clickListener;
+
+            // Enter loading state
+            isProcessing = true;
+            clickedField = field;
+            clickedPage = pageIndex;
+
+            // Change cursor to wait/loading state using CursorStateManager for global consistency
+            CursorStateManager.getInstance().pushCursor(Cursor.WAIT_CURSOR, "field-overlay-click");
+            view.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+            repaintItem(field, pageIndex);
+            updateAnimation();
+
+            // Trigger the click listener (this will open signing dialog)
+            SwingUtilities.invokeLater(() -> listener.onFieldClicked(field));
+        }
+    }
+
+    /**
+     * Shows signature properties dialog for clicked signature (directly, no intermediate dialog).
+     */
+    private void showVerificationDialog(SignatureRect rect) {
+        Window window = SwingUtilities.getWindowAncestor(view);
+        if (window instanceof Frame) {
+            SignaturePropertiesDialog dialog = new SignaturePropertiesDialog(
+                    (Frame) window, rect.result, rect.borderColor);
+            dialog.setVisible(true);
+        }
+    }
+
+    /* --------------------------
+       Animation and repaint
+     --------------------------- */
+
+    private boolean isPulsing() {
+        return !fields.isEmpty() && !(hovered instanceof SignatureFieldInfo) && !isProcessing;
+    }
+
+    private void updateAnimation() {
+        boolean needed = isPulsing() || hovered != null || isProcessing;
+        if (needed && !animationTimer.isRunning()) {
+            animationTimer.start();
+        } else if (!needed && animationTimer.isRunning()) {
+            animationTimer.stop();
+            pulseAlpha = 0.0f;
+            pulseIncreasing = true;
+        }
+    }
+
+    /**
+     * One frame: advances the pulse and the dash phase, and repaints only what moved.
+     */
+    private void animate() {
+        if (isPulsing()) {
+            if (pulseIncreasing) {
+                pulseAlpha += 0.04f;
+                if (pulseAlpha >= 0.6f) {
+                    pulseAlpha = 0.6f;
+                    pulseIncreasing = false;
+                }
+            } else {
+                pulseAlpha -= 0.04f;
+                if (pulseAlpha <= 0.0f) {
+                    pulseAlpha = 0.0f;
+                    pulseIncreasing = true;
+                }
+            }
+            repaintVisibleFields();
+        }
+        if (hovered != null && hovered != clickedField) {
+            // Same speed as the former 50 ms, one-pixel steps
+            dashPhase += FRAME_MILLIS / 50f;
+            if (dashPhase > 20.0f) {
+                dashPhase = 0.0f;
+            }
+            repaintItem(hovered, hoveredPage);
+        }
+        if (isProcessing) {
+            repaintItem(clickedField, clickedPage);
+        }
+    }
+
+    /**
+     * Repaints the fields on the pages in view; fields scrolled out of view are drawn with the
+     * current pulse when they come back.
+     */
+    private void repaintVisibleFields() {
+        Rectangle visible = view.getVisibleRect();
+        int first = view.pageAt(visible.y);
+        if (first < 0 || visible.isEmpty()) return;
+        int last = view.pageAt(visible.y + visible.height - 1);
+        for (int pageIndex = first; pageIndex <= last; pageIndex++) {
+            for (SignatureFieldInfo field : fields.itemsOn(pageIndex)) {
+                repaintItem(pageIndex, field.getLlx(), field.getLly(), field.getUrx(), field.getUry());
+            }
+        }
+    }
+
+    private void repaintItem(Object item, int pageIndex) {
+        if (item instanceof SignatureFieldInfo) {
+            SignatureFieldInfo field = (SignatureFieldInfo) item;
+            repaintItem(pageIndex, field.getLlx(), field.getLly(), field.getUrx(), field.getUry());
+        } else if (item instanceof SignatureRect) {
+            float[] pos = ((SignatureRect) item).position;
+            repaintItem(pageIndex, pos[0], pos[1], pos[2], pos[3]);
+        }
+    }
+
+    private void repaintItem(int pageIndex, float llx, float lly, float urx, float ury) {
+        if (pageIndex < 0 || pageIndex >= view.getPageCount()) return;
+        Rectangle damage = toScreen(pageIndex, llx, lly, urx, ury);
+        damage.grow(DAMAGE_MARGIN, DAMAGE_MARGIN);
+        if (damage.width < MIN_DAMAGE.width) {
+            damage.grow((MIN_DAMAGE.width - damage.width + 1) / 2, 0);
+        }
+        if (damage.height < MIN_DAMAGE.height) {
+            damage.grow(0, (MIN_DAMAGE.height - damage.height + 1) / 2);
+        }
+        view.repaintPage(pageIndex, damage);
+    }
+
+    /* --------------------------
+       Painting
+     --------------------------- */
+
+    @Override
+    public void paintPage(Graphics2D g, int pageIndex, int width, int height) {
+        if (fields.isEmpty() && signatures.isEmpty()) return;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, width, height);
+        }
+
+        // Clip to PDF space, widened by what drawing can reach past an item
+        float scale = rendererService.getRenderScale();
+        int pageHeight = pageHeight(pageIndex);
+        float llx = (clip.x - padding - MIN_DAMAGE.width) / scale;
+        float urx = (clip.x + clip.width - padding + MIN_DAMAGE.width) / scale;
+        float ury = (pageHeight - (clip.y - padding - MIN_DAMAGE.height)) / scale;
+        float lly = (pageHeight - (clip.y + clip.height - padding + MIN_DAMAGE.height)) / scale;
+
+        List<SignatureFieldInfo> pageFields = fields.itemsIn(pageIndex, llx, lly, urx, ury);
+        List<SignatureRect> pageSignatures = signatures.itemsIn(pageIndex, llx, lly, urx, ury);
+        if (pageFields.isEmpty() && pageSignatures.isEmpty()) return;
+
+        // Enable anti-aliasing for professional, smooth rendering
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        for (SignatureFieldInfo field : pageFields) {
+            drawSignatureField(g, toScreen(pageIndex, field.getLlx(), field.getLly(), field.getUrx(), field.getUry()),
+                    field);
+        }
+        for (SignatureRect rect : pageSignatures) {
+            drawSignatureRectangle(g, toScreen(pageIndex, rect.position[0], rect.position[1], rect.position[2],
+                    rect.position[3]), rect);
+        }
+    }
+
+    private int pageHeight(int pageIndex) {
+        return view.getPageBounds(pageIndex).height;
+    }
+
+    private float pageWidthPt(int pageIndex) {
+        return view.getPageBounds(pageIndex).width / rendererService.getRenderScale();
+    }
+
+    private float pageHeightPt(int pageIndex) {
+        return pageHeight(pageIndex) / rendererService.getRenderScale();
+    }
+
+    /**
+     * Converts a PDF rectangle (points, origin bottom-left) to slot coordinates at the current
+     * zoom. This is the reverse of SelectionUtils.convertToItextRectangle(): scale, flip the
+     * y axis against the rendered page height, then offset by the padding.
+     */
+    private Rectangle toScreen(int pageIndex, float llx, float lly, float urx, float ury) {
+        float scale = rendererService.getRenderScale();
+        int x = Math.round(llx * scale) + padding;
+        int y = Math.round(pageHeight(pageIndex) - ury * scale) + padding;
+        int width = Math.round((urx - llx) * scale);
+        int height = Math.round((ury - lly) * scale);
+        return new Rectangle(x, y, width, height);
+    }
+
+    /**
+     * Generates tooltip text for a specific signature field.
+     */
+    private String getFieldTooltip(SignatureFieldInfo field) {
+        return "<html><body style='width: 200px; padding: 6px; font-family: Segoe UI, sans-serif;'>" +
+                "<div style='text-align: center; margin-bottom: 4px;'>" +
+                "<span style='font-size: 12px; font-weight: bold; color: #28A745;'>Click to Sign</span>" +
+                "</div>" +
+                "<div style='font-size: 10px; line-height: 1.4; color: #cccccc;'>" +
+                "Sign <b>" + field.getFieldName() + "</b> with your digital certificate" +
+                "</div>" +
+                "</body></html>";
+    }
+
+    /**
+     * Draws a single signature field with professional, attractive styling.
+     * Enhanced with dashed border animation, subtle glow, theme colors, and loading state.
+     */
+    private void drawSignatureField(Graphics2D g2, Rectangle rect, SignatureFieldInfo field) {
+        boolean isHovered = (field == hovered);
+        boolean isClicked = (field == clickedField && isProcessing);
+
+        // Choose colors based on state (clicked > hover > normal)
+        Color borderColor;
+        Color fillColor;
+
+        if (isClicked) {
+            // Loading state: use muted colors
+            borderColor = new Color(40, 167, 69, 120);
+            fillColor = new Color(40, 167, 69, 25);
+        } else if (isHovered) {
+            borderColor = FIELD_HOVER_BORDER_COLOR;
+            fillColor = FIELD_HOVER_FILL_COLOR;
+        } else {
+            borderColor = FIELD_BORDER_COLOR;
+            fillColor = FIELD_FILL_COLOR;
+        }
+
+        // Draw outer glow/pulse effect (only when not hovering and not processing)
+        if (!isHovered && !isClicked && pulseAlpha > 0) {
+            int pulseAlphaInt = (int) (pulseAlpha * 255);
+            Color pulseColor = new Color(40, 167, 69, Math.min(pulseAlphaInt, 120)); // Green pulse
+
+            // Soft glow layer
+            g2.setColor(new Color(40, 167, 69, pulseAlphaInt / 4));
+            g2.setStroke(new BasicStroke(6f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2.drawRoundRect(rect.x - 3, rect.y - 3, rect.width + 6, rect.height + 6, 10, 10);
+
+            g2.setColor(pulseColor);
+            g2.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2.drawRoundRect(rect.x - 1, rect.y - 1, rect.width + 2, rect.height + 2, 8, 8);
+        }
+
+        // Draw loading overlay for clicked field
+        if (isClicked) {
+            // Semi-transparent overlay
+            g2.setColor(new Color(40, 40, 40, 100));
+            g2.fillRoundRect(rect.x, rect.y, rect.width, rect.height, 6, 6);
+        }
+
+        // Draw very subtle fill (more transparent)
+        g2.setColor(fillColor);
+        g2.fillRoundRect(rect.x, rect.y, rect.width, rect.height, 6, 6);
+
+        // Draw border based on state
+        if (isClicked) {
+            // Solid border for loading state
+            g2.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2.setColor(new Color(40, 167, 69, 150));
+            g2.drawRoundRect(rect.x, rect.y, rect.width, rect.height, 6, 6);
+        } else if (isHovered) {
+            // Animated dashed border (marching ants effect)
+            float[] dashPattern = {8f, 4f};
+            g2.setStroke(new BasicStroke(
+                    2.5f,
+                    BasicStroke.CAP_ROUND,
+                    BasicStroke.JOIN_ROUND,
+                    10.0f,
+                    dashPattern,
+                    dashPhase
+            ));
+            g2.setColor(FIELD_HOVER_BORDER_COLOR);
+            g2.drawRoundRect(rect.x, rect.y, rect.width, rect.height, 6, 6);
+        } else {
+            // Normal dashed border (static)
+            float[] dashPattern = {10f, 5f};
+            g2.setStroke(new BasicStroke(
+                    2f,
+                    BasicStroke.CAP_ROUND,
+                    BasicStroke.JOIN_ROUND,
+                    10.0f,
+                    dashPattern,
+                    0f
+            ));
+            g2.setColor(borderColor);
+            g2.drawRoundRect(rect.x, rect.y, rect.width, rect.height, 6, 6);
+        }
+
+        // Draw corner markers (professional L-shapes) - More prominent on hover
+        drawCornerMarkers(g2, rect, borderColor, isHovered);
+
+        // Draw signature icon and text with enhanced visibility
+        if (!isClicked) {
+            drawFieldIcon(g2, rect, isHovered);
+            drawFieldLabel(g2, rect, isHovered);
+        } else {
+            // Show loading indicator for clicked field
+            drawLoadingIndicator(g2, rect);
+        }
+    }
+
+    /**
+     * Draws corner L-shaped markers for visual clarity (PDF viewer style).
+     * Enhanced with better visibility and smooth animations.
+     */
+    private void drawCornerMarkers(Graphics2D g2, Rectangle rect, Color color, boolean isHovered) {
+        int lineLength = isHovered ? 20 : 16;
+        float lineWidth = isHovered ? 3f : 2f;
+
+        g2.setColor(color);
+        g2.setStroke(new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+
+        // Top-left
+        g2.drawLine(rect.x, rect.y, rect.x + lineLength, rect.y);
+        g2.drawLine(rect.x, rect.y, rect.x, rect.y + lineLength);
+
+        // Top-right
+        g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width - lineLength, rect.y);
+        g2.drawLine(rect.x + rect.width, rect.y, rect.x + rect.width, rect.y + lineLength);
+
+        // Bottom-left
+        g2.drawLine(rect.x, rect.y + rect.height, rect.x + lineLength, rect.y + rect.height);
+        g2.drawLine(rect.x, rect.y + rect.height, rect.x, rect.y + rect.height - lineLength);
+
+        // Bottom-right
+        g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width - lineLength, rect.y + rect.height);
+        g2.drawLine(rect.x + rect.width, rect.y + rect.height, rect.x + rect.width, rect.y + rect.height - lineLength);
+    }
+
+    /**
+     * Draws a signature icon (pen icon) inside the field with theme colors.
+     */
+    private void drawFieldIcon(Graphics2D g2, Rectangle rect, boolean isHovered) {
+        int centerX = rect.x + rect.width / 2;
+        int centerY = rect.y + rect.height / 2;
+        int iconSize = Math.min(rect.width, rect.height) / 4;
+        iconSize = Math.max(16, Math.min(iconSize, 48)); // Clamp between 16-48
+
+        // Use green theme color for icon
+        g2.setColor(isHovered ? APP_GREEN : new Color(40, 167, 69, 200));
+        g2.setStroke(new BasicStroke(isHovered ? 3f : 2.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+
+        // Draw stylized pen icon
+        int penX1 = centerX - iconSize / 2;
+        int penY1 = centerY + iconSize / 2;
+        int penX2 = centerX + iconSize / 2;
+        int penY2 = centerY - iconSize / 2;
+
+        g2.drawLine(penX1, penY1, penX2, penY2); // Pen body
+
+        // Pen tip
+        int tipSize = iconSize / 4;
+        g2.fillOval(penX1 - tipSize / 2, penY1 - tipSize / 2, tipSize, tipSize);
+    }
+
+    /**
+     * Draws a loading indicator (spinner) for the clicked field.
+     */
+    private void drawLoadingIndicator(Graphics2D g2, Rectangle rect) {
+        int centerX = rect.x + rect.width / 2;
+        int centerY = rect.y + rect.height / 2;
+        int spinnerSize = Math.min(rect.width, rect.height) / 3;
+        spinnerSize = Math.max(24, Math.min(spinnerSize, 48));
+
+        // Draw "Opening..." text
+        String loadingText = "Opening...";
+        g2.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        FontMetrics fm = g2.getFontMetrics();
+        int textWidth = fm.stringWidth(loadingText);
+        int textX = centerX - textWidth / 2;
+        int textY = centerY + spinnerSize / 2 + fm.getHeight();
+
+        // Text shadow
+        g2.setColor(new Color(0, 0, 0, 150));
+        g2.drawString(loadingText, textX + 1, textY + 1);
+
+        // Text
+        g2.setColor(new Color(200, 200, 200));
+        g2.drawString(loadingText, textX, textY);
+
+        // Draw simple animated spinner
+        g2.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g2.setColor(new Color(40, 167, 69, 200));
+
+        // Draw a simple rotating arc
+        long time = System.currentTimeMillis();
+        int angle = (int) ((time / 10) % 360);
+        g2.drawArc(centerX - spinnerSize / 2, centerY - spinnerSize / 2,
+                   spinnerSize, spinnerSize, angle, 270);
+    }
+
+    /**
+     * Draws an attractive label inside the field with instructions (PDF viewer style).
+     * Enhanced with better typography, visibility, and UX.
+     */
+    private void drawFieldLabel(Graphics2D g2, Rectangle rect, boolean isHovered) {
+        // Show different text based on hover and field size
+        String labelText;
+        if (isHovered) {
+            labelText = "Click to Sign";
+        } else if (rect.width > 100 && rect.height > 40) {
+            labelText = "Click to Sign";
+        } else {
+            labelText = "Sign";
+        }
+
+        // Use adaptive font size based on rectangle dimensions
+        int fontSize = Math.max(12, Math.min(16, Math.min(rect.width / 10, rect.height / 3)));
+        g2.setFont(new Font("Segoe UI Emoji", Font.BOLD, fontSize));
+        FontMetrics fm = g2.getFontMetrics();
+        int textWidth = fm.stringWidth(labelText);
+        int textHeight = fm.getHeight();
+
+        // Center text inside the rectangle
+        int textX = rect.x + (rect.width - textWidth) / 2;
+        int textY = rect.y + (rect.height + textHeight / 2) / 2;
+
+        // Draw background badge for text (professional look) - only for larger fields
+        if (rect.width > 60 && rect.height > 25) {
+            int badgePadding = isHovered ? 10 : 8;
+            int badgeWidth = textWidth + badgePadding * 2;
+            int badgeHeight = textHeight + 4;
+            int badgeX = textX - badgePadding;
+            int badgeY = textY - textHeight + 4;
+
+            // Semi-transparent dark background with smooth transition
+            int bgAlpha = isHovered ? 250 : 210;
+            g2.setColor(new Color(35, 35, 35, bgAlpha));
+            g2.fillRoundRect(badgeX, badgeY, badgeWidth, badgeHeight, 8, 8);
+
+            // Subtle border with green theme - more prominent on hover
+            int borderAlpha = isHovered ? 220 : 160;
+            g2.setColor(new Color(40, 167, 69, borderAlpha));
+            g2.setStroke(new BasicStroke(isHovered ? 2.0f : 1.5f));
+            g2.drawRoundRect(badgeX, badgeY, badgeWidth, badgeHeight, 8, 8);
+        }
+
+        // Draw text shadow for depth and legibility
+        g2.setColor(new Color(0, 0, 0, isHovered ? 150 : 100));
+        g2.drawString(labelText, textX + 1, textY + 1);
+
+        // Draw text with attractive color - brighter green on hover
+        Color textColor = isHovered ? new Color(60, 200, 95) : new Color(210, 210, 210);
+        g2.setColor(textColor);
+        g2.drawString(labelText, textX, textY);
+    }
+
+    /**
+     * Draws a single signature rectangle with state-based styling.
+     * States:
+     * 1. Normal: Just show rectangle (no highlight)
+     * 2. Hover: Dashed border animation
+     * 3. Highlighted (selected from panel): Solid border with color
+     */
+    private void drawSignatureRectangle(Graphics2D g2d, Rectangle bounds, SignatureRect rect) {
+        boolean isHovered = (rect == hovered);
+        boolean isHighlighted = (rect == highlightedRect);
+
+        // Draw fill (only when highlighted)
+        if (isHighlighted) {
+            g2d.setColor(rect.transparentColor);
+            g2d.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+
+        // Draw border based on state
+        if (isHovered) {
+            // Dashed border on hover (animated)
+            float[] dashPattern = {8f, 4f};
+            g2d.setStroke(new BasicStroke(
+                3f,
+                BasicStroke.CAP_ROUND,
+                BasicStroke.JOIN_ROUND,
+                10.0f,
+                dashPattern,
+                dashPhase
+            ));
+            g2d.setColor(rect.borderColor);
+            g2d.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        } else if (isHighlighted) {
+            // Thicker solid border when highlighted (selected from panel)
+            g2d.setStroke(new BasicStroke(4f));
+            g2d.setColor(rect.borderColor);
+            g2d.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        } else {
+            // Normal state - rectangles are NOT highlighted initially
+            // Just show subtle border to indicate signature field
+            g2d.setStroke(new BasicStroke(2f));
+            g2d.setColor(new Color(rect.borderColor.getRed(), rect.borderColor.getGreen(),
+                                   rect.borderColor.getBlue(), 120)); // More subtle with transparency
+            g2d.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+    }
+
+    /**
+     * Stops the timers and drops all items.
+     */
+    void clear() {
+        hideFields();
+        hideSignatures();
+        animationTimer.stop();
+    }
+
+    /**
+     * Internal class to hold signature rectangle data.
+     */
+    private static class SignatureRect {
+        final SignatureVerificationService.SignatureVerificationResult result;
+        final float[] position; // [llx, lly, urx, ury]
+        final Color borderColor;
+        final Color transparentColor;
+
+        SignatureRect(SignatureVerificationService.SignatureVerificationResult result,
+                     float[] position, Color borderColor, Color transparentColor) {
+            this.result = result;
+            this.position = position;
+            this.borderColor = borderColor;
+            this.transparentColor = transparentColor;
+        }
+    }
+}
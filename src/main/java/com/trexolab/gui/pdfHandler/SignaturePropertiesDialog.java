@@ -625,6 +625,9 @@ public class SignaturePropertiesDialog extends JDialog {
                              "or the revocation service is not available. The signature may still be valid, but revocation cannot be verified.";
             } else if (revStatus != null && revStatus.equals("Not Checked")) {
                 explanation = "Revocation status was not checked during this verification session.";
+            } else if (result.isRevocationCheckPending()) {
+                explanation = "The certificate has no revocation data embedded in the document. " +
+                             "An online check with the issuing authority is in progress.";
             } else {
                 explanation = "Revocation status could not be determined. " +
                              (revStatus != null ? "Reason: " + revStatus : "No revocation information available.");
@@ -855,10 +858,10 @@ public class SignaturePropertiesDialog extends JDialog {
             progressDialog.setLocationRelativeTo(this);
 
             // Re-verify in background
+            SignatureVerificationService service = new SignatureVerificationService();
             SwingWorker<SignatureVerificationResult, Void> worker = new SwingWorker<SignatureVerificationResult, Void>() {
                 @Override
                 protected SignatureVerificationResult doInBackground() throws Exception {
-                    SignatureVerificationService service = new SignatureVerificationService();
                     java.util.List<SignatureVerificationResult> results =
                         service.verifySignatures(pdfFile, pdfPassword);
 
@@ -884,6 +887,9 @@ public class SignaturePropertiesDialog extends JDialog {
                             SignaturePropertiesDialog newDialog = new SignaturePropertiesDialog(
                                 (Frame) getParent(), newResult, signatureColor);
                             newDialog.setPdfInfo(pdfFile, pdfPassword, onReVerify);
+                            if (service.hasPendingOnlineChecks()) {
+                                newDialog.startOnlineRevocationChecks(service);
+                            }
                             newDialog.setVisible(true);
                         }
                     } catch (Exception ex) {
@@ -906,6 +912,29 @@ public class SignaturePropertiesDialog extends JDialog {
         }
     }
 
+    /**
+     * Runs the live revocation checks deferred by a re-verify on a background thread. The dialog
+     * shows the offline result (revocation check pending) meanwhile and is replaced by one with
+     * the final status when the check for this signature completes.
+     */
+    private void startOnlineRevocationChecks(SignatureVerificationService service) {
+        new Thread(() -> service.completeOnlineRevocationChecks(updated -> {
+            if (updated != result) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                onReVerify.accept(updated);
+                if (isDisplayable()) {
+                    dispose();
+                    SignaturePropertiesDialog newDialog = new SignaturePropertiesDialog(
+                        (Frame) getParent(), updated, signatureColor);
+                    newDialog.setPdfInfo(pdfFile, pdfPassword, onReVerify);
+                    newDialog.setVisible(true);
+                }
+            });
+        }), "Online-Revocation-Check-Thread").start();
+    }
+
     private void exportCertificate() {
         try {
             java.security.cert.X509Certificate cert = result.getSignerCertificate();
@@ -372,6 +372,22 @@ public class SignatureVerificationBanner extends JPanel {
         }
     }
 
+    /**
+     * Shows or clears the note that live revocation checks are still running in the background.
+     * Unlike {@link #updateProgress(String)} this works on top of a final verification status.
+     */
+    public void setOnlineCheckPending(boolean pending) {
+        if (progressLabel == null) {
+            return;
+        }
+        if (pending) {
+            progressLabel.setText("Checking certificate revocation online...");
+            progressLabel.setVisible(true);
+        } else {
+            clearProgress();
+        }
+    }
+
     /**
      * Clears the progress message.
      */
@@ -743,6 +759,7 @@ public class SignatureVerificationBanner extends JPanel {
         // Treat all unverified revocation statuses as warnings for enhanced security
         return status.contains("Validity Unknown") ||
                status.contains("Not Checked") ||
+               status.contains("Pending") ||
                status.contains("Network Error") ||
                status.contains("Check Failed") ||
                status.contains("Unreachable");
@@ -0,0 +1,623 @@
+package com.trexolab.gui.pdfHandler;
+
+import com.trexolab.service.SystemFontIndex;
+import com.trexolab.service.ThumbnailCache;
+import com.trexolab.utils.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.util.Version;
+
+import javax.swing.*;
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-text index of one document, built page by page on a low-priority worker.
+ * <p>
+ * Each page's text is extracted with {@link PDFTextStripper}, lower-cased and with whitespace
+ * collapsed, together with the box of every character (points from the top-left of the
+ * displayed page, as PDFBox reports them, kept as shorts in quarter points). Words go into an
+ * inverted index of word to page and character offset, so a query looks up the occurrences of
+ * its first word and only compares the text there. Queries can run at any time and see the
+ * pages indexed so far; matches start at the beginning of a word.
+ * <p>
+ * A finished index is stored in user.home/.emark/cache/text/ under the file's content hash, next
+ * to the page and thumbnail caches, and read back instead of extracting when the same file is
+ * opened again. Encrypted documents are never stored: their text stays in memory only, so a
+ * password-protected file leaves no readable copy on disk.
+ */
+class TextIndex {
+
+    private static final Log log = LogFactory.getLog(TextIndex.class);
+
+    private static final String TEXT_DIR = ThumbnailCache.CACHE_DIR + File.separator + "text";
+    private static final String PDFBOX_VERSION = String.valueOf(Version.getVersion()).replaceAll("[^0-9A-Za-z.]", "_");
+    private static final int MAGIC = 0x454D5458; // "EMTX"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_DOCUMENTS = 100;
+
+    // More matches than anyone steps through; keeps one-letter queries cheap
+    static final int MAX_MATCHES = 5000;
+    private static final float BOX_UNIT = 4f; // quarter points
+    private static final short NO_BOX = Short.MIN_VALUE;
+    private static final long PUBLISH_INTERVAL_MS = 250;
+
+    /**
+     * Told on the EDT as pages are indexed: at most every {@link #PUBLISH_INTERVAL_MS}, and once
+     * when the index is complete.
+     */
+    interface Listener {
+        void onProgress(int indexedPages, int pageCount);
+    }
+
+    /**
+     * One occurrence of a query.
+     */
+    static final class Match {
+        final int pageIndex;
+        final int start;
+        final int length;
+        // Points from the top-left of the displayed page, one rectangle per line
+        final List<Rectangle2D.Float> boxes;
+
+        Match(int pageIndex, int start, int length, List<Rectangle2D.Float> boxes) {
+            this.pageIndex = pageIndex;
+            this.start = start;
+            this.length = length;
+            this.boxes = boxes;
+        }
+    }
+
+    /**
+     * Occurrences of one word: pairs of page index and character offset, in indexing order.
+     */
+    private static final class Postings {
+        int[] data = new int[4];
+        int size;
+
+        void add(int pageIndex, int offset) {
+            if (size + 2 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = pageIndex;
+            data[size++] = offset;
+        }
+    }
+
+    private final File file;
+    private final String password;
+    private final int pageCount;
+    private final boolean encrypted;
+    private final Listener listener;
+
+    // Guarded by this; written by the worker, read by queries on the EDT
+    private final String[] texts;
+    private final short[][] boxes;
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private int indexedPages;
+
+    private volatile boolean cancelled;
+    private Thread worker;
+
+    /**
+     * @param encrypted    the document is encrypted; the index is then neither read from nor
+     *                     written to the disk cache
+     * @param previous     index of the previous revision of the same document, or null; its
+     *                     pages are kept except the changed ones
+     * @param changedPages 0-based pages that differ from the previous revision
+     */
+    TextIndex(File file, String password, int pageCount, boolean encrypted, TextIndex previous,
+              Set<Integer> changedPages, Listener listener) {
+        this.file = file;
+        this.password = password;
+        this.pageCount = pageCount;
+        this.encrypted = encrypted;
+        this.listener = listener;
+        this.texts = new String[pageCount];
+        this.boxes = new short[pageCount][];
+        if (previous != null) {
+            synchronized (previous) {
+                for (int i = 0; i < Math.min(pageCount, previous.pageCount); i++) {
+                    if (previous.texts[i] != null && !changedPages.contains(i)) {
+                        addPage(i, previous.texts[i], previous.boxes[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    void start() {
+        worker = new Thread(this::buildIndex, "PDF-Text-Index");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker; the pages indexed so far stay searchable.
+     */
+    void shutdown() {
+        cancelled = true;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * The worker thread, which keeps the file open until it exits after {@link #shutdown()}.
+     */
+    Thread getWorker() {
+        return worker;
+    }
+
+    int getPageCount() {
+        return pageCount;
+    }
+
+    synchronized int getIndexedPageCount() {
+        return indexedPages;
+    }
+
+    synchronized boolean isComplete() {
+        return indexedPages == pageCount;
+    }
+
+    /* --------------------------
+       Queries
+     --------------------------- */
+
+    /**
+     * Occurrences of the query in the pages indexed so far, in page order, at most
+     * {@link #MAX_MATCHES}. Case-insensitive; any run of whitespace in the query matches any
+     * run of whitespace (including line breaks) in the text.
+     */
+    List<Match> search(String query) {
+        String q = normalize(query).trim();
+        if (q.isEmpty()) return Collections.emptyList();
+
+        int wordStart = 0;
+        while (wordStart < q.length() && !isWordChar(q.charAt(wordStart))) {
+            wordStart++;
+        }
+        int wordEnd = wordStart;
+        while (wordEnd < q.length() && isWordChar(q.charAt(wordEnd))) {
+            wordEnd++;
+        }
+
+        List<Match> matches = new ArrayList<>();
+        synchronized (this) {
+            if (wordStart == q.length()) {
+                // No word to look up (punctuation only): scan the text
+                for (int page = 0; page < pageCount && matches.size() < MAX_MATCHES; page++) {
+                    String text = texts[page];
+                    if (text == null) continue;
+                    for (int at = text.indexOf(q); at >= 0 && matches.size() < MAX_MATCHES; at = text.indexOf(q, at + 1)) {
+                        matches.add(createMatch(page, at, q.length()));
+                    }
+                }
+                return matches;
+            }
+
+            // A word followed by more of the query is complete; the last one may still be typed
+            String word = q.substring(wordStart, wordEnd);
+            Collection<Postings> lists = wordEnd < q.length()
+                    ? (postings.containsKey(word) ? Collections.singletonList(postings.get(word)) : Collections.emptyList())
+                    : postings.subMap(word, true, word + Character.MAX_VALUE, true).values();
+
+            int total = 0;
+            for (Postings list : lists) {
+                total += list.size / 2;
+            }
+            long[] candidates = new long[total];
+            int n = 0;
+            for (Postings list : lists) {
+                for (int i = 0; i < list.size; i += 2) {
+                    candidates[n++] = ((long) list.data[i] << 32) | ((list.data[i + 1] - wordStart) & 0xffffffffL);
+                }
+            }
+            Arrays.sort(candidates);
+
+            for (long candidate : candidates) {
+                int page = (int) (candidate >>> 32);
+                int at = (int) candidate;
+                if (at >= 0 && texts[page].regionMatches(at, q, 0, q.length())) {
+                    matches.add(createMatch(page, at, q.length()));
+                    if (matches.size() >= MAX_MATCHES) break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Builds the match with its highlight rectangles, merging the characters of each line.
+     */
+    private Match createMatch(int pageIndex, int start, int length) {
+        short[] pageBoxes = boxes[pageIndex];
+        List<Rectangle2D.Float> rects = new ArrayList<>(1);
+        Rectangle2D.Float line = null;
+        for (int i = start; i < start + length; i++) {
+            if (pageBoxes[i * 4] == NO_BOX) continue;
+            float x0 = pageBoxes[i * 4] / BOX_UNIT;
+            float y0 = pageBoxes[i * 4 + 1] / BOX_UNIT;
+            float x1 = pageBoxes[i * 4 + 2] / BOX_UNIT;
+            float y1 = pageBoxes[i * 4 + 3] / BOX_UNIT;
+            Rectangle2D.Float box = new Rectangle2D.Float(x0, y0, Math.max(0, x1 - x0), Math.max(0, y1 - y0));
+            // Same line: vertical centres within half a line of each other
+            if (line != null && Math.abs(line.getCenterY() - box.getCenterY()) < line.height / 2) {
+                line.add(box);
+            } else {
+                line = box;
+                rects.add(line);
+            }
+        }
+        return new Match(pageIndex, start, length, rects);
+    }
+
+    /* --------------------------
+       Building
+     --------------------------- */
+
+    private void buildIndex() {
+        long start = System.currentTimeMillis();
+        MemoryGovernor governor = MemoryGovernor.getInstance();
+        boolean fontsReady = SystemFontIndex.isReady();
+        PDDocument document = null;
+        int extracted = 0;
+        int kept = getIndexedPageCount();
+        try {
+            String hash = encrypted ? null : ThumbnailCache.contentHash(file);
+            if (kept == 0 && hash != null && load(hash)) {
+                publish();
+                log.info("Text index for " + pageCount + " page(s) loaded from disk cache in "
+                        + (System.currentTimeMillis() - start) + " ms");
+                return;
+            }
+
+            PageTextStripper stripper = null;
+            long lastPublish = 0;
+            for (int i = 0; i < pageCount && !cancelled; i++) {
+                synchronized (this) {
+                    if (texts[i] != null) continue;
+                }
+                // Extraction waits while the heap is under pressure; the viewer needs the memory more
+                while (!governor.awaitNormal(1000)) {
+                    if (cancelled) return;
+                }
+                // Open lazily: a document carried over from its previous revision may need nothing
+                if (document == null) {
+                    document = password != null
+                            ? PDDocument.load(file, password, MemoryUsageSetting.setupTempFileOnly())
+                            : PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly());
+                    stripper = new PageTextStripper();
+                }
+                stripper.extract(document, i);
+                synchronized (this) {
+                    addPage(i, stripper.text.toString(), Arrays.copyOf(stripper.boxes, stripper.text.length() * 4));
+                }
+                extracted++;
+                long now = System.currentTimeMillis();
+                if (now - lastPublish >= PUBLISH_INTERVAL_MS) {
+                    lastPublish = now;
+                    publish();
+                }
+            }
+            if (cancelled) return;
+            publish();
+            log.info("Text index ready for " + pageCount + " page(s) (" + extracted + " extracted, " + kept
+                    + " kept from the previous revision) in " + (System.currentTimeMillis() - start) + " ms");
+
+            // Not persisted for encrypted documents, nor if character widths may come from the
+            // stand-in font used while system fonts are indexed
+            if (hash != null && (fontsReady || SystemFontIndex.getStandInCount() == 0)) {
+                store(hash);
+            }
+        } catch (Exception e) {
+            if (!cancelled) {
+                log.warn("Text indexing failed: " + e.getMessage(), e);
+            }
+        } finally {
+            if (document != null) {
+                try {
+                    document.close();
+                } catch (Exception e) {
+                    log.debug("Error closing text index document", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an extracted page (normalized text, four box values per character). Caller holds the lock.
+     */
+    private void addPage(int pageIndex, String text, short[] pageBoxes) {
+        texts[pageIndex] = text;
+        boxes[pageIndex] = pageBoxes;
+        indexedPages++;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !isWordChar(text.charAt(i))) {
+                i++;
+            }
+            int wordStart = i;
+            while (i < length && isWordChar(text.charAt(i))) {
+                i++;
+            }
+            if (i > wordStart) {
+                postings.computeIfAbsent(text.substring(wordStart, i), k -> new Postings()).add(pageIndex, wordStart);
+            }
+        }
+    }
+
+    private void publish() {
+        if (listener == null || cancelled) return;
+        int indexed = getIndexedPageCount();
+        SwingUtilities.invokeLater(() -> {
+            if (!cancelled) {
+                listener.onProgress(indexed, pageCount);
+            }
+        });
+    }
+
+    /**
+     * Characters of one page with their boxes, in the order and spacing of the extracted text.
+     */
+    private static final class PageTextStripper extends PDFTextStripper {
+        final StringBuilder text = new StringBuilder();
+        short[] boxes = new short[4096];
+
+        PageTextStripper() throws IOException {
+        }
+
+        void extract(PDDocument document, int pageIndex) throws IOException {
+            text.setLength(0);
+            setStartPage(pageIndex + 1);
+            setEndPage(pageIndex + 1);
+            writeText(document, NULL_WRITER);
+            // No trailing separator, so a query cannot match across pages
+            if (text.length() > 0 && text.charAt(text.length() - 1) == ' ') {
+                text.setLength(text.length() - 1);
+            }
+        }
+
+        @Override
+        protected void writeString(String string, List<TextPosition> textPositions) {
+            for (TextPosition position : textPositions) {
+                String unicode = position.getUnicode();
+                if (unicode == null || unicode.isEmpty()) continue;
+                if (needsNormalization(unicode)) {
+                    unicode = Normalizer.normalize(unicode, Normalizer.Form.NFKC);
+                }
+                float height = position.getHeightDir();
+                if (height <= 0) {
+                    height = position.getFontSizeInPt() * 0.7f;
+                }
+                // getY is the baseline; leave room for descenders
+                float top = position.getY() - height;
+                float bottom = position.getY() + height * 0.25f;
+                for (int i = 0; i < unicode.length(); i++) {
+                    append(unicode.charAt(i), position.getX(), top, position.getX() + position.getWidth(), bottom);
+                }
+            }
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            append(' ', 0, 0, 0, 0);
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            append(' ', 0, 0, 0, 0);
+        }
+
+        private void append(char c, float x0, float y0, float x1, float y1) {
+            boolean space = Character.isWhitespace(c) || Character.isSpaceChar(c);
+            if (space) {
+                // Collapse whitespace runs to one space without a box
+                if (text.length() == 0 || text.charAt(text.length() - 1) == ' ') return;
+                c = ' ';
+            }
+            int at = text.length() * 4;
+            if (at + 4 > boxes.length) {
+                boxes = Arrays.copyOf(boxes, boxes.length * 2);
+            }
+            if (space) {
+                boxes[at] = NO_BOX;
+            } else {
+                boxes[at] = toUnit(x0);
+                boxes[at + 1] = toUnit(y0);
+                boxes[at + 2] = toUnit(x1);
+                boxes[at + 3] = toUnit(y1);
+            }
+            text.append(Character.toLowerCase(c));
+        }
+    }
+
+    private static final Writer NULL_WRITER = new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Ligatures and other presentation forms, which PDFTextStripper also expands.
+     */
+    private static boolean needsNormalization(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c >= 0xFB00 && c <= 0xFDFF) || (c >= 0xFE70 && c <= 0xFEFF)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static short toUnit(float points) {
+        float units = Math.round(points * BOX_UNIT);
+        return (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, units));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Lower case, every whitespace run as one space: the form page texts are stored in.
+     */
+    private static String normalize(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                    sb.append(' ');
+                }
+            } else {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return needsNormalization(sb.toString()) ? Normalizer.normalize(sb.toString(), Normalizer.Form.NFKC) : sb.toString();
+    }
+
+    /* --------------------------
+       Disk cache
+     --------------------------- */
+
+    private static File indexFile(String hash) {
+        return new File(TEXT_DIR, hash + "_pdfbox-" + PDFBOX_VERSION + ".idx");
+    }
+
+    /**
+     * Reads a stored index of the same content, if any. Returns false if missing or unreadable.
+     */
+    private boolean load(String hash) {
+        File source = indexFile(hash);
+        if (!source.isFile()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(source))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != pageCount) {
+                return false;
+            }
+            String[] loadedTexts = new String[pageCount];
+            short[][] loadedBoxes = new short[pageCount][];
+            for (int i = 0; i < pageCount; i++) {
+                int length = in.readInt();
+                char[] chars = new char[length];
+                for (int c = 0; c < length; c++) {
+                    chars[c] = in.readChar();
+                }
+                short[] pageBoxes = new short[length * 4];
+                for (int b = 0; b < pageBoxes.length; b++) {
+                    pageBoxes[b] = in.readShort();
+                }
+                loadedTexts[i] = new String(chars);
+                loadedBoxes[i] = pageBoxes;
+            }
+            synchronized (this) {
+                for (int i = 0; i < pageCount; i++) {
+                    addPage(i, loadedTexts[i], loadedBoxes[i]);
+                }
+            }
+            source.setLastModified(System.currentTimeMillis());
+            return true;
+        } catch (IOException e) {
+            log.debug("Unreadable cached text index " + source + ", rebuilding it", e);
+            source.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Writes the complete index (temp file first, so readers never see a partial one), keeps
+     * the most recently used {@link #MAX_DOCUMENTS} and removes stale temp files.
+     */
+    private void store(String hash) {
+        File dir = new File(TEXT_DIR);
+        if (!FileUtils.ensureDirectory(dir)) {
+            log.warn("Cannot create text index cache directory: " + dir);
+            return;
+        }
+        File target = indexFile(hash);
+        File temp = new File(dir, target.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(pageCount);
+            synchronized (this) {
+                for (int i = 0; i < pageCount; i++) {
+                    out.writeInt(texts[i].length());
+                    out.writeChars(texts[i]);
+                    for (short value : boxes[i]) {
+                        out.writeShort(value);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to write text index " + target, e);
+            temp.delete();
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Failed to write text index " + target, e);
+            temp.delete();
+            return;
+        }
+
+        // Temp files left by an interrupted write; a minute old so a concurrent writer's is spared
+        File[] leftovers = dir.listFiles((d, name) -> name.endsWith(".tmp"));
+        if (leftovers != null) {
+            for (File leftover : leftovers) {
+                if (System.currentTimeMillis() - leftover.lastModified() > 60_000) {
+                    leftover.delete();
+                }
+            }
+        }
+
+        File[] stored = dir.listFiles((d, name) -> name.endsWith(".idx"));
+        if (stored != null && stored.length > MAX_DOCUMENTS) {
+            Arrays.sort(stored, Comparator.comparingLong(File::lastModified));
+            for (int i = 0; i < stored.length - MAX_DOCUMENTS; i++) {
+                stored[i].delete();
+            }
+            log.info("Pruned " + (stored.length - MAX_DOCUMENTS) + " document(s) from text index cache");
+        }
+    }
+}
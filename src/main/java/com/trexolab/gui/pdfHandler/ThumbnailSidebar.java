@@ -0,0 +1,400 @@
+package com.trexolab.gui.pdfHandler;
+
+import com.trexolab.service.SignatureVerificationService.SignatureVerificationResult;
+import com.trexolab.service.SystemFontIndex;
+import com.trexolab.service.ThumbnailCache;
+import com.trexolab.utils.UIConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Page navigator on the left of the viewer.
+ * - One thumbnail per page, rendered at very low resolution on a low-priority worker
+ * - Thumbnails are persisted by {@link ThumbnailCache}, so reopened documents show them instantly;
+ *   those of password-protected documents stay in memory only
+ * - Pages holding a signature get a marker in the signature's color
+ * - Clicking a thumbnail navigates to the page; the current page is highlighted
+ */
+public class ThumbnailSidebar extends JPanel {
+
+    private static final Log log = LogFactory.getLog(ThumbnailSidebar.class);
+
+    // Thumbnails are fitted into this box (pixels)
+    private static final int THUMB_WIDTH = 100;
+    private static final int THUMB_HEIGHT = 130;
+    private static final int CELL_PADDING = 8;
+    private static final int LABEL_HEIGHT = 16;
+    private static final int PANEL_WIDTH = THUMB_WIDTH + CELL_PADDING * 2 + 20;
+    private static final int MARKER_SIZE = 10;
+
+    private static final Color SELECTION_COLOR = UIConstants.Colors.TABLE_SELECTION;
+
+    private final DefaultListModel<Integer> pageModel = new DefaultListModel<>();
+    private final JList<Integer> pageList;
+    private final IntConsumer pageNavigator;
+
+    // EDT only
+    private BufferedImage[] thumbnails = new BufferedImage[0];
+    private final Map<Integer, List<SignatureMarker>> signatureMarkers = new HashMap<>();
+    private boolean updatingSelection;
+
+    private volatile int generation;
+    private Thread worker;
+
+    private static final class SignatureMarker {
+        private final String fieldName;
+        private final Color color;
+
+        SignatureMarker(String fieldName, Color color) {
+            this.fieldName = fieldName;
+            this.color = color;
+        }
+    }
+
+    /**
+     * @param pageNavigator called with the 0-based page index when a thumbnail is clicked
+     */
+    public ThumbnailSidebar(IntConsumer pageNavigator) {
+        this.pageNavigator = pageNavigator;
+
+        setLayout(new BorderLayout());
+        setBackground(UIConstants.Colors.BG_TERTIARY);
+        setPreferredSize(new Dimension(PANEL_WIDTH, 0));
+        setBorder(BorderFactory.createMatteBorder(0, 0, 0, 1, UIConstants.Colors.BORDER_PRIMARY));
+
+        pageList = new JList<>(pageModel);
+        pageList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        pageList.setBackground(UIConstants.Colors.BG_TERTIARY);
+        // Uniform cells keep layout O(1) regardless of page count
+        pageList.setFixedCellWidth(THUMB_WIDTH + CELL_PADDING * 2);
+        pageList.setFixedCellHeight(THUMB_HEIGHT + LABEL_HEIGHT + CELL_PADDING * 2);
+        pageList.setCellRenderer(new ThumbnailCellRenderer());
+        pageList.addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting() || updatingSelection) return;
+            int index = pageList.getSelectedIndex();
+            if (index >= 0 && pageNavigator != null) {
+                pageNavigator.accept(index);
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(pageList);
+        scrollPane.setBorder(null);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(32);
+
+        JLabel header = new JLabel("Pages");
+        header.setFont(UIConstants.Fonts.NORMAL_BOLD);
+        header.setForeground(UIConstants.Colors.TEXT_SECONDARY);
+        header.setBorder(new EmptyBorder(8, 10, 8, 10));
+
+        add(header, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * Shows placeholders for every page and starts producing thumbnails in the background.
+     * Must be called on EDT.
+     */
+    public void load(File file, String password, int pageCount) {
+        clear();
+        thumbnails = new BufferedImage[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            pageModel.addElement(i);
+        }
+
+        startWorker(file, password, new BufferedImage[pageCount]);
+    }
+
+    /**
+     * Switches to a later revision of the shown document (same page count). Thumbnails of
+     * unchanged pages are kept and stored under the new revision; only the changed pages are
+     * rendered again. Must be called on EDT.
+     *
+     * @param changedPages 0-based indexes of the pages that differ from the previous revision
+     */
+    public void reload(File file, String password, Set<Integer> changedPages) {
+        cancel();
+        BufferedImage[] known = thumbnails.clone();
+        for (int pageIndex : changedPages) {
+            if (pageIndex < known.length) {
+                known[pageIndex] = null;
+            }
+        }
+        startWorker(file, password, known);
+    }
+
+    private void startWorker(File file, String password, BufferedImage[] known) {
+        final int myGeneration = generation;
+        worker = new Thread(() -> produceThumbnails(file, password, known, myGeneration),
+                "PDF-Thumbnail-Worker");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker and removes all pages. Must be called on EDT.
+     */
+    public void clear() {
+        cancel();
+        pageModel.clear();
+        thumbnails = new BufferedImage[0];
+        signatureMarkers.clear();
+    }
+
+    /**
+     * Stops the worker (e.g. before the file is overwritten by signing); thumbnails stay visible.
+     */
+    public void cancel() {
+        generation++;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * The worker thread, which keeps the file open until it exits after {@link #cancel()}.
+     */
+    Thread getWorker() {
+        return worker;
+    }
+
+    /**
+     * Highlights the current page (0-based) without navigating.
+     */
+    public void setCurrentPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pageModel.getSize() || pageList.getSelectedIndex() == pageIndex) return;
+        updatingSelection = true;
+        try {
+            pageList.setSelectedIndex(pageIndex);
+            pageList.ensureIndexIsVisible(pageIndex);
+        } finally {
+            updatingSelection = false;
+        }
+    }
+
+    /**
+     * Shows a marker on each page that holds one of the given signatures.
+     */
+    public void setSignatures(List<SignatureVerificationResult> results, SignatureColorManager colorManager) {
+        signatureMarkers.clear();
+        if (results != null) {
+            for (SignatureVerificationResult result : results) {
+                int pageIndex = result.getPageNumber() - 1; // 1-based
+                if (pageIndex < 0) continue; // invisible signature
+                Color color = colorManager != null
+                        ? colorManager.getColorForSignature(result.getFieldName())
+                        : UIConstants.Colors.STATUS_INFO;
+                signatureMarkers.computeIfAbsent(pageIndex, k -> new ArrayList<>())
+                        .add(new SignatureMarker(result.getFieldName(), color));
+            }
+        }
+        pageList.repaint();
+    }
+
+    /* --------------------------
+       Background production
+     --------------------------- */
+
+    /**
+     * @param known thumbnails that are still valid (from the previous revision), null for pages
+     *              to load or render; its length is the page count
+     */
+    private void produceThumbnails(File file, String password, BufferedImage[] known, int myGeneration) {
+        long start = System.currentTimeMillis();
+        ThumbnailCache cache = ThumbnailCache.getInstance();
+        MemoryGovernor governor = MemoryGovernor.getInstance();
+        boolean fontsReady = SystemFontIndex.isReady();
+        PDDocument document = null;
+        int pageCount = known.length;
+        int fromDisk = 0;
+        int reused = 0;
+        try {
+            // A document that needed a password is not written to disk, where it could be read without one
+            String hash = password == null ? ThumbnailCache.contentHash(file) : null;
+            if (hash != null) {
+                cache.touch(hash);
+            }
+
+            PDFRenderer renderer = null;
+            for (int i = 0; i < pageCount && generation == myGeneration; i++) {
+                if (known[i] != null) {
+                    if (hash != null) {
+                        cache.store(hash, i, known[i]);
+                    }
+                    reused++;
+                    continue;
+                }
+                BufferedImage thumbnail = hash != null ? cache.load(hash, i) : null;
+                if (thumbnail != null) {
+                    fromDisk++;
+                } else {
+                    // Rendering waits while the heap is under pressure; the viewer needs the memory more
+                    while (!governor.awaitNormal(1000)) {
+                        if (generation != myGeneration) return;
+                    }
+                    // Open lazily: a fully cached document is never parsed
+                    if (renderer == null) {
+                        document = password != null
+                                ? PDDocument.load(file, password, MemoryUsageSetting.setupTempFileOnly())
+                                : PDDocument.load(file, MemoryUsageSetting.setupTempFileOnly());
+                        renderer = new PDFRenderer(document);
+                        renderer.setSubsamplingAllowed(true);
+                    }
+                    thumbnail = renderer.renderImage(i, fitScale(document.getPage(i)), ImageType.RGB);
+                    // Not persisted if it may show the stand-in font used while system fonts are indexed
+                    if (hash != null && (fontsReady || SystemFontIndex.getStandInCount() == 0)) {
+                        cache.store(hash, i, thumbnail);
+                    }
+                }
+                publish(i, thumbnail, myGeneration);
+            }
+            if (generation == myGeneration) {
+                log.info("Thumbnails ready for " + pageCount + " page(s) (" + fromDisk + " from disk cache, "
+                        + reused + " kept from the previous revision) in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (Exception e) {
+            if (generation == myGeneration) {
+                log.warn("Thumbnail generation failed: " + e.getMessage(), e);
+            }
+        } finally {
+            if (document != null) {
+                try {
+                    document.close();
+                } catch (Exception e) {
+                    log.debug("Error closing thumbnail document", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scale that fits the (rotated) CropBox into the thumbnail box.
+     */
+    private static float fitScale(PDPage page) {
+        PDRectangle cropBox = page.getCropBox();
+        int rotation = page.getRotation();
+        boolean rotated = rotation == 90 || rotation == 270;
+        float width = rotated ? cropBox.getHeight() : cropBox.getWidth();
+        float height = rotated ? cropBox.getWidth() : cropBox.getHeight();
+        return Math.min(THUMB_WIDTH / width, THUMB_HEIGHT / height);
+    }
+
+    private void publish(int pageIndex, BufferedImage thumbnail, int myGeneration) {
+        SwingUtilities.invokeLater(() -> {
+            if (generation != myGeneration || pageIndex >= thumbnails.length) return;
+            thumbnails[pageIndex] = thumbnail;
+            Rectangle cell = pageList.getCellBounds(pageIndex, pageIndex);
+            if (cell != null) {
+                pageList.repaint(cell);
+            }
+        });
+    }
+
+    /* --------------------------
+       Rendering
+     --------------------------- */
+
+    private class ThumbnailCellRenderer extends JComponent implements ListCellRenderer<Integer> {
+        private int pageIndex;
+        private boolean selected;
+
+        ThumbnailCellRenderer() {
+            setOpaque(false);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Integer> list, Integer value,
+                                                      int index, boolean isSelected, boolean cellHasFocus) {
+            this.pageIndex = value;
+            this.selected = isSelected;
+
+            List<SignatureMarker> markers = signatureMarkers.get(pageIndex);
+            if (markers == null) {
+                setToolTipText("Page " + (pageIndex + 1));
+            } else {
+                StringBuilder tip = new StringBuilder("<html>Page " + (pageIndex + 1));
+                for (SignatureMarker marker : markers) {
+                    tip.append("<br>Signature: ").append(marker.fieldName);
+                }
+                setToolTipText(tip.append("</html>").toString());
+            }
+            return this;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+                BufferedImage thumbnail = pageIndex < thumbnails.length ? thumbnails[pageIndex] : null;
+                int w = THUMB_WIDTH;
+                int h = THUMB_HEIGHT;
+                if (thumbnail != null) {
+                    // Fit (also covers thumbnails cached with another box size)
+                    double scale = Math.min((double) THUMB_WIDTH / thumbnail.getWidth(),
+                            (double) THUMB_HEIGHT / thumbnail.getHeight());
+                    w = (int) Math.round(thumbnail.getWidth() * scale);
+                    h = (int) Math.round(thumbnail.getHeight() * scale);
+                }
+                int x = (getWidth() - w) / 2;
+                int y = CELL_PADDING + (THUMB_HEIGHT - h) / 2;
+
+                if (thumbnail != null) {
+                    g2.drawImage(thumbnail, x, y, w, h, null);
+                } else {
+                    g2.setColor(UIConstants.Colors.BG_SECTION);
+                    g2.fillRect(x, y, w, h);
+                }
+
+                g2.setColor(selected ? SELECTION_COLOR : UIConstants.Colors.BORDER_SECONDARY);
+                g2.setStroke(new BasicStroke(selected ? 3f : 1f));
+                g2.drawRect(x, y, w - 1, h - 1);
+
+                List<SignatureMarker> markers = signatureMarkers.get(pageIndex);
+                if (markers != null) {
+                    int mx = x + w - MARKER_SIZE - 4;
+                    for (SignatureMarker marker : markers) {
+                        g2.setColor(marker.color);
+                        g2.fillOval(mx, y + 4, MARKER_SIZE, MARKER_SIZE);
+                        g2.setColor(Color.WHITE);
+                        g2.setStroke(new BasicStroke(1.5f));
+                        g2.drawOval(mx, y + 4, MARKER_SIZE, MARKER_SIZE);
+                        mx -= MARKER_SIZE + 2;
+                        if (mx < x) break;
+                    }
+                }
+
+                String label = String.valueOf(pageIndex + 1);
+                g2.setFont(UIConstants.Fonts.SMALL_PLAIN);
+                FontMetrics fm = g2.getFontMetrics();
+                g2.setColor(selected ? Color.WHITE : UIConstants.Colors.TEXT_TERTIARY);
+                g2.drawString(label, (getWidth() - fm.stringWidth(label)) / 2,
+                        CELL_PADDING + THUMB_HEIGHT + fm.getAscent() + 2);
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.trexolab.gui.pdfHandler;
 
+import com.trexolab.service.PdfSignatureProbe;
 import com.trexolab.service.RecentFilesManager;
 import com.trexolab.service.VersionManager;
 import com.formdev.flatlaf.ui.FlatUIUtils;
@@ -10,6 +11,7 @@ import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -19,6 +21,7 @@ import java.util.function.Consumer;
  * - Settings button
  * - Begin/Cancel Sign button
  * - Page info label
+ * - Zoom out / zoom level / zoom in
  * - Version status label (auto-check on startup, hides if up-to-date)
  */
 public class TopBarPanel extends JPanel {
@@ -34,6 +37,9 @@ public class TopBarPanel extends JPanel {
     private final JLabel pageInfoLabel;
     private final JTextField pageInputField;
     private final JLabel totalPagesLabel;
+    private final JButton zoomOutBtn;
+    private final JButton zoomInBtn;
+    private final JLabel zoomLabel;
     private final JLabel versionStatusLabel;
     private final JPanel centerPanel;
 
@@ -42,6 +48,8 @@ public class TopBarPanel extends JPanel {
     private int totalPages = 0;
     private Consumer<File> onOpenFile;
     private Consumer<Integer> onGoToPage;
+    private Runnable onZoomIn;
+    private Runnable onZoomOut;
 
     public TopBarPanel(Runnable onOpen, Runnable onSettings, Runnable onToggleSign) {
         super(new BorderLayout());
@@ -104,11 +112,29 @@ public class TopBarPanel extends JPanel {
         totalPagesLabel = new JLabel("/ 0");
         totalPagesLabel.setFont(new Font("SansSerif", Font.PLAIN, 13));
 
+        // -------------------- Zoom --------------------
+        zoomOutBtn = createZoomButton("\u2212", "Zoom Out (Ctrl+-)");
+        zoomOutBtn.addActionListener(e -> {
+            if (onZoomOut != null) onZoomOut.run();
+        });
+        zoomInBtn = createZoomButton("+", "Zoom In (Ctrl++)");
+        zoomInBtn.addActionListener(e -> {
+            if (onZoomIn != null) onZoomIn.run();
+        });
+        zoomLabel = new JLabel("100%", SwingConstants.CENTER);
+        zoomLabel.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        zoomLabel.setPreferredSize(new Dimension(44, 28));
+        zoomLabel.setToolTipText("Zoom (Ctrl+0 to reset)");
+
         JPanel pageNavPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 3, 0));
         pageNavPanel.setOpaque(false);
         pageNavPanel.add(new JLabel("Page "));
         pageNavPanel.add(pageInputField);
         pageNavPanel.add(totalPagesLabel);
+        pageNavPanel.add(Box.createHorizontalStrut(12));
+        pageNavPanel.add(zoomOutBtn);
+        pageNavPanel.add(zoomLabel);
+        pageNavPanel.add(zoomInBtn);
         pageNavPanel.setVisible(false); // Hidden until PDF is loaded
 
         // -------------------- Layout --------------------
@@ -153,6 +179,15 @@ public class TopBarPanel extends JPanel {
     }
 
     // -------------------- Helper Methods --------------------
+    private static JButton createZoomButton(String text, String tooltip) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        button.setPreferredSize(new Dimension(28, 28));
+        button.setMargin(new Insets(0, 0, 0, 0));
+        button.setToolTipText(tooltip);
+        return button;
+    }
+
     public void setPageInfoText(String text) {
         pageInfoLabel.setText(text);
     }
@@ -265,6 +300,21 @@ public class TopBarPanel extends JPanel {
         this.onGoToPage = callback;
     }
 
+    /**
+     * Sets the callbacks for the zoom buttons.
+     */
+    public void setOnZoom(Runnable zoomIn, Runnable zoomOut) {
+        this.onZoomIn = zoomIn;
+        this.onZoomOut = zoomOut;
+    }
+
+    /**
+     * Shows the current zoom factor (1 = 100%).
+     */
+    public void updateZoomDisplay(float zoom) {
+        zoomLabel.setText(Math.round(zoom * 100) + "%");
+    }
+
     /**
      * Updates the page display with current page and total pages.
      */
@@ -309,6 +359,7 @@ public class TopBarPanel extends JPanel {
             noFilesItem.setEnabled(false);
             menu.add(noFilesItem);
         } else {
+            List<JMenuItem> items = new ArrayList<>();
             for (File file : recentFiles) {
                 JMenuItem item = new JMenuItem(file.getName());
                 item.setToolTipText(file.getAbsolutePath());
@@ -318,7 +369,9 @@ public class TopBarPanel extends JPanel {
                     }
                 });
                 menu.add(item);
+                items.add(item);
             }
+            addSignatureBadges(menu, recentFiles, items);
 
             menu.addSeparator();
 
@@ -329,4 +382,45 @@ public class TopBarPanel extends JPanel {
 
         menu.show(recentBtn, 0, recentBtn.getHeight());
     }
+
+    /**
+     * Probes the files in the background (each probe reads the file) and appends the signature
+     * badge to the menu items as results arrive. The menu is shown without waiting for them.
+     */
+    private static void addSignatureBadges(JPopupMenu menu, List<File> files, List<JMenuItem> items) {
+        new Thread(() -> {
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                JMenuItem item = items.get(i);
+                // Tail probe only reads trailer/xref/catalog, cheap enough to badge every entry
+                String badge = getSignatureBadge(PdfSignatureProbe.probe(file));
+                if (!badge.isEmpty()) {
+                    SwingUtilities.invokeLater(() -> {
+                        item.setText(file.getName() + "  [" + badge + "]");
+                        if (menu.isVisible()) {
+                            menu.pack(); // widen for the badge
+                        }
+                    });
+                }
+            }
+        }, "Recent-Files-Probe-Thread").start();
+    }
+
+    /**
+     * Builds a short status label (e.g. "Certified, Encrypted") from a signature probe.
+     */
+    private static String getSignatureBadge(PdfSignatureProbe.ProbeResult probe) {
+        List<String> parts = new ArrayList<>();
+        if (probe.isCertified()) {
+            parts.add("Certified");
+        } else if (probe.getSignatureCount() > 1) {
+            parts.add("Signed x" + probe.getSignatureCount());
+        } else if (probe.isSigned()) {
+            parts.add("Signed");
+        }
+        if (probe.isEncrypted()) {
+            parts.add("Encrypted");
+        }
+        return String.join(", ", parts);
+    }
 }
@@ -0,0 +1,241 @@
+package com.trexolab.service;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.io.RandomAccessSource;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One open PDF, parsed once and shared by field detection, verification and signing.
+ * <p>
+ * The session owns a single byte source for the file. Views are built on first use and kept:
+ * the partial-mode {@link PdfReader} (cross-reference table and trailer), the signature field
+ * index ({@link SignatureFieldScanner}), the encryption state and the page boxes. Consumers get
+ * the same objects instead of each reopening and re-parsing the file.
+ * <p>
+ * Views are read-only. Object reads through the shared reader must hold the session's monitor;
+ * the accessors below already do. Signing modifies its reader, so it gets a private one from
+ * {@link #openReader()}, parsed from the same bytes.
+ */
+public final class DocumentSession implements Closeable {
+
+    private static final Log log = LogFactory.getLog(DocumentSession.class);
+
+    // End of the file compared by isExtendedBy: the last revision's trailer and %%EOF
+    private static final int TAIL_COMPARE_SIZE = 1024;
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final File file;
+    private final byte[] password;
+    private final long fileLength;
+    private final long lastModified;
+    private final SharedSource source;
+
+    private PdfReader reader;
+    private SignatureFieldScanner.ScanResult signatureIndex;
+    private boolean closed;
+
+    private DocumentSession(File file, String password, RandomAccessSource source) {
+        this.file = file;
+        this.password = (password == null || password.isEmpty()) ? null : password.getBytes();
+        this.fileLength = file.length();
+        this.lastModified = file.lastModified();
+        this.source = new SharedSource(source);
+    }
+
+    /**
+     * Opens a session for a file. Nothing is parsed until a view is requested.
+     *
+     * @param password PDF password (can be null)
+     */
+    public static DocumentSession open(File file, String password) throws IOException {
+        RandomAccessSource source = new RandomAccessSourceFactory()
+                .setForceRead(false)
+                .setUsePlainRandomAccess(Document.plainRandomAccess)
+                .createBestSource(file.getAbsolutePath());
+        return new DocumentSession(file, password, source);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * True if this session was opened for the given file and the file has not changed since.
+     */
+    public boolean isFor(File other) {
+        return other != null && other.getAbsoluteFile().equals(file.getAbsoluteFile())
+                && other.length() == fileLength && other.lastModified() == lastModified;
+    }
+
+    /**
+     * Length of the file when the session was opened.
+     */
+    public long getLength() {
+        return fileLength;
+    }
+
+    /**
+     * True if the other file is this document plus appended incremental updates (a later
+     * revision, e.g. after signing). Appending only ever adds bytes after the last %%EOF, so it
+     * is enough that the other file is longer and that the last bytes up to {@link #getLength()},
+     * which end with this revision's %%EOF, are the same in both files.
+     */
+    public boolean isExtendedBy(File other) {
+        if (other == null || !other.isFile() || other.length() <= fileLength) {
+            return false;
+        }
+        int size = (int) Math.min(TAIL_COMPARE_SIZE, fileLength);
+        long position = fileLength - size;
+        byte[] ours = new byte[size];
+        byte[] theirs = new byte[size];
+        try (RandomAccessFile in = new RandomAccessFile(other, "r")) {
+            synchronized (this) {
+                if (closed) return false;
+                int read = 0;
+                while (read < size) {
+                    int n = source.get(position + read, ours, read, size - read);
+                    if (n < 0) return false;
+                    read += n;
+                }
+            }
+            in.seek(position);
+            in.readFully(theirs);
+        } catch (IOException e) {
+            log.debug("Cannot compare " + file.getName() + " with " + other.getName() + ": " + e.getMessage());
+            return false;
+        }
+        return endsWithEof(ours) && Arrays.equals(ours, theirs);
+    }
+
+    /**
+     * True if the bytes end with %%EOF, optionally followed by end-of-line characters or spaces.
+     */
+    private static boolean endsWithEof(byte[] tail) {
+        int end = tail.length;
+        while (end > 0 && (tail[end - 1] == '\r' || tail[end - 1] == '\n'
+                || tail[end - 1] == ' ' || tail[end - 1] == '\t' || tail[end - 1] == 0)) {
+            end--;
+        }
+        if (end < EOF_MARKER.length) {
+            return false;
+        }
+        for (int i = 0; i < EOF_MARKER.length; i++) {
+            if (tail[end - EOF_MARKER.length + i] != EOF_MARKER[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The shared partial-mode reader. Only the cross-reference table and trailer are parsed here;
+     * objects are read on demand, so callers resolving objects must synchronize on this session.
+     */
+    public synchronized PdfReader getReader() throws IOException {
+        if (closed) {
+            throw new IOException("Document session is closed: " + file.getName());
+        }
+        if (reader == null) {
+            long start = System.currentTimeMillis();
+            reader = new PdfReader(new RandomAccessFileOrArray(source), password, true);
+            log.debug("Parsed " + file.getName() + " (partial) in " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return reader;
+    }
+
+    /**
+     * Signature fields of the document (signed and blank), scanned once.
+     */
+    public synchronized SignatureFieldScanner.ScanResult getSignatureIndex() throws IOException {
+        if (signatureIndex == null) {
+            signatureIndex = SignatureFieldScanner.scan(getReader());
+        }
+        return signatureIndex;
+    }
+
+    /**
+     * True if the document is encrypted. False if it cannot be parsed.
+     */
+    public synchronized boolean isEncrypted() {
+        try {
+            return getReader().isEncrypted();
+        } catch (IOException e) {
+            log.debug("Cannot read encryption state of " + file.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized int getPageCount() throws IOException {
+        return getReader().getNumberOfPages();
+    }
+
+    /**
+     * A private partial-mode reader over the session's bytes, for consumers that modify their
+     * reader (PdfStamper). Closing it does not close the session.
+     */
+    public PdfReader openReader() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Document session is closed: " + file.getName());
+            }
+        }
+        return new PdfReader(new RandomAccessFileOrArray(source), password, true);
+    }
+
+    /**
+     * Releases the byte source. Readers handed out by this session must not be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        reader = null;
+        signatureIndex = null;
+        try {
+            source.delegate.close();
+        } catch (IOException e) {
+            log.debug("Failed to close " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Serializes access to the underlying source (paged channel buffers are not thread-safe) and
+     * ignores close(), which PdfReader.close() and PdfStamper would otherwise propagate.
+     */
+    private static final class SharedSource implements RandomAccessSource {
+        private final RandomAccessSource delegate;
+
+        SharedSource(RandomAccessSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized int get(long position) throws IOException {
+            return delegate.get(position);
+        }
+
+        @Override
+        public synchronized int get(long position, byte[] bytes, int off, int len) throws IOException {
+            return delegate.get(position, bytes, off, len);
+        }
+
+        @Override
+        public long length() {
+            return delegate.length();
+        }
+
+        @Override
+        public void close() {
+            // Owned by the session
+        }
+    }
+}
@@ -0,0 +1,1050 @@
+package com.trexolab.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Answers "is this PDF signed / certified / encrypted?" without a full PdfReader parse.
+ * <p>
+ * Reads only the file tail (startxref), the newest cross-reference section (table or stream,
+ * following /Prev only when an object is not found there), the trailer, and the handful of
+ * objects needed: catalog, AcroForm, signature fields and /Perms. No object model is built,
+ * so folders with thousands of documents can be badged quickly.
+ * <p>
+ * The probe is best-effort: damaged files, unsupported filters or encrypted object streams
+ * yield {@link ProbeResult#isKnown()} == false and callers should fall back to a full parse.
+ */
+public final class PdfSignatureProbe {
+
+    private static final Log log = LogFactory.getLog(PdfSignatureProbe.class);
+
+    private static final int TAIL_SIZE = 2048;
+    private static final int HEADER_SCAN_SIZE = 1024;
+    private static final int INITIAL_CHUNK = 1024;
+    private static final int BLOCK_SIZE = 8192;
+    private static final int MAX_CACHED_BLOCKS = 256;
+    private static final int MAX_CHUNK = 1 << 20;
+    private static final int MAX_XREF_SECTIONS = 256;  // Guards against /Prev loops
+    private static final int MAX_FIELD_DEPTH = 32;
+    private static final int MAX_VISITED_FIELDS = 100000;
+
+    private PdfSignatureProbe() {
+    }
+
+    /**
+     * Probes a PDF file. Never throws; failures are reported as an unknown result.
+     */
+    public static ProbeResult probe(File file) {
+        if (file == null || !file.isFile()) {
+            return ProbeResult.unknown(false);
+        }
+        long start = System.nanoTime();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            ProbeResult result = new Probe(raf).run();
+            if (log.isDebugEnabled()) {
+                log.debug("Probed " + file.getName() + " in " + ((System.nanoTime() - start) / 1000) + "us: " + result);
+            }
+            return result;
+        } catch (Exception e) {
+            log.debug("Signature probe failed for " + file.getName() + ": " + e.getMessage());
+            return ProbeResult.unknown(false);
+        }
+    }
+
+    /**
+     * Outcome of a probe.
+     */
+    public static final class ProbeResult {
+        private final boolean known;
+        private final boolean encrypted;
+        private final int signatureCount;
+        private final int certificationLevel;
+
+        private ProbeResult(boolean known, boolean encrypted, int signatureCount, int certificationLevel) {
+            this.known = known;
+            this.encrypted = encrypted;
+            this.signatureCount = signatureCount;
+            this.certificationLevel = certificationLevel;
+        }
+
+        static ProbeResult unknown(boolean encrypted) {
+            return new ProbeResult(false, encrypted, -1, 0);
+        }
+
+        /**
+         * False when the signature information could not be determined from the tail.
+         */
+        public boolean isKnown() {
+            return known;
+        }
+
+        public boolean isEncrypted() {
+            return encrypted;
+        }
+
+        /**
+         * Number of signed signature fields, or -1 if unknown.
+         */
+        public int getSignatureCount() {
+            return signatureCount;
+        }
+
+        public boolean isSigned() {
+            return signatureCount > 0;
+        }
+
+        /**
+         * True if the catalog has a /Perms /DocMDP entry (certified document).
+         */
+        public boolean isCertified() {
+            return certificationLevel > 0;
+        }
+
+        /**
+         * DocMDP /P value of the certification signature (1-3), or 0 if not certified.
+         */
+        public int getCertificationLevel() {
+            return certificationLevel;
+        }
+
+        @Override
+        public String toString() {
+            return "ProbeResult{known=" + known + ", encrypted=" + encrypted +
+                    ", signatures=" + signatureCount + ", docMDP=" + certificationLevel + '}';
+        }
+    }
+
+    /* --------------------------
+       Probe implementation
+     --------------------------- */
+
+    private static final class Probe {
+        private final RandomAccessFile raf;
+        private final long fileLength;
+        private long headerOffset;
+
+        private final List<XrefSection> sections = new ArrayList<>();
+        private long nextSectionOffset = -1;
+        private final Map<Integer, ObjectStream> objectStreams = new HashMap<>();
+        private final Map<Integer, Object> objectCache = new HashMap<>();
+        private final Map<Long, byte[]> blocks = new HashMap<>();
+
+        Probe(RandomAccessFile raf) throws IOException {
+            this.raf = raf;
+            this.fileLength = raf.length();
+        }
+
+        ProbeResult run() throws IOException {
+            headerOffset = findHeaderOffset();
+            long startXref = findStartXref();
+            if (startXref < 0) {
+                return ProbeResult.unknown(false);
+            }
+
+            XrefSection newest = loadSection(startXref + headerOffset);
+            sections.add(newest);
+            nextSectionOffset = newest.prev;
+
+            Map<String, Object> trailer = newest.trailer;
+            boolean encrypted = trailer.get("Encrypt") != null;
+
+            try {
+                Map<String, Object> catalog = asDict(resolve(trailer.get("Root")));
+                if (catalog == null) {
+                    return ProbeResult.unknown(encrypted);
+                }
+                int certificationLevel = readDocMdpLevel(catalog);
+                int signatures = countSignatures(catalog);
+                return new ProbeResult(true, encrypted, signatures, certificationLevel);
+            } catch (DataFormatException | ProbeException e) {
+                // Typically an encrypted object stream - structure is not readable without the key
+                log.debug("Probe could not resolve signature objects: " + e.getMessage());
+                return ProbeResult.unknown(encrypted);
+            }
+        }
+
+        /* ---- AcroForm / Perms ---- */
+
+        private int readDocMdpLevel(Map<String, Object> catalog) throws IOException, DataFormatException {
+            Map<String, Object> perms = asDict(resolve(catalog.get("Perms")));
+            if (perms == null || perms.get("DocMDP") == null) {
+                return 0;
+            }
+            // Default P is 2 when TransformParams is missing (ISO 32000-1, 12.8.2.2)
+            int level = 2;
+            Map<String, Object> sig = asDict(resolve(perms.get("DocMDP")));
+            List<Object> refs = sig != null ? asArray(resolve(sig.get("Reference"))) : null;
+            if (refs != null) {
+                for (Object r : refs) {
+                    Map<String, Object> ref = asDict(resolve(r));
+                    if (ref == null || !new Name("DocMDP").equals(ref.get("TransformMethod"))) continue;
+                    Map<String, Object> params = asDict(resolve(ref.get("TransformParams")));
+                    Object p = params != null ? resolve(params.get("P")) : null;
+                    if (p instanceof Number) {
+                        level = ((Number) p).intValue();
+                    }
+                    break;
+                }
+            }
+            return level;
+        }
+
+        private int countSignatures(Map<String, Object> catalog) throws IOException, DataFormatException {
+            Map<String, Object> acroForm = asDict(resolve(catalog.get("AcroForm")));
+            if (acroForm == null) {
+                return 0;
+            }
+            List<Object> fields = asArray(resolve(acroForm.get("Fields")));
+            if (fields == null) {
+                return 0;
+            }
+            int[] count = new int[1];
+            int[] budget = {MAX_VISITED_FIELDS};
+            Map<Object, Boolean> visited = new IdentityHashMap<>();
+            for (Object field : fields) {
+                countField(field, null, 0, visited, count, budget);
+            }
+            return count[0];
+        }
+
+        private void countField(Object node, Name inheritedType, int depth, Map<Object, Boolean> visited,
+                                int[] count, int[] budget) throws IOException, DataFormatException {
+            if (depth > MAX_FIELD_DEPTH || --budget[0] < 0) {
+                throw new ProbeException("Field tree too large");
+            }
+            Map<String, Object> field = asDict(resolve(node));
+            if (field == null || visited.put(field, Boolean.TRUE) != null) {
+                return;
+            }
+            Object ft = resolve(field.get("FT"));
+            Name type = ft instanceof Name ? (Name) ft : inheritedType;
+
+            // Non-signature subtrees (text, button, choice) are skipped without resolving kids
+            if (type != null && !"Sig".equals(type.value)) {
+                return;
+            }
+
+            if ("Sig".equals(type == null ? null : type.value)) {
+                Map<String, Object> v = asDict(resolve(field.get("V")));
+                if (v != null && v.get("ByteRange") != null && v.get("Contents") != null) {
+                    count[0]++;
+                }
+            }
+
+            List<Object> kids = asArray(resolve(field.get("Kids")));
+            if (kids != null) {
+                for (Object kid : kids) {
+                    Map<String, Object> kidDict = asDict(resolve(kid));
+                    // Kids without /T are widget annotations of this field
+                    if (kidDict != null && kidDict.get("T") != null) {
+                        countField(kidDict, type, depth + 1, visited, count, budget);
+                    }
+                }
+            }
+        }
+
+        /* ---- File tail ---- */
+
+        private long findHeaderOffset() throws IOException {
+            byte[] head = read(0, (int) Math.min(HEADER_SCAN_SIZE, fileLength));
+            int idx = indexOf(head, "%PDF-".getBytes(StandardCharsets.ISO_8859_1), 0);
+            if (idx < 0) {
+                throw new ProbeException("Not a PDF file");
+            }
+            return idx;
+        }
+
+        private long findStartXref() throws IOException {
+            int size = (int) Math.min(TAIL_SIZE, fileLength);
+            byte[] tail = read(fileLength - size, size);
+            int idx = lastIndexOf(tail, "startxref".getBytes(StandardCharsets.ISO_8859_1));
+            if (idx < 0) {
+                return -1;
+            }
+            Lexer lexer = new Lexer(tail, idx + "startxref".length());
+            Object value = lexer.next();
+            return value instanceof Long ? (Long) value : -1;
+        }
+
+        /* ---- Cross-reference sections ---- */
+
+        private XrefSection loadSection(long offset) throws IOException {
+            if (offset < 0 || offset >= fileLength) {
+                throw new ProbeException("Invalid xref offset " + offset);
+            }
+            byte[] probe = read(offset, (int) Math.min(16, fileLength - offset));
+            int start = skipWhitespace(probe, 0);
+            if (startsWith(probe, start, "xref")) {
+                return loadClassicSection(offset + start + 4);
+            }
+            return loadStreamSection(offset);
+        }
+
+        private XrefSection loadClassicSection(long pos) throws IOException {
+            XrefSection section = new XrefSection();
+            while (true) {
+                byte[] buf = read(pos, (int) Math.min(64, fileLength - pos));
+                int p = skipWhitespace(buf, 0);
+                if (startsWith(buf, p, "trailer")) {
+                    section.trailer = asDict(readObjectAt(pos + p + "trailer".length()));
+                    if (section.trailer == null) {
+                        throw new ProbeException("Missing trailer dictionary");
+                    }
+                    break;
+                }
+                Lexer lexer = new Lexer(buf, p, false);
+                Object first = lexer.next();
+                Object count = lexer.next();
+                if (!(first instanceof Long) || !(count instanceof Long)) {
+                    throw new ProbeException("Malformed xref subsection header");
+                }
+                int q = lexer.pos;
+                while (q < buf.length && (buf[q] == ' ')) q++;
+                if (q < buf.length && buf[q] == '\r') q++;
+                if (q < buf.length && buf[q] == '\n') q++;
+                long entriesStart = pos + q;
+                section.subsections.add(new long[]{(Long) first, (Long) count, entriesStart});
+                pos = entriesStart + 20L * (Long) count;
+                if (section.subsections.size() > 100000) {
+                    throw new ProbeException("Too many xref subsections");
+                }
+            }
+            section.prev = asOffset(section.trailer.get("Prev"));
+            long xrefStm = asOffset(section.trailer.get("XRefStm"));
+            if (xrefStm >= 0) {
+                section.hybrid = loadStreamSection(xrefStm + headerOffset);
+            }
+            return section;
+        }
+
+        private XrefSection loadStreamSection(long offset) throws IOException {
+            RawObject raw = readRawObject(offset, true);
+            Map<String, Object> dict = asDict(raw.value);
+            if (dict == null || !new Name("XRef").equals(dict.get("Type"))) {
+                throw new ProbeException("Not a cross-reference stream");
+            }
+            XrefSection section = new XrefSection();
+            section.trailer = dict;
+            try {
+                section.streamData = decodeStream(dict, raw.streamOffset);
+            } catch (DataFormatException e) {
+                throw new ProbeException("Cannot decode xref stream");
+            }
+            List<Object> w = asArray(dict.get("W"));
+            if (w == null || w.size() != 3) {
+                throw new ProbeException("Invalid /W in xref stream");
+            }
+            section.widths = new int[]{toInt(w.get(0)), toInt(w.get(1)), toInt(w.get(2))};
+            List<Object> index = asArray(dict.get("Index"));
+            if (index == null) {
+                section.index = new long[]{0, toInt(dict.get("Size"))};
+            } else {
+                section.index = new long[index.size()];
+                for (int i = 0; i < index.size(); i++) {
+                    section.index[i] = toInt(index.get(i));
+                }
+            }
+            section.prev = asOffset(dict.get("Prev"));
+            return section;
+        }
+
+        /**
+         * Locates an object: {type, field2, field3}. Type 1 = offset, type 2 = object stream + index.
+         */
+        private long[] locate(int objNum) throws IOException {
+            for (int i = 0; ; i++) {
+                if (i >= sections.size()) {
+                    if (nextSectionOffset < 0 || sections.size() >= MAX_XREF_SECTIONS) {
+                        return null;
+                    }
+                    XrefSection older = loadSection(nextSectionOffset + headerOffset);
+                    sections.add(older);
+                    nextSectionOffset = older.prev;
+                }
+                XrefSection section = sections.get(i);
+                long[] entry = section.streamData != null ? section.lookupStream(objNum) : lookupClassic(section, objNum);
+                // Hybrid files list compressed objects only in /XRefStm; older readers see them
+                // as free (or missing) in the table (ISO 32000-1, 7.5.8.4)
+                if (section.hybrid != null && (entry == null || entry[0] == 0)) {
+                    long[] hidden = section.hybrid.lookupStream(objNum);
+                    if (hidden != null && (entry == null || hidden[0] != 0)) {
+                        entry = hidden;
+                    }
+                }
+                if (entry != null) {
+                    return entry[0] == 0 ? null : entry;
+                }
+            }
+        }
+
+        /**
+         * Reads a single 20-byte entry of a classic xref table without loading the table.
+         */
+        private long[] lookupClassic(XrefSection section, int objNum) throws IOException {
+            for (long[] sub : section.subsections) {
+                if (objNum >= sub[0] && objNum < sub[0] + sub[1]) {
+                    long pos = sub[2] + 20L * (objNum - sub[0]);
+                    if (pos + 18 > fileLength) {
+                        return null;
+                    }
+                    byte[] entry = read(pos, 18);
+                    String text = new String(entry, StandardCharsets.ISO_8859_1);
+                    long offset = Long.parseLong(text.substring(0, 10).trim());
+                    char kind = text.charAt(17);
+                    return new long[]{kind == 'n' ? 1 : 0, offset, 0};
+                }
+            }
+            return null;
+        }
+
+        /* ---- Objects ---- */
+
+        private Object resolve(Object value) throws IOException, DataFormatException {
+            int guard = 0;
+            while (value instanceof Ref && guard++ < 8) {
+                value = getObject(((Ref) value).num);
+            }
+            return value;
+        }
+
+        private Object getObject(int objNum) throws IOException, DataFormatException {
+            if (objectCache.containsKey(objNum)) {
+                return objectCache.get(objNum);
+            }
+            long[] entry = locate(objNum);
+            Object value = null;
+            if (entry != null && entry[0] == 1) {
+                value = readRawObject(entry[1] + headerOffset, false).value;
+            } else if (entry != null && entry[0] == 2) {
+                value = getObjectStream((int) entry[1]).get(objNum);
+            }
+            objectCache.put(objNum, value);
+            return value;
+        }
+
+        private ObjectStream getObjectStream(int streamNum) throws IOException, DataFormatException {
+            ObjectStream stream = objectStreams.get(streamNum);
+            if (stream == null) {
+                long[] entry = locate(streamNum);
+                if (entry == null || entry[0] != 1) {
+                    throw new ProbeException("Object stream " + streamNum + " not found");
+                }
+                RawObject raw = readRawObject(entry[1] + headerOffset, true);
+                Map<String, Object> dict = asDict(raw.value);
+                if (dict == null) {
+                    throw new ProbeException("Invalid object stream " + streamNum);
+                }
+                stream = new ObjectStream(decodeStream(dict, raw.streamOffset),
+                        toInt(resolve(dict.get("N"))), toInt(resolve(dict.get("First"))));
+                objectStreams.put(streamNum, stream);
+            }
+            return stream;
+        }
+
+        private Object readObjectAt(long offset) throws IOException {
+            int chunk = INITIAL_CHUNK;
+            while (true) {
+                byte[] buf = read(offset, (int) Math.min(chunk, fileLength - offset));
+                try {
+                    return new Lexer(buf, 0, offset + buf.length >= fileLength).next();
+                } catch (TruncatedException e) {
+                    if (chunk >= MAX_CHUNK || offset + chunk >= fileLength) {
+                        throw new ProbeException("Object too large at " + offset);
+                    }
+                    chunk <<= 2;
+                }
+            }
+        }
+
+        /**
+         * Reads "N G obj value [stream]" at the given offset.
+         */
+        private RawObject readRawObject(long offset, boolean expectStream) throws IOException {
+            int chunk = INITIAL_CHUNK;
+            while (true) {
+                byte[] buf = read(offset, (int) Math.min(chunk, fileLength - offset));
+                try {
+                    Lexer lexer = new Lexer(buf, 0, offset + buf.length >= fileLength);
+                    lexer.next(); // object number
+                    lexer.next(); // generation
+                    Object keyword = lexer.next();
+                    if (!(keyword instanceof Keyword) || !"obj".equals(((Keyword) keyword).value)) {
+                        throw new ProbeException("Expected 'obj' at " + offset);
+                    }
+                    RawObject raw = new RawObject();
+                    raw.value = lexer.next();
+                    if (expectStream) {
+                        int p = skipWhitespace(buf, lexer.pos);
+                        if (!startsWith(buf, p, "stream")) {
+                            throw new ProbeException("Expected stream at " + offset);
+                        }
+                        p += "stream".length();
+                        if (p < buf.length && buf[p] == '\r') p++;
+                        if (p < buf.length && buf[p] == '\n') p++;
+                        raw.streamOffset = offset + p;
+                    }
+                    return raw;
+                } catch (TruncatedException e) {
+                    if (chunk >= MAX_CHUNK || offset + chunk >= fileLength) {
+                        throw new ProbeException("Object too large at " + offset);
+                    }
+                    chunk <<= 2;
+                }
+            }
+        }
+
+        private byte[] decodeStream(Map<String, Object> dict, long dataOffset) throws IOException, DataFormatException {
+            int length = toInt(resolve(dict.get("Length")));
+            if (length < 0 || dataOffset + length > fileLength) {
+                throw new ProbeException("Invalid stream length");
+            }
+            byte[] data = read(dataOffset, length);
+
+            Object filter = resolve(dict.get("Filter"));
+            Object parms = resolve(dict.get("DecodeParms"));
+            if (filter instanceof List) {
+                List<?> filters = (List<?>) filter;
+                if (filters.size() > 1) {
+                    throw new ProbeException("Unsupported filter chain");
+                }
+                filter = filters.isEmpty() ? null : filters.get(0);
+                if (parms instanceof List) {
+                    List<?> list = (List<?>) parms;
+                    parms = list.isEmpty() ? null : resolve(list.get(0));
+                }
+            }
+            if (filter == null) {
+                return data;
+            }
+            if (!new Name("FlateDecode").equals(filter)) {
+                throw new ProbeException("Unsupported filter " + filter);
+            }
+            byte[] inflated = inflate(data);
+            Map<String, Object> decodeParms = asDict(parms);
+            if (decodeParms != null) {
+                int predictor = toInt(resolve(decodeParms.get("Predictor")));
+                if (predictor >= 10) {
+                    Object columns = resolve(decodeParms.get("Columns"));
+                    inflated = pngUnpredict(inflated, columns == null ? 1 : toInt(columns));
+                } else if (predictor > 1) {
+                    throw new ProbeException("Unsupported predictor " + predictor);
+                }
+            }
+            return inflated;
+        }
+
+        /**
+         * Reads through a small block cache so neighbouring objects (fields, widgets) share I/O.
+         */
+        private byte[] read(long offset, int length) throws IOException {
+            byte[] buf = new byte[Math.max(0, length)];
+            int copied = 0;
+            while (copied < buf.length) {
+                long pos = offset + copied;
+                long blockIndex = pos / BLOCK_SIZE;
+                byte[] block = blocks.get(blockIndex);
+                if (block == null) {
+                    long blockStart = blockIndex * BLOCK_SIZE;
+                    block = new byte[(int) Math.min(BLOCK_SIZE, fileLength - blockStart)];
+                    raf.seek(blockStart);
+                    raf.readFully(block);
+                    if (blocks.size() < MAX_CACHED_BLOCKS) {
+                        blocks.put(blockIndex, block);
+                    }
+                }
+                int inBlock = (int) (pos - blockIndex * BLOCK_SIZE);
+                int n = Math.min(block.length - inBlock, buf.length - copied);
+                if (n <= 0) {
+                    throw new IOException("Read past end of file");
+                }
+                System.arraycopy(block, inBlock, buf, copied, n);
+                copied += n;
+            }
+            return buf;
+        }
+
+        private long asOffset(Object value) {
+            return value instanceof Long ? (Long) value : -1;
+        }
+    }
+
+    /* --------------------------
+       Cross-reference model
+     --------------------------- */
+
+    private static final class XrefSection {
+        Map<String, Object> trailer;
+        long prev = -1;
+        XrefSection hybrid;
+
+        // Classic table: {first, count, file offset of first entry}
+        final List<long[]> subsections = new ArrayList<>();
+
+        // Stream section
+        byte[] streamData;
+        int[] widths;
+        long[] index;
+
+        long[] lookupStream(int objNum) {
+            int rowSize = widths[0] + widths[1] + widths[2];
+            long row = 0;
+            for (int i = 0; i + 1 < index.length; i += 2) {
+                long first = index[i];
+                long count = index[i + 1];
+                if (objNum >= first && objNum < first + count) {
+                    int p = (int) ((row + objNum - first) * rowSize);
+                    if (p + rowSize > streamData.length) {
+                        return null;
+                    }
+                    long type = widths[0] == 0 ? 1 : readField(p, widths[0]);
+                    long f2 = readField(p + widths[0], widths[1]);
+                    long f3 = readField(p + widths[0] + widths[1], widths[2]);
+                    return new long[]{type, f2, f3};
+                }
+                row += count;
+            }
+            return null;
+        }
+
+        private long readField(int p, int width) {
+            long value = 0;
+            for (int i = 0; i < width; i++) {
+                value = (value << 8) | (streamData[p + i] & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Decoded object stream: header of (object number, offset) pairs followed by objects.
+     */
+    private static final class ObjectStream {
+        private final byte[] data;
+        private final Map<Integer, Integer> offsets = new HashMap<>();
+        private final int first;
+
+        ObjectStream(byte[] data, int n, int first) {
+            this.data = data;
+            this.first = first;
+            Lexer lexer = new Lexer(data, 0);
+            for (int i = 0; i < n; i++) {
+                Object num = lexer.next();
+                Object off = lexer.next();
+                if (!(num instanceof Long) || !(off instanceof Long)) break;
+                offsets.put(((Long) num).intValue(), ((Long) off).intValue());
+            }
+        }
+
+        Object get(int objNum) {
+            Integer offset = offsets.get(objNum);
+            if (offset == null) {
+                return null;
+            }
+            return new Lexer(data, first + offset).next();
+        }
+    }
+
+    private static final class RawObject {
+        Object value;
+        long streamOffset = -1;
+    }
+
+    /* --------------------------
+       Minimal PDF lexer
+     --------------------------- */
+
+    private static final class Name {
+        final String value;
+
+        Name(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Name && ((Name) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "/" + value;
+        }
+    }
+
+    private static final class Ref {
+        final int num;
+
+        Ref(int num) {
+            this.num = num;
+        }
+    }
+
+    private static final class Keyword {
+        final String value;
+
+        Keyword(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final Object END_DICT = new Object();
+    private static final Object END_ARRAY = new Object();
+
+    /**
+     * Parses PDF objects from a byte buffer. Strings are returned as raw bytes (never needed
+     * decoded here). Throws {@link TruncatedException} when the buffer ends mid-object.
+     */
+    private static final class Lexer {
+        private final byte[] buf;
+        private final boolean complete;
+        int pos;
+
+        Lexer(byte[] buf, int pos) {
+            this(buf, pos, true);
+        }
+
+        /**
+         * @param complete false if the buffer is a chunk that may cut an object short
+         */
+        Lexer(byte[] buf, int pos, boolean complete) {
+            this.buf = buf;
+            this.pos = pos;
+            this.complete = complete;
+        }
+
+        Object next() {
+            Object token = token();
+            if (token instanceof Long) {
+                // Look ahead for "N G R"
+                int save = pos;
+                Object gen = safeToken();
+                if (gen instanceof Long) {
+                    Object r = safeToken();
+                    if (r instanceof Keyword && "R".equals(((Keyword) r).value)) {
+                        return new Ref(((Long) token).intValue());
+                    }
+                }
+                pos = save;
+            }
+            return token;
+        }
+
+        private Object safeToken() {
+            try {
+                return token();
+            } catch (TruncatedException e) {
+                return null;
+            }
+        }
+
+        private Object token() {
+            pos = skipWhitespace(buf, pos);
+            if (pos >= buf.length) {
+                throw new TruncatedException();
+            }
+            byte c = buf[pos];
+            switch (c) {
+                case '/':
+                    return readName();
+                case '(':
+                    return readLiteralString();
+                case '[':
+                    pos++;
+                    return readArray();
+                case ']':
+                    pos++;
+                    return END_ARRAY;
+                case '<':
+                    if (pos + 1 >= buf.length) throw new TruncatedException();
+                    if (buf[pos + 1] == '<') {
+                        pos += 2;
+                        return readDict();
+                    }
+                    return readHexString();
+                case '>':
+                    if (pos + 1 >= buf.length) throw new TruncatedException();
+                    pos += 2;
+                    return END_DICT;
+                default:
+                    if (c == '+' || c == '-' || c == '.' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    return readKeyword();
+            }
+        }
+
+        private Map<String, Object> readDict() {
+            Map<String, Object> dict = new LinkedHashMap<>();
+            while (true) {
+                Object key = next();
+                if (key == END_DICT) {
+                    return dict;
+                }
+                if (!(key instanceof Name)) {
+                    throw new ProbeException("Dictionary key expected");
+                }
+                Object value = next();
+                if (value == END_DICT) {
+                    return dict;
+                }
+                dict.put(((Name) key).value, value);
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> list = new ArrayList<>();
+            while (true) {
+                Object value = next();
+                if (value == END_ARRAY) {
+                    return list;
+                }
+                if (value == END_DICT) {
+                    throw new ProbeException("Unexpected '>>' in array");
+                }
+                list.add(value);
+            }
+        }
+
+        private Name readName() {
+            pos++;
+            StringBuilder sb = new StringBuilder();
+            while (pos < buf.length && !isDelimiter(buf[pos]) && !isWhitespace(buf[pos])) {
+                if (buf[pos] == '#' && pos + 2 < buf.length) {
+                    sb.append((char) Integer.parseInt(new String(buf, pos + 1, 2, StandardCharsets.ISO_8859_1), 16));
+                    pos += 3;
+                } else {
+                    sb.append((char) (buf[pos++] & 0xFF));
+                }
+            }
+            if (pos >= buf.length && !complete) throw new TruncatedException();
+            return new Name(sb.toString());
+        }
+
+        private byte[] readLiteralString() {
+            pos++;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int depth = 1;
+            while (pos < buf.length) {
+                byte c = buf[pos++];
+                if (c == '\\') {
+                    if (pos >= buf.length) break;
+                    out.write(buf[pos++]);
+                    continue;
+                }
+                if (c == '(') depth++;
+                if (c == ')' && --depth == 0) return out.toByteArray();
+                out.write(c);
+            }
+            throw new TruncatedException();
+        }
+
+        private byte[] readHexString() {
+            int end = indexOf(buf, new byte[]{'>'}, pos);
+            if (end < 0) throw new TruncatedException();
+            pos = end + 1;
+            return new byte[0];
+        }
+
+        private Object readNumber() {
+            int start = pos;
+            boolean real = false;
+            while (pos < buf.length) {
+                byte c = buf[pos];
+                if (c == '.') {
+                    real = true;
+                } else if (!(c == '+' || c == '-' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos >= buf.length && !complete) throw new TruncatedException();
+            String text = new String(buf, start, pos - start, StandardCharsets.ISO_8859_1);
+            try {
+                return real ? (Object) Double.valueOf(text) : (Object) Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+
+        private Object readKeyword() {
+            int start = pos;
+            while (pos < buf.length && !isDelimiter(buf[pos]) && !isWhitespace(buf[pos])) {
+                pos++;
+            }
+            if (pos >= buf.length && !complete) throw new TruncatedException();
+            if (pos == start) {
+                pos++; // Skip an unexpected delimiter
+                return new Keyword("");
+            }
+            String word = new String(buf, start, pos - start, StandardCharsets.ISO_8859_1);
+            if ("true".equals(word)) return Boolean.TRUE;
+            if ("false".equals(word)) return Boolean.FALSE;
+            if ("null".equals(word)) return null;
+            return new Keyword(word);
+        }
+    }
+
+    private static final class TruncatedException extends RuntimeException {
+        TruncatedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class ProbeException extends RuntimeException {
+        ProbeException(String message) {
+            super(message);
+        }
+    }
+
+    /* --------------------------
+       Helpers
+     --------------------------- */
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asDict(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asArray(Object value) {
+        return value instanceof List ? (List<Object>) value : null;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == 0;
+    }
+
+    private static boolean isDelimiter(byte c) {
+        return c == '(' || c == ')' || c == '<' || c == '>' || c == '[' || c == ']'
+                || c == '{' || c == '}' || c == '/' || c == '%';
+    }
+
+    private static int skipWhitespace(byte[] buf, int pos) {
+        while (pos < buf.length) {
+            if (isWhitespace(buf[pos])) {
+                pos++;
+            } else if (buf[pos] == '%') {
+                while (pos < buf.length && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean startsWith(byte[] buf, int pos, String text) {
+        if (pos + text.length() > buf.length) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (buf[pos + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] buf, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= buf.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buf[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] buf, byte[] pattern) {
+        outer:
+        for (int i = buf.length - pattern.length; i >= 0; i--) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buf[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0) {
+                    if (inflater.needsInput() || inflater.needsDictionary()) break;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reverses PNG row predictors (Predictor >= 10), as used by xref and object streams.
+     */
+    private static byte[] pngUnpredict(byte[] data, int columns) {
+        int rowLength = columns + 1;
+        int rows = data.length / rowLength;
+        byte[] out = new byte[rows * columns];
+        byte[] prior = new byte[columns];
+        for (int r = 0; r < rows; r++) {
+            int filter = data[r * rowLength] & 0xFF;
+            int in = r * rowLength + 1;
+            int o = r * columns;
+            for (int i = 0; i < columns; i++) {
+                int raw = data[in + i] & 0xFF;
+                int left = i > 0 ? out[o + i - 1] & 0xFF : 0;
+                int up = prior[i] & 0xFF;
+                int upLeft = i > 0 ? prior[i - 1] & 0xFF : 0;
+                int value;
+                switch (filter) {
+                    case 1:
+                        value = raw + left;
+                        break;
+                    case 2:
+                        value = raw + up;
+                        break;
+                    case 3:
+                        value = raw + ((left + up) >> 1);
+                        break;
+                    case 4:
+                        int p = left + up - upLeft;
+                        int pa = Math.abs(p - left), pb = Math.abs(p - up), pc = Math.abs(p - upLeft);
+                        value = raw + (pa <= pb && pa <= pc ? left : (pb <= pc ? up : upLeft));
+                        break;
+                    default:
+                        value = raw;
+                        break;
+                }
+                out[o + i] = (byte) value;
+            }
+            System.arraycopy(out, o, prior, 0, columns);
+        }
+        return out;
+    }
+}
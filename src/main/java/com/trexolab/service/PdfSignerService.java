@@ -21,8 +21,10 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Map;
 
 
@@ -30,6 +32,8 @@ public class PdfSignerService {
 
 
     private static final Log log = LogFactory.getLog(PdfSignerService.class);
+    // How long the viewer's background workers get to close the file before it is replaced
+    private static final long FILE_RELEASE_TIMEOUT_MS = 10_000;
     private File selectedFile;
     private String pdfPassword;
     private KeyStoreProvider provider;
@@ -38,19 +42,6 @@ public class PdfSignerService {
     public PdfSignerService() {
     }
 
-    private static Timer reRenderSignedPdfTimer(File saveFile) {
-        Timer timer = new Timer(1000, evt -> {
-            SwingUtilities.invokeLater(() -> {
-                PdfViewerMain.INSTANCE.renderPdfFromPath(saveFile.getAbsolutePath());
-                PdfViewerMain.INSTANCE.setWindowTitle(saveFile.getAbsolutePath());
-                PdfViewerMain.INSTANCE.requestFocusInWindow();
-                PdfViewerMain.INSTANCE.repaint();
-            });
-        });
-        timer.setRepeats(false);
-        return timer;
-    }
-
     public void setProvider(KeyStoreProvider provider) {
         this.provider = provider;
     }
@@ -68,16 +59,21 @@ public class PdfSignerService {
     }
 
     public void launchSigningFlow(AppearanceOptions appearanceOptions) {
-        // CRITICAL: Release PDFBox document from memory before signing
-        // This frees up heap space for iText's signing operations on large PDFs
-        PdfViewerMain.INSTANCE.releaseDocumentForSigning();
-
+        // The viewer stays open while signing: its document is backed by a temp file and the
+        // signer reads through the shared session, so only the changed pages are redrawn afterwards
         PdfReader reader = openPdfReader(selectedFile, pdfPassword);
         signPdfDocument(reader, provider, appearanceOptions);
     }
 
     private PdfReader openPdfReader(File file, String password) {
         try {
+            // The viewer's session already holds the file; a private reader over its bytes
+            // avoids reopening it (the stamper modifies its reader, so the shared one is not used)
+            DocumentSession session = PdfViewerMain.INSTANCE.getDocumentSession();
+            if (session != null && session.isFor(file)) {
+                return session.openReader();
+            }
+
             // Use PdfReader with partial=true for memory-efficient reading
             // This is CRITICAL for large PDFs - only loads xref, not entire content
             byte[] ownerPassword = (password == null || password.isEmpty()) ? null : password.getBytes();
@@ -114,17 +110,18 @@ public class PdfSignerService {
             // Show wait cursor during file copy
             CursorStateManager.getInstance().pushCursor(Cursor.WAIT_CURSOR, "pdf-saving");
 
+            if (isOpenFile(saveFile)) {
+                // Finishes in the background; the cursor is popped once the file is shown
+                replaceOpenFile(signedTempFile, saveFile);
+                return;
+            }
+
             // Copy temp file to final destination (memory-efficient)
             Files.copy(signedTempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
             // Pop cursor after saving
             CursorStateManager.getInstance().popCursor("pdf-saving");
-
-            // Render the signed PDF after 1 second delay
-            if (saveFile.exists() && saveFile.length() > 0) {
-                Timer timer = reRenderSignedPdfTimer(saveFile);
-                timer.start();
-            }
+            showSignedFile(saveFile);
 
         } catch (Exception e) {
             // Ensure cursor is reset on error - pop any active cursors
@@ -144,6 +141,125 @@ public class PdfSignerService {
         }
     }
 
+    /**
+     * True if the file chosen for saving is the one the viewer has open.
+     */
+    private boolean isOpenFile(File saveFile) {
+        if (!saveFile.exists() || selectedFile == null || !selectedFile.exists()) {
+            return false;
+        }
+        try {
+            return Files.isSameFile(saveFile.toPath(), selectedFile.toPath());
+        } catch (IOException e) {
+            return saveFile.getAbsoluteFile().equals(selectedFile.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Shows the signed revision; unchanged pages keep their rasters.
+     */
+    private static void showSignedFile(File signedFile) {
+        if (signedFile.exists() && signedFile.length() > 0) {
+            SwingUtilities.invokeLater(() -> {
+                PdfViewerMain.INSTANCE.showSignedRevision(signedFile);
+                PdfViewerMain.INSTANCE.requestFocusInWindow();
+            });
+        }
+    }
+
+    /**
+     * Saves the signed copy over the file the viewer has open. The copy is first written next to
+     * it, so a failed write leaves the original intact. The viewer then lets go of the file
+     * (Windows refuses to replace an open file), still knowing the copy is a later revision of it,
+     * so only the changed pages are redrawn. Waiting for its workers and moving the copy into
+     * place happen on a background thread. If the open file cannot be replaced, the copy is kept
+     * and shown, and the user is told where it is.
+     */
+    private void replaceOpenFile(File signedTempFile, File openFile) throws IOException {
+        File signedCopy = siblingFile(openFile);
+        Files.copy(signedTempFile.toPath(), signedCopy.toPath());
+        List<Thread> readers = PdfViewerMain.INSTANCE.releaseFile(signedCopy);
+
+        new Thread(() -> {
+            if (!awaitReaders(readers)) {
+                log.warn("The viewer did not release " + openFile.getName() + " in time, replacing it anyway");
+            }
+            boolean replaced = moveIntoPlace(signedCopy, openFile);
+            showSignedFile(replaced ? openFile : signedCopy);
+            SwingUtilities.invokeLater(() -> {
+                CursorStateManager.getInstance().popCursor("pdf-saving");
+                if (!replaced) {
+                    DialogUtils.showWarning(
+                            PdfViewerMain.INSTANCE,
+                            "Signed PDF Saved Elsewhere",
+                            "<html><body>"
+                                    + "<div style='font-weight:bold;'>" + escapeHtml(openFile.getName())
+                                    + " could not be replaced.</div>"
+                                    + "<div style='margin-top:6px;'>It may be open in another program. "
+                                    + "The signed document was saved as:</div>"
+                                    + "<div style='margin-top:6px;'>" + escapeHtml(signedCopy.getAbsolutePath()) + "</div>"
+                                    + "</body></html>");
+                }
+            });
+        }, "Signed-File-Replace-Thread").start();
+    }
+
+    private static boolean moveIntoPlace(File signedCopy, File openFile) {
+        try {
+            try {
+                Files.move(signedCopy.toPath(), openFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(signedCopy.toPath(), openFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Cannot replace " + openFile.getAbsolutePath() + ", signed copy kept at "
+                    + signedCopy.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the viewer's stopped workers to close the file.
+     *
+     * @return false if one is still running after {@link #FILE_RELEASE_TIMEOUT_MS}
+     */
+    private static boolean awaitReaders(List<Thread> readers) {
+        long deadline = System.currentTimeMillis() + FILE_RELEASE_TIMEOUT_MS;
+        try {
+            for (Thread reader : readers) {
+                reader.join(Math.max(1, deadline - System.currentTimeMillis()));
+                if (reader.isAlive()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A file next to the given one that does not exist yet: "name-signed.pdf", "name-signed-2.pdf", ...
+     */
+    private static File siblingFile(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        File sibling = new File(file.getAbsoluteFile().getParentFile(), base + "-signed" + extension);
+        for (int i = 2; sibling.exists(); i++) {
+            sibling = new File(file.getAbsoluteFile().getParentFile(), base + "-signed-" + i + extension);
+        }
+        return sibling;
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     private void handleSigningException(Exception e, KeyStoreProvider provider) {
         if (provider instanceof PKCS11KeyStoreProvider) {
             ((PKCS11KeyStoreProvider) provider).reset();
@@ -1,8 +1,5 @@
 package com.trexolab.service;
 
-import com.itextpdf.text.pdf.AcroFields;
-import com.itextpdf.text.pdf.PdfDictionary;
-import com.itextpdf.text.pdf.PdfName;
 import com.itextpdf.text.pdf.PdfReader;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -97,34 +94,41 @@ public class SignatureFieldDetectionService {
 
     /**
      * Detects all unsigned signature fields in the PDF.
+     * Uses {@link SignatureFieldScanner} so only /Sig fields are visited, not the full AcroForm model.
      *
      * @param reader PdfReader instance for the PDF document
      * @return List of unsigned signature field information
      */
     public List<SignatureFieldInfo> detectUnsignedSignatureFields(PdfReader reader) {
-        List<SignatureFieldInfo> unsignedFields = new ArrayList<>();
-
         if (reader == null) {
             log.warn("PdfReader is null. Cannot detect signature fields.");
-            return unsignedFields;
+            return new ArrayList<>();
         }
+        return detectUnsignedSignatureFields(SignatureFieldScanner.scan(reader));
+    }
+
+    /**
+     * Detects all unsigned signature fields from an existing scan (e.g. a
+     * {@link DocumentSession#getSignatureIndex() session's signature index}).
+     *
+     * @param scan Signature field scan of the PDF document
+     * @return List of unsigned signature field information
+     */
+    public List<SignatureFieldInfo> detectUnsignedSignatureFields(SignatureFieldScanner.ScanResult scan) {
+        List<SignatureFieldInfo> unsignedFields = new ArrayList<>();
 
         try {
-            AcroFields acroFields = reader.getAcroFields();
-            if (acroFields == null) {
-                log.info("No AcroForm fields found in the PDF.");
+            if (scan.getAllFields().isEmpty()) {
+                log.info("No signature fields found in the PDF.");
                 return unsignedFields;
             }
 
-            List<String> signatureFieldNames = acroFields.getSignatureNames();
-            List<String> blankSignatureFieldNames = acroFields.getBlankSignatureNames();
-
-            log.info("Total signature fields: " + signatureFieldNames.size());
-            log.info("Blank (unsigned) signature fields: " + blankSignatureFieldNames.size());
+            log.info("Signed signature fields: " + scan.getSignedFields().size());
+            log.info("Blank (unsigned) signature fields: " + scan.getBlankFields().size());
 
             // Process only blank (unsigned) signature fields
-            for (String fieldName : blankSignatureFieldNames) {
-                SignatureFieldInfo fieldInfo = extractFieldInfo(acroFields, fieldName, reader);
+            for (SignatureFieldScanner.SignatureField field : scan.getBlankFields()) {
+                SignatureFieldInfo fieldInfo = extractFieldInfo(field, false);
                 if (fieldInfo != null) {
                     unsignedFields.add(fieldInfo);
                     log.info("Detected unsigned signature field: " + fieldInfo);
@@ -153,27 +157,25 @@ public class SignatureFieldDetectionService {
         }
 
         try {
-            AcroFields acroFields = reader.getAcroFields();
-            if (acroFields == null) {
-                log.info("No AcroForm fields found in the PDF.");
-                return allFields;
-            }
-
-            List<String> signatureFieldNames = acroFields.getSignatureNames();
-            List<String> blankSignatureFieldNames = acroFields.getBlankSignatureNames();
+            SignatureFieldScanner.ScanResult scan = SignatureFieldScanner.scan(reader);
 
-            // Process all signature fields
-            for (String fieldName : signatureFieldNames) {
-                boolean isSigned = !blankSignatureFieldNames.contains(fieldName);
-                SignatureFieldInfo fieldInfo = extractFieldInfo(acroFields, fieldName, reader, isSigned);
+            // Signed fields first (revision order), then blank fields
+            for (SignatureFieldScanner.SignatureField field : scan.getSignedFields()) {
+                SignatureFieldInfo fieldInfo = extractFieldInfo(field, true);
+                if (fieldInfo != null) {
+                    allFields.add(fieldInfo);
+                }
+            }
+            for (SignatureFieldScanner.SignatureField field : scan.getBlankFields()) {
+                SignatureFieldInfo fieldInfo = extractFieldInfo(field, false);
                 if (fieldInfo != null) {
                     allFields.add(fieldInfo);
                 }
             }
 
             log.info("Total signature fields detected: " + allFields.size() +
-                    " (Signed: " + (signatureFieldNames.size() - blankSignatureFieldNames.size()) +
-                    ", Unsigned: " + blankSignatureFieldNames.size() + ")");
+                    " (Signed: " + scan.getSignedFields().size() +
+                    ", Unsigned: " + scan.getBlankFields().size() + ")");
 
         } catch (Exception e) {
             log.error("Error detecting signature fields in PDF", e);
@@ -185,89 +187,24 @@ public class SignatureFieldDetectionService {
     /**
      * Extracts detailed information about a specific signature field.
      */
-    private SignatureFieldInfo extractFieldInfo(AcroFields acroFields, String fieldName, PdfReader reader) {
-        return extractFieldInfo(acroFields, fieldName, reader, false);
-    }
-
-    /**
-     * Extracts detailed information about a specific signature field.
-     */
-    private SignatureFieldInfo extractFieldInfo(AcroFields acroFields, String fieldName, PdfReader reader, boolean isSigned) {
-        try {
-            // Get field positions (can have multiple positions if field appears on multiple pages)
-            List<AcroFields.FieldPosition> positions = acroFields.getFieldPositions(fieldName);
-
-            if (positions == null || positions.isEmpty()) {
-                log.warn("No position information found for field: " + fieldName);
-                return null;
-            }
-
-            // Use the first position (typically signature fields appear on one page)
-            AcroFields.FieldPosition position = positions.get(0);
-
-            int pageNumber = position.page; // 1-based page number
-            com.itextpdf.text.Rectangle rect = position.position;
-
-            if (rect == null) {
-                log.warn("No rectangle found for field: " + fieldName);
-                return null;
-            }
-
-            // Validate signature field type
-            if (!isValidSignatureField(acroFields, fieldName)) {
-                log.warn("Field is not a valid signature field: " + fieldName);
-                return null;
-            }
-
-            return new SignatureFieldInfo(
-                    fieldName,
-                    pageNumber,
-                    rect.getLeft(),
-                    rect.getBottom(),
-                    rect.getRight(),
-                    rect.getTop(),
-                    isSigned
-            );
-
-        } catch (Exception e) {
-            log.error("Error extracting field info for: " + fieldName, e);
+    private SignatureFieldInfo extractFieldInfo(SignatureFieldScanner.SignatureField field, boolean isSigned) {
+        // Use the first placed widget (typically signature fields appear on one page)
+        SignatureFieldScanner.WidgetPosition position = field.getFirstPlacedWidget();
+        if (position == null) {
+            log.warn("No position information found for field: " + field.getName());
             return null;
         }
-    }
-
-    /**
-     * Validates that a field is a proper signature field (/Sig type).
-     */
-    private boolean isValidSignatureField(AcroFields acroFields, String fieldName) {
-        try {
-            // Get the field's PDF dictionary
-            AcroFields.Item item = acroFields.getFieldItem(fieldName);
-            if (item == null) {
-                return false;
-            }
 
-            // Check if field type is /Sig
-            PdfDictionary widget = item.getWidget(0);
-            if (widget != null) {
-                PdfDictionary fieldDict = widget.getAsDict(PdfName.PARENT);
-                if (fieldDict == null) {
-                    fieldDict = widget;
-                }
-
-                PdfName fieldType = fieldDict.getAsName(PdfName.FT);
-                if (fieldType != null && fieldType.equals(PdfName.SIG)) {
-                    return true;
-                }
-            }
-
-            // Alternative check: signature names list
-            List<String> signatureNames = acroFields.getSignatureNames();
-            return signatureNames.contains(fieldName);
-
-        } catch (Exception e) {
-            log.warn("Error validating signature field: " + fieldName, e);
-            return false;
-        }
+        com.itextpdf.text.Rectangle rect = position.getPosition();
+        return new SignatureFieldInfo(
+                field.getName(),
+                position.getPage(),
+                rect.getLeft(),
+                rect.getBottom(),
+                rect.getRight(),
+                rect.getTop(),
+                isSigned
+        );
     }
 
     /**
@@ -282,14 +219,7 @@ public class SignatureFieldDetectionService {
         }
 
         try {
-            AcroFields acroFields = reader.getAcroFields();
-            if (acroFields == null) {
-                return false;
-            }
-
-            List<String> blankSignatureFieldNames = acroFields.getBlankSignatureNames();
-            return blankSignatureFieldNames != null && !blankSignatureFieldNames.isEmpty();
-
+            return !SignatureFieldScanner.scan(reader).getBlankFields().isEmpty();
         } catch (Exception e) {
             log.error("Error checking for unsigned signature fields", e);
             return false;
@@ -0,0 +1,646 @@
+package com.trexolab.service;
+
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.io.RASInputStream;
+import com.itextpdf.text.io.RandomAccessSource;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PRIndirectReference;
+import com.itextpdf.text.pdf.PRTokeniser;
+import com.itextpdf.text.pdf.PdfArray;
+import com.itextpdf.text.pdf.PdfDate;
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfIndirectReference;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfObject;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfString;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.itextpdf.text.pdf.security.PdfPKCS7;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lightweight replacement for {@code reader.getAcroFields()} when only signature fields matter.
+ * <p>
+ * {@link com.itextpdf.text.pdf.AcroFields} builds the merged field model for every field in the
+ * document (text boxes, check boxes, combo boxes...). Government forms routinely carry thousands
+ * of those, while verification and field detection only care about {@code /FT /Sig}. This scanner
+ * walks the {@code /AcroForm /Fields} tree directly, keeps only signature fields, and resolves
+ * their widgets to pages and rectangles the same way iText's {@code getFieldPositions} does.
+ * <p>
+ * Signed fields are ordered by the length of the document they cover (revision order), matching
+ * {@code AcroFields.getSignatureNames()}.
+ * <p>
+ * All object reads happen during the scan. Each field's signature dictionary is copied with its
+ * indirect entries resolved, so the result can be used from any thread without going through the
+ * reader, whose partial mode re-reads objects from the file and is not thread-safe.
+ */
+public class SignatureFieldScanner {
+
+    private static final Log log = LogFactory.getLog(SignatureFieldScanner.class);
+
+    // Guards against malformed, cyclic field trees
+    private static final int MAX_FIELD_DEPTH = 32;
+    // Nesting resolved when copying a signature dictionary (/Reference [ << /TransformParams << /P >> >> ])
+    private static final int MAX_DETACH_DEPTH = 4;
+
+    private final PdfReader reader;
+
+    // Object number of each page dictionary -> 1-based page number (built lazily)
+    private Map<Integer, Integer> pageNumbersByRef;
+    // Object number of each widget annotation -> 1-based page number (built lazily, /P fallback)
+    private Map<Integer, Integer> widgetPagesByRef;
+
+    private SignatureFieldScanner(PdfReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Scans the signature fields of a document.
+     *
+     * @param reader PdfReader instance (full or partial mode)
+     * @return scan result, never null
+     */
+    public static ScanResult scan(PdfReader reader) {
+        if (reader == null) {
+            return new ScanResult(null, Collections.<SignatureField>emptyList());
+        }
+        long start = System.currentTimeMillis();
+        List<SignatureField> fields = new SignatureFieldScanner(reader).collect();
+        ScanResult result = new ScanResult(reader, fields);
+        log.debug("Scanned " + fields.size() + " signature field(s) in " +
+                (System.currentTimeMillis() - start) + "ms");
+        return result;
+    }
+
+    private List<SignatureField> collect() {
+        List<SignatureField> fields = new ArrayList<>();
+        try {
+            PdfDictionary acroForm = reader.getCatalog().getAsDict(PdfName.ACROFORM);
+            if (acroForm == null) {
+                return fields;
+            }
+            PdfArray topLevel = acroForm.getAsArray(PdfName.FIELDS);
+            if (topLevel == null) {
+                return fields;
+            }
+            Set<Integer> visited = new HashSet<>();
+            for (int i = 0; i < topLevel.size(); i++) {
+                walk(topLevel.getAsDict(i), topLevel.getAsIndirectObject(i), null, null, visited, fields, 0);
+            }
+        } catch (Exception e) {
+            log.error("Error scanning AcroForm signature fields", e);
+        }
+        return fields;
+    }
+
+    /**
+     * Depth-first walk of a field node. Field type is inheritable, so the nearest /FT
+     * is passed down. Kids without /T are widgets of the current field.
+     * <p>
+     * Nodes are tracked by object number: in partial mode every lookup returns a fresh
+     * dictionary, so a node listed twice (or a cycle) is only recognised by its reference.
+     *
+     * @param nodeRef reference the node was read through, null if it is a direct object
+     */
+    private void walk(PdfDictionary node, PdfIndirectReference nodeRef, String parentName, PdfName inheritedType,
+                      Set<Integer> visited, List<SignatureField> out, int depth) {
+        if (node == null || depth > MAX_FIELD_DEPTH) {
+            return;
+        }
+        if (nodeRef != null && !visited.add(nodeRef.getNumber())) {
+            return;
+        }
+
+        PdfName fieldType = node.getAsName(PdfName.FT);
+        if (fieldType == null) {
+            fieldType = inheritedType;
+        }
+
+        PdfString partial = node.getAsString(PdfName.T);
+        String name = parentName;
+        if (partial != null) {
+            String part = partial.toUnicodeString();
+            name = parentName == null ? part : parentName + "." + part;
+        }
+
+        PdfArray kids = node.getAsArray(PdfName.KIDS);
+        List<PdfDictionary> fieldKids = new ArrayList<>();
+        List<PdfIndirectReference> fieldKidRefs = new ArrayList<>();
+        List<PdfIndirectReference> widgetRefs = new ArrayList<>();
+        List<PdfDictionary> widgets = new ArrayList<>();
+
+        if (kids != null) {
+            for (int i = 0; i < kids.size(); i++) {
+                PdfDictionary kid = kids.getAsDict(i);
+                if (kid == null) continue;
+                if (kid.get(PdfName.T) != null) {
+                    fieldKids.add(kid);
+                    fieldKidRefs.add(kids.getAsIndirectObject(i));
+                } else {
+                    widgets.add(kid);
+                    widgetRefs.add(kids.getAsIndirectObject(i));
+                }
+            }
+        }
+
+        // Non-terminal field: recurse into named children only when they can still be signatures
+        for (int i = 0; i < fieldKids.size(); i++) {
+            walk(fieldKids.get(i), fieldKidRefs.get(i), name, fieldType, visited, out, depth + 1);
+        }
+
+        if (!PdfName.SIG.equals(fieldType) || name == null) {
+            return;
+        }
+        if (!fieldKids.isEmpty() && widgets.isEmpty()) {
+            return; // Intermediate node of a signature subtree
+        }
+
+        // Merged field/widget dictionary
+        if (widgets.isEmpty() && node.get(PdfName.RECT) != null) {
+            widgets.add(node);
+            widgetRefs.add(nodeRef);
+        }
+
+        SignatureField field = new SignatureField(name, node, (PdfDictionary) detach(node.getAsDict(PdfName.V), 0));
+        for (int i = 0; i < widgets.size(); i++) {
+            addWidget(field, widgets.get(i), widgetRefs.get(i));
+        }
+        out.add(field);
+    }
+
+    private void addWidget(SignatureField field, PdfDictionary widget, PdfIndirectReference widgetRef) {
+        int page = resolvePage(widget, widgetRef);
+        PdfArray rectArray = widget.getAsArray(PdfName.RECT);
+        Rectangle rect = null;
+        if (rectArray != null && rectArray.size() == 4) {
+            rect = PdfReader.getNormalizedRectangle(rectArray);
+            if (page > 0) {
+                rect = applyPageRotation(rect, page);
+            }
+        }
+        field.widgets.add(new WidgetPosition(page, rect));
+    }
+
+    /**
+     * Resolves the 1-based page of a widget. /P is optional, so fall back to the
+     * page /Annots arrays (built once, only if needed).
+     */
+    private int resolvePage(PdfDictionary widget, PdfIndirectReference widgetRef) {
+        PdfObject pageObj = widget.get(PdfName.P);
+        if (pageObj instanceof PdfIndirectReference) {
+            Integer page = getPageNumbersByRef().get(((PdfIndirectReference) pageObj).getNumber());
+            if (page != null) {
+                return page;
+            }
+        }
+
+        if (widgetRef != null) {
+            Integer page = getWidgetPagesByRef().get(widgetRef.getNumber());
+            if (page != null) {
+                return page;
+            }
+        }
+        return -1;
+    }
+
+    private Map<Integer, Integer> getPageNumbersByRef() {
+        if (pageNumbersByRef == null) {
+            pageNumbersByRef = new HashMap<>();
+            int pages = reader.getNumberOfPages();
+            for (int i = 1; i <= pages; i++) {
+                PRIndirectReference ref = reader.getPageOrigRef(i);
+                if (ref != null) {
+                    pageNumbersByRef.put(ref.getNumber(), i);
+                }
+            }
+        }
+        return pageNumbersByRef;
+    }
+
+    private Map<Integer, Integer> getWidgetPagesByRef() {
+        if (widgetPagesByRef == null) {
+            widgetPagesByRef = new HashMap<>();
+            int pages = reader.getNumberOfPages();
+            for (int i = 1; i <= pages; i++) {
+                PdfArray annots = reader.getPageN(i).getAsArray(PdfName.ANNOTS);
+                if (annots == null) continue;
+                for (int k = 0; k < annots.size(); k++) {
+                    PdfIndirectReference ref = annots.getAsIndirectObject(k);
+                    if (ref != null) {
+                        widgetPagesByRef.put(ref.getNumber(), i);
+                    }
+                }
+            }
+        }
+        return widgetPagesByRef;
+    }
+
+    /**
+     * Copy of an object with indirect references resolved, down to {@link #MAX_DETACH_DEPTH}
+     * levels. /Data (the document catalog a DocMDP reference points at) and streams are kept as
+     * they are; nothing reads them from the signature dictionary.
+     */
+    private static PdfObject detach(PdfObject object, int depth) {
+        PdfObject direct = PdfReader.getPdfObject(object);
+        if (direct == null || depth >= MAX_DETACH_DEPTH) {
+            return direct;
+        }
+        if (direct.isDictionary()) {
+            PdfDictionary source = (PdfDictionary) direct;
+            PdfDictionary copy = new PdfDictionary();
+            for (PdfName key : source.getKeys()) {
+                PdfObject value = source.get(key);
+                copy.put(key, PdfName.DATA.equals(key) ? value : detach(value, depth + 1));
+            }
+            return copy;
+        }
+        if (direct.isArray()) {
+            PdfArray source = (PdfArray) direct;
+            PdfArray copy = new PdfArray();
+            for (int i = 0; i < source.size(); i++) {
+                copy.add(detach(source.getPdfObject(i), depth + 1));
+            }
+            return copy;
+        }
+        return direct;
+    }
+
+    /**
+     * Same rotation handling as {@code AcroFields.getFieldPositions}.
+     */
+    private Rectangle applyPageRotation(Rectangle r, int page) {
+        int rotation = reader.getPageRotation(page);
+        if (rotation == 0) {
+            return r;
+        }
+        Rectangle pageSize = reader.getPageSize(page);
+        switch (rotation) {
+            case 270:
+                r = new Rectangle(pageSize.getTop() - r.getBottom(), r.getLeft(),
+                        pageSize.getTop() - r.getTop(), r.getRight());
+                break;
+            case 180:
+                r = new Rectangle(pageSize.getRight() - r.getLeft(), pageSize.getTop() - r.getBottom(),
+                        pageSize.getRight() - r.getRight(), pageSize.getTop() - r.getTop());
+                break;
+            case 90:
+                r = new Rectangle(r.getBottom(), pageSize.getRight() - r.getLeft(),
+                        r.getTop(), pageSize.getRight() - r.getRight());
+                break;
+            default:
+                return r;
+        }
+        r.normalize();
+        return r;
+    }
+
+    /**
+     * Page placement of one widget annotation of a signature field.
+     */
+    public static class WidgetPosition {
+        private final int page;          // 1-based, -1 if not placed on any page
+        private final Rectangle position; // null if the widget has no /Rect
+
+        WidgetPosition(int page, Rectangle position) {
+            this.page = page;
+            this.position = position;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public Rectangle getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * A /FT /Sig field with its widgets and (for signed fields) its signature dictionary.
+     */
+    public static class SignatureField {
+        private final String name;
+        private final PdfDictionary fieldDictionary;
+        private final PdfDictionary signatureDictionary;
+        private final List<WidgetPosition> widgets = new ArrayList<>();
+
+        // Filled in for signed fields by ScanResult
+        private long[] byteRange;
+        private int revision;
+
+        SignatureField(String name, PdfDictionary fieldDictionary, PdfDictionary signatureDictionary) {
+            this.name = name;
+            this.fieldDictionary = fieldDictionary;
+            this.signatureDictionary = signatureDictionary;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public PdfDictionary getFieldDictionary() {
+            return fieldDictionary;
+        }
+
+        public List<WidgetPosition> getWidgets() {
+            return widgets;
+        }
+
+        /**
+         * Returns the first widget placed on a page with a rectangle, or null.
+         */
+        public WidgetPosition getFirstPlacedWidget() {
+            for (WidgetPosition widget : widgets) {
+                if (widget.page > 0 && widget.position != null) {
+                    return widget;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the /V signature dictionary, or null for blank fields. It is a copy resolved
+         * during the scan, so reading it does not touch the reader.
+         */
+        public PdfDictionary getSignatureDictionary() {
+            return signatureDictionary;
+        }
+
+        /**
+         * True when /V holds a signature dictionary with /Contents and /ByteRange.
+         */
+        public boolean isSigned() {
+            return byteRange != null;
+        }
+
+        public boolean isBlank() {
+            return fieldDictionary.get(PdfName.V) == null;
+        }
+
+        public long[] getByteRange() {
+            return byteRange;
+        }
+
+        /**
+         * 1-based revision this signature belongs to (0 for blank fields).
+         */
+        public int getRevision() {
+            return revision;
+        }
+
+        /**
+         * Number of bytes covered by the signature (end of the last ByteRange segment).
+         */
+        public long getCoveredLength() {
+            if (byteRange == null || byteRange.length < 2) {
+                return 0;
+            }
+            return byteRange[byteRange.length - 1] + byteRange[byteRange.length - 2];
+        }
+    }
+
+    /**
+     * Result of a scan: blank fields in document order, signed fields in revision order.
+     */
+    public static class ScanResult {
+        private final PdfReader reader;
+        private final List<SignatureField> allFields;
+        private final List<SignatureField> blankFields = new ArrayList<>();
+        private final List<SignatureField> signedFields = new ArrayList<>();
+        private final Map<String, SignatureField> fieldsByName = new HashMap<>();
+        private int totalRevisions;
+        // Number of times signed byte ranges were read and hashed (checked by the tests)
+        private final AtomicInteger digestPasses = new AtomicInteger();
+
+        ScanResult(PdfReader reader, List<SignatureField> fields) {
+            this.reader = reader;
+            this.allFields = fields;
+
+            for (SignatureField field : fields) {
+                fieldsByName.put(field.name, field);
+                if (field.isBlank()) {
+                    blankFields.add(field);
+                    continue;
+                }
+                PdfDictionary v = field.getSignatureDictionary();
+                if (v == null || v.getAsString(PdfName.CONTENTS) == null) continue;
+                PdfArray range = v.getAsArray(PdfName.BYTERANGE);
+                if (range == null || range.size() < 2) continue;
+                field.byteRange = range.asLongArray();
+                signedFields.add(field);
+            }
+
+            // Revision order = order of covered length, as AcroFields.getSignatureNames()
+            Collections.sort(signedFields, (a, b) -> Long.compare(a.getCoveredLength(), b.getCoveredLength()));
+            for (int i = 0; i < signedFields.size(); i++) {
+                signedFields.get(i).revision = i + 1;
+            }
+            if (!signedFields.isEmpty()) {
+                long last = signedFields.get(signedFields.size() - 1).getCoveredLength();
+                totalRevisions = last == getFileLength() ? signedFields.size() : signedFields.size() + 1;
+            }
+        }
+
+        public List<SignatureField> getAllFields() {
+            return allFields;
+        }
+
+        public List<SignatureField> getBlankFields() {
+            return blankFields;
+        }
+
+        public List<SignatureField> getSignedFields() {
+            return signedFields;
+        }
+
+        public boolean hasSignatures() {
+            return !signedFields.isEmpty();
+        }
+
+        public SignatureField getField(String name) {
+            return fieldsByName.get(name);
+        }
+
+        public int getTotalRevisions() {
+            return totalRevisions;
+        }
+
+        /**
+         * Equivalent of {@code AcroFields.signatureCoversWholeDocument}.
+         */
+        public boolean coversWholeDocument(SignatureField field) {
+            return field.isSigned() && field.getCoveredLength() == getFileLength();
+        }
+
+        private long getFileLength() {
+            return reader != null ? reader.getFileLength() : -1;
+        }
+
+        /**
+         * Structural /ByteRange check, done before any cryptography.
+         * <p>
+         * Verifies that the ranges start at 0, are ordered and stay within the file, and that the
+         * single gap is exactly one hex string ({@code <...>}, hex digits and whitespace only), as
+         * the /Contents value must be. A failure means the signed bytes cannot be what the signer
+         * hashed (tampered or truncated file).
+         *
+         * @return null if the structure is sound, otherwise a description of the problem
+         */
+        public String checkByteRange(SignatureField field) {
+            long[] br = field.byteRange;
+            if (br == null || br.length != 4) {
+                return "Signature byte range is malformed";
+            }
+            long fileLength = getFileLength();
+            if (br[0] != 0) {
+                return "Signature byte range does not start at the beginning of the file";
+            }
+            if (br[1] <= 0 || br[2] <= br[1] || br[3] < 0) {
+                return "Signature byte range is malformed";
+            }
+            if (fileLength >= 0 && br[2] + br[3] > fileLength) {
+                return "Signature byte range extends beyond the end of the file (file truncated)";
+            }
+
+            PdfDictionary v = field.getSignatureDictionary();
+            if (v == null || v.getAsString(PdfName.CONTENTS) == null) {
+                return "Signature contents are missing (malformed signature structure)";
+            }
+            if (br[2] - br[1] < 2) {
+                return "Signature byte range gap does not match the signature contents";
+            }
+
+            RandomAccessSource source = null;
+            try {
+                source = reader.getSafeFile().createSourceView();
+                if (source.get(br[1]) != '<' || source.get(br[2] - 1) != '>' || !isHexGap(source, br[1] + 1, br[2] - 1)) {
+                    return "Signature byte range gap does not match the signature contents";
+                }
+            } catch (Exception e) {
+                log.debug("Could not read signature contents", e);
+                return "Signature byte range could not be read";
+            } finally {
+                if (source != null) {
+                    try {
+                        source.close();
+                    } catch (Exception ignored) {
+                        // View over shared file, nothing to release
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * True if the bytes in [start, end) are hex digits and whitespace only (the writer may
+         * break the string into lines or leave an odd trailing digit).
+         */
+        private static boolean isHexGap(RandomAccessSource source, long start, long end) throws IOException {
+            byte[] buf = new byte[8192];
+            for (long position = start; position < end; ) {
+                int read = source.get(position, buf, 0, (int) Math.min(buf.length, end - position));
+                if (read <= 0) {
+                    return false;
+                }
+                for (int i = 0; i < read; i++) {
+                    int c = buf[i] & 0xff;
+                    boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+                    if (!hex && !PRTokeniser.isWhitespace(c)) {
+                        return false;
+                    }
+                }
+                position += read;
+            }
+            return true;
+        }
+
+        /**
+         * Equivalent of {@code AcroFields.verifySignature(name)}: parses the CMS container and
+         * feeds the signed byte ranges into the digest. Does not build the AcroFields model.
+         */
+        public PdfPKCS7 verifySignature(SignatureField field) throws Exception {
+            PdfDictionary v = field.getSignatureDictionary();
+            if (v == null || !field.isSigned()) {
+                return null;
+            }
+            PdfName subFilter = v.getAsName(PdfName.SUBFILTER);
+            PdfString contents = v.getAsString(PdfName.CONTENTS);
+            PdfPKCS7 pkcs7;
+            if (PdfName.ADBE_X509_RSA_SHA1.equals(subFilter)) {
+                PdfString cert = v.getAsString(PdfName.CERT);
+                if (cert == null) {
+                    cert = v.getAsArray(PdfName.CERT).getAsString(0);
+                }
+                pkcs7 = new PdfPKCS7(contents.getOriginalBytes(), cert.getBytes(), null);
+            } else {
+                pkcs7 = new PdfPKCS7(contents.getOriginalBytes(), subFilter, null);
+            }
+
+            updateByteRange(pkcs7, field.byteRange);
+
+            PdfString str = v.getAsString(PdfName.M);
+            if (str != null) {
+                pkcs7.setSignDate(PdfDate.decode(str.toString()));
+            }
+            PdfObject nameObj = PdfReader.getPdfObject(v.get(PdfName.NAME));
+            if (nameObj != null) {
+                if (nameObj.isString()) {
+                    pkcs7.setSignName(((PdfString) nameObj).toUnicodeString());
+                } else if (nameObj.isName()) {
+                    pkcs7.setSignName(PdfName.decodeName(nameObj.toString()));
+                }
+            }
+            str = v.getAsString(PdfName.REASON);
+            if (str != null) {
+                pkcs7.setReason(str.toUnicodeString());
+            }
+            str = v.getAsString(PdfName.LOCATION);
+            if (str != null) {
+                pkcs7.setLocation(str.toUnicodeString());
+            }
+            return pkcs7;
+        }
+
+        /**
+         * Number of byte-range digest passes performed through {@link #verifySignature} since the
+         * scan. Each signature should need exactly one per verification run.
+         */
+        public int getDigestPassCount() {
+            return digestPasses.get();
+        }
+
+        private void updateByteRange(PdfPKCS7 pkcs7, long[] byteRange) throws Exception {
+            digestPasses.incrementAndGet();
+            RandomAccessFileOrArray rf = reader.getSafeFile();
+            InputStream rg = null;
+            try {
+                rg = new RASInputStream(new RandomAccessSourceFactory().createRanged(rf.createSourceView(), byteRange));
+                byte[] buf = new byte[8192];
+                int rd;
+                while ((rd = rg.read(buf, 0, buf.length)) > 0) {
+                    pkcs7.update(buf, 0, rd);
+                }
+            } finally {
+                if (rg != null) {
+                    try {
+                        rg.close();
+                    } catch (Exception e) {
+                        log.debug("Error closing byte range stream", e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.trexolab.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Finds blank space on a page for a new signature, so a signature can be placed without a
+ * mouse drag.
+ * <p>
+ * The page is rendered as a {@link #SCAN_DPI} grayscale raster (one pixel is three points), except
+ * for text: glyphs are not drawn, their boxes are collected and marked as ink directly, rounded
+ * outwards. That is all blank-space detection needs and keeps text-heavy pages about as cheap as
+ * empty ones, since filling glyph outlines is most of the cost of rendering text. Annotations are not
+ * rendered; their rectangles are marked as ink instead, which also covers empty fields that draw
+ * nothing. A summed-area table of the ink pixels then gives the ink in any rectangle with four
+ * lookups, so every position of the signature on the page is tested in well under a
+ * millisecond; rendering is most of the cost. Among the blank positions the one nearest the
+ * requested {@link Anchor} corner wins. If the full size fits nowhere, smaller sizes with the
+ * same aspect ratio are tried down to 70%.
+ * <p>
+ * Results use the same convention as a drawn selection ({@code SelectionUtils}): points from
+ * the bottom-left of the displayed page, as {llx, lly, urx, ury} for
+ * {@link com.trexolab.core.signer.AppearanceOptions#setCoordinates(int[])}.
+ * Not thread-safe; use one instance per thread.
+ */
+public class SignaturePlacementFinder {
+
+    private static final Log log = LogFactory.getLog(SignaturePlacementFinder.class);
+
+    static final float SCAN_DPI = 24f;
+    // Gray levels below this are ink; anti-aliased edges of thin lines and small text stay well below
+    private static final int INK_THRESHOLD = 245;
+    // Clearance between the signature and any ink, and between the signature and the page edge
+    private static final float CLEARANCE_PT = 6f;
+    private static final float PAGE_MARGIN_PT = 24f;
+    // Sizes tried when the full size fits nowhere; the aspect ratio is kept
+    private static final float[] SCALES = {1f, 0.85f, 0.7f};
+
+    /**
+     * Corner of the page the signature should be as close to as possible.
+     */
+    public enum Anchor {
+        BOTTOM_RIGHT, BOTTOM_LEFT, TOP_RIGHT, TOP_LEFT
+    }
+
+    private final PDDocument document;
+    private final ScanRenderer renderer;
+
+    public SignaturePlacementFinder(PDDocument document) {
+        this.document = document;
+        this.renderer = new ScanRenderer(document);
+    }
+
+    /**
+     * Finds a blank area for a signature of the given size (points) on a page.
+     *
+     * @param pageIndex 0-based page
+     * @return {llx, lly, urx, ury} in points from the bottom-left of the displayed page, or null
+     * if the page has no blank area of at least 70% of the size
+     */
+    public int[] findPlacement(int pageIndex, float width, float height, Anchor anchor) throws IOException {
+        renderer.glyphBoxCount = 0;
+        BufferedImage raster = renderer.renderImageWithDPI(pageIndex, SCAN_DPI, ImageType.GRAY);
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        boolean[] ink = inkMask(raster);
+        markGlyphBoxes(renderer, ink, w, h);
+        markAnnotations(document.getPage(pageIndex), ink, w, h);
+        int[] sums = summedAreaTable(ink, w, h);
+
+        float pxPerPt = SCAN_DPI / 72f;
+        int clearance = (int) Math.ceil(CLEARANCE_PT * pxPerPt);
+        int margin = (int) Math.ceil(PAGE_MARGIN_PT * pxPerPt);
+        for (float scale : SCALES) {
+            int rw = (int) Math.ceil(width * scale * pxPerPt);
+            int rh = (int) Math.ceil(height * scale * pxPerPt);
+            Rectangle area = findBlankArea(sums, w, h, rw, rh, clearance, margin, anchor);
+            if (area != null) {
+                // Back to points, measured from the bottom-left like a drawn selection
+                int llx = Math.round(area.x / pxPerPt);
+                int ury = Math.round((h - area.y) / pxPerPt);
+                int urx = llx + Math.round(width * scale);
+                int lly = ury - Math.round(height * scale);
+                return new int[]{llx, lly, urx, ury};
+            }
+        }
+        log.debug("No blank area for a " + width + "x" + height + " pt signature on page " + (pageIndex + 1));
+        return null;
+    }
+
+    /**
+     * The blank position of an rw x rh pixel rectangle closest to the anchor corner, with
+     * {@code clearance} blank pixels around it and at least {@code margin} pixels from the page
+     * edges; null if there is none.
+     */
+    static Rectangle findBlankArea(int[] sums, int w, int h, int rw, int rh, int clearance, int margin,
+                                   Anchor anchor) {
+        int outerW = rw + 2 * clearance;
+        int outerH = rh + 2 * clearance;
+        int minX = Math.max(0, margin - clearance);
+        int minY = Math.max(0, margin - clearance);
+        int maxX = w - Math.max(0, margin - clearance) - outerW;
+        int maxY = h - Math.max(0, margin - clearance) - outerH;
+        if (maxX < minX || maxY < minY) return null;
+
+        boolean right = anchor == Anchor.BOTTOM_RIGHT || anchor == Anchor.TOP_RIGHT;
+        boolean bottom = anchor == Anchor.BOTTOM_RIGHT || anchor == Anchor.BOTTOM_LEFT;
+        int cornerX = right ? maxX : minX;
+        int cornerY = bottom ? maxY : minY;
+
+        int stride = w + 1;
+        long bestDistance = Long.MAX_VALUE;
+        int bestX = -1;
+        int bestY = -1;
+        for (int y = minY; y <= maxY; y++) {
+            long dy = y - cornerY;
+            if (dy * dy >= bestDistance) continue; // every x on this row is further away
+            int top = y * stride;
+            int bottomRow = (y + outerH) * stride;
+            for (int x = minX; x <= maxX; x++) {
+                int inkCount = sums[bottomRow + x + outerW] - sums[top + x + outerW] - sums[bottomRow + x] + sums[top + x];
+                if (inkCount != 0) continue;
+                long dx = x - cornerX;
+                long distance = dx * dx + dy * dy;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+        }
+        return bestX < 0 ? null : new Rectangle(bestX + clearance, bestY + clearance, rw, rh);
+    }
+
+    private static boolean[] inkMask(BufferedImage raster) {
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        boolean[] ink = new boolean[w * h];
+        if (raster.getType() == BufferedImage.TYPE_BYTE_GRAY
+                && raster.getRaster().getDataBuffer() instanceof DataBufferByte
+                && raster.getRaster().getDataBuffer().getSize() == w * h) {
+            byte[] gray = ((DataBufferByte) raster.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < gray.length; i++) {
+                ink[i] = (gray[i] & 0xff) < INK_THRESHOLD;
+            }
+        } else {
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    ink[y * w + x] = (raster.getRGB(x, y) & 0xff) < INK_THRESHOLD;
+                }
+            }
+        }
+        return ink;
+    }
+
+    private static void markGlyphBoxes(ScanRenderer renderer, boolean[] ink, int w, int h) {
+        float[] boxes = renderer.glyphBoxes;
+        for (int i = 0; i < renderer.glyphBoxCount * 4; i += 4) {
+            fill(ink, w, h, (int) Math.floor(boxes[i]), (int) Math.floor(boxes[i + 1]),
+                    (int) Math.ceil(boxes[i + 2]), (int) Math.ceil(boxes[i + 3]));
+        }
+    }
+
+    /**
+     * Marks the rectangles of the page's annotations (fields, links, stamps) as ink, mapped to
+     * the raster the way {@link PDFRenderer} maps the page: crop box origin, rotation, y down.
+     */
+    private static void markAnnotations(PDPage page, boolean[] ink, int w, int h) throws IOException {
+        PDRectangle cropBox = page.getCropBox();
+        float scale = SCAN_DPI / 72f;
+        AffineTransform toRaster = AffineTransform.getScaleInstance(scale, scale);
+        int rotation = ((page.getRotation() % 360) + 360) % 360;
+        if (rotation == 90) {
+            toRaster.translate(cropBox.getHeight(), 0);
+        } else if (rotation == 180) {
+            toRaster.translate(cropBox.getWidth(), cropBox.getHeight());
+        } else if (rotation == 270) {
+            toRaster.translate(0, cropBox.getWidth());
+        }
+        toRaster.rotate(Math.toRadians(rotation));
+        toRaster.translate(0, cropBox.getHeight());
+        toRaster.scale(1, -1);
+        toRaster.translate(-cropBox.getLowerLeftX(), -cropBox.getLowerLeftY());
+
+        for (PDAnnotation annotation : page.getAnnotations()) {
+            PDRectangle rect = annotation.getRectangle();
+            if (rect == null || annotation.isHidden() || annotation.isNoView()) continue;
+            Rectangle bounds = toRaster.createTransformedShape(new Rectangle2D.Float(
+                    rect.getLowerLeftX(), rect.getLowerLeftY(), rect.getWidth(), rect.getHeight())).getBounds();
+            fill(ink, w, h, bounds.x, bounds.y, bounds.x + bounds.width + 1, bounds.y + bounds.height + 1);
+        }
+    }
+
+    /**
+     * Marks the pixels from (x0, y0) inclusive to (x1, y1) exclusive as ink, clipped to the raster.
+     */
+    private static void fill(boolean[] ink, int w, int h, int x0, int y0, int x1, int y1) {
+        x0 = Math.max(0, x0);
+        y0 = Math.max(0, y0);
+        x1 = Math.min(w, x1);
+        y1 = Math.min(h, y1);
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(ink, y * w + x0, Math.max(y * w + x0, y * w + x1), true);
+        }
+    }
+
+    /**
+     * Renderer for the ink scan: collects glyph boxes (raster pixels, as minX, minY, maxX, maxY)
+     * instead of drawing glyphs, skips annotations and uses speed hints.
+     */
+    private static final class ScanRenderer extends PDFRenderer {
+        // Glyph box in text space: from the descender to about the cap height, one advance wide
+        private static final float GLYPH_BOTTOM = -0.2f;
+        private static final float GLYPH_TOP = 0.8f;
+
+        float[] glyphBoxes = new float[4096];
+        int glyphBoxCount;
+
+        ScanRenderer(PDDocument document) {
+            super(document);
+            setSubsamplingAllowed(true);
+            setAnnotationsFilter(annotation -> false);
+            RenderingHints hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+            hints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            setRenderingHints(hints);
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            return new PageDrawer(parameters) {
+                @Override
+                protected void showFontGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement)
+                        throws IOException {
+                    if (" ".equals(font.toUnicode(code))) return;
+                    addGlyphBox(textRenderingMatrix, displacement);
+                }
+
+                @Override
+                protected void showType3Glyph(Matrix textRenderingMatrix, PDType3Font font, int code, Vector displacement)
+                        throws IOException {
+                    addGlyphBox(textRenderingMatrix, displacement);
+                }
+
+                /**
+                 * Records the glyph's box in raster pixels; the clip is ignored, which only errs
+                 * towards less blank space.
+                 */
+                private void addGlyphBox(Matrix textRenderingMatrix, Vector displacement) {
+                    RenderingMode mode = getGraphicsState().getTextState().getRenderingMode();
+                    if (!mode.isFill() && !mode.isStroke()) return; // invisible text, e.g. OCR layers
+                    float advance = displacement.getX() != 0 ? displacement.getX() : 1f; // vertical fonts: one em
+                    AffineTransform toRaster = getGraphics().getTransform();
+                    toRaster.concatenate(textRenderingMatrix.createAffineTransform());
+                    Rectangle2D box = toRaster.createTransformedShape(
+                            new Rectangle2D.Float(0, GLYPH_BOTTOM, advance, GLYPH_TOP - GLYPH_BOTTOM)).getBounds2D();
+                    int at = glyphBoxCount * 4;
+                    if (at + 4 > glyphBoxes.length) {
+                        glyphBoxes = Arrays.copyOf(glyphBoxes, glyphBoxes.length * 2);
+                    }
+                    glyphBoxes[at] = (float) box.getMinX();
+                    glyphBoxes[at + 1] = (float) box.getMinY();
+                    glyphBoxes[at + 2] = (float) box.getMaxX();
+                    glyphBoxes[at + 3] = (float) box.getMaxY();
+                    glyphBoxCount++;
+                }
+            };
+        }
+    }
+
+    /**
+     * sums[(y) * (w + 1) + x] is the number of ink pixels above and left of (x, y).
+     */
+    static int[] summedAreaTable(boolean[] ink, int w, int h) {
+        int stride = w + 1;
+        int[] sums = new int[stride * (h + 1)];
+        for (int y = 0; y < h; y++) {
+            int rowSum = 0;
+            int above = y * stride;
+            int row = above + stride;
+            for (int x = 0; x < w; x++) {
+                if (ink[y * w + x]) rowSum++;
+                sums[row + x + 1] = sums[above + x + 1] + rowSum;
+            }
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,98 @@
+package com.trexolab.service;
+
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.security.PdfPKCS7;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * Per-signature state shared by all verification steps.
+ * <p>
+ * The CMS container is parsed and the signed byte ranges are digested once, on first use;
+ * {@link #verify()} and document coverage are memoized. Metadata extraction, integrity,
+ * signature validity and timestamp checks all read from here instead of re-parsing.
+ */
+class SignatureVerificationContext {
+
+    private final SignatureFieldScanner.ScanResult scan;
+    private final SignatureFieldScanner.SignatureField field;
+    private final boolean coversWholeDocument;
+
+    private PdfPKCS7 pkcs7;
+    private Exception parseError;
+    private boolean parsed;
+
+    private Boolean verifyResult;
+    private GeneralSecurityException verifyError;
+
+    SignatureVerificationContext(SignatureFieldScanner.ScanResult scan, SignatureFieldScanner.SignatureField field) {
+        this.scan = scan;
+        this.field = field;
+        this.coversWholeDocument = scan.coversWholeDocument(field);
+    }
+
+    String getName() {
+        return field.getName();
+    }
+
+    SignatureFieldScanner.SignatureField getField() {
+        return field;
+    }
+
+    PdfDictionary getSignatureDictionary() {
+        return field.getSignatureDictionary();
+    }
+
+    int getRevision() {
+        return field.getRevision();
+    }
+
+    int getTotalRevisions() {
+        return scan.getTotalRevisions();
+    }
+
+    boolean coversWholeDocument() {
+        return coversWholeDocument;
+    }
+
+    /**
+     * Parses the CMS container and digests the signed ranges on first call.
+     * A parse failure is remembered and rethrown on every call.
+     *
+     * @return the PKCS#7 object, or null if the field has no signature value
+     */
+    PdfPKCS7 getPkcs7() throws Exception {
+        if (!parsed) {
+            parsed = true;
+            try {
+                pkcs7 = scan.verifySignature(field);
+            } catch (Exception e) {
+                parseError = e;
+            }
+        }
+        if (parseError != null) {
+            throw parseError;
+        }
+        return pkcs7;
+    }
+
+    /**
+     * Memoized {@link PdfPKCS7#verify()}: the digest comparison and signature check run once.
+     */
+    boolean verify() throws GeneralSecurityException {
+        if (verifyResult == null && verifyError == null) {
+            try {
+                PdfPKCS7 p = getPkcs7();
+                verifyResult = p != null && p.verify();
+            } catch (GeneralSecurityException e) {
+                verifyError = e;
+            } catch (Exception e) {
+                verifyError = new GeneralSecurityException(e.getMessage(), e);
+            }
+        }
+        if (verifyError != null) {
+            throw verifyError;
+        }
+        return verifyResult;
+    }
+}
@@ -1,6 +1,5 @@
 package com.trexolab.service;
 
-import com.itextpdf.text.pdf.AcroFields;
 import com.itextpdf.text.pdf.PdfReader;
 import com.itextpdf.text.pdf.security.PdfPKCS7;
 import org.apache.commons.logging.Log;
@@ -8,6 +7,7 @@ import org.apache.commons.logging.LogFactory;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.io.File;
+import java.io.IOException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.Security;
 import java.security.cert.*;
@@ -36,9 +36,14 @@ public class SignatureVerificationService {
 
     private final TrustStoreManager trustStoreManager;
     private VerificationProgressListener progressListener;
+    private SigningDecisionListener signingDecisionListener;
     // Revocation status cache for current verification session
     // Prevents redundant OCSP/CRL checks for same certificate across multiple signatures
     private Map<String, RevocationCacheEntry> revocationCache;
+    // Live (network) revocation checks deferred from the offline pass, run by completeOnlineRevocationChecks()
+    private final List<PendingRevocationCheck> pendingRevocationChecks = new ArrayList<>();
+    // Incremented per verification session so stale online checks stop early
+    private final java.util.concurrent.atomic.AtomicInteger session = new java.util.concurrent.atomic.AtomicInteger();
 
     public SignatureVerificationService() {
         this.trustStoreManager = TrustStoreManager.getInstance();
@@ -53,6 +58,13 @@ public class SignatureVerificationService {
         this.progressListener = listener;
     }
 
+    /**
+     * Sets the listener told whether the document accepts more signatures, before full verification.
+     */
+    public void setSigningDecisionListener(SigningDecisionListener listener) {
+        this.signingDecisionListener = listener;
+    }
+
     /**
      * Notifies progress listener with a message (thread-safe).
      */
@@ -68,11 +80,16 @@ public class SignatureVerificationService {
      * Clears revocation cache and removes progress listener.
      */
     public void reset() {
+        session.incrementAndGet();
+        synchronized (pendingRevocationChecks) {
+            pendingRevocationChecks.clear();
+        }
         if (revocationCache != null) {
             revocationCache.clear();
             log.debug("Cleared revocation cache");
         }
         progressListener = null;
+        signingDecisionListener = null;
         log.debug("Reset verification service state");
     }
     /**
@@ -83,51 +100,58 @@ public class SignatureVerificationService {
      * @return List of verification results for all signatures
      */
     public List<SignatureVerificationResult> verifySignatures(File pdfFile, String pdfPassword) {
-        List<SignatureVerificationResult> results = new ArrayList<>();
-
         if (pdfFile == null || !pdfFile.exists()) {
             log.error("PDF file does not exist: " + pdfFile);
-            return results;
+            return new ArrayList<>();
+        }
+
+        DocumentSession documentSession;
+        try {
+            documentSession = DocumentSession.open(pdfFile, pdfPassword);
+        } catch (IOException e) {
+            log.error("Error reading PDF file", e);
+            return new ArrayList<>();
         }
+        try {
+            return verifySignatures(documentSession);
+        } finally {
+            documentSession.close();
+        }
+    }
+
+    /**
+     * Verifies all signatures of an open document, reusing its parsed reader and signature index.
+     *
+     * @param documentSession Open document (not closed by this method)
+     * @return List of verification results for all signatures
+     */
+    public List<SignatureVerificationResult> verifySignatures(DocumentSession documentSession) {
+        List<SignatureVerificationResult> results = new ArrayList<>();
 
         // Initialize revocation cache for this verification session
         // This prevents redundant OCSP/CRL checks for same certificate across multiple signatures
-        revocationCache = new HashMap<>();
+        revocationCache = new java.util.concurrent.ConcurrentHashMap<>();
+        session.incrementAndGet();
+        synchronized (pendingRevocationChecks) {
+            pendingRevocationChecks.clear();
+        }
         log.info("Initialized revocation status cache for verification session");
 
-        PdfReader reader = null;
         try {
-            // Open PDF with password if provided
-            if (pdfPassword != null && !pdfPassword.isEmpty()) {
-                reader = new PdfReader(pdfFile.getAbsolutePath(), pdfPassword.getBytes());
-            } else {
-                reader = new PdfReader(pdfFile.getAbsolutePath());
-            }
-
-            AcroFields acroFields = reader.getAcroFields();
-            if (acroFields == null) {
-                log.info("No AcroForm fields found in PDF");
-                return results;
-            }
-
-            // Get all signature fields
-            List<String> signatureNames = acroFields.getSignatureNames();
-            if (signatureNames.isEmpty()) {
+            // Only /Sig fields are needed - the index is shared with field detection
+            SignatureFieldScanner.ScanResult scan = documentSession.getSignatureIndex();
+            if (!scan.hasSignatures()) {
                 log.info("No signatures found in PDF");
                 return results;
             }
-            results.addAll(verifySignaturesSequential(reader, acroFields, signatureNames));
+
+            // "Can I sign?" depends only on the last signature's DocMDP entry - publish it first
+            publishSigningDecision(scan);
+
+            results.addAll(verifySignaturesSequential(documentSession, scan));
 
         } catch (Exception e) {
             log.error("Error reading PDF file", e);
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (Exception e) {
-                    log.error("Error closing PDF reader", e);
-                }
-            }
         }
 
         // Apply PDF viewer certification rules before returning
@@ -137,30 +161,92 @@ public class SignatureVerificationService {
     }
 
     /**
-     * Verifies signatures sequentially (one-by-one).
-     * Used for single signature documents or when parallel verification is disabled.
+     * Determines from the last (most recent) signature dictionary whether more signatures may be
+     * added, and notifies the listener. No cryptography is involved, so this is immediate even for
+     * documents with many signatures.
+     */
+    private void publishSigningDecision(SignatureFieldScanner.ScanResult scan) {
+        SigningDecisionListener listener = signingDecisionListener;
+        if (listener == null) {
+            return;
+        }
+        List<SignatureFieldScanner.SignatureField> signatures = scan.getSignedFields();
+        com.itextpdf.text.pdf.PdfDictionary lastSigDict = signatures.get(signatures.size() - 1).getSignatureDictionary();
+        com.trexolab.model.CertificationLevel lastCertLevel = isCertificationSignature(lastSigDict)
+                ? com.trexolab.model.CertificationLevel.fromPValue(getCertificationLevel(lastSigDict))
+                : com.trexolab.model.CertificationLevel.NOT_CERTIFIED;
+        log.info("Signing decision from last signature: " + lastCertLevel.getLabel());
+        listener.onSigningDecision(lastCertLevel);
+    }
+
+    /**
+     * Returns true if the last {@link #verifySignatures} call left live revocation checks to do.
+     */
+    public boolean hasPendingOnlineChecks() {
+        synchronized (pendingRevocationChecks) {
+            return !pendingRevocationChecks.isEmpty();
+        }
+    }
+
+    /**
+     * Tier 2 of verification: performs the live OCSP checks that {@link #verifySignatures} deferred,
+     * updating each result's revocation status in place. Intended for a background thread; the
+     * listener is called after every updated result. Stops early if a new session has started.
+     *
+     * @param listener Notified with each upgraded result (can be null)
+     */
+    public void completeOnlineRevocationChecks(RevocationUpdateListener listener) {
+        int mySession = session.get();
+        List<PendingRevocationCheck> checks;
+        synchronized (pendingRevocationChecks) {
+            checks = new ArrayList<>(pendingRevocationChecks);
+            pendingRevocationChecks.clear();
+        }
+        if (checks.isEmpty()) {
+            return;
+        }
+        log.info("Starting online revocation checks for " + checks.size() + " signature(s)");
+
+        for (PendingRevocationCheck check : checks) {
+            if (session.get() != mySession) {
+                log.info("Verification session changed - abandoning online revocation checks");
+                return;
+            }
+            checkRevocationStatusOnline(check.cert, check.pkcs7, check.result, check.signDate);
+            if (listener != null && session.get() == mySession) {
+                listener.onRevocationUpdated(check.result);
+            }
+        }
+    }
+
+    /**
+     * Verifies signatures one-by-one. The last signature is verified first (it decides the
+     * document's current state); older signatures follow. Results are in revision order.
      */
     private List<SignatureVerificationResult> verifySignaturesSequential(
-            PdfReader reader, AcroFields acroFields, List<String> signatureNames) {
+            DocumentSession documentSession, SignatureFieldScanner.ScanResult scan) {
 
-        List<SignatureVerificationResult> results = new ArrayList<>();
+        List<SignatureFieldScanner.SignatureField> signatures = scan.getSignedFields();
+        SignatureVerificationResult[] results = new SignatureVerificationResult[signatures.size()];
 
-        for (int i = 0; i < signatureNames.size(); i++) {
-            String signatureName = signatureNames.get(i);
+        int last = signatures.size() - 1;
+        for (int step = 0; step < signatures.size(); step++) {
+            int i = step == 0 ? last : step - 1;
+            SignatureFieldScanner.SignatureField signature = signatures.get(i);
+            String signatureName = signature.getName();
             try {
-                notifyProgress("Verifying signature " + (i + 1) + " of " + signatureNames.size() + "...");
-                SignatureVerificationResult result = verifySignature(reader, acroFields, signatureName);
-                results.add(result);
+                notifyProgress("Verifying signature " + (step + 1) + " of " + signatures.size() + "...");
+                results[i] = verifySignature(documentSession, scan, signature);
             } catch (Exception e) {
                 log.error("Error verifying signature: " + signatureName, e);
                 SignatureVerificationResult errorResult = new SignatureVerificationResult(
                         signatureName, "", null, "", "", "");
                 errorResult.addVerificationError("Failed to verify signature: " + e.getMessage());
-                results.add(errorResult);
+                results[i] = errorResult;
             }
         }
 
-        return results;
+        return new ArrayList<>(Arrays.asList(results));
     }
 
     /**
@@ -267,7 +353,20 @@ public class SignatureVerificationService {
     /**
      * Verifies a single signature in the PDF.
      */
-    private SignatureVerificationResult verifySignature(PdfReader reader, AcroFields acroFields, String signatureName) {
+    private SignatureVerificationResult verifySignature(DocumentSession documentSession, SignatureFieldScanner.ScanResult scan,
+                                                        SignatureFieldScanner.SignatureField signature) {
+        String signatureName = signature.getName();
+
+        // 0. STRUCTURAL PRE-CHECK - a broken ByteRange fails before any CMS parsing or network work
+        String byteRangeProblem = scan.checkByteRange(signature);
+        if (byteRangeProblem != null) {
+            log.warn("ByteRange pre-check failed for " + signatureName + ": " + byteRangeProblem);
+            return createStructurallyInvalidResult(scan, signature, byteRangeProblem);
+        }
+
+        // CMS is parsed and the byte ranges digested once; every step below reads from the context
+        SignatureVerificationContext context = new SignatureVerificationContext(scan, signature);
+
         // Extract signature metadata first
         String signerName = "";
         Date signDate = null;
@@ -276,7 +375,7 @@ public class SignatureVerificationService {
         String contactInfo = "";
 
         try {
-            PdfPKCS7 pkcs7Temp = acroFields.verifySignature(signatureName);
+            PdfPKCS7 pkcs7Temp = context.getPkcs7();
             if (pkcs7Temp != null) {
                 // Extract signer name from certificate
                 if (pkcs7Temp.getSigningCertificate() != null) {
@@ -289,7 +388,7 @@ public class SignatureVerificationService {
                 location = pkcs7Temp.getLocation();
                 // Contact info is not directly available in PdfPKCS7, extract from dictionary
                 try {
-                    com.itextpdf.text.pdf.PdfDictionary sigDict = acroFields.getSignatureDictionary(signatureName);
+                    com.itextpdf.text.pdf.PdfDictionary sigDict = signature.getSignatureDictionary();
                     if (sigDict != null) {
                         com.itextpdf.text.pdf.PdfString contactStr = sigDict.getAsString(com.itextpdf.text.pdf.PdfName.CONTACTINFO);
                         if (contactStr != null) {
@@ -308,23 +407,23 @@ public class SignatureVerificationService {
                 signatureName, signerName, signDate, reason, location, contactInfo);
 
         try {
-            // Get signature dictionary
-            PdfPKCS7 pkcs7 = acroFields.verifySignature(signatureName);
+            // Parsed signature (already available from metadata extraction)
+            PdfPKCS7 pkcs7 = context.getPkcs7();
             if (pkcs7 == null) {
                 result.addVerificationError("Unable to extract signature data");
                 return result;
             }
 
             // Get revision information first
-            int revision = acroFields.getRevision(signatureName);
-            int totalRevisions = acroFields.getTotalRevisions();
+            int revision = context.getRevision();
+            int totalRevisions = context.getTotalRevisions();
             result.setRevision(revision);
             result.setTotalRevisions(totalRevisions);
             result.setCoversWholeDocument(revision == totalRevisions);
 
             // 1. DOCUMENT INTEGRITY CHECK (PDF viewer-style)
             notifyProgress("Checking document integrity...");
-            boolean documentIntact = verifyDocumentIntegrity(acroFields, signatureName, revision, totalRevisions, pkcs7);
+            boolean documentIntact = verifyDocumentIntegrity(context);
             result.setDocumentIntact(documentIntact);
 
             if (!documentIntact) {
@@ -336,7 +435,7 @@ public class SignatureVerificationService {
 
             // 2. SIGNATURE VALIDITY CHECK
             notifyProgress("Verifying signature validity...");
-            boolean signatureValid = pkcs7.verify();
+            boolean signatureValid = context.verify();
             result.setSignatureValid(signatureValid);
             if (!signatureValid) {
                 result.addVerificationError("This signature is not valid");
@@ -568,9 +667,14 @@ public class SignatureVerificationService {
                     log.warn("Certificate trust verification: FAILED - " + e.getMessage());
                 }
 
-                // Check certificate revocation status (OCSP) - PDF viewer style
-                notifyProgress("Checking revocation status (OCSP)...");
-                checkRevocationStatus(signerCert, pkcs7, result, signDate);
+                // Check certificate revocation status - embedded data now, live OCSP deferred to tier 2
+                notifyProgress("Checking revocation status...");
+                if (!checkRevocationStatusOffline(signerCert, pkcs7, result, signDate)) {
+                    result.setRevocationStatus(SignatureVerificationResult.REVOCATION_PENDING);
+                    synchronized (pendingRevocationChecks) {
+                        pendingRevocationChecks.add(new PendingRevocationCheck(signerCert, pkcs7, result, signDate));
+                    }
+                }
             } else {
                 result.addVerificationError("No certificate found in signature");
             }
@@ -651,7 +755,7 @@ public class SignatureVerificationService {
 
                 try {
                     // Perform complete timestamp verification
-                    TimestampVerificationResult tsResult = verifyTimestamp(pkcs7, result);
+                    TimestampVerificationResult tsResult = verifyTimestamp(context, result);
 
                     if (tsResult.isValid) {
                         result.setTimestampValid(true);
@@ -685,7 +789,10 @@ public class SignatureVerificationService {
 
             // 8. LTV INFORMATION (PDF viewer-style check)
             // Check if document has DSS (Document Security Store) for LTV
-            boolean hasLTV = checkLTVEnabled(reader, pkcs7);
+            boolean hasLTV;
+            synchronized (documentSession) {  // DSS lookup reads through the shared reader
+                hasLTV = checkLTVEnabled(documentSession.getReader(), pkcs7);
+            }
             result.setHasLTV(hasLTV);
             if (hasLTV) {
                 log.info("LTV: Enabled - Document contains revocation information (CRL/OCSP)");
@@ -696,54 +803,10 @@ public class SignatureVerificationService {
             }
 
             // 9. POSITION INFORMATION (for rectangle overlay)
-            try {
-                List<AcroFields.FieldPosition> positions = acroFields.getFieldPositions(signatureName);
-                if (positions != null && !positions.isEmpty()) {
-                    // Get the first position (signatures typically have one position)
-                    AcroFields.FieldPosition fieldPos = positions.get(0);
-                    result.setPageNumber(fieldPos.page);
-
-                    float left = fieldPos.position.getLeft();
-                    float bottom = fieldPos.position.getBottom();
-                    float right = fieldPos.position.getRight();
-                    float top = fieldPos.position.getTop();
-
-                    result.setPosition(new float[]{left, bottom, right, top});
-
-                    // Detect invisible signature (width or height is zero or very small)
-                    float width = right - left;
-                    float height = top - bottom;
-                    boolean invisible = (width <= 0.1f || height <= 0.1f);
-                    result.setInvisible(invisible);
-
-                    if (invisible) {
-                        log.info("Signature " + signatureName + " is invisible (width=" + width + ", height=" + height + ")");
-                    }
-                } else {
-                    // No position means invisible signature
-                    result.setInvisible(true);
-                    log.info("Signature " + signatureName + " has no position (invisible)");
-                }
-            } catch (Exception e) {
-                log.debug("Could not extract signature position", e);
-            }
+            applySignaturePosition(result, signature);
 
             // 10. CERTIFICATION LEVEL DETECTION (PDF viewer style)
-            log.info("Detecting certification level for signature: " + signatureName);
-            boolean isCert = isCertificationSignature(acroFields, signatureName);
-            result.setCertificationSignature(isCert);
-
-            if (isCert) {
-                int pValue = getCertificationLevel(acroFields, signatureName);
-                com.trexolab.model.CertificationLevel certLevel =
-                        com.trexolab.model.CertificationLevel.fromPValue(pValue);
-                result.setCertificationLevel(certLevel);
-                log.info("[OK] Certification signature detected: " + certLevel.getLabel() +
-                        " (P=" + pValue + ")");
-            } else {
-                result.setCertificationLevel(com.trexolab.model.CertificationLevel.NOT_CERTIFIED);
-                log.info("[OK] Approval signature (NOT_CERTIFIED)");
-            }
+            applyCertificationLevel(result, signature);
 
             log.info("Signature verification completed for: " + signatureName +
                     " - Status: " + result.getOverallStatus() +
@@ -766,6 +829,100 @@ public class SignatureVerificationService {
         return result;
     }
 
+    /**
+     * Creates the result for a signature that failed the ByteRange structural pre-check.
+     * Only dictionary data is used - the CMS container is not parsed and no network checks run.
+     */
+    private SignatureVerificationResult createStructurallyInvalidResult(SignatureFieldScanner.ScanResult scan,
+                                                                        SignatureFieldScanner.SignatureField signature,
+                                                                        String problem) {
+        com.itextpdf.text.pdf.PdfDictionary sigDict = signature.getSignatureDictionary();
+        SignatureVerificationResult result = new SignatureVerificationResult(
+                signature.getName(),
+                getDictionaryText(sigDict, com.itextpdf.text.pdf.PdfName.NAME),
+                null,
+                getDictionaryText(sigDict, com.itextpdf.text.pdf.PdfName.REASON),
+                getDictionaryText(sigDict, com.itextpdf.text.pdf.PdfName.LOCATION),
+                getDictionaryText(sigDict, com.itextpdf.text.pdf.PdfName.CONTACTINFO));
+
+        result.setRevision(signature.getRevision());
+        result.setTotalRevisions(scan.getTotalRevisions());
+        result.setCoversWholeDocument(signature.getRevision() == scan.getTotalRevisions());
+        result.setDocumentIntact(false);
+        result.addVerificationError("Document was changed after signing");
+        result.addVerificationError("Details: " + problem);
+
+        applySignaturePosition(result, signature);
+        applyCertificationLevel(result, signature);
+        return result;
+    }
+
+    private String getDictionaryText(com.itextpdf.text.pdf.PdfDictionary dict, com.itextpdf.text.pdf.PdfName key) {
+        com.itextpdf.text.pdf.PdfString value = dict != null ? dict.getAsString(key) : null;
+        return value != null ? value.toUnicodeString() : "";
+    }
+
+    /**
+     * Copies the signature widget page and rectangle into the result (for rectangle overlay).
+     */
+    private void applySignaturePosition(SignatureVerificationResult result,
+                                        SignatureFieldScanner.SignatureField signature) {
+        String signatureName = signature.getName();
+        try {
+            SignatureFieldScanner.WidgetPosition fieldPos = signature.getFirstPlacedWidget();
+            if (fieldPos != null) {
+                // Use the first placed widget (signatures typically have one position)
+                result.setPageNumber(fieldPos.getPage());
+
+                float left = fieldPos.getPosition().getLeft();
+                float bottom = fieldPos.getPosition().getBottom();
+                float right = fieldPos.getPosition().getRight();
+                float top = fieldPos.getPosition().getTop();
+
+                result.setPosition(new float[]{left, bottom, right, top});
+
+                // Detect invisible signature (width or height is zero or very small)
+                float width = right - left;
+                float height = top - bottom;
+                boolean invisible = (width <= 0.1f || height <= 0.1f);
+                result.setInvisible(invisible);
+
+                if (invisible) {
+                    log.info("Signature " + signatureName + " is invisible (width=" + width + ", height=" + height + ")");
+                }
+            } else {
+                // No position means invisible signature
+                result.setInvisible(true);
+                log.info("Signature " + signatureName + " has no position (invisible)");
+            }
+        } catch (Exception e) {
+            log.debug("Could not extract signature position", e);
+        }
+    }
+
+    /**
+     * Detects whether the signature is a certification (DocMDP) signature and its level.
+     */
+    private void applyCertificationLevel(SignatureVerificationResult result,
+                                         SignatureFieldScanner.SignatureField signature) {
+        String signatureName = signature.getName();
+        log.info("Detecting certification level for signature: " + signatureName);
+        boolean isCert = isCertificationSignature(signature.getSignatureDictionary());
+        result.setCertificationSignature(isCert);
+
+        if (isCert) {
+            int pValue = getCertificationLevel(signature.getSignatureDictionary());
+            com.trexolab.model.CertificationLevel certLevel =
+                    com.trexolab.model.CertificationLevel.fromPValue(pValue);
+            result.setCertificationLevel(certLevel);
+            log.info("[OK] Certification signature detected: " + certLevel.getLabel() +
+                    " (P=" + pValue + ")");
+        } else {
+            result.setCertificationLevel(com.trexolab.model.CertificationLevel.NOT_CERTIFIED);
+            log.info("[OK] Approval signature (NOT_CERTIFIED)");
+        }
+    }
+
     /**
      * Builds a properly ordered certificate chain starting from the signer certificate.
      * This is critical because pkcs7.getCertificates() returns certificates in arbitrary order.
@@ -1329,16 +1486,16 @@ public class SignatureVerificationService {
     }
 
     /**
-     * Checks certificate revocation status using OCSP.
-     * Performs live OCSP check by extracting URL from certificate.
+     * Tier 1 revocation check: session cache, embedded OCSP and embedded CRLs only (no network).
      * CRITICAL FIX: Now checks revocation time vs signing time to properly validate signatures.
      *
      * @param cert     The certificate to check
      * @param pkcs7    The signature PKCS7 data
      * @param result   The verification result to update
      * @param signDate The date when the document was signed (used for revocation time comparison)
+     * @return true if a revocation status was determined, false if a live check is needed
      */
-    private void checkRevocationStatus(X509Certificate cert, PdfPKCS7 pkcs7, SignatureVerificationResult result, Date signDate) {
+    private boolean checkRevocationStatusOffline(X509Certificate cert, PdfPKCS7 pkcs7, SignatureVerificationResult result, Date signDate) {
         try {
             String certSerial = cert.getSerialNumber().toString();
             String certSubject = extractCN(cert.getSubjectDN().toString());
@@ -1361,7 +1518,7 @@ public class SignatureVerificationService {
                 } else {
                     result.addVerificationInfo("Revocation checked via " + cached.source + " (cached)");
                 }
-                return;
+                return true;
             }
 
             // Method 1: Check embedded OCSP response in signature (LTV)
@@ -1380,7 +1537,7 @@ public class SignatureVerificationService {
                             result.setRevocationStatus("Valid (Embedded)");
                             result.setCertificateRevoked(false);
                             result.addVerificationInfo("Revocation checked via embedded OCSP (time not verified)");
-                            return;
+                            return true;
                         }
 
                         org.bouncycastle.ocsp.OCSPResp ocspResp = new org.bouncycastle.ocsp.OCSPResp(ocspBytes);
@@ -1402,7 +1559,7 @@ public class SignatureVerificationService {
                                     revocationCache.put(cacheKey, new RevocationCacheEntry(
                                             "Valid (Embedded OCSP)", false, null, "Embedded OCSP"));
                                     log.info("Cached revocation status: VALID (Embedded OCSP)");
-                                    return;
+                                    return true;
                                 } else if (certStatus instanceof org.bouncycastle.ocsp.RevokedStatus) {
                                     // Revoked - check time
                                     org.bouncycastle.ocsp.RevokedStatus revokedStatus =
@@ -1422,7 +1579,7 @@ public class SignatureVerificationService {
                                             // Cache the result
                                             revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                     "Revoked before signing (Embedded OCSP)", true, revocationTime, "Embedded OCSP"));
-                                            return;
+                                            return true;
                                         } else {
                                             if (result.isTimestampValid()) {
                                                 result.setRevocationStatus("Valid (Revoked after signing, has timestamp)");
@@ -1433,7 +1590,7 @@ public class SignatureVerificationService {
                                                 // Cache the result
                                                 revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                         "Valid (Revoked after signing, has timestamp)", false, revocationTime, "Embedded OCSP"));
-                                                return;
+                                                return true;
                                             } else {
                                                 result.setRevocationStatus("Revoked (no timestamp)");
                                                 result.setCertificateRevoked(true);
@@ -1442,7 +1599,7 @@ public class SignatureVerificationService {
                                                 // Cache the result
                                                 revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                         "Revoked (no timestamp)", true, revocationTime, "Embedded OCSP"));
-                                                return;
+                                                return true;
                                             }
                                         }
                                     } else {
@@ -1453,7 +1610,7 @@ public class SignatureVerificationService {
                                         // Cache the result
                                         revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                 "Revoked (Embedded OCSP)", true, null, "Embedded OCSP"));
-                                        return;
+                                        return true;
                                     }
                                 }
                             }
@@ -1464,7 +1621,7 @@ public class SignatureVerificationService {
                         result.setRevocationStatus("Valid (Embedded OCSP)");
                         result.setCertificateRevoked(false);
                         result.addVerificationInfo("Revocation checked via embedded OCSP (time not verified)");
-                        return;
+                        return true;
                     }
                 }
             } catch (Exception e) {
@@ -1506,7 +1663,7 @@ public class SignatureVerificationService {
                                         // Cache the result
                                         revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                 "Revoked before signing (Embedded CRL)", true, revocationTime, "Embedded CRL"));
-                                        return;
+                                        return true;
                                     } else {
                                         // Certificate was revoked AFTER signing
                                         if (result.isTimestampValid()) {
@@ -1519,7 +1676,7 @@ public class SignatureVerificationService {
                                             // Cache the result
                                             revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                     "Valid (Revoked after signing, has timestamp)", false, revocationTime, "Embedded CRL"));
-                                            return;
+                                            return true;
                                         } else {
                                             // No timestamp - cannot prove signing time
                                             result.setRevocationStatus("Revoked (no timestamp)");
@@ -1530,7 +1687,7 @@ public class SignatureVerificationService {
                                             // Cache the result
                                             revocationCache.put(cacheKey, new RevocationCacheEntry(
                                                     "Revoked (no timestamp)", true, revocationTime, "Embedded CRL"));
-                                            return;
+                                            return true;
                                         }
                                     }
                                 } else {
@@ -1542,7 +1699,7 @@ public class SignatureVerificationService {
                                     // Cache the result
                                     revocationCache.put(cacheKey, new RevocationCacheEntry(
                                             "Revoked (Embedded CRL)", true, null, "Embedded CRL"));
-                                    return;
+                                    return true;
                                 }
                             } else {
                                 // Certificate not found in this CRL - check next CRL
@@ -1560,14 +1717,47 @@ public class SignatureVerificationService {
                     // Cache the result
                     revocationCache.put(cacheKey, new RevocationCacheEntry(
                             "Valid (Embedded CRL)", false, null, "Embedded CRL"));
-                    return;
+                    return true;
                 }
             } catch (Exception e) {
                 log.warn("Error validating embedded CRL: " + e.getMessage(), e);
             }
 
+            // No embedded revocation data - live OCSP is needed (tier 2)
+            return false;
+
+        } catch (Exception e) {
+            log.warn("Revocation check error: " + e.getMessage());
+            result.setRevocationStatus("Validity Unknown");
+            result.addVerificationInfo("Revocation status could not be determined");
+            return true;
+        }
+    }
+
+    /**
+     * Tier 2 revocation check: live OCSP request to the responder named in the certificate (AIA).
+     * Updates the result in place and caches the outcome for the verification session.
+     */
+    private void checkRevocationStatusOnline(X509Certificate cert, PdfPKCS7 pkcs7, SignatureVerificationResult result, Date signDate) {
+        try {
+            String certSerial = cert.getSerialNumber().toString();
+            String certSubject = extractCN(cert.getSubjectDN().toString());
+            String cacheKey = certSerial + ":" + cert.getIssuerDN().toString();
+
+            // Another signature with the same certificate may already have been checked online
+            RevocationCacheEntry cached = revocationCache.get(cacheKey);
+            if (cached != null) {
+                result.setRevocationStatus(cached.status);
+                result.setCertificateRevoked(cached.isRevoked);
+                if (cached.isRevoked) {
+                    result.addVerificationError("Certificate has been revoked (" + cached.source + ")");
+                } else {
+                    result.addVerificationInfo("Revocation checked via " + cached.source + " (cached)");
+                }
+                return;
+            }
+
             // Method 3: Perform live OCSP check
-            // certSerial and certSubject already defined at the start of this method
             log.info("OCSP: Performing live check for cert [" + certSerial + "] " + certSubject);
             String ocspUrl = extractOCSPUrl(cert);
 
@@ -1888,12 +2078,14 @@ public class SignatureVerificationService {
      * 2. Verify timestamp date is reasonable (not in future, not too old)
      * 3. Basic signature integrity (iText's built-in verification)
      *
-     * @param pkcs7           Signature PKCS7 data containing timestamp
+     * @param context         Parsed signature; its PKCS7 data holds the timestamp
      * @param signatureResult Signature verification result (for context)
      * @return Timestamp verification result
      */
-    private TimestampVerificationResult verifyTimestamp(PdfPKCS7 pkcs7, SignatureVerificationResult signatureResult) {
+    private TimestampVerificationResult verifyTimestamp(SignatureVerificationContext context,
+                                                        SignatureVerificationResult signatureResult) {
         try {
+            PdfPKCS7 pkcs7 = context.getPkcs7();
             log.info("=== Timestamp Verification (CCA Requirement) ===");
 
             // STEP 1: Check if timestamp exists
@@ -2009,9 +2201,9 @@ public class SignatureVerificationService {
 
             // STEP 4: Verify signature includes timestamp (basic integrity check)
             // iText's verify() method already validates the timestamp signature internally
-            // We rely on that for cryptographic validation
+            // We rely on that for cryptographic validation (memoized - no second hash pass)
             try {
-                boolean sigValid = pkcs7.verify();
+                boolean sigValid = context.verify();
                 if (!sigValid) {
                     return new TimestampVerificationResult(false, tsaName,
                             "Signature (including timestamp) cryptographic verification failed");
@@ -2161,19 +2353,17 @@ public class SignatureVerificationService {
      * - Approval signatures: Valid even if not the last revision (multiple signatures expected)
      * - Certification signatures: Check if subsequent changes are allowed by certification level
      *
-     * @param acroFields     AcroFields from PDF
-     * @param signatureName  Name of the signature field
-     * @param revision       Signature's revision number
-     * @param totalRevisions Total number of revisions in PDF
-     * @param pkcs7          Signature PKCS7 data
+     * @param context Parsed signature with its field, revision and the document's revision count
      * @return true if document integrity is intact, false if altered
      */
-    private boolean verifyDocumentIntegrity(AcroFields acroFields, String signatureName,
-                                            int revision, int totalRevisions, PdfPKCS7 pkcs7) {
+    private boolean verifyDocumentIntegrity(SignatureVerificationContext context) {
+        String signatureName = context.getName();
+        int revision = context.getRevision();
+        int totalRevisions = context.getTotalRevisions();
         try {
             // STEP 1: Always verify cryptographic signature first
             // This checks if the signed content matches the signature
-            boolean sigValid = pkcs7.verify();
+            boolean sigValid = context.verify();
             if (!sigValid) {
                 log.warn("Signature " + signatureName + " cryptographic validation failed - signature is invalid or document has been altered");
                 return false;
@@ -2182,7 +2372,7 @@ public class SignatureVerificationService {
             // STEP 2: Check document coverage based on revision
             if (revision == totalRevisions) {
                 // This is the last signature - must cover the whole document
-                boolean coversWhole = acroFields.signatureCoversWholeDocument(signatureName);
+                boolean coversWhole = context.coversWholeDocument();
                 log.info("Signature " + signatureName + " is the last revision - covers whole document: " + coversWhole);
 
                 if (!coversWhole) {
@@ -2195,11 +2385,11 @@ public class SignatureVerificationService {
             }
 
             // STEP 3: For non-last signatures, check signature type
-            boolean isCertified = isCertificationSignature(acroFields, signatureName);
+            boolean isCertified = isCertificationSignature(context.getSignatureDictionary());
 
             if (isCertified) {
                 // For certification signatures, check if subsequent changes violate certification level
-                int certLevel = getCertificationLevel(acroFields, signatureName);
+                int certLevel = getCertificationLevel(context.getSignatureDictionary());
                 log.info("Signature " + signatureName + " is a certification signature (level " + certLevel + ")");
 
                 // Signature is cryptographically valid (checked in STEP 1)
@@ -2214,7 +2404,7 @@ public class SignatureVerificationService {
                 // For approval signatures (NOT_CERTIFIED), multiple signatures are EXPECTED
                 // The signature is cryptographically valid (checked in STEP 1)
                 // Check if this signature covered the document at the time it was signed
-                boolean coveredAtSigningTime = acroFields.signatureCoversWholeDocument(signatureName);
+                boolean coveredAtSigningTime = context.coversWholeDocument();
                 log.info("Signature " + signatureName + " is an approval signature (revision " + revision + "/" + totalRevisions +
                         ") - cryptographically valid: true, covered document at signing time: " + coveredAtSigningTime);
 
@@ -2232,13 +2422,11 @@ public class SignatureVerificationService {
     /**
      * Checks if a signature is a certification signature (has DocMDP transform).
      *
-     * @param acroFields    AcroFields from PDF
-     * @param signatureName Name of the signature field
+     * @param sigDict Signature dictionary (/V of the signature field)
      * @return true if this is a certification signature, false otherwise
      */
-    private boolean isCertificationSignature(AcroFields acroFields, String signatureName) {
+    private boolean isCertificationSignature(com.itextpdf.text.pdf.PdfDictionary sigDict) {
         try {
-            com.itextpdf.text.pdf.PdfDictionary sigDict = acroFields.getSignatureDictionary(signatureName);
             if (sigDict == null) {
                 return false;
             }
@@ -2261,13 +2449,11 @@ public class SignatureVerificationService {
     /**
      * Gets the certification level (P value) from a certification signature.
      *
-     * @param acroFields    AcroFields from PDF
-     * @param signatureName Name of the signature field
+     * @param sigDict Signature dictionary (/V of the signature field)
      * @return Certification level: 1 (no changes), 2 (form filling), 3 (form filling + annotations)
      */
-    private int getCertificationLevel(AcroFields acroFields, String signatureName) {
+    private int getCertificationLevel(com.itextpdf.text.pdf.PdfDictionary sigDict) {
         try {
-            com.itextpdf.text.pdf.PdfDictionary sigDict = acroFields.getSignatureDictionary(signatureName);
             if (sigDict == null) {
                 return 0;
             }
@@ -2348,6 +2534,38 @@ public class SignatureVerificationService {
         void onProgress(String message);
     }
 
+    /**
+     * Receives signature results whose revocation status was upgraded by a live check.
+     */
+    public interface RevocationUpdateListener {
+        void onRevocationUpdated(SignatureVerificationResult result);
+    }
+
+    /**
+     * Receives the "can more signatures be added?" decision as soon as it is known.
+     */
+    public interface SigningDecisionListener {
+        void onSigningDecision(com.trexolab.model.CertificationLevel lastCertificationLevel);
+    }
+
+    /**
+     * A live (OCSP/CRL download) revocation check deferred from the offline verification pass.
+     * Holds what the check needs and the result it updates when it completes.
+     */
+    private static class PendingRevocationCheck {
+        final X509Certificate cert;
+        final PdfPKCS7 pkcs7;
+        final SignatureVerificationResult result;
+        final Date signDate;
+
+        PendingRevocationCheck(X509Certificate cert, PdfPKCS7 pkcs7, SignatureVerificationResult result, Date signDate) {
+            this.cert = cert;
+            this.pkcs7 = pkcs7;
+            this.result = result;
+            this.signDate = signDate;
+        }
+    }
+
     /**
      * Cache entry for revocation status.
      * Used to avoid redundant OCSP/CRL checks for same certificate.
@@ -2372,6 +2590,11 @@ public class SignatureVerificationService {
      * Verification result for a single signature.
      */
     public static class SignatureVerificationResult {
+        /**
+         * Revocation status while a live OCSP check is still running in the background.
+         */
+        public static final String REVOCATION_PENDING = "Online Check Pending";
+
         private final String fieldName;
         private final String signerName;
         private final Date signDate;
@@ -2386,8 +2609,9 @@ public class SignatureVerificationService {
         private boolean certificateTrusted = false;
         private boolean timestampValid = false;
         private boolean hasLTV = false;
-        private boolean certificateRevoked = false;
-        private String revocationStatus = "Not Checked"; // Not Checked, Valid, Revoked, Unknown
+        private volatile boolean certificateRevoked = false;
+        // Not Checked, Online Check Pending, Valid, Revoked, Unknown - upgraded in place by the online pass
+        private volatile String revocationStatus = "Not Checked";
 
         // Detailed information
         private String certificateSubject;
@@ -2395,9 +2619,10 @@ public class SignatureVerificationService {
         private Date certificateValidFrom;
         private Date certificateValidTo;
         private String signatureAlgorithm;
-        private final List<String> verificationErrors = new ArrayList<>();
-        private final List<String> verificationWarnings = new ArrayList<>();
-        private final List<String> verificationInfo = new ArrayList<>();
+        // Copy-on-write: the online revocation pass appends while the UI may be iterating
+        private final List<String> verificationErrors = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private final List<String> verificationWarnings = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private final List<String> verificationInfo = new java.util.concurrent.CopyOnWriteArrayList<>();
         private X509Certificate signerCertificate;
         private List<X509Certificate> certificateChain;
 
@@ -2520,6 +2745,13 @@ public class SignatureVerificationService {
             this.revocationStatus = revocationStatus;
         }
 
+        /**
+         * True while the live revocation check for this signature has not completed yet.
+         */
+        public boolean isRevocationCheckPending() {
+            return REVOCATION_PENDING.equals(revocationStatus);
+        }
+
         public String getCertificateSubject() {
             return certificateSubject;
         }
@@ -2699,6 +2931,7 @@ public class SignatureVerificationService {
          * UNKNOWN (Yellow ?) - Cannot verify identity or revocation status:
          *   - Certificate not trusted (cannot build chain to trusted root)
          *   - Revocation status unknown (OCSP/CRL unavailable or check failed)
+         *   - Online revocation check still pending
          *   - More secure than Adobe Reader's approach for CCA compliance
          *
          * VALID (Green checkmark) - All verification checks passed:
@@ -2745,7 +2978,13 @@ public class SignatureVerificationService {
                 return VerificationStatus.UNKNOWN;
             }
 
-            // 6. Revocation status verification
+            // 6. Online revocation check still running - the certificate may yet turn out revoked,
+            // so the signature is not reported valid until the check completes
+            if (isRevocationCheckPending()) {
+                return VerificationStatus.UNKNOWN;
+            }
+
+            // 7. Revocation status verification
             // Following Adobe Reader behavior: if revocation status cannot be determined
             // (no OCSP/CRL available), but all other checks passed, treat as VALID
             // Note: If certificate was actually revoked, it would fail at check #4 above
@@ -2764,6 +3003,9 @@ public class SignatureVerificationService {
                 case VALID:
                     return "Signed and all signatures are valid";
                 case UNKNOWN:
+                    if (isRevocationCheckPending()) {
+                        return "Signed; revocation check in progress";
+                    }
                     return "Signed but identity could not be verified";
                 case INVALID:
                     // Provide specific reason for invalidity in priority order
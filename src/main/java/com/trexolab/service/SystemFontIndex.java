@@ -0,0 +1,171 @@
+package com.trexolab.service;
+
+import com.trexolab.utils.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.fontbox.FontBoxFont;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.CIDFontMapping;
+import org.apache.pdfbox.pdmodel.font.FontMapper;
+import org.apache.pdfbox.pdmodel.font.FontMapping;
+import org.apache.pdfbox.pdmodel.font.FontMappers;
+import org.apache.pdfbox.pdmodel.font.PDCIDSystemInfo;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.util.Version;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the installed fonts that PDFBox substitutes for non-embedded fonts, built in the background.
+ * <p>
+ * PDFBox builds this index on first use: it walks the system font directories and parses every
+ * font file it has not seen before, which on a fresh profile takes seconds and used to happen
+ * inside the first render that needed a non-embedded font. {@link #start()} runs it on a
+ * background thread at startup instead. PDFBox's on-disk index is kept under
+ * user.home/.emark/cache/fonts/pdfbox-&lt;version&gt;/, so a PDFBox upgrade starts a new one; each scan
+ * re-validates it against the font directories (added, removed and modified font files).
+ * <p>
+ * Until the scan finishes, font lookups are answered with PDFBox's bundled Liberation Sans rather
+ * than waiting for it. Pages drawn while {@link #getStandInCount()} is non-zero may show that
+ * stand-in and must not be cached; viewers re-render them once the index is {@link #isReady ready}.
+ */
+public final class SystemFontIndex {
+
+    private static final Log log = LogFactory.getLog(SystemFontIndex.class);
+
+    private static final String FONTS_DIR = ThumbnailCache.CACHE_DIR + File.separator + "fonts"
+            + File.separator + "pdfbox-" + String.valueOf(Version.getVersion()).replaceAll("[^0-9A-Za-z.]", "_");
+    private static final String STAND_IN_FONT = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    private static boolean started;
+    private static volatile boolean scanning;
+    private static final AtomicLong standIns = new AtomicLong();
+    private static final List<Runnable> readyListeners = new CopyOnWriteArrayList<>();
+
+    private SystemFontIndex() {
+    }
+
+    /**
+     * Installs the deferred font mapper and starts the scan. Call once at startup, before any
+     * document is opened; later calls do nothing.
+     */
+    public static synchronized void start() {
+        if (started) return;
+        started = true;
+
+        File dir = new File(FONTS_DIR);
+        if (System.getProperty("pdfbox.fontcache") == null && FileUtils.ensureDirectory(dir)) {
+            System.setProperty("pdfbox.fontcache", dir.getAbsolutePath());
+        }
+
+        FontMapper system = FontMappers.instance();
+        scanning = true;
+        FontMappers.set(new DeferredFontMapper(system));
+
+        Thread scanner = new Thread(() -> scan(system), "PDF-Font-Index");
+        scanner.setDaemon(true);
+        scanner.setPriority(Thread.MIN_PRIORITY);
+        scanner.start();
+    }
+
+    /**
+     * True once the system fonts are indexed (or if the scan was never started), so font lookups
+     * give their real result.
+     */
+    public static boolean isReady() {
+        return !scanning;
+    }
+
+    /**
+     * Number of font lookups answered with the stand-in font so far.
+     */
+    public static long getStandInCount() {
+        return standIns.get();
+    }
+
+    /**
+     * Runs the listener on the EDT once the index is ready. Not called if it already is.
+     */
+    public static void addReadyListener(Runnable listener) {
+        readyListeners.add(listener);
+    }
+
+    private static void scan(FontMapper system) {
+        long start = System.currentTimeMillis();
+        try {
+            // The first lookup makes PDFBox build (or re-validate) its index
+            system.getFontBoxFont("Helvetica", null);
+        } catch (RuntimeException e) {
+            log.warn("System font scan failed: " + e.getMessage(), e);
+        }
+        scanning = false;
+        log.info("System font index ready in " + (System.currentTimeMillis() - start) + " ms ("
+                + standIns.get() + " lookup(s) answered with the stand-in font meanwhile)");
+        SwingUtilities.invokeLater(() -> {
+            for (Runnable listener : readyListeners) {
+                listener.run();
+            }
+        });
+    }
+
+    /**
+     * Delegates to PDFBox's mapper once the index is ready; until then answers every lookup
+     * with the stand-in font (as a fallback mapping, like PDFBox's own last resort).
+     */
+    private static final class DeferredFontMapper implements FontMapper {
+        private final FontMapper system;
+        private TrueTypeFont standIn;
+        private boolean standInFailed;
+
+        DeferredFontMapper(FontMapper system) {
+            this.system = system;
+        }
+
+        @Override
+        public FontMapping<TrueTypeFont> getTrueTypeFont(String baseFont, PDFontDescriptor fontDescriptor) {
+            TrueTypeFont font = scanning ? standIn(baseFont) : null;
+            return font != null ? new FontMapping<>(font, true) : system.getTrueTypeFont(baseFont, fontDescriptor);
+        }
+
+        @Override
+        public FontMapping<FontBoxFont> getFontBoxFont(String baseFont, PDFontDescriptor fontDescriptor) {
+            TrueTypeFont font = scanning ? standIn(baseFont) : null;
+            return font != null ? new FontMapping<>(font, true) : system.getFontBoxFont(baseFont, fontDescriptor);
+        }
+
+        @Override
+        public CIDFontMapping getCIDFont(String baseFont, PDFontDescriptor fontDescriptor,
+                                         PDCIDSystemInfo cidSystemInfo) {
+            TrueTypeFont font = scanning ? standIn(baseFont) : null;
+            return font != null ? new CIDFontMapping(null, font, true)
+                    : system.getCIDFont(baseFont, fontDescriptor, cidSystemInfo);
+        }
+
+        /**
+         * The bundled font, parsed once; null if it cannot be read (lookups then wait for the scan).
+         */
+        private synchronized TrueTypeFont standIn(String baseFont) {
+            if (standIn == null && !standInFailed) {
+                try (InputStream in = SystemFontIndex.class.getResourceAsStream(STAND_IN_FONT)) {
+                    if (in == null) throw new IOException("Missing " + STAND_IN_FONT);
+                    standIn = new TTFParser().parse(in);
+                } catch (IOException e) {
+                    log.warn("Cannot load stand-in font, font lookups wait for the system font scan", e);
+                    standInFailed = true;
+                }
+            }
+            if (standIn != null) {
+                standIns.incrementAndGet();
+                log.debug("System fonts not indexed yet, drawing " + baseFont + " with the stand-in font");
+            }
+            return standIn;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.trexolab.service;
+
+import com.trexolab.utils.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-disk cache of page thumbnails (user.home/.emark/cache/thumbnails/).
+ * <p>
+ * Each document gets a directory named after the SHA-256 of its content, holding one PNG per page.
+ * Keying by content rather than path means a renamed or copied file still hits, while a modified
+ * (e.g. newly signed) file never shows stale thumbnails. Only the most recently used documents
+ * are kept.
+ */
+public class ThumbnailCache {
+
+    private static final Log log = LogFactory.getLog(ThumbnailCache.class);
+
+    // Shared cache root for rendered data
+    public static final String CACHE_DIR = System.getProperty("user.home") +
+            File.separator + ".emark" + File.separator + "cache";
+
+    private static final String THUMBNAILS_DIR = CACHE_DIR + File.separator + "thumbnails";
+
+    private static final int MAX_DOCUMENTS = 100;
+
+    private static ThumbnailCache instance;
+
+    // Hashes of recently opened files, keyed by path, size and modification time
+    private static final Map<String, String> hashMemo = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > 32;
+                }
+            });
+
+    private final File rootDir;
+
+    private ThumbnailCache(File rootDir) {
+        this.rootDir = rootDir;
+    }
+
+    /**
+     * Gets the singleton instance.
+     */
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache(new File(THUMBNAILS_DIR));
+        }
+        return instance;
+    }
+
+    /**
+     * Hex SHA-256 of the file content. Remembered per path, size and modification time,
+     * so the thumbnail worker and the page renderers hash a file only once.
+     *
+     * @throws InterruptedIOException if the calling thread is interrupted (its work was cancelled)
+     */
+    public static String contentHash(File file) throws IOException {
+        String memoKey = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        String cached = hashMemo.get(memoKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Hashing " + file.getName() + " cancelled");
+                }
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        hashMemo.put(memoKey, hex.toString());
+        return hex.toString();
+    }
+
+    /**
+     * Loads a cached thumbnail, or returns null if there is none (or it cannot be read).
+     */
+    public BufferedImage load(String contentHash, int pageIndex) {
+        File file = thumbnailFile(contentHash, pageIndex);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return ImageIO.read(file);
+        } catch (IOException e) {
+            log.debug("Unreadable cached thumbnail " + file + ", ignoring", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a thumbnail. Written to a temp file first, so readers never see a partial PNG.
+     */
+    public void store(String contentHash, int pageIndex, BufferedImage image) {
+        File dir = documentDir(contentHash);
+        if (!FileUtils.ensureDirectory(dir)) {
+            log.warn("Cannot create thumbnail cache directory: " + dir);
+            return;
+        }
+        File target = thumbnailFile(contentHash, pageIndex);
+        File temp = new File(dir, target.getName() + ".tmp");
+        try {
+            ImageIO.write(image, "png", temp);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Failed to write thumbnail " + target, e);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Marks a document as recently used and drops the least recently used ones beyond the limit.
+     */
+    public void touch(String contentHash) {
+        File dir = documentDir(contentHash);
+        if (dir.isDirectory()) {
+            dir.setLastModified(System.currentTimeMillis());
+        }
+
+        File[] documents = rootDir.listFiles(File::isDirectory);
+        if (documents == null || documents.length <= MAX_DOCUMENTS) {
+            return;
+        }
+        Arrays.sort(documents, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < documents.length - MAX_DOCUMENTS; i++) {
+            deleteDirectory(documents[i]);
+        }
+        log.info("Pruned " + (documents.length - MAX_DOCUMENTS) + " document(s) from thumbnail cache");
+    }
+
+    private File documentDir(String contentHash) {
+        return new File(rootDir, contentHash);
+    }
+
+    private File thumbnailFile(String contentHash, int pageIndex) {
+        return new File(documentDir(contentHash), pageIndex + ".png");
+    }
+
+    private static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,73 @@
+package com.trexolab.gui.pdfHandler;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PageRenderPoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Pages and tiles come out of the workers in the screen's pixel layout, so the viewer shows
+     * them without a conversion copy.
+     */
+    @Test
+    public void rendersIntoDisplayImages() throws Exception {
+        File file = folder.newFile("page.pdf");
+        PDPage a4 = new PDPage(PDRectangle.A4);
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(a4);
+            document.save(file);
+        }
+        // Same size as the page's placeholder in the viewer
+        Dimension pageSize = PageRasterIcon.pixelSize(a4, 72);
+
+        Map<PageRenderPool.Request, BufferedImage> rendered = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2);
+        // Treated as encrypted so nothing is written to the disk cache
+        PageRenderPool pool = new PageRenderPool(file, null, true,
+                new SharedResourceCache(SharedResourceCache.defaultBudget()),
+                (request, image, cacheable) -> {
+                    rendered.put(request, image);
+                    done.countDown();
+                });
+        try {
+            PageRenderPool.Request page = PageRenderPool.Request.page(0, 72);
+            PageRenderPool.Request tile = PageRenderPool.Request.tile(0, 144, new Rectangle(256, 256, 256, 256));
+            Map<PageRenderPool.Request, PageRenderPool.Lane> jobs = new LinkedHashMap<>();
+            jobs.put(page, PageRenderPool.Lane.VISIBLE);
+            jobs.put(tile, PageRenderPool.Lane.VISIBLE);
+            pool.schedule(jobs);
+            assertTrue("pages rendered in time", done.await(30, TimeUnit.SECONDS));
+
+            BufferedImage pageImage = rendered.get(page);
+            assertEquals(PageRenderPool.DISPLAY_IMAGE_TYPE, pageImage.getType());
+            assertEquals(pageSize.width, pageImage.getWidth());
+            assertEquals(pageSize.height, pageImage.getHeight());
+
+            BufferedImage tileImage = rendered.get(tile);
+            assertEquals(PageRenderPool.DISPLAY_IMAGE_TYPE, tileImage.getType());
+            assertEquals(256, tileImage.getWidth());
+            assertEquals(256, tileImage.getHeight());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.trexolab.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfStamper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentSessionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void incrementalUpdateExtendsTheDocument() throws Exception {
+        File original = createPdf();
+        File updated = appendUpdate(original);
+
+        try (DocumentSession session = DocumentSession.open(original, null)) {
+            assertTrue(session.isExtendedBy(updated));
+            assertFalse("same file", session.isExtendedBy(original));
+        }
+        try (DocumentSession session = DocumentSession.open(updated, null)) {
+            assertFalse("earlier revision", session.isExtendedBy(original));
+        }
+    }
+
+    @Test
+    public void rewrittenDocumentDoesNotExtendIt() throws Exception {
+        File original = createPdf();
+        File updated = appendUpdate(original);
+        // Same length, but the previous revision's %%EOF is gone
+        try (RandomAccessFile file = new RandomAccessFile(updated, "rw")) {
+            file.seek(original.length() - 3);
+            file.write('X');
+        }
+
+        try (DocumentSession session = DocumentSession.open(original, null)) {
+            assertFalse(session.isExtendedBy(updated));
+        }
+    }
+
+    private File createPdf() throws Exception {
+        File file = folder.newFile("original.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.save(file);
+        }
+        return file;
+    }
+
+    private File appendUpdate(File source) throws Exception {
+        File updated = folder.newFile("updated.pdf");
+        PdfReader reader = new PdfReader(source.getAbsolutePath());
+        try (OutputStream out = new FileOutputStream(updated)) {
+            // Append mode: the original bytes followed by the update
+            PdfStamper stamper = new PdfStamper(reader, out, '\0', true);
+            stamper.setMoreInfo(Collections.singletonMap("Title", "Updated"));
+            stamper.close();
+        } finally {
+            reader.close();
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,195 @@
+package com.trexolab.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Probes hand-built files, one per cross-reference layout. Each holds a certified (DocMDP P=1)
+ * signature field, a blank signature field and a text field.
+ */
+public class PdfSignatureProbeTest {
+
+    // Objects 1-3 are always written directly; 4-8 directly or in object stream 9
+    private static final String[] OBJECTS = {
+            null,
+            "<< /Type /Catalog /Pages 2 0 R /AcroForm 4 0 R /Perms << /DocMDP 6 0 R >> >>",
+            "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] >>",
+            "<< /Fields [5 0 R 7 0 R 8 0 R] /SigFlags 3 >>",
+            "<< /FT /Sig /T (Signature1) /V 6 0 R /Rect [0 0 0 0] >>",
+            "<< /Type /Sig /ByteRange [0 10 20 10] /Contents <00> /Reference [<< /Type /SigRef"
+                    + " /TransformMethod /DocMDP /TransformParams << /Type /TransformParams /P 1 /V /1.2 >> >>] >>",
+            "<< /FT /Sig /T (Blank) /Rect [0 0 0 0] >>",
+            "<< /FT /Tx /T (Name) /V (Jane) >>",
+    };
+    private static final int FIRST_COMPRESSED = 4;
+    private static final int OBJECT_STREAM = 9;
+    private static final int XREF_STREAM = 10;
+    private static final int SIZE = 11;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void classicXrefTable() throws Exception {
+        Fixture pdf = new Fixture();
+        for (int num = 1; num < OBJECTS.length; num++) {
+            pdf.object(num, OBJECTS[num]);
+        }
+        long xref = pdf.classicTable(SIZE, "");
+
+        assertCertifiedWithOneSignature(probe(pdf.finish(xref)));
+    }
+
+    @Test
+    public void xrefStream() throws Exception {
+        Fixture pdf = new Fixture();
+        for (int num = 1; num < FIRST_COMPRESSED; num++) {
+            pdf.object(num, OBJECTS[num]);
+        }
+        pdf.objectStream();
+        long xref = pdf.xrefStream(0, SIZE, " /Root 1 0 R");
+
+        assertCertifiedWithOneSignature(probe(pdf.finish(xref)));
+    }
+
+    @Test
+    public void hybridXref() throws Exception {
+        Fixture pdf = new Fixture();
+        for (int num = 1; num < FIRST_COMPRESSED; num++) {
+            pdf.object(num, OBJECTS[num]);
+        }
+        pdf.objectStream();
+        // Only the compressed objects, which the table marks free
+        long xrefStream = pdf.xrefStream(FIRST_COMPRESSED, OBJECTS.length - FIRST_COMPRESSED, "");
+        long xref = pdf.classicTable(SIZE, " /XRefStm " + xrefStream);
+
+        assertCertifiedWithOneSignature(probe(pdf.finish(xref)));
+    }
+
+    @Test
+    public void unsignedDocument() throws Exception {
+        Fixture pdf = new Fixture();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, OBJECTS[2]);
+        pdf.object(3, OBJECTS[3]);
+        long xref = pdf.classicTable(4, "");
+
+        PdfSignatureProbe.ProbeResult result = probe(pdf.finish(xref));
+        assertTrue(result.isKnown());
+        assertFalse(result.isSigned());
+        assertFalse(result.isCertified());
+    }
+
+    private PdfSignatureProbe.ProbeResult probe(byte[] content) throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content);
+        return PdfSignatureProbe.probe(file);
+    }
+
+    private static void assertCertifiedWithOneSignature(PdfSignatureProbe.ProbeResult result) {
+        assertTrue(result.toString(), result.isKnown());
+        assertFalse(result.isEncrypted());
+        assertEquals(1, result.getSignatureCount());
+        assertEquals(1, result.getCertificationLevel());
+    }
+
+    /**
+     * Writes a PDF body and cross-reference sections, recording where each object starts.
+     */
+    private static final class Fixture {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Object number -> {type, field 2, field 3} as in an xref stream
+        private final Map<Integer, long[]> entries = new LinkedHashMap<>();
+
+        Fixture() {
+            write("%PDF-1.5\n%âãÏÓ\n");
+        }
+
+        void object(int num, String body) {
+            entries.put(num, new long[]{1, out.size(), 0});
+            write(num + " 0 obj\n" + body + "\nendobj\n");
+        }
+
+        /**
+         * Puts objects 4-8 into object stream 9 (uncompressed).
+         */
+        void objectStream() {
+            StringBuilder header = new StringBuilder();
+            StringBuilder body = new StringBuilder();
+            for (int num = FIRST_COMPRESSED; num < OBJECTS.length; num++) {
+                header.append(num).append(' ').append(body.length()).append(' ');
+                body.append(OBJECTS[num]).append('\n');
+                entries.put(num, new long[]{2, OBJECT_STREAM, num - FIRST_COMPRESSED});
+            }
+            String data = header + body.toString();
+            long offset = out.size();
+            write(OBJECT_STREAM + " 0 obj\n<< /Type /ObjStm /N " + (OBJECTS.length - FIRST_COMPRESSED)
+                    + " /First " + header.length() + " /Length " + data.length() + " >>\nstream\n"
+                    + data + "\nendstream\nendobj\n");
+            entries.put(OBJECT_STREAM, new long[]{1, offset, 0});
+        }
+
+        /**
+         * Writes a classic table for objects 0 to size - 1; objects not written directly are free.
+         */
+        long classicTable(int size, String trailerExtra) {
+            long offset = out.size();
+            StringBuilder table = new StringBuilder("xref\n0 " + size + "\n");
+            for (int num = 0; num < size; num++) {
+                long[] entry = entries.get(num);
+                if (entry != null && entry[0] == 1) {
+                    table.append(String.format("%010d 00000 n\r\n", entry[1]));
+                } else {
+                    table.append("0000000000 65535 f\r\n");
+                }
+            }
+            write(table + "trailer\n<< /Size " + size + " /Root 1 0 R" + trailerExtra + " >>\n");
+            return offset;
+        }
+
+        /**
+         * Writes xref stream object 10 covering {@code count} objects from {@code first}.
+         */
+        long xrefStream(int first, int count, String dictExtra) {
+            long offset = out.size();
+            entries.put(XREF_STREAM, new long[]{1, offset, 0});
+            ByteArrayOutputStream rows = new ByteArrayOutputStream();
+            for (int num = first; num < first + count; num++) {
+                long[] entry = entries.getOrDefault(num, new long[]{0, 0, 0});
+                rows.write((int) entry[0]);
+                rows.write((int) (entry[1] >> 8));
+                rows.write((int) entry[1]);
+                rows.write((int) (entry[2] >> 8));
+                rows.write((int) entry[2]);
+            }
+            write(XREF_STREAM + " 0 obj\n<< /Type /XRef /Size " + SIZE + " /Index [" + first + " " + count
+                    + "] /W [1 2 2]" + dictExtra + " /Length " + rows.size() + " >>\nstream\n");
+            out.write(rows.toByteArray(), 0, rows.size());
+            write("\nendstream\nendobj\n");
+            return offset;
+        }
+
+        byte[] finish(long startXref) {
+            write("startxref\n" + startXref + "\n%%EOF\n");
+            return out.toByteArray();
+        }
+
+        private void write(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+}
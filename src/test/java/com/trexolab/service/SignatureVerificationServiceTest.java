@@ -0,0 +1,117 @@
+package com.trexolab.service;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfSignatureAppearance;
+import com.itextpdf.text.pdf.PdfStamper;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.security.BouncyCastleDigest;
+import com.itextpdf.text.pdf.security.ExternalSignature;
+import com.itextpdf.text.pdf.security.MakeSignature;
+import com.itextpdf.text.pdf.security.PrivateKeySignature;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SignatureVerificationServiceTest {
+
+    private static KeyPair keyPair;
+    private static Certificate certificate;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void createSigningKey() throws Exception {
+        Security.addProvider(new BouncyCastleProvider());
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        X509V3CertificateGenerator certGenerator = new X509V3CertificateGenerator();
+        X500Principal name = new X500Principal("CN=Test Signer");
+        certGenerator.setSerialNumber(BigInteger.ONE);
+        certGenerator.setIssuerDN(name);
+        certGenerator.setSubjectDN(name);
+        certGenerator.setNotBefore(new Date(System.currentTimeMillis() - 86_400_000L));
+        certGenerator.setNotAfter(new Date(System.currentTimeMillis() + 86_400_000L));
+        certGenerator.setPublicKey(keyPair.getPublic());
+        certGenerator.setSignatureAlgorithm("SHA256WithRSA");
+        certificate = certGenerator.generate(keyPair.getPrivate(), "BC");
+    }
+
+    @Test
+    public void digestsEachSignatureOncePerRun() throws Exception {
+        File plain = createPdf();
+        File signedOnce = sign(plain, "first");
+        File signedTwice = sign(signedOnce, "second");
+
+        try (DocumentSession session = DocumentSession.open(signedTwice, null)) {
+            SignatureVerificationService service = new SignatureVerificationService();
+            SignatureFieldScanner.ScanResult scan = session.getSignatureIndex();
+            assertEquals(2, scan.getSignedFields().size());
+
+            // "Verify all" runs again over the same session and scan
+            for (int run = 0; run < 2; run++) {
+                int passesBefore = scan.getDigestPassCount();
+                List<SignatureVerificationService.SignatureVerificationResult> results =
+                        service.verifySignatures(session);
+
+                assertEquals(2, results.size());
+                for (SignatureVerificationService.SignatureVerificationResult result : results) {
+                    assertTrue(result.getFieldName(), result.isDocumentIntact());
+                }
+                assertEquals("digest passes in run " + run, 2, scan.getDigestPassCount() - passesBefore);
+            }
+        }
+    }
+
+    private File createPdf() throws Exception {
+        File file = folder.newFile("plain.pdf");
+        Document document = new Document();
+        try (OutputStream out = new FileOutputStream(file)) {
+            PdfWriter.getInstance(document, out);
+            document.open();
+            document.add(new Paragraph("Signed twice"));
+            document.close();
+        }
+        return file;
+    }
+
+    private File sign(File source, String fieldName) throws Exception {
+        File signed = folder.newFile(fieldName + ".pdf");
+        PdfReader reader = new PdfReader(source.getAbsolutePath());
+        try (OutputStream out = new FileOutputStream(signed)) {
+            PdfStamper stamper = PdfStamper.createSignature(reader, out, '\0', null, true);
+            PdfSignatureAppearance appearance = stamper.getSignatureAppearance();
+            appearance.setReason("Test");
+            appearance.setVisibleSignature(new Rectangle(100, 100, 200, 150), 1, fieldName);
+            ExternalSignature signature = new PrivateKeySignature(keyPair.getPrivate(), "SHA-256", "BC");
+            MakeSignature.signDetached(appearance, new BouncyCastleDigest(), signature,
+                    new Certificate[]{certificate}, null, null, null, 0, MakeSignature.CryptoStandard.CMS);
+        } finally {
+            reader.close();
+        }
+        return signed;
+    }
+}